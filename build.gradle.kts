@@ -2,6 +2,7 @@ plugins {
 	java
 	id("org.springframework.boot") version "3.5.3"
 	id("io.spring.dependency-management") version "1.1.7"
+	id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "com.example"
@@ -17,6 +18,30 @@ repositories {
 	mavenCentral()
 }
 
+// --- Prueba de carga (src/loadTest) ---
+val loadTest: SourceSet = sourceSets.create("loadTest") {
+	compileClasspath += sourceSets.main.get().output
+	runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations[loadTest.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[loadTest.runtimeOnlyConfigurationName].extendsFrom(configurations.runtimeOnly.get())
+
+// --- Herramientas de línea de comandos (src/tools), fuera del jar de la aplicación ---
+val tools: SourceSet = sourceSets.create("tools") {
+	compileClasspath += sourceSets.main.get().output
+	runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations[tools.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[tools.runtimeOnlyConfigurationName].extendsFrom(configurations.runtimeOnly.get())
+
+// Las pruebas generan sus archivos de ejemplo con las herramientas
+sourceSets.test {
+	compileClasspath += tools.output
+	runtimeClasspath += tools.output
+}
+
 object Versions {
     const val SPRINGDOC = "2.8.9"
     const val LOMBOK = "1.18.38"
@@ -25,6 +50,8 @@ object Versions {
     const val JUNIT_JUPITER = "5.12.2"
     const val JWT = "0.11.5"
     const val MAPSTRUCT = "1.5.5.Final"
+    const val JMH = "1.37"
+    const val HDR_HISTOGRAM = "2.2.2"
 }
 
 
@@ -51,6 +78,7 @@ dependencies {
 
 	// --- Runtime dependencies ---
 	runtimeOnly("com.h2database:h2:${Versions.H2}")
+	runtimeOnly("io.micrometer:micrometer-registry-prometheus")
 	testRuntimeOnly("org.junit.platform:junit-platform-launcher:${Versions.JUNIT_PLATFORM}")
 	testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:${Versions.JUNIT_JUPITER}")
 
@@ -60,8 +88,61 @@ dependencies {
 	testImplementation("org.springframework.security:spring-security-test")
 	testImplementation("org.junit.jupiter:junit-jupiter-api:${Versions.JUNIT_JUPITER}")
 	testImplementation("org.junit.jupiter:junit-jupiter:${Versions.JUNIT_JUPITER}")
+
+	// --- Benchmark dependencies ---
+	jmhImplementation("org.springframework:spring-test")
+
+	// --- Load test dependencies ---
+	"loadTestImplementation"("org.hdrhistogram:HdrHistogram:${Versions.HDR_HISTOGRAM}")
 }
 
 tasks.withType<Test> {
 	useJUnitPlatform()
 }
+
+// --- Benchmarks (JMH) ---
+// Ejecutar con: ./gradlew jmh  (resultados en build/reports/jmh/results.json)
+jmh {
+	jmhVersion = Versions.JMH
+	resultFormat = "JSON"
+	resultsFile = layout.buildDirectory.file("reports/jmh/results.json")
+	fork = 1
+	warmupIterations = 3
+	iterations = 5
+	// Permite filtrar benchmarks: ./gradlew jmh -Pjmh.includes=PasswordValidator
+	providers.gradleProperty("jmh.includes").orNull?.let { includes = listOf(it) }
+}
+
+// --- Prueba de carga de extremo a extremo ---
+// Ejecutar con: ./gradlew loadTest -Ploadtest.rate=200 -Ploadtest.duration=120
+// (reportes .hgrm y summary.txt en build/reports/loadtest)
+tasks.register<JavaExec>("loadTest") {
+	group = "verification"
+	description = "Ejecuta la prueba de carga de lazo abierto contra la aplicación."
+	classpath = loadTest.runtimeClasspath
+	mainClass = "com.example.registration.loadtest.LoadTestRunner"
+	systemProperty("loadtest.output", layout.buildDirectory.dir("reports/loadtest").get().asFile.absolutePath)
+	systemProperties(providers.gradlePropertiesPrefixedBy("loadtest.").get())
+}
+
+// --- Lista de contraseñas filtradas ---
+// Ejecutar con: ./gradlew buildPasswordBlocklist -Pblocklist.input=hibp.txt -Pblocklist.output=blocklist.bin
+// (opcional: -Pblocklist.record-bytes=10 para guardar solo un prefijo de cada hash)
+val blocklistInput = providers.gradleProperty("blocklist.input")
+val blocklistOutput = providers.gradleProperty("blocklist.output").orElse("blocklist.bin")
+val blocklistRecordBytes = providers.gradleProperty("blocklist.record-bytes").orElse("20")
+tasks.register<JavaExec>("buildPasswordBlocklist") {
+	group = "application"
+	description = "Genera el archivo binario de password.blocklist.path a partir de un volcado de HIBP."
+	classpath = tools.runtimeClasspath
+	mainClass = "com.example.registration.security.PasswordBlocklistBuilder"
+	// Los argumentos se resuelven al ejecutar la tarea, para no exigir la entrada en otras tareas
+	argumentProviders.add(CommandLineArgumentProvider {
+		listOf(
+			blocklistInput.orNull ?: throw GradleException(
+				"Falta el volcado de entrada: indique -Pblocklist.input=<archivo de HIBP ordenado por hash>"),
+			blocklistOutput.get(),
+			blocklistRecordBytes.get(),
+		)
+	})
+}
@@ -0,0 +1,80 @@
+package com.example.registration.benchmark;
+
+import com.example.registration.model.Configuration;
+import com.example.registration.model.ConfigurationType;
+import com.example.registration.utils.PasswordConfigurationType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Datos compartidos por los benchmarks.
+ */
+final class BenchmarkFixtures {
+
+    /** Clave secreta de desarrollo, con la longitud mínima exigida por HS256. */
+    static final String JWT_SECRET = "clave_secreta_muy_segura_para_firmar_tokens_jwt_en_desarrollo";
+
+    /** Tiempo de expiración de los tokens de acceso: 15 minutos. */
+    static final long JWT_EXPIRATION = 900_000L;
+
+    private BenchmarkFixtures() {
+        throw new UnsupportedOperationException("Esta clase no debe ser instanciada.");
+    }
+
+    /**
+     * Crea las configuraciones de contraseña que se cargan por defecto en data.sql.
+     *
+     * @return Lista de configuraciones de contraseña
+     */
+    static List<Configuration> defaultPasswordConfigurations() {
+        List<Configuration> configurations = new ArrayList<>();
+        configurations.add(configuration(PasswordConfigurationType.MIN_LENGTH, "8"));
+        configurations.add(configuration(PasswordConfigurationType.MAX_LENGTH, "30"));
+        configurations.add(configuration(PasswordConfigurationType.MIN_UPPERCASE, "1"));
+        configurations.add(configuration(PasswordConfigurationType.MIN_LOWERCASE, "1"));
+        configurations.add(configuration(PasswordConfigurationType.MIN_DIGITS, "1"));
+        configurations.add(configuration(PasswordConfigurationType.MIN_SPECIAL, "1"));
+        configurations.add(configuration(PasswordConfigurationType.ALLOWED_SPECIAL, "-.#$%&"));
+        return configurations;
+    }
+
+    private static Configuration configuration(PasswordConfigurationType type, String value) {
+        LocalDateTime now = LocalDateTime.now();
+        ConfigurationType configurationType = ConfigurationType.builder()
+                .typeKey(type.getTypeKey())
+                .isActive(true)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        return Configuration.builder()
+                .configurationType(configurationType)
+                .configValue(value)
+                .isActive(true)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    /**
+     * Genera una contraseña válida para la política por defecto con la longitud indicada.
+     *
+     * @param length Longitud deseada (mínimo 4)
+     * @return Contraseña con mayúscula, minúscula, dígito y carácter especial
+     */
+    static String validPassword(int length) {
+        return "Aa1#" + "b".repeat(Math.max(0, length - 4));
+    }
+
+    /**
+     * Genera una contraseña inválida (sin carácter especial) con la longitud indicada.
+     * El fallo se detecta recién al evaluar la expresión regular, que es el peor caso.
+     *
+     * @param length Longitud deseada (mínimo 3)
+     * @return Contraseña sin carácter especial
+     */
+    static String invalidPassword(int length) {
+        return "Aa1" + "b".repeat(Math.max(0, length - 3));
+    }
+}
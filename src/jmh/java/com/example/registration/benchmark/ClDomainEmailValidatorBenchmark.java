@@ -0,0 +1,80 @@
+package com.example.registration.benchmark;
+
+import com.example.registration.validation.ClDomainEmailValidator;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import jakarta.validation.constraints.Email;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Compara {@link ClDomainEmailValidator} con la anotación {@code @Email(regexp = ...)} que reemplaza,
+ * evaluada por Hibernate Validator, y con la expresión regular sola. {@code ADVERSARIAL} es un
+ * dominio de 2.000 caracteres que provoca retroceso cuadrático en la expresión regular.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ClDomainEmailValidatorBenchmark {
+
+    private static final String LEGACY_REGEX = "^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.cl$";
+
+    /** Bean con la anotación anterior. */
+    public static class LegacyEmail {
+        @Email(regexp = LEGACY_REGEX)
+        String email;
+    }
+
+    @Param({"VALID", "INVALID", "ADVERSARIAL"})
+    public String input;
+
+    private String email;
+    private Pattern legacyPattern;
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+
+    @Setup
+    public void setup() {
+        email = switch (input) {
+            case "VALID" -> "juan.rodriguez@mail.empresa.cl";
+            case "INVALID" -> "juan.rodriguez@mail.empresa.com";
+            default -> "a@" + "a.".repeat(1_000) + "!";
+        };
+        legacyPattern = Pattern.compile(LEGACY_REGEX);
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public boolean clDomainEmail() {
+        return ClDomainEmailValidator.isClDomainEmail(email);
+    }
+
+    /** Referencia: la anotación anterior, con la expresión interna de Hibernate Validator y la del dominio. */
+    @Benchmark
+    public Object legacyAnnotation() {
+        return validator.validateValue(LegacyEmail.class, "email", email);
+    }
+
+    /** Referencia: solo la expresión regular del dominio {@code .cl}. */
+    @Benchmark
+    public boolean legacyRegex() {
+        return legacyPattern.matcher(email).matches();
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.registration.benchmark;
+
+import com.example.registration.security.jwt.JwtAuthenticationFilter;
+import com.example.registration.security.jwt.JwtFormatValidator;
+import com.example.registration.security.jwt.JwtKeyRing;
+import com.example.registration.security.jwt.JwtService;
+import com.example.registration.security.jwt.TokenFormat;
+import com.example.registration.security.jwt.TokenRevocationList;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Clock;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide el costo por solicitud de {@link JwtAuthenticationFilter}.
+ * <p>
+ * Las rutas públicas omiten el filtro en {@code shouldNotFilter}, por lo que el ahorro por
+ * solicitud pública que trae un token es la diferencia entre {@code protectedRouteWithToken}
+ * (lo que antes costaba también una ruta pública con token) y {@code publicRouteWithToken}.
+ * <p>
+ * El parámetro {@code format} compara el costo de procesar el encabezado con tokens en formato
+ * estándar y compacto ({@link TokenFormat}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String USERNAME = "juan@rodriguez.cl";
+    private static final UUID USER_ID = UUID.fromString("b3b6a7e2-8c2e-4e2a-9c2e-8c2e4e2a9c2e");
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    @Param({"STANDARD", "COMPACT"})
+    private String format;
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setup() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TokenFormat tokenFormat = "COMPACT".equals(format) ? TokenFormat.COMPACT : TokenFormat.STANDARD;
+        JwtService jwtService = new JwtService(JwtKeyRing.hmac(BenchmarkFixtures.JWT_SECRET), tokenFormat,
+                BenchmarkFixtures.JWT_EXPIRATION, Clock.systemUTC(), meterRegistry);
+        filter = new JwtAuthenticationFilter(jwtService, new TokenRevocationList(Clock.systemUTC(), meterRegistry),
+                new JwtFormatValidator(jwtService, 4096, meterRegistry), meterRegistry);
+        authorization = "Bearer " + jwtService.generateToken(USER_ID, USERNAME);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse publicRouteWithToken() throws Exception {
+        return filter("/api/users/register", authorization);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse publicRouteWithoutToken() throws Exception {
+        return filter("/api/auth/login", null);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse staticResource() throws Exception {
+        return filter("/css/app.css", null);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse protectedRouteWithToken() throws Exception {
+        return filter("/api/configurations", authorization);
+    }
+
+    private MockHttpServletResponse filter(String uri, String authorizationHeader) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        if (authorizationHeader != null) {
+            request.addHeader("Authorization", authorizationHeader);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, NO_OP_CHAIN);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response;
+    }
+}
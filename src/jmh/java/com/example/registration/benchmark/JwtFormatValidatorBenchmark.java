@@ -0,0 +1,71 @@
+package com.example.registration.benchmark;
+
+import com.example.registration.security.jwt.JwtFormatValidator;
+import com.example.registration.security.jwt.JwtKeyRing;
+import com.example.registration.security.jwt.JwtService;
+import com.example.registration.security.jwt.TokenFormat;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide el rechazo estructural de tokens frente al costo de procesarlos con jjwt.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtFormatValidatorBenchmark {
+
+    /** Token con la cabecera estándar de jwt.io, distinta de la que emite la aplicación. */
+    private static final String FORGED_TOKEN = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9"
+            + ".eyJzdWIiOiIxMjM0NTY3ODkwIiwibmFtZSI6IkpvaG4gRG9lIiwiaWF0IjoxNTE2MjM5MDIyfQ"
+            + ".SflKxwRJSMeKKF2QT4fwpMeJf36POk6yJV_adQssw5c";
+
+    private static final String GARBAGE_TOKEN = "not-a-jwt at all!";
+
+    private JwtService jwtService;
+    private JwtFormatValidator validator;
+    private String validToken;
+
+    @Setup
+    public void setup() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        jwtService = new JwtService(JwtKeyRing.hmac(BenchmarkFixtures.JWT_SECRET), TokenFormat.STANDARD,
+                BenchmarkFixtures.JWT_EXPIRATION, Clock.systemUTC(), meterRegistry);
+        validator = new JwtFormatValidator(jwtService, 4096, meterRegistry);
+        validToken = jwtService.generateToken("juan@rodriguez.cl");
+    }
+
+    @Benchmark
+    public Object checkValidToken() {
+        return validator.check(validToken);
+    }
+
+    @Benchmark
+    public Object checkForgedToken() {
+        return validator.check(FORGED_TOKEN);
+    }
+
+    @Benchmark
+    public Object checkGarbageToken() {
+        return validator.check(GARBAGE_TOKEN);
+    }
+
+    /** Referencia: costo de descubrir el mismo token falsificado en el parseo completo de jjwt. */
+    @Benchmark
+    public Object parseForgedToken() {
+        try {
+            return jwtService.extractUsername(FORGED_TOKEN);
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.registration.benchmark;
+
+import com.example.registration.security.jwt.JwtKeyRing;
+import com.example.registration.security.jwt.JwtService;
+import com.example.registration.security.jwt.TokenFormat;
+import com.example.registration.utils.CoarseClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la firma y la verificación de tokens con {@link JwtService}, con HS256 (secreto compartido)
+ * y con ES256 (clave asimétrica publicada en el JWKS), en formato estándar y compacto ({@link TokenFormat}).
+ * El parámetro {@code clock} compara el reloj del sistema con el reloj en caché ({@link CoarseClock}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtServiceBenchmark {
+
+    private static final String USERNAME = "juan@rodriguez.cl";
+    private static final UUID USER_ID = UUID.fromString("b3b6a7e2-8c2e-4e2a-9c2e-8c2e4e2a9c2e");
+
+    @Param({"HS256", "ES256"})
+    private String algorithm;
+
+    @Param({"STANDARD", "COMPACT"})
+    private String format;
+
+    @Param({"SYSTEM", "COARSE"})
+    private String clock;
+
+    private Clock tokenClock;
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setup() {
+        JwtKeyRing keyRing = "ES256".equals(algorithm)
+                ? JwtKeyRing.ephemeralEcdsa("benchmark")
+                : JwtKeyRing.hmac(BenchmarkFixtures.JWT_SECRET);
+        TokenFormat tokenFormat = "COMPACT".equals(format) ? TokenFormat.COMPACT : TokenFormat.STANDARD;
+        tokenClock = "COARSE".equals(clock) ? new CoarseClock(Clock.systemUTC(), Duration.ofMillis(1)) : Clock.systemUTC();
+        jwtService = new JwtService(keyRing, tokenFormat, BenchmarkFixtures.JWT_EXPIRATION, tokenClock,
+                new SimpleMeterRegistry());
+        token = jwtService.generateToken(USER_ID, USERNAME);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (tokenClock instanceof CoarseClock coarseClock) {
+            coarseClock.close();
+        }
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(USER_ID, USERNAME);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtService.extractUsername(token);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.registration.benchmark;
+
+import com.example.registration.dto.PhoneRequestDTO;
+import com.example.registration.dto.UserRequestDTO;
+import com.example.registration.dto.UserResponseDTO;
+import com.example.registration.mapper.PhoneMapper;
+import com.example.registration.mapper.PhoneMapperImpl;
+import com.example.registration.mapper.UserMapper;
+import com.example.registration.mapper.UserMapperImpl;
+import com.example.registration.model.Phone;
+import com.example.registration.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide las conversiones generadas por MapStruct en {@link UserMapper} y {@link PhoneMapper}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MapperBenchmark {
+
+    private UserMapper userMapper;
+    private PhoneMapper phoneMapper;
+    private UserRequestDTO userRequestDTO;
+    private User user;
+    private List<PhoneRequestDTO> phoneRequestDTOs;
+
+    @Setup
+    public void setup() {
+        userMapper = new UserMapperImpl();
+        phoneMapper = new PhoneMapperImpl();
+
+        phoneRequestDTOs = List.of(
+                PhoneRequestDTO.builder().number("1234567").citycode("1").contrycode("57").build(),
+                PhoneRequestDTO.builder().number("7654321").citycode("2").contrycode("56").build());
+
+        userRequestDTO = UserRequestDTO.builder()
+                .name("Juan Rodriguez")
+                .email("juan@rodriguez.cl")
+                .password("Prueba.123#")
+                .phones(phoneRequestDTOs)
+                .build();
+
+        LocalDateTime now = LocalDateTime.now();
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .fullName("Juan Rodriguez")
+                .userEmail("juan@rodriguez.cl")
+                .userPassword("$2a$10$abcdefghijklmnopqrstuv")
+                .userToken("token")
+                .isActive(true)
+                .lastLogin(now)
+                .createdAt(now)
+                .updatedAt(now)
+                .phones(new ArrayList<>())
+                .build();
+    }
+
+    @Benchmark
+    public User userRequestDTOToUser() {
+        return userMapper.userRequestDTOToUser(userRequestDTO);
+    }
+
+    @Benchmark
+    public UserResponseDTO userToUserResponseDTO() {
+        return userMapper.userToUserResponseDTO(user);
+    }
+
+    @Benchmark
+    public Phone phoneRequestDTOToPhone() {
+        return phoneMapper.phoneRequestDTOToPhone(phoneRequestDTOs.get(0));
+    }
+
+    @Benchmark
+    public List<Phone> phoneRequestDTOsToPhones() {
+        return phoneMapper.phoneRequestDTOsToPhones(phoneRequestDTOs);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.registration.benchmark;
+
+import com.example.registration.model.Configuration;
+import com.example.registration.utils.PasswordRegexGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide {@link PasswordRegexGenerator#generateRegex(List)}, que se ejecuta en cada recarga de la política.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PasswordRegexGeneratorBenchmark {
+
+    private List<Configuration> configurations;
+
+    @Setup
+    public void setup() {
+        configurations = BenchmarkFixtures.defaultPasswordConfigurations();
+    }
+
+    @Benchmark
+    public String generateRegex() {
+        return PasswordRegexGenerator.generateRegex(configurations);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.registration.benchmark;
+
+import com.example.registration.service.CommonPasswordStage;
+import com.example.registration.utils.PasswordValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.io.ClassPathResource;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide {@link PasswordValidator#isValid(String)} con contraseñas válidas e inválidas de distintas longitudes.
+ * La longitud 64 supera el máximo configurado y mide el rechazo temprano por longitud.
+ * {@code validPasswordWithCommonPasswordStage} agrega la etapa de contraseñas comunes, que se
+ * ejecuta después de la política en el registro.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PasswordValidatorBenchmark {
+
+    @Param({"8", "16", "30", "64"})
+    public int length;
+
+    private PasswordValidator validator;
+    private CommonPasswordStage commonPasswordStage;
+    private String validPassword;
+    private String invalidPassword;
+
+    @Setup
+    public void setup() {
+        validator = new PasswordValidator(BenchmarkFixtures.defaultPasswordConfigurations());
+        validPassword = BenchmarkFixtures.validPassword(length);
+        invalidPassword = BenchmarkFixtures.invalidPassword(length);
+        commonPasswordStage = new CommonPasswordStage(new ClassPathResource("passwords/common-passwords.txt"), 0.01,
+                Runnable::run, new SimpleMeterRegistry());
+        commonPasswordStage.startLoading();
+    }
+
+    @Benchmark
+    public boolean validPassword() {
+        return validator.isValid(validPassword);
+    }
+
+    @Benchmark
+    public boolean validPasswordWithCommonPasswordStage() {
+        return validator.isValid(validPassword) && commonPasswordStage.accepts(validPassword);
+    }
+
+    @Benchmark
+    public boolean invalidPassword() {
+        return validator.isValid(invalidPassword);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.registration.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Parámetros de la prueba de carga, leídos de propiedades del sistema {@code loadtest.*}.
+ * Desde Gradle se pasan como {@code -Ploadtest.rate=200}.
+ *
+ * @param rate          Solicitudes por segundo que se intentan enviar (modelo de lazo abierto)
+ * @param warmup        Duración del calentamiento, cuyas mediciones se descartan
+ * @param duration      Duración de la medición
+ * @param mix           Peso relativo de cada operación
+ * @param seedUsers     Usuarios que se registran antes de la prueba para login y tráfico autenticado
+ * @param clientThreads Hilos del cliente HTTP
+ * @param outputDir     Directorio de los reportes
+ */
+record LoadTestConfig(int rate,
+                      Duration warmup,
+                      Duration duration,
+                      Map<Operation, Integer> mix,
+                      int seedUsers,
+                      int clientThreads,
+                      Path outputDir) {
+
+    private static final String DEFAULT_MIX = "register=10,login=30,authenticated=60";
+
+    /**
+     * Construye la configuración a partir de las propiedades del sistema.
+     *
+     * @return La configuración de la prueba
+     */
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Integer.getInteger("loadtest.rate", 100),
+                Duration.ofSeconds(Long.getLong("loadtest.warmup", 10)),
+                Duration.ofSeconds(Long.getLong("loadtest.duration", 60)),
+                parseMix(System.getProperty("loadtest.mix", DEFAULT_MIX)),
+                Integer.getInteger("loadtest.seed-users", 50),
+                Integer.getInteger("loadtest.client-threads", 16),
+                Path.of(System.getProperty("loadtest.output", "build/reports/loadtest")));
+    }
+
+    /**
+     * Interpreta una mezcla con el formato {@code register=10,login=30,authenticated=60}.
+     *
+     * @param value La mezcla en texto
+     * @return El peso de cada operación
+     */
+    static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Entrada de mezcla inválida: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                mix.put(Operation.fromKey(parts[0].trim()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("La mezcla debe tener al menos una operación con peso positivo");
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.registration.loadtest;
+
+import com.example.registration.RegistrationApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Prueba de carga de extremo a extremo para registro, inicio de sesión y tráfico autenticado.
+ * <p>
+ * Levanta la aplicación en un puerto aleatorio con una base H2 en memoria, registra los usuarios
+ * semilla y ejecuta una fase de calentamiento (descartada) seguida de la fase de medición.
+ * Por cada operación se escriben los histogramas de latencia corregida y sin corregir en
+ * formato {@code .hgrm} y un resumen en {@code summary.txt}.
+ * <p>
+ * Ejecutar con: {@code ./gradlew loadTest -Ploadtest.rate=200 -Ploadtest.duration=120}
+ */
+public final class LoadTestRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestRunner.class);
+
+    /** Contraseña usada por todos los usuarios de la prueba; cumple la política por defecto. */
+    static final String PASSWORD = "Prueba.123#";
+
+    /** Factor para expresar en milisegundos los histogramas registrados en microsegundos. */
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private LoadTestRunner() {
+        throw new UnsupportedOperationException("Esta clase no debe ser instanciada.");
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        logger.info("Iniciando prueba de carga: {}", config);
+
+        ConfigurableApplicationContext context = startApplication();
+        ExecutorService executor = Executors.newFixedThreadPool(config.clientThreads());
+        try {
+            String port = context.getEnvironment().getRequiredProperty("local.server.port");
+            URI baseUri = URI.create("http://localhost:" + port);
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(executor)
+                    .build();
+
+            List<OpenLoopLoadGenerator.SeedUser> seedUsers = seedUsers(client, baseUri, config.seedUsers());
+            OpenLoopLoadGenerator generator = new OpenLoopLoadGenerator(client, baseUri, config, seedUsers);
+
+            logger.info("Calentamiento de {} s (resultados descartados)", config.warmup().toSeconds());
+            generator.run(config.warmup());
+
+            logger.info("Medición de {} s a {} solicitudes/s", config.duration().toSeconds(), config.rate());
+            OpenLoopLoadGenerator.PhaseResult result = generator.run(config.duration());
+
+            writeReports(config, result);
+            logger.info("Reportes escritos en {}", config.outputDir().toAbsolutePath());
+        } finally {
+            executor.shutdownNow();
+            context.close();
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication() {
+        return new SpringApplicationBuilder(RegistrationApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                        "spring.sql.init.mode=always",
+                        "spring.h2.console.enabled=false",
+                        // Todas las solicitudes salen de la misma IP: el límite por IP distorsionaría la medición
+                        "ratelimit.enabled=false",
+                        "logging.level.root=WARN",
+                        "logging.level.com.example.registration.loadtest=INFO")
+                .run();
+    }
+
+    private static List<OpenLoopLoadGenerator.SeedUser> seedUsers(HttpClient client, URI baseUri, int count)
+            throws IOException, InterruptedException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<OpenLoopLoadGenerator.SeedUser> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String email = "seed-" + i + "@loadtest.cl";
+            HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/api/users/register"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            OpenLoopLoadGenerator.registrationBody(email, PASSWORD)))
+                    .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 201) {
+                throw new IllegalStateException("No se pudo registrar el usuario semilla " + email
+                        + ": " + response.statusCode() + " " + response.body());
+            }
+            JsonNode body = objectMapper.readTree(response.body());
+            users.add(new OpenLoopLoadGenerator.SeedUser(email, PASSWORD, body.get("token").asText()));
+        }
+        logger.info("{} usuarios semilla registrados", users.size());
+        return users;
+    }
+
+    private static void writeReports(LoadTestConfig config, OpenLoopLoadGenerator.PhaseResult result)
+            throws IOException {
+        Path outputDir = config.outputDir();
+        Files.createDirectories(outputDir);
+
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format(Locale.ROOT, "Tasa objetivo: %d solicitudes/s, medición: %d s (real %.1f s)%n",
+                config.rate(), config.duration().toSeconds(), result.elapsed().toMillis() / 1000.0));
+        summary.append(String.format(Locale.ROOT, "%-14s %8s %8s %10s %10s %10s %10s %10s%n",
+                "operación", "n", "errores", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "p99 s/c ms"));
+
+        for (Operation operation : Operation.values()) {
+            Histogram corrected = result.corrected().get(operation);
+            Histogram uncorrected = result.uncorrected().get(operation);
+            writeHistogram(outputDir.resolve(operation.key() + "-corrected.hgrm"), corrected);
+            writeHistogram(outputDir.resolve(operation.key() + "-uncorrected.hgrm"), uncorrected);
+            summary.append(String.format(Locale.ROOT, "%-14s %8d %8d %10.2f %10.2f %10.2f %10.2f %10.2f%n",
+                    operation.key(),
+                    corrected.getTotalCount(),
+                    result.errors().get(operation),
+                    toMillis(corrected.getValueAtPercentile(50)),
+                    toMillis(corrected.getValueAtPercentile(99)),
+                    toMillis(corrected.getValueAtPercentile(99.9)),
+                    toMillis(corrected.getMaxValue()),
+                    toMillis(uncorrected.getValueAtPercentile(99))));
+        }
+
+        Files.writeString(outputDir.resolve("summary.txt"), summary, StandardCharsets.UTF_8);
+        System.out.print(summary);
+    }
+
+    private static void writeHistogram(Path file, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, StandardCharsets.UTF_8)) {
+            histogram.outputPercentileDistribution(out, MICROS_PER_MILLI);
+        }
+    }
+
+    private static double toMillis(long micros) {
+        return micros / MICROS_PER_MILLI;
+    }
+}
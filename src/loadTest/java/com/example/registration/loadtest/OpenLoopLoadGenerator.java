@@ -0,0 +1,219 @@
+package com.example.registration.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Generador de carga de lazo abierto (open-loop).
+ * <p>
+ * Las solicitudes se programan a intervalos fijos según la tasa configurada, sin esperar a que
+ * terminen las anteriores. La latencia se mide desde el instante en que la solicitud
+ * <em>debía</em> enviarse, lo que corrige la omisión coordinada: si el generador o el servidor
+ * se atrasan, el atraso aparece en los percentiles en lugar de ocultarse. También se registra la
+ * latencia sin corregir (desde el envío real) para poder comparar ambas distribuciones.
+ */
+class OpenLoopLoadGenerator {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final HttpClient client;
+    private final URI baseUri;
+    private final LoadTestConfig config;
+    private final List<SeedUser> seedUsers;
+    private final Operation[] weightedOperations;
+    private final Map<Operation, Recorder> correctedRecorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, Recorder> uncorrectedRecorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, AtomicLong> errorCounts = new EnumMap<>(Operation.class);
+    private final AtomicLong inFlight = new AtomicLong();
+    private final AtomicLong registrationSequence = new AtomicLong();
+
+    /**
+     * Usuario registrado antes de la prueba.
+     *
+     * @param email    Correo del usuario
+     * @param password Contraseña del usuario
+     * @param token    Token JWT obtenido al registrarlo
+     */
+    record SeedUser(String email, String password, String token) {
+    }
+
+    /**
+     * Resultado de una fase de medición.
+     *
+     * @param corrected   Histogramas de latencia corregida por operación (microsegundos)
+     * @param uncorrected Histogramas de latencia sin corregir por operación (microsegundos)
+     * @param errors      Cantidad de respuestas con error por operación
+     * @param elapsed     Duración real de la fase
+     */
+    record PhaseResult(Map<Operation, Histogram> corrected,
+                       Map<Operation, Histogram> uncorrected,
+                       Map<Operation, Long> errors,
+                       Duration elapsed) {
+    }
+
+    OpenLoopLoadGenerator(HttpClient client, URI baseUri, LoadTestConfig config, List<SeedUser> seedUsers) {
+        this.client = client;
+        this.baseUri = baseUri;
+        this.config = config;
+        this.seedUsers = seedUsers;
+        this.weightedOperations = expandMix(config.mix());
+        for (Operation operation : Operation.values()) {
+            correctedRecorders.put(operation, new Recorder(3));
+            uncorrectedRecorders.put(operation, new Recorder(3));
+            errorCounts.put(operation, new AtomicLong());
+        }
+    }
+
+    private static Operation[] expandMix(Map<Operation, Integer> mix) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        Operation[] operations = new Operation[total];
+        int index = 0;
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                operations[index++] = entry.getKey();
+            }
+        }
+        return operations;
+    }
+
+    /**
+     * Ejecuta una fase de carga a la tasa configurada y devuelve los histogramas de la fase.
+     *
+     * @param phaseDuration Duración de la fase
+     * @return Los resultados de la fase
+     * @throws InterruptedException si se interrumpe la espera de las solicitudes pendientes
+     */
+    PhaseResult run(Duration phaseDuration) throws InterruptedException {
+        resetRecorders();
+        SplittableRandom random = new SplittableRandom(42);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / config.rate();
+        long start = System.nanoTime();
+        long end = start + phaseDuration.toNanos();
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            long now;
+            while ((now = System.nanoTime()) < intended) {
+                LockSupport.parkNanos(intended - now);
+            }
+            Operation operation = weightedOperations[random.nextInt(weightedOperations.length)];
+            dispatch(operation, random, intended, now);
+        }
+
+        awaitInFlight();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        Map<Operation, Histogram> corrected = new EnumMap<>(Operation.class);
+        Map<Operation, Histogram> uncorrected = new EnumMap<>(Operation.class);
+        Map<Operation, Long> errors = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            corrected.put(operation, correctedRecorders.get(operation).getIntervalHistogram());
+            uncorrected.put(operation, uncorrectedRecorders.get(operation).getIntervalHistogram());
+            errors.put(operation, errorCounts.get(operation).get());
+        }
+        return new PhaseResult(corrected, uncorrected, errors, elapsed);
+    }
+
+    private void resetRecorders() {
+        correctedRecorders.values().forEach(Recorder::reset);
+        uncorrectedRecorders.values().forEach(Recorder::reset);
+        errorCounts.values().forEach(count -> count.set(0));
+    }
+
+    private void dispatch(Operation operation, SplittableRandom random, long intendedNanos, long sendNanos) {
+        HttpRequest request = buildRequest(operation, random);
+        inFlight.incrementAndGet();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    long completedNanos = System.nanoTime();
+                    try {
+                        if (error != null || response.statusCode() >= 400) {
+                            errorCounts.get(operation).incrementAndGet();
+                            return;
+                        }
+                        correctedRecorders.get(operation).recordValue(toMicros(completedNanos - intendedNanos));
+                        uncorrectedRecorders.get(operation).recordValue(toMicros(completedNanos - sendNanos));
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), MAX_TRACKABLE_MICROS);
+    }
+
+    private HttpRequest buildRequest(Operation operation, SplittableRandom random) {
+        return switch (operation) {
+            case REGISTER -> jsonPost("/api/users/register",
+                    registrationBody("lt-" + registrationSequence.incrementAndGet() + "@loadtest.cl", LoadTestRunner.PASSWORD));
+            case LOGIN -> {
+                SeedUser user = seedUsers.get(random.nextInt(seedUsers.size()));
+                yield jsonPost("/api/auth/login", loginBody(user.email(), user.password()));
+            }
+            case AUTHENTICATED -> {
+                SeedUser user = seedUsers.get(random.nextInt(seedUsers.size()));
+                yield HttpRequest.newBuilder(baseUri.resolve("/api/configurations"))
+                        .timeout(REQUEST_TIMEOUT)
+                        .header("Authorization", "Bearer " + user.token())
+                        .GET()
+                        .build();
+            }
+        };
+    }
+
+    private HttpRequest jsonPost(String path, String body) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    /**
+     * Construye el cuerpo JSON de una solicitud de registro.
+     *
+     * @param email    Correo del usuario
+     * @param password Contraseña del usuario
+     * @return El cuerpo JSON
+     */
+    static String registrationBody(String email, String password) {
+        return "{\"name\":\"Usuario de carga\",\"email\":\"" + email + "\",\"password\":\"" + password
+                + "\",\"phones\":[{\"number\":\"1234567\",\"citycode\":\"1\",\"contrycode\":\"57\"}]}";
+    }
+
+    /**
+     * Construye el cuerpo JSON de una solicitud de inicio de sesión.
+     *
+     * @param email    Correo del usuario
+     * @param password Contraseña del usuario
+     * @return El cuerpo JSON
+     */
+    static String loginBody(String email, String password) {
+        return "{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}";
+    }
+
+    private void awaitInFlight() throws InterruptedException {
+        long deadline = System.nanoTime() + REQUEST_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.registration.loadtest;
+
+/**
+ * Tipos de solicitud que genera la prueba de carga.
+ */
+enum Operation {
+    /** {@code POST /api/users/register} con un correo único. */
+    REGISTER("register"),
+
+    /** {@code POST /api/auth/login} con un usuario precargado. */
+    LOGIN("login"),
+
+    /** {@code GET /api/configurations} con un token JWT válido. */
+    AUTHENTICATED("authenticated");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Obtiene la clave usada en la configuración de la mezcla y en los nombres de los reportes.
+     *
+     * @return La clave de la operación
+     */
+    String key() {
+        return key;
+    }
+
+    /**
+     * Obtiene la operación a partir de su clave.
+     *
+     * @param key La clave de la operación
+     * @return La operación correspondiente
+     * @throws IllegalArgumentException si la clave no existe
+     */
+    static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Operación desconocida en la mezcla: " + key);
+    }
+}
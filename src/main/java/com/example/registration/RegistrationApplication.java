@@ -2,11 +2,13 @@ package com.example.registration;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 
 @SpringBootApplication
+@EnableScheduling
 public class RegistrationApplication {
 
     private static final Logger logger = LoggerFactory.getLogger(RegistrationApplication.class);
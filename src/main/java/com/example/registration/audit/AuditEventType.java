@@ -0,0 +1,21 @@
+package com.example.registration.audit;
+
+import java.util.Locale;
+
+/**
+ * Tipos de eventos del registro de auditoría durable.
+ */
+public enum AuditEventType {
+    REGISTRATION,
+    LOGIN,
+    CONFIGURATION_CHANGE;
+
+    /**
+     * Valor con el que se persiste el tipo de evento.
+     *
+     * @return El nombre del tipo en minúsculas
+     */
+    public String value() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
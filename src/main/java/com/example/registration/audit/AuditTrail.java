@@ -0,0 +1,271 @@
+package com.example.registration.audit;
+
+import com.example.registration.metrics.LatencyTimers;
+import com.example.registration.model.AuditEvent;
+import com.example.registration.repository.AuditEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registro de auditoría durable y asíncrono.
+ * <p>
+ * Los eventos se encolan en una cola acotada en memoria y un hilo en segundo plano los inserta
+ * en lotes en la tabla {@code audit_event}, en su propia transacción, de modo que el registro no
+ * agrega costo a la transacción de la solicitud. Cuando la cola está llena se aplica la política
+ * configurada ({@link OverflowPolicy}); por defecto {@code BLOCK}, que frena la solicitud hasta
+ * {@code audit.block-timeout}. Un evento que aun así no entra en la cola se pierde: se cuenta en
+ * {@code audit.dropped} y se deja en el log como error.
+ * <p>
+ * Al detener la aplicación se vacía la cola antes de cerrar. El componente se detiene en la fase
+ * {@link #PHASE}, después del apagado ordenado del servidor web, de modo que también se persisten
+ * los eventos de las solicitudes que estaban en curso.
+ * <p>
+ * El usuario y el detalle se recortan al tamaño de sus columnas al encolar el evento. Si aun así
+ * falla el lote completo, sus eventos se reintentan uno por uno, de modo que un evento inválido no
+ * descarta a los demás.
+ * <p>
+ * Métricas: {@code audit.queue.depth} (eventos pendientes), {@code audit.lag} (tiempo entre
+ * que se encola un evento y se persiste), {@code audit.dropped} y {@code audit.write.failures}.
+ */
+@Component
+public class AuditTrail implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditTrail.class);
+
+    private static final Duration STOP_TIMEOUT = Duration.ofSeconds(10);
+
+    /**
+     * Fase del ciclo de vida: menor que la del apagado ordenado del servidor web
+     * ({@code SmartLifecycle.DEFAULT_PHASE - 1024}) y que la de su detención
+     * ({@code DEFAULT_PHASE - 2048}), por lo que el escritor arranca antes y se detiene después.
+     */
+    static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    /** Tamaño de la columna {@code audit_event.principal}. */
+    static final int MAX_PRINCIPAL_LENGTH = 100;
+
+    /** Tamaño de la columna {@code audit_event.detail}. */
+    static final int MAX_DETAIL_LENGTH = 255;
+
+    /**
+     * Evento pendiente junto con el instante en que se encoló.
+     */
+    private record Pending(AuditEvent event, long enqueuedNanos) {
+    }
+
+    private final AuditEventRepository auditEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<Pending> queue;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final OverflowPolicy overflowPolicy;
+    private final Duration blockTimeout;
+    private final Clock clock;
+
+    private final Timer lagTimer;
+    private final Counter droppedCounter;
+    private final Counter writeFailuresCounter;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public AuditTrail(AuditEventRepository auditEventRepository,
+                      PlatformTransactionManager transactionManager,
+                      @Value("${audit.queue-capacity:10000}") int queueCapacity,
+                      @Value("${audit.batch-size:200}") int batchSize,
+                      @Value("${audit.flush-interval:200ms}") Duration flushInterval,
+                      @Value("${audit.overflow-policy:BLOCK}") OverflowPolicy overflowPolicy,
+                      @Value("${audit.block-timeout:50ms}") Duration blockTimeout,
+                      Clock clock,
+                      MeterRegistry meterRegistry) {
+        this.auditEventRepository = auditEventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeout = blockTimeout;
+        this.clock = clock;
+
+        Gauge.builder("audit.queue.depth", queue, BlockingQueue::size)
+                .description("Eventos de auditoría pendientes de persistir")
+                .register(meterRegistry);
+        this.lagTimer = LatencyTimers.timer(meterRegistry, "audit.lag",
+                "Tiempo entre que se encola un evento de auditoría y se persiste");
+        this.droppedCounter = Counter.builder("audit.dropped")
+                .description("Eventos de auditoría descartados por cola llena")
+                .register(meterRegistry);
+        this.writeFailuresCounter = Counter.builder("audit.write.failures")
+                .description("Eventos de auditoría que no se pudieron persistir")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Encola un evento de auditoría de inmediato.
+     * Se usa para los rechazos, cuya transacción termina revirtiéndose.
+     *
+     * @param type      Tipo de evento
+     * @param outcome   Resultado del evento
+     * @param principal Usuario o clave de configuración afectada
+     * @param detail    Detalle del evento (puede ser nulo)
+     */
+    public void record(AuditEventType type, String outcome, String principal, String detail) {
+        enqueue(AuditEvent.builder()
+                .eventType(type.value())
+                .outcome(outcome)
+                .principal(truncate(principal, MAX_PRINCIPAL_LENGTH))
+                .detail(truncate(detail, MAX_DETAIL_LENGTH))
+                .occurredAt(LocalDateTime.now(clock))
+                .build());
+    }
+
+    /**
+     * Encola un evento de auditoría cuando se confirme la transacción en curso, o de inmediato si
+     * no hay una transacción activa. Así no quedan registrados cambios que luego se revierten.
+     *
+     * @param type      Tipo de evento
+     * @param outcome   Resultado del evento
+     * @param principal Usuario o clave de configuración afectada
+     * @param detail    Detalle del evento (puede ser nulo)
+     */
+    public void recordOnCommit(AuditEventType type, String outcome, String principal, String detail) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(type, outcome, principal, detail);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(type, outcome, principal, detail);
+            }
+        });
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+
+    private void enqueue(AuditEvent event) {
+        Pending pending = new Pending(event, System.nanoTime());
+        boolean accepted;
+        if (overflowPolicy == OverflowPolicy.BLOCK) {
+            try {
+                accepted = queue.offer(pending, blockTimeout.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                accepted = false;
+            }
+        } else {
+            accepted = queue.offer(pending);
+        }
+        if (!accepted) {
+            droppedCounter.increment();
+            logger.error("Cola de auditoría llena; se descarta el evento {}", pending.event());
+        }
+    }
+
+    private void runWriter() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(flushInterval.toNanos(), TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        List<AuditEvent> events = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            events.add(pending.event());
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> auditEventRepository.saveAll(events));
+        } catch (RuntimeException e) {
+            logger.warn("No se pudo persistir un lote de {} eventos de auditoría, se reintentan uno por uno: {}",
+                    events.size(), e.getMessage());
+            writeOneByOne(batch);
+            return;
+        }
+        long now = System.nanoTime();
+        for (Pending pending : batch) {
+            lagTimer.record(now - pending.enqueuedNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void writeOneByOne(List<Pending> batch) {
+        for (Pending pending : batch) {
+            AuditEvent event = pending.event();
+            // El intento en lote pudo asignar el identificador; se genera de nuevo al insertar
+            event.setId(null);
+            try {
+                transactionTemplate.executeWithoutResult(status -> auditEventRepository.save(event));
+                lagTimer.record(System.nanoTime() - pending.enqueuedNanos(), TimeUnit.NANOSECONDS);
+            } catch (RuntimeException e) {
+                writeFailuresCounter.increment();
+                logger.error("No se pudo persistir el evento de auditoría {}: {}", event, e.getMessage(), e);
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = new Thread(this::runWriter, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            writer.join(STOP_TIMEOUT.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            logger.warn("Se detuvo el registro de auditoría con {} eventos sin persistir", queue.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.registration.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.UUID;
+
+/**
+ * Canal de auditoría de los eventos de autenticación.
+ * <p>
+ * Escribe en el logger {@code AUDIT}, que en {@code logback-spring.xml} está conectado a un
+ * appender asíncrono con codificación JSON estructurada (ECS) y sin aditividad, de modo que los
+ * eventos no pasan por los appenders de la aplicación. Los datos del evento se agregan como pares
+ * clave/valor y no se formatea ningún mensaje: si el logger está deshabilitado, la API fluida de
+ * SLF4J devuelve un constructor vacío y el costo se reduce a la comprobación del nivel.
+ */
+public final class AuthAuditLog {
+
+    /** Nombre del logger de auditoría. */
+    public static final String LOGGER_NAME = "AUDIT";
+
+    private static final Logger audit = LoggerFactory.getLogger(LOGGER_NAME);
+
+    private static final String EVENT = "event";
+    private static final String OUTCOME = "outcome";
+    private static final String USER = "user";
+    private static final String REASON = "reason";
+
+    private AuthAuditLog() {
+        throw new UnsupportedOperationException("Esta clase no debe ser instanciada.");
+    }
+
+    /**
+     * Registra un usuario creado correctamente.
+     *
+     * @param userId Identificador del usuario
+     * @param email  Correo del usuario
+     */
+    public static void registrationSucceeded(UUID userId, String email) {
+        audit.atInfo()
+                .setMessage("registration")
+                .addKeyValue(EVENT, "registration")
+                .addKeyValue(OUTCOME, "success")
+                .addKeyValue(USER, email)
+                .addKeyValue("user_id", userId)
+                .log();
+    }
+
+    /**
+     * Registra un reintento idempotente de un registro ya ejecutado, que emitió tokens nuevos.
+     *
+     * @param userId Identificador del usuario
+     * @param email  Correo del usuario
+     */
+    public static void registrationReplayed(UUID userId, String email) {
+        audit.atInfo()
+                .setMessage("registration")
+                .addKeyValue(EVENT, "registration")
+                .addKeyValue(OUTCOME, "replayed")
+                .addKeyValue(USER, email)
+                .addKeyValue("user_id", userId)
+                .log();
+    }
+
+    /**
+     * Registra un intento de registro rechazado.
+     *
+     * @param email  Correo informado en la solicitud
+     * @param reason Motivo del rechazo
+     */
+    public static void registrationRejected(String email, String reason) {
+        audit.atInfo()
+                .setMessage("registration")
+                .addKeyValue(EVENT, "registration")
+                .addKeyValue(OUTCOME, "rejected")
+                .addKeyValue(USER, email)
+                .addKeyValue(REASON, reason)
+                .log();
+    }
+
+    /**
+     * Registra un inicio de sesión exitoso.
+     *
+     * @param email Correo del usuario
+     */
+    public static void loginSucceeded(String email) {
+        audit.atInfo()
+                .setMessage("login")
+                .addKeyValue(EVENT, "login")
+                .addKeyValue(OUTCOME, "success")
+                .addKeyValue(USER, email)
+                .log();
+    }
+
+    /**
+     * Registra un inicio de sesión fallido.
+     *
+     * @param email  Correo informado en la solicitud
+     * @param reason Motivo del fallo
+     */
+    public static void loginFailed(String email, String reason) {
+        audit.atInfo()
+                .setMessage("login")
+                .addKeyValue(EVENT, "login")
+                .addKeyValue(OUTCOME, "failure")
+                .addKeyValue(USER, email)
+                .addKeyValue(REASON, reason)
+                .log();
+    }
+
+    /**
+     * Registra un token JWT rechazado por el filtro de autenticación.
+     *
+     * @param reason     Motivo del rechazo
+     * @param requestURI URI de la solicitud
+     */
+    public static void tokenRejected(String reason, String requestURI) {
+        audit.atInfo()
+                .setMessage("token_rejected")
+                .addKeyValue(EVENT, "token_rejected")
+                .addKeyValue(REASON, reason)
+                .addKeyValue("uri", requestURI)
+                .log();
+    }
+
+    /**
+     * Registra una solicitud rechazada por superar el límite de solicitudes.
+     *
+     * @param dimension Tipo de clave limitada ({@code ip} o {@code email})
+     * @param key       Dirección IP o correo
+     */
+    public static void rateLimited(String dimension, String key) {
+        audit.atInfo()
+                .setMessage("rate_limited")
+                .addKeyValue(EVENT, "rate_limited")
+                .addKeyValue(REASON, dimension)
+                .addKeyValue("key", key)
+                .log();
+    }
+
+    /**
+     * Registra la reutilización de un refresh token ya rotado, que provoca la revocación de su familia.
+     *
+     * @param email Correo del dueño del token
+     */
+    public static void refreshTokenReused(String email) {
+        audit.atWarn()
+                .setMessage("refresh_token_reused")
+                .addKeyValue(EVENT, "refresh_token_reused")
+                .addKeyValue(USER, email)
+                .log();
+    }
+
+    /**
+     * Registra un cierre de sesión.
+     *
+     * @param email Correo del usuario, o null si el refresh token no es suyo (solo se revocó el token de acceso)
+     */
+    public static void logout(String email) {
+        audit.atInfo()
+                .setMessage("logout")
+                .addKeyValue(EVENT, "logout")
+                .addKeyValue(USER, email)
+                .log();
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.registration.audit;
+
+/**
+ * Política del registro de auditoría cuando la cola de eventos está llena.
+ */
+public enum OverflowPolicy {
+    /** Descarta el evento de inmediato y lo cuenta en {@code audit.dropped}. */
+    DROP,
+    /** Espera hasta {@code audit.block-timeout} a que haya espacio y, si no lo hay, descarta el evento. */
+    BLOCK
+}
@@ -0,0 +1,76 @@
+package com.example.registration.config;
+
+import com.example.registration.security.jwt.JwtKeyRing;
+import com.example.registration.security.jwt.TokenFormat;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Configuración de las claves de firma y del formato de los tokens JWT.
+ * <p>
+ * Con {@code jwt.algorithm=HS256} (por defecto) se usa el secreto compartido {@code jwt.secret}.
+ * Con {@code jwt.algorithm=ES256} las claves se cargan desde {@code jwt.keys.directory} y se firma
+ * con {@code jwt.keys.active-kid}; si no se configura el directorio se genera un par de claves en
+ * memoria, solo apto para desarrollo. El formato de los tokens se describe en {@link TokenFormat}.
+ */
+@Configuration
+public class JwtKeyConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyConfig.class);
+
+    private static final String EPHEMERAL_KID = "dev";
+
+    /**
+     * Crea el conjunto de claves JWT según el algoritmo configurado.
+     *
+     * @param algorithm Algoritmo de firma (HS256 o ES256)
+     * @param secret    Secreto compartido para HS256
+     * @param directory Directorio de las claves PEM para ES256
+     * @param activeKid Identificador de la clave con que se firma en ES256
+     * @return El conjunto de claves
+     * @throws IOException Si no se pueden leer las claves
+     */
+    @Bean
+    public JwtKeyRing jwtKeyRing(@Value("${jwt.algorithm:HS256}") SignatureAlgorithm algorithm,
+                                 @Value("${jwt.secret:defaultSecretKeyForDevelopmentEnvironmentOnly}") String secret,
+                                 @Value("${jwt.keys.directory:}") String directory,
+                                 @Value("${jwt.keys.active-kid:}") String activeKid) throws IOException {
+        switch (algorithm) {
+            case HS256:
+                return JwtKeyRing.hmac(secret);
+            case ES256:
+                if (directory.isBlank()) {
+                    logger.warn("No se configuró jwt.keys.directory: se generó una clave ES256 en memoria y los "
+                            + "tokens dejarán de ser válidos al reiniciar");
+                    return JwtKeyRing.ephemeralEcdsa(EPHEMERAL_KID);
+                }
+                JwtKeyRing keyRing = JwtKeyRing.ecdsaFromDirectory(Path.of(directory), activeKid);
+                logger.info("Claves JWT ES256 cargadas: activa={}, verificación={}", activeKid, keyRing.kids());
+                return keyRing;
+            default:
+                throw new IllegalStateException("Algoritmo JWT no soportado: " + algorithm);
+        }
+    }
+
+    /**
+     * Crea el formato de los tokens de acceso.
+     *
+     * @param compact  Usa el formato compacto ({@code jwt.compact-claims})
+     * @param deflate  Comprime el contenido con DEFLATE ({@code jwt.deflate})
+     * @param maxBytes Tamaño máximo de un token emitido ({@code jwt.max-token-bytes})
+     * @return El formato de los tokens
+     */
+    @Bean
+    public TokenFormat tokenFormat(@Value("${jwt.compact-claims:false}") boolean compact,
+                                   @Value("${jwt.deflate:false}") boolean deflate,
+                                   @Value("${jwt.max-token-bytes:" + TokenFormat.DEFAULT_MAX_BYTES + "}") int maxBytes) {
+        return new TokenFormat(compact, deflate, maxBytes);
+    }
+}
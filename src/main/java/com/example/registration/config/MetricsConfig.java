@@ -0,0 +1,84 @@
+package com.example.registration.config;
+
+import com.example.registration.metrics.AuthOutcomeMetrics;
+import com.example.registration.metrics.AuthServerRequestObservationConvention;
+import com.example.registration.metrics.LatencyTimers;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Configuración de métricas orientadas a SLO para los endpoints de autenticación.
+ * <p>
+ * Define los límites de los buckets de latencia de {@code /api/auth/login} y
+ * {@code /api/users/register}, agrega el resultado de la autenticación como etiqueta de
+ * {@code http.server.requests} y registra el interceptor que cuenta los resultados exitosos.
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private static final String HTTP_SERVER_REQUESTS = "http.server.requests";
+    private static final Set<String> SLO_URIS = Set.of(AuthOutcomeMetrics.LOGIN_URI, AuthOutcomeMetrics.REGISTER_URI);
+
+    private final AuthOutcomeMetrics authOutcomeMetrics;
+
+    public MetricsConfig(AuthOutcomeMetrics authOutcomeMetrics) {
+        this.authOutcomeMetrics = authOutcomeMetrics;
+    }
+
+    /**
+     * Configura buckets de latencia explícitos (SLO) para los endpoints de autenticación.
+     * El método es estático para que el filtro pueda crearse antes que el registro de métricas.
+     *
+     * @param boundaries Límites de los buckets
+     * @return Filtro de métricas que agrega los buckets
+     */
+    @Bean
+    public static MeterFilter authEndpointsSloMeterFilter(
+            @Value("${metrics.auth.slo-boundaries:25ms,50ms,100ms,250ms,500ms,1s,2s,5s}") Duration[] boundaries) {
+        double[] slos = Arrays.stream(boundaries).mapToDouble(Duration::toNanos).toArray();
+        DistributionStatisticConfig sloConfig = DistributionStatisticConfig.builder()
+                .serviceLevelObjectives(slos)
+                .build();
+
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (isAuthEndpointRequest(id) || LatencyTimers.AUTH_OPERATION.equals(id.getName())) {
+                    return sloConfig.merge(config);
+                }
+                return config;
+            }
+        };
+    }
+
+    private static boolean isAuthEndpointRequest(Meter.Id id) {
+        return HTTP_SERVER_REQUESTS.equals(id.getName()) && SLO_URIS.contains(id.getTag("uri"));
+    }
+
+    /**
+     * Agrega el resultado de la autenticación como etiqueta de {@code http.server.requests}.
+     *
+     * @return Convención de observación de solicitudes HTTP
+     */
+    @Bean
+    public ServerRequestObservationConvention authServerRequestObservationConvention() {
+        return new AuthServerRequestObservationConvention();
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(authOutcomeMetrics)
+                .addPathPatterns(AuthOutcomeMetrics.LOGIN_URI, AuthOutcomeMetrics.REGISTER_URI);
+    }
+}
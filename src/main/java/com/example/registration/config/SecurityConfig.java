@@ -1,5 +1,7 @@
 package com.example.registration.config;
 
+import com.example.registration.security.PublicRoutes;
+import com.example.registration.security.RateLimitFilter;
 import com.example.registration.security.jwt.JwtAuthenticationFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -72,6 +74,7 @@ public class SecurityConfig {
      *
      * @param http                   Configuración de seguridad HTTP
      * @param jwtAuthFilter          Filtro de autenticación JWT
+     * @param rateLimitFilter        Filtro de límite de solicitudes por dirección IP
      * @param authenticationProvider Proveedor de autenticación
      * @return SecurityFilterChain configurado
      * @throws Exception Sí ocurre un error durante la configuración
@@ -80,6 +83,7 @@ public class SecurityConfig {
     public SecurityFilterChain securityFilterChain(
             HttpSecurity http,
             JwtAuthenticationFilter jwtAuthFilter,
+            RateLimitFilter rateLimitFilter,
             AuthenticationProvider authenticationProvider) throws Exception {
         http
                 // Deshabilitar CSRF para la consola H2 y endpoints de API
@@ -93,15 +97,12 @@ public class SecurityConfig {
                 .authenticationProvider(authenticationProvider)
                 // Agregar filtro JWT antes del filtro de autenticación de usuario y contraseña
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                // Limitar por dirección IP el inicio de sesión y el registro antes de cualquier otro procesamiento
+                .addFilterBefore(rateLimitFilter, JwtAuthenticationFilter.class)
                 .authorizeHttpRequests(authorize -> authorize
-                        // Permitir acceso a la consola H2
-                        .requestMatchers("/h2-console/**").permitAll()
-                        // Permitir acceso a recursos estáticos
-                        .requestMatchers("/css/**", "/js/**", "/images/**").permitAll()
-                        // Permitir acceso a endpoints públicos
-                        .requestMatchers("/", "/api/users/register", "/api/auth/login").permitAll()
-                        // Permitir acceso a documentación Swagger
-                        .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
+                        // Permitir acceso a las rutas públicas (consola H2, recursos estáticos,
+                        // registro, login, Swagger, salud y Prometheus)
+                        .requestMatchers(PublicRoutes.MATCHER).permitAll()
                         // Requerir autenticación para cualquier otra solicitud
                         .anyRequest().authenticated());
 
@@ -0,0 +1,49 @@
+package com.example.registration.config;
+
+import com.example.registration.utils.CoarseClock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Configuración de la fuente de tiempo de la aplicación.
+ * <p>
+ * Los servicios obtienen la hora del {@link Clock} inyectado en lugar de llamar a
+ * {@code LocalDateTime.now()} o {@code System.currentTimeMillis()}, de modo que las pruebas pueden
+ * fijarla. Las operaciones sobre tokens usan {@code tokenClock}, que con
+ * {@code time.coarse-clock.enabled=true} es un {@link CoarseClock} actualizado cada
+ * {@code time.coarse-clock.tick}.
+ */
+@Configuration
+public class TimeConfig {
+
+    /**
+     * Crea el reloj del sistema, en la zona horaria por defecto.
+     *
+     * @return El reloj de la aplicación
+     */
+    @Bean
+    @Primary
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+
+    /**
+     * Crea el reloj con que se emiten y verifican los tokens.
+     *
+     * @param clock   El reloj de la aplicación
+     * @param coarse  Usa un reloj de baja resolución en caché ({@code time.coarse-clock.enabled})
+     * @param tick    Intervalo de actualización del reloj en caché ({@code time.coarse-clock.tick})
+     * @return El reloj de los tokens
+     */
+    @Bean
+    public Clock tokenClock(Clock clock,
+                            @Value("${time.coarse-clock.enabled:false}") boolean coarse,
+                            @Value("${time.coarse-clock.tick:1ms}") Duration tick) {
+        return coarse ? new CoarseClock(clock, tick) : clock;
+    }
+}
@@ -1,7 +1,11 @@
 package com.example.registration.controller;
 
 import com.example.registration.dto.LoginRequestDTO;
+import com.example.registration.dto.RefreshTokenRequestDTO;
+import com.example.registration.dto.TokenResponseDTO;
 import com.example.registration.dto.UserResponseDTO;
+import com.example.registration.security.RateLimiter;
+import com.example.registration.service.RefreshTokenService;
 import com.example.registration.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,9 +14,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -20,17 +26,23 @@ import java.util.Map;
 
 /**
  * Controlador para la autenticación de usuarios.
- * Proporciona endpoints para el inicio de sesión.
+ * Proporciona endpoints para el inicio de sesión, la renovación de la sesión y el cierre de sesión.
  */
 @RestController
 @RequestMapping("/api/auth")
 @Tag(name = "Authentication", description = "API para la autenticación de usuarios")
 public class AuthController {
 
+    private static final String BEARER_PREFIX = "Bearer ";
+
     private final UserService userService;
+    private final RefreshTokenService refreshTokenService;
+    private final RateLimiter rateLimiter;
 
-    public AuthController(UserService userService) {
+    public AuthController(UserService userService, RefreshTokenService refreshTokenService, RateLimiter rateLimiter) {
         this.userService = userService;
+        this.refreshTokenService = refreshTokenService;
+        this.rateLimiter = rateLimiter;
     }
 
     /**
@@ -47,13 +59,57 @@ public class AuthController {
             @ApiResponse(responseCode = "401", description = "Credenciales inválidas",
                     content = @Content(schema = @Schema(implementation = Map.class))),
             @ApiResponse(responseCode = "404", description = "Usuario no encontrado",
+                    content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "429", description = "Demasiadas solicitudes",
                     content = @Content(schema = @Schema(implementation = Map.class)))
     })
     public ResponseEntity<UserResponseDTO> login(@Valid @RequestBody LoginRequestDTO loginRequestDTO) {
+        rateLimiter.checkEmail(loginRequestDTO.getEmail());
         UserResponseDTO userResponseDTO = userService.loginUser(
                 loginRequestDTO.getEmail(),
                 loginRequestDTO.getPassword()
         );
         return ResponseEntity.ok(userResponseDTO);
     }
+
+    /**
+     * Endpoint para renovar la sesión.
+     * El refresh token utilizado queda invalidado y se entrega uno nuevo junto con el token de acceso.
+     *
+     * @param refreshTokenRequestDTO DTO con el refresh token vigente
+     * @return ResponseEntity con el nuevo token de acceso y el nuevo refresh token
+     */
+    @PostMapping("/refresh")
+    @Operation(summary = "Renovar sesión", description = "Emite un nuevo token de acceso a partir de un refresh token")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sesión renovada",
+                    content = @Content(schema = @Schema(implementation = TokenResponseDTO.class))),
+            @ApiResponse(responseCode = "401", description = "Refresh token inválido, expirado o reutilizado",
+                    content = @Content(schema = @Schema(implementation = Map.class)))
+    })
+    public ResponseEntity<TokenResponseDTO> refresh(@Valid @RequestBody RefreshTokenRequestDTO refreshTokenRequestDTO) {
+        return ResponseEntity.ok(refreshTokenService.rotate(refreshTokenRequestDTO.getRefresh_token()));
+    }
+
+    /**
+     * Endpoint para cerrar la sesión.
+     * Revoca el token de acceso con el que se autentica la solicitud y la familia del refresh token.
+     *
+     * @param authorization          Encabezado de autorización con el token de acceso
+     * @param refreshTokenRequestDTO DTO con el refresh token vigente
+     * @return ResponseEntity sin contenido
+     */
+    @PostMapping("/logout")
+    @Operation(summary = "Cerrar sesión", description = "Revoca el token de acceso y el refresh token")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Sesión cerrada"),
+            @ApiResponse(responseCode = "403", description = "Solicitud sin token de acceso válido",
+                    content = @Content(schema = @Schema(implementation = Map.class)))
+    })
+    public ResponseEntity<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+                                       @Valid @RequestBody RefreshTokenRequestDTO refreshTokenRequestDTO) {
+        String accessToken = authorization.substring(BEARER_PREFIX.length());
+        refreshTokenService.logout(accessToken, refreshTokenRequestDTO.getRefresh_token());
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -1,13 +1,13 @@
 package com.example.registration.controller;
 
+import com.example.registration.dto.ConfigurationChangesResponseDTO;
 import com.example.registration.dto.ConfigurationRequestDTO;
 import com.example.registration.dto.ConfigurationResponseDTO;
 import com.example.registration.mapper.ConfigurationMapper;
 import com.example.registration.model.Configuration;
 import com.example.registration.model.ConfigurationType;
-import com.example.registration.repository.ConfigurationTypeRepository;
 import com.example.registration.service.ConfigurationService;
-import com.example.registration.service.PasswordValidationService;
+import com.example.registration.service.ConfigurationWatcher;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -38,17 +38,14 @@ public class ConfigurationController {
 
     private final ConfigurationService configurationService;
     private final ConfigurationMapper configurationMapper;
-    private final PasswordValidationService passwordValidationService;
-    private final ConfigurationTypeRepository configurationTypeRepository;
+    private final ConfigurationWatcher configurationWatcher;
 
     public ConfigurationController(ConfigurationService configurationService,
                                    ConfigurationMapper configurationMapper,
-                                   PasswordValidationService passwordValidationService,
-                                   ConfigurationTypeRepository configurationTypeRepository) {
+                                   ConfigurationWatcher configurationWatcher) {
         this.configurationService = configurationService;
         this.configurationMapper = configurationMapper;
-        this.passwordValidationService = passwordValidationService;
-        this.configurationTypeRepository = configurationTypeRepository;
+        this.configurationWatcher = configurationWatcher;
     }
 
     /**
@@ -72,6 +69,37 @@ public class ConfigurationController {
         return ResponseEntity.ok(responseList);
     }
 
+    /**
+     * Endpoint para obtener las configuraciones que cambiaron después de una revisión.
+     * Permite a cachés y otros servicios mantenerse al día sin volver a descargar todas las
+     * configuraciones: basta con enviar como {@code since} la revisión de la respuesta anterior.
+     *
+     * @param since Última revisión conocida por el cliente (0 para obtener todas)
+     * @return ResponseEntity con la revisión actual y las configuraciones modificadas
+     */
+    @GetMapping("/changes")
+    @Operation(summary = "Obtener cambios de configuración",
+            description = "Obtiene las configuraciones, activas o no, modificadas después de la revisión indicada")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cambios obtenidos exitosamente",
+                    content = @Content(schema = @Schema(implementation = ConfigurationChangesResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Revisión inválida",
+                    content = @Content(schema = @Schema(implementation = Map.class)))
+    })
+    public ResponseEntity<ConfigurationChangesResponseDTO> getChanges(
+            @RequestParam(value = "since", defaultValue = "0") long since) {
+        ConfigurationService.Changes changes = configurationService.getChangesSince(since);
+
+        ConfigurationChangesResponseDTO responseDTO = ConfigurationChangesResponseDTO.builder()
+                .revision(changes.revision())
+                .changes(changes.configurations().stream()
+                        .map(configurationMapper::configurationToConfigurationResponseDTO)
+                        .toList())
+                .build();
+
+        return ResponseEntity.ok(responseDTO);
+    }
+
     /**
      * Endpoint para obtener una configuración por su tipo.
      *
@@ -122,7 +150,7 @@ public class ConfigurationController {
         logger.info("Actualizando configuración: {}", configurationRequestDTO);
 
         // Obtener el tipo de configuración
-        Optional<ConfigurationType> configTypeOpt = configurationTypeRepository.findById(
+        Optional<ConfigurationType> configTypeOpt = configurationService.getConfigurationTypeById(
                 configurationRequestDTO.getConfigurationTypeId());
 
         if (configTypeOpt.isEmpty()) {
@@ -136,8 +164,9 @@ public class ConfigurationController {
                 configTypeOpt.get().getTypeKey(),
                 configurationRequestDTO.getConfigValue());
 
-        // Reinicializar el validador de contraseñas para aplicar los cambios
-        passwordValidationService.initializeValidator();
+        // Aplicar los cambios en este nodo sin esperar el siguiente sondeo; las demás réplicas
+        // los aplican al detectar la nueva versión
+        configurationWatcher.poll();
 
         // Convertir entidad a DTO de respuesta
         ConfigurationResponseDTO responseDTO = configurationMapper
@@ -146,6 +175,44 @@ public class ConfigurationController {
         return ResponseEntity.ok(responseDTO);
     }
 
+    /**
+     * Endpoint para actualizar varias configuraciones a la vez.
+     * Todas se aplican en una sola transacción y las políticas se recargan una sola vez, por lo que
+     * un cambio que abarca varias claves (por ejemplo, la política de contraseñas completa) nunca
+     * queda aplicado a medias.
+     *
+     * @param values Mapa de clave de tipo de configuración a valor
+     * @return ResponseEntity con las configuraciones actualizadas
+     */
+    @PatchMapping
+    @Operation(summary = "Actualizar varias configuraciones",
+            description = "Actualiza o crea varias configuraciones en una sola transacción, validando la política de contraseñas resultante")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Configuraciones actualizadas exitosamente",
+                    content = @Content(schema = @Schema(implementation = ConfigurationResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Datos inválidos, tipo inexistente o política de contraseñas inconsistente",
+                    content = @Content(schema = @Schema(implementation = Map.class)))
+    })
+    public ResponseEntity<List<ConfigurationResponseDTO>> updateConfigurations(
+            @RequestBody Map<String, String> values) {
+
+        logger.info("Actualizando {} configuraciones: {}", values.size(), values.keySet());
+
+        // Actualizar todas las configuraciones en una sola transacción
+        List<Configuration> updatedConfigs = configurationService.updateConfigurations(values);
+
+        // Aplicar los cambios en este nodo sin esperar el siguiente sondeo; las demás réplicas
+        // los aplican al detectar la nueva versión
+        configurationWatcher.poll();
+
+        // Convertir entidades a DTOs de respuesta
+        List<ConfigurationResponseDTO> responseList = updatedConfigs.stream()
+                .map(configurationMapper::configurationToConfigurationResponseDTO)
+                .toList();
+
+        return ResponseEntity.ok(responseList);
+    }
+
     /**
      * Endpoint para actualizar una configuración por su tipo.
      *
@@ -171,8 +238,9 @@ public class ConfigurationController {
         // Actualizar la configuración
         Configuration updatedConfig = configurationService.updateConfiguration(typeKey, value);
 
-        // Reinicializar el validador de contraseñas para aplicar los cambios
-        passwordValidationService.initializeValidator();
+        // Aplicar los cambios en este nodo sin esperar el siguiente sondeo; las demás réplicas
+        // los aplican al detectar la nueva versión
+        configurationWatcher.poll();
 
         // Convertir entidad a DTO de respuesta
         ConfigurationResponseDTO responseDTO = configurationMapper
@@ -213,8 +281,9 @@ public class ConfigurationController {
         // Actualizar la configuración
         Configuration updatedConfig = configurationService.updateConfiguration(typeKey, value);
 
-        // Reinicializar el validador de contraseñas para aplicar los cambios
-        passwordValidationService.initializeValidator();
+        // Aplicar los cambios en este nodo sin esperar el siguiente sondeo; las demás réplicas
+        // los aplican al detectar la nueva versión
+        configurationWatcher.poll();
 
         // Convertir entidad a DTO de respuesta
         ConfigurationResponseDTO responseDTO = configurationMapper
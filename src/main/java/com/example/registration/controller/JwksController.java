@@ -0,0 +1,68 @@
+package com.example.registration.controller;
+
+import com.example.registration.security.jwt.JwtKeyRing;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Controlador que publica las claves públicas de verificación de los tokens JWT (JWKS, RFC 7517).
+ * <p>
+ * Los servicios externos descargan este documento y verifican los tokens localmente, seleccionando
+ * la clave por el {@code kid} de la cabecera, sin llamar a esta aplicación en cada solicitud.
+ * El conjunto de claves no cambia mientras la aplicación está en ejecución, por lo que el cuerpo y su
+ * ETag se calculan una sola vez; la respuesta se puede cachear durante {@code jwt.jwks.max-age}.
+ */
+@RestController
+@Tag(name = "JWKS", description = "Claves públicas para verificar los tokens JWT")
+public class JwksController {
+
+    /** Ruta del documento JWKS. */
+    public static final String JWKS_URI = "/.well-known/jwks.json";
+
+    private final byte[] body;
+    private final String etag;
+    private final CacheControl cacheControl;
+
+    public JwksController(JwtKeyRing keyRing,
+                          ObjectMapper objectMapper,
+                          @Value("${jwt.jwks.max-age:1h}") Duration maxAge) throws JsonProcessingException {
+        this.body = objectMapper.writeValueAsBytes(Map.of("keys", keyRing.publicJwks()));
+        this.etag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+    }
+
+    /**
+     * Endpoint que publica el conjunto de claves públicas.
+     * Responde 304 si el cliente envía el ETag vigente en {@code If-None-Match}.
+     *
+     * @return ResponseEntity con el documento JWKS
+     */
+    @GetMapping(JWKS_URI)
+    @Operation(summary = "Claves públicas JWT", description = "Publica las claves de verificación de los tokens en formato JWKS")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Conjunto de claves públicas"),
+            @ApiResponse(responseCode = "304", description = "El conjunto de claves no cambió")
+    })
+    public ResponseEntity<byte[]> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .eTag(etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(body.length)
+                .body(body);
+    }
+}
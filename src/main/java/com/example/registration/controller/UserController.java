@@ -2,8 +2,14 @@ package com.example.registration.controller;
 
 import com.example.registration.dto.UserRequestDTO;
 import com.example.registration.dto.UserResponseDTO;
+import com.example.registration.metrics.AuthOutcome;
+import com.example.registration.metrics.AuthOutcomeMetrics;
+import com.example.registration.security.RateLimiter;
+import com.example.registration.service.IdempotencyCache;
 import com.example.registration.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -14,6 +20,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -28,15 +35,31 @@ import java.util.Map;
 @Tag(name = "Users", description = "API para la gestión de usuarios")
 public class UserController {
 
+    /** Encabezado con la clave de idempotencia del registro. */
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    /** Encabezado que indica que la respuesta se obtuvo de la caché de idempotencia. */
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final UserService userService;
+    private final IdempotencyCache idempotencyCache;
+    private final AuthOutcomeMetrics authOutcomeMetrics;
+    private final RateLimiter rateLimiter;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, IdempotencyCache idempotencyCache,
+                          AuthOutcomeMetrics authOutcomeMetrics, RateLimiter rateLimiter) {
         this.userService = userService;
+        this.idempotencyCache = idempotencyCache;
+        this.authOutcomeMetrics = authOutcomeMetrics;
+        this.rateLimiter = rateLimiter;
     }
 
     /**
      * Endpoint para el registro de usuarios.
+     * Con el encabezado {@code Idempotency-Key}, un reintento con la misma clave y el mismo cuerpo
+     * recibe el usuario ya registrado, con tokens nuevos, sin registrarlo de nuevo.
      *
+     * @param idempotencyKey Clave de idempotencia opcional elegida por el cliente
      * @param userRequestDTO DTO con la información del usuario a registrar
      * @return ResponseEntity con el DTO del usuario registrado o un mensaje de error
      */
@@ -46,10 +69,39 @@ public class UserController {
             @ApiResponse(responseCode = "201", description = "Usuario registrado exitosamente",
                     content = @Content(schema = @Schema(implementation = UserResponseDTO.class))),
             @ApiResponse(responseCode = "400", description = "Datos de usuario inválidos",
+                    content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "409", description = "Solicitud original con la misma clave de idempotencia en curso",
+                    content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "422", description = "Clave de idempotencia usada con otra solicitud",
+                    content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "429", description = "Demasiadas solicitudes",
                     content = @Content(schema = @Schema(implementation = Map.class)))
     })
-    public ResponseEntity<UserResponseDTO> registerUser(@Valid @RequestBody UserRequestDTO userRequestDTO) {
-        UserResponseDTO userResponseDTO = userService.registerUser(userRequestDTO);
-        return ResponseEntity.status(HttpStatus.CREATED).body(userResponseDTO);
+    public ResponseEntity<UserResponseDTO> registerUser(
+            @Parameter(in = ParameterIn.HEADER, description = "Clave de idempotencia para reintentos seguros")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody UserRequestDTO userRequestDTO) {
+        if (idempotencyKey == null) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(register(userRequestDTO));
+        }
+
+        // Cada solicitud con clave consume el límite por correo, también los reintentos y los
+        // conflictos: un reintento emite tokens, y su respuesta revela si la contraseña coincide
+        rateLimiter.checkEmail(userRequestDTO.getEmail());
+        IdempotencyCache.Result result = idempotencyCache.execute(idempotencyKey, userRequestDTO,
+                () -> userService.registerUser(userRequestDTO),
+                userId -> userService.replayRegistration(userId, userRequestDTO.getPassword()));
+        if (!result.replayed()) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(result.response());
+        }
+        authOutcomeMetrics.record(AuthOutcome.REPLAYED);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(IDEMPOTENT_REPLAYED_HEADER, "true")
+                .body(result.response());
+    }
+
+    private UserResponseDTO register(UserRequestDTO userRequestDTO) {
+        rateLimiter.checkEmail(userRequestDTO.getEmail());
+        return userService.registerUser(userRequestDTO);
     }
 }
@@ -0,0 +1,25 @@
+package com.example.registration.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para la respuesta de los cambios de configuración posteriores a una revisión.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConfigurationChangesResponseDTO {
+    /** Revisión hasta la que llegan los cambios; se envía como {@code since} en la próxima consulta. */
+    @Schema(example = "4")
+    private long revision;
+
+    /** Configuraciones modificadas, activas o no, ordenadas por revisión. */
+    private List<ConfigurationResponseDTO> changes;
+}
@@ -23,10 +23,18 @@ public class ConfigurationResponseDTO {
     /** Tipo de configuración asociado. */
     private ConfigurationTypeResponseDTO configurationType;
 
+    /** Tenant al que aplica la configuración. */
+    @Schema(example = "default")
+    private String tenantId;
+
     /** Valor de la configuración. */
     @Schema(example = "8")
     private String configValue;
 
+    /** Versión de las configuraciones en que esta configuración cambió por última vez. */
+    @Schema(example = "3")
+    private long revision;
+
     /** Indica si la configuración está activa. */
     @Schema(example = "true")
     private boolean isActive;
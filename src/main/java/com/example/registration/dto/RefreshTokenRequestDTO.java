@@ -0,0 +1,26 @@
+package com.example.registration.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para las solicitudes de renovación de sesión y de cierre de sesión.
+ * Contiene el refresh token emitido en el registro, el inicio de sesión o la última renovación.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RefreshTokenRequestDTO {
+
+    /**
+     * Refresh token del usuario.
+     */
+    @NotBlank(message = "El refresh token es obligatorio")
+    @Schema(example = "q1J4m0n8u3rVb9c2Xk7aTfYh5LwE6sPzD0gQ1iNjR4o")
+    private String refresh_token;
+}
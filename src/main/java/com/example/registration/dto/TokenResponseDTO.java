@@ -0,0 +1,25 @@
+package com.example.registration.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para la respuesta de la renovación de sesión.
+ * Contiene un nuevo token de acceso y el refresh token que reemplaza al utilizado.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TokenResponseDTO {
+    /** Nuevo token de acceso (JWT de corta duración). */
+    @Schema(example = "eyJhbGciOiJIUzI1NiJ9...")
+    private String token;
+
+    /** Nuevo refresh token; el anterior deja de ser válido. */
+    @Schema(example = "q1J4m0n8u3rVb9c2Xk7aTfYh5LwE6sPzD0gQ1iNjR4o")
+    private String refresh_token;
+}
@@ -1,7 +1,7 @@
 package com.example.registration.dto;
 
+import com.example.registration.validation.ClDomainEmail;
 import io.swagger.v3.oas.annotations.media.Schema;
-import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
 import lombok.AllArgsConstructor;
@@ -27,7 +27,7 @@ public class UserRequestDTO {
     /** Correo electrónico del usuario. */
     @Schema(example = "juan@rodriguez.cl")
     @NotBlank(message = "El correo es obligatorio.")
-    @Email(regexp = "^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.cl$", message = "El correo debe tener un formato válido y terminar en .cl (ejemplo: correo@dominio.cl)")
+    @ClDomainEmail
     private String email;
 
     /** Contraseña del usuario. */
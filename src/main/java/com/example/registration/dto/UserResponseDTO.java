@@ -37,6 +37,10 @@ public class UserResponseDTO {
     @Schema(example = "token1234")
     private String token;
 
+    /** Refresh token para renovar el token de acceso. */
+    @Schema(example = "q1J4m0n8u3rVb9c2Xk7aTfYh5LwE6sPzD0gQ1iNjR4o")
+    private String refresh_token;
+
     /** Indica si el usuario está activo. */
     @Schema(example = "true")
     private boolean isactive;
@@ -0,0 +1,161 @@
+package com.example.registration.exception;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Utilidad para las respuestas de error con mensaje constante.
+ * <p>
+ * Los cuerpos {@code {"mensaje": "..."}} de los errores cuyo texto no depende de la solicitud se
+ * codifican una sola vez a bytes UTF-8 al cargar la clase y luego se escriben tal cual, sin crear
+ * mapas ni pasar por Jackson en cada error. Los errores con mensaje dinámico deben seguir usando
+ * el {@code ObjectMapper} administrado por Spring (devolviendo el cuerpo desde el controlador).
+ * Los bytes de cada cuerpo son privados y se comparten entre solicitudes: solo se escriben con
+ * {@link #write} o se entregan como copia con {@link #of}, de modo que nadie puede modificarlos.
+ */
+public final class ErrorResponses {
+
+    /**
+     * Cuerpo de error precodificado e inmutable.
+     */
+    public static final class Body {
+
+        private final byte[] bytes;
+
+        private Body(String message) {
+            this.bytes = encode(message);
+        }
+
+        /**
+         * Largo del cuerpo codificado.
+         *
+         * @return La cantidad de bytes
+         */
+        public int length() {
+            return bytes.length;
+        }
+    }
+
+    /** Clave del mensaje en el cuerpo de las respuestas de error. */
+    public static final String MESSAGE_KEY = "mensaje";
+
+    /** Credenciales inválidas en el inicio de sesión. */
+    public static final Body BAD_CREDENTIALS = new Body("Credenciales inválidas");
+
+    /** Usuario inexistente. */
+    public static final Body USER_NOT_FOUND = new Body("Usuario no encontrado");
+
+    /** Contraseña que no cumple la política configurada. */
+    public static final Body INVALID_PASSWORD = new Body("La contraseña no cumple con los requisitos de seguridad");
+
+    /** Token JWT inválido o expirado detectado por los controladores. */
+    public static final Body INVALID_TOKEN = new Body("Error de autenticación: Token inválido o expirado");
+
+    /** Refresh token inexistente, expirado o ya utilizado. */
+    public static final Body INVALID_REFRESH_TOKEN = new Body("Refresh token inválido o expirado");
+
+    /** Clave de idempotencia reutilizada con otro cuerpo de solicitud. */
+    public static final Body IDEMPOTENCY_KEY_CONFLICT =
+            new Body("La clave de idempotencia ya se usó con una solicitud distinta");
+
+    /** Solicitud original con la misma clave de idempotencia todavía en curso. */
+    public static final Body IDEMPOTENCY_REQUEST_IN_PROGRESS =
+            new Body("La solicitud original con esta clave de idempotencia sigue en curso. Intente nuevamente más tarde.");
+
+    /** Límite de solicitudes superado. */
+    public static final Body TOO_MANY_REQUESTS = new Body("Demasiadas solicitudes. Intente nuevamente más tarde.");
+
+    /** Identificador de tenant inválido en el encabezado de la solicitud. */
+    public static final Body INVALID_TENANT = new Body("Identificador de tenant inválido");
+
+    /** Firma JWT inválida detectada por el filtro de autenticación. */
+    public static final Body INVALID_SIGNATURE = new Body("La firma JWT no coincide con la firma calculada localmente");
+
+    /** Acceso denegado a un recurso. */
+    public static final Body ACCESS_DENIED = new Body("Acceso denegado: No tiene permisos para acceder a este recurso");
+
+    /** Error de validación sin mensajes de detalle. */
+    public static final Body VALIDATION_ERROR = new Body("Error de validación");
+
+    /** Error no controlado del servidor. */
+    public static final Body SERVER_ERROR = new Body("Error en el servidor. Contacte al administrador del sistema.");
+
+    private ErrorResponses() {
+        throw new UnsupportedOperationException("Esta clase no debe ser instanciada.");
+    }
+
+    /**
+     * Codifica un mensaje constante como cuerpo JSON de error en UTF-8.
+     *
+     * @param message El mensaje de error
+     * @return El cuerpo JSON codificado
+     */
+    private static byte[] encode(String message) {
+        byte[] prefix = ("{\"" + MESSAGE_KEY + "\":\"").getBytes(StandardCharsets.UTF_8);
+        byte[] value = JsonStringEncoder.getInstance().quoteAsUTF8(message);
+        byte[] suffix = "\"}".getBytes(StandardCharsets.UTF_8);
+
+        byte[] body = new byte[prefix.length + value.length + suffix.length];
+        System.arraycopy(prefix, 0, body, 0, prefix.length);
+        System.arraycopy(value, 0, body, prefix.length, value.length);
+        System.arraycopy(suffix, 0, body, prefix.length + value.length, suffix.length);
+        return body;
+    }
+
+    /**
+     * Construye una respuesta con un cuerpo de error precodificado.
+     * El cuerpo se escribe sin transformación mediante el convertidor de arreglos de bytes.
+     *
+     * @param status El código de estado HTTP
+     * @param body   El cuerpo JSON precodificado
+     * @return La respuesta HTTP
+     */
+    public static ResponseEntity<Object> of(HttpStatus status, Body body) {
+        return of(status, HttpHeaders.EMPTY, body);
+    }
+
+    /**
+     * Construye una respuesta con encabezados adicionales y un cuerpo de error precodificado.
+     * La respuesta lleva una copia de los bytes (unas decenas), porque la entidad expone su
+     * cuerpo a los convertidores y a cualquier {@code ResponseBodyAdvice}.
+     *
+     * @param status  El código de estado HTTP
+     * @param headers Encabezados adicionales
+     * @param body    El cuerpo JSON precodificado
+     * @return La respuesta HTTP
+     */
+    public static ResponseEntity<Object> of(HttpStatus status, HttpHeaders headers, Body body) {
+        return ResponseEntity.status(status)
+                .headers(headers)
+                .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(body.bytes.length)
+                .body(body.bytes.clone());
+    }
+
+    /**
+     * Escribe un cuerpo de error precodificado directamente en la respuesta del servlet.
+     * Se usa desde los filtros, que se ejecutan fuera de los manejadores de Spring MVC.
+     *
+     * @param response La respuesta HTTP
+     * @param status   El código de estado HTTP
+     * @param body     El cuerpo JSON precodificado
+     * @throws IOException Si ocurre un error al escribir la respuesta
+     */
+    public static void write(HttpServletResponse response, HttpStatus status, Body body) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setContentLength(body.bytes.length);
+        OutputStream out = response.getOutputStream();
+        out.write(body.bytes);
+        response.flushBuffer(); // Asegura que la respuesta quede confirmada
+    }
+}
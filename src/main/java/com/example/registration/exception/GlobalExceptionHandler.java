@@ -1,7 +1,10 @@
 package com.example.registration.exception;
 
+import com.example.registration.metrics.AuthOutcome;
+import com.example.registration.metrics.AuthOutcomeMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -11,18 +14,24 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Collections;
 
 /**
  * Manejador global de excepciones para la aplicación.
  * Proporciona respuestas consistentes para diferentes tipos de errores.
+ * Los errores con mensaje constante responden con cuerpos precodificados ({@link ErrorResponses});
+ * los de mensaje dinámico se serializan con el {@code ObjectMapper} de Spring.
  */
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
-    private static final String MESSAGE_KEY = "mensaje";
+
+    private final AuthOutcomeMetrics authOutcomeMetrics;
+
+    public GlobalExceptionHandler(AuthOutcomeMetrics authOutcomeMetrics) {
+        this.authOutcomeMetrics = authOutcomeMetrics;
+    }
 
     /**
      * Maneja excepciones de validación de argumentos.
@@ -33,6 +42,7 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Object> handleValidationExceptions(MethodArgumentNotValidException ex) {
+        authOutcomeMetrics.record(AuthOutcome.INVALID_REQUEST);
         StringBuilder errorMessages = new StringBuilder();
 
         ex.getBindingResult().getAllErrors().forEach(error -> {
@@ -43,10 +53,12 @@ public class GlobalExceptionHandler {
             errorMessages.append(errorMessage);
         });
 
-        Map<String, String> response = new HashMap<>();
-        response.put(MESSAGE_KEY, !errorMessages.isEmpty() ? errorMessages.toString() : "Error de validación");
+        if (errorMessages.isEmpty()) {
+            return ErrorResponses.of(HttpStatus.BAD_REQUEST, ErrorResponses.VALIDATION_ERROR);
+        }
 
-        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+        return new ResponseEntity<>(Collections.singletonMap(ErrorResponses.MESSAGE_KEY, errorMessages.toString()),
+                HttpStatus.BAD_REQUEST);
     }
 
     /**
@@ -59,13 +71,12 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<Object> handleIllegalArgumentException(IllegalArgumentException ex) {
-        Map<String, String> response = new HashMap<>();
-        response.put(MESSAGE_KEY, ex.getMessage());
-
+        authOutcomeMetrics.record(AuthOutcome.INVALID_REQUEST);
         // Log the actual exception for debugging purposes
         logger.error("Excepción de argumento ilegal: {}", ex.getMessage(), ex);
 
-        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+        return new ResponseEntity<>(Collections.singletonMap(ErrorResponses.MESSAGE_KEY, ex.getMessage()),
+                HttpStatus.BAD_REQUEST);
     }
 
     /**
@@ -77,10 +88,9 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(BadCredentialsException.class)
     public ResponseEntity<Object> handleBadCredentialsException(BadCredentialsException ignored) {
-        Map<String, String> response = new HashMap<>();
-        response.put(MESSAGE_KEY, "Credenciales inválidas");
+        authOutcomeMetrics.record(AuthOutcome.BAD_CREDENTIALS);
 
-        return new ResponseEntity<>(response, HttpStatus.UNAUTHORIZED);
+        return ErrorResponses.of(HttpStatus.UNAUTHORIZED, ErrorResponses.BAD_CREDENTIALS);
     }
 
     /**
@@ -93,13 +103,12 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(UsernameNotFoundException.class)
     public ResponseEntity<Object> handleUsernameNotFoundException(UsernameNotFoundException ex) {
-        Map<String, String> response = new HashMap<>();
-        response.put(MESSAGE_KEY, "Usuario no encontrado");
+        authOutcomeMetrics.record(AuthOutcome.USER_NOT_FOUND);
 
         // Log the actual exception for debugging purposes
         logger.error("Usuario no encontrado: {}", ex.getMessage(), ex);
 
-        return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
+        return ErrorResponses.of(HttpStatus.NOT_FOUND, ErrorResponses.USER_NOT_FOUND);
     }
 
     /**
@@ -112,13 +121,12 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(InvalidPasswordException.class)
     public ResponseEntity<Object> handleInvalidPasswordException(InvalidPasswordException ex) {
-        Map<String, String> response = new HashMap<>();
-        response.put(MESSAGE_KEY, "La contraseña no cumple con los requisitos de seguridad");
+        authOutcomeMetrics.record(AuthOutcome.INVALID_PASSWORD);
 
         // Log the actual exception for debugging purposes
         logger.error("Contraseña inválida: {}", ex.getMessage(), ex);
 
-        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+        return ErrorResponses.of(HttpStatus.BAD_REQUEST, ErrorResponses.INVALID_PASSWORD);
     }
 
     /**
@@ -131,13 +139,77 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(JwtValidationException.class)
     public ResponseEntity<Object> handleJwtValidationException(JwtValidationException ex) {
-        Map<String, String> response = new HashMap<>();
-        response.put(MESSAGE_KEY, "Error de autenticación: Token inválido o expirado");
 
         // Log the actual exception for debugging purposes
         logger.error("Error de validación JWT: {}", ex.getMessage(), ex);
 
-        return new ResponseEntity<>(response, HttpStatus.UNAUTHORIZED);
+        return ErrorResponses.of(HttpStatus.UNAUTHORIZED, ErrorResponses.INVALID_TOKEN);
+    }
+
+    /**
+     * Maneja excepciones de refresh token inválido.
+     * Estas excepciones ocurren cuando se intenta renovar la sesión con un refresh token inexistente,
+     * expirado o ya utilizado.
+     *
+     * @param ex La excepción de refresh token inválido
+     * @return ResponseEntity con un mensaje de error genérico
+     */
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ResponseEntity<Object> handleInvalidRefreshTokenException(InvalidRefreshTokenException ex) {
+
+        logger.warn("Refresh token rechazado: {}", ex.getMessage());
+
+        return ErrorResponses.of(HttpStatus.UNAUTHORIZED, ErrorResponses.INVALID_REFRESH_TOKEN);
+    }
+
+    /**
+     * Maneja excepciones de clave de idempotencia en conflicto.
+     * Estas excepciones ocurren cuando un cliente reutiliza una clave de idempotencia con un cuerpo
+     * distinto al de la solicitud original.
+     *
+     * @param ex La excepción de clave de idempotencia en conflicto
+     * @return ResponseEntity con un mensaje de error
+     */
+    @ExceptionHandler(IdempotencyKeyConflictException.class)
+    public ResponseEntity<Object> handleIdempotencyKeyConflictException(IdempotencyKeyConflictException ex) {
+        authOutcomeMetrics.record(AuthOutcome.INVALID_REQUEST);
+
+        logger.warn("Clave de idempotencia en conflicto: {}", ex.getMessage());
+
+        return ErrorResponses.of(HttpStatus.UNPROCESSABLE_ENTITY, ErrorResponses.IDEMPOTENCY_KEY_CONFLICT);
+    }
+
+    /**
+     * Maneja excepciones de solicitud idempotente en curso.
+     * Estas excepciones ocurren cuando un reintento espera más de {@code idempotency.wait-timeout} a que
+     * termine la solicitud original con la misma clave.
+     *
+     * @param ex La excepción de solicitud idempotente en curso
+     * @return ResponseEntity con un mensaje de error
+     */
+    @ExceptionHandler(IdempotencyRequestInProgressException.class)
+    public ResponseEntity<Object> handleIdempotencyRequestInProgressException(IdempotencyRequestInProgressException ex) {
+        authOutcomeMetrics.record(AuthOutcome.INVALID_REQUEST);
+
+        logger.warn("Solicitud idempotente en curso: {}", ex.getMessage());
+
+        return ErrorResponses.of(HttpStatus.CONFLICT, ErrorResponses.IDEMPOTENCY_REQUEST_IN_PROGRESS);
+    }
+
+    /**
+     * Maneja excepciones de límite de solicitudes superado.
+     * Estas excepciones ocurren cuando un mismo correo supera el límite de inicios de sesión o registros.
+     *
+     * @param ex La excepción de límite de solicitudes superado
+     * @return ResponseEntity con un mensaje de error y el encabezado Retry-After
+     */
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<Object> handleRateLimitExceededException(RateLimitExceededException ex) {
+        authOutcomeMetrics.record(AuthOutcome.RATE_LIMITED);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()));
+        return ErrorResponses.of(HttpStatus.TOO_MANY_REQUESTS, headers, ErrorResponses.TOO_MANY_REQUESTS);
     }
 
     /**
@@ -149,10 +221,8 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<Object> handleAccessDeniedException(AccessDeniedException ignored) {
-        Map<String, String> response = new HashMap<>();
-        response.put(MESSAGE_KEY, "Acceso denegado: No tiene permisos para acceder a este recurso");
 
-        return new ResponseEntity<>(response, HttpStatus.FORBIDDEN);
+        return ErrorResponses.of(HttpStatus.FORBIDDEN, ErrorResponses.ACCESS_DENIED);
     }
 
     /**
@@ -165,12 +235,11 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Object> handleGeneralException(Exception ex) {
-        Map<String, String> response = new HashMap<>();
-        response.put(MESSAGE_KEY, "Error en el servidor. Contacte al administrador del sistema.");
+        authOutcomeMetrics.record(AuthOutcome.ERROR);
 
         // Log the actual exception for debugging purposes
         logger.error("Error general no manejado: {}", ex.getMessage(), ex);
 
-        return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+        return ErrorResponses.of(HttpStatus.INTERNAL_SERVER_ERROR, ErrorResponses.SERVER_ERROR);
     }
 }
@@ -0,0 +1,18 @@
+package com.example.registration.exception;
+
+/**
+ * Excepción que se lanza cuando una clave de idempotencia se reutiliza con un cuerpo de solicitud
+ * distinto al de la solicitud original.
+ */
+public class IdempotencyKeyConflictException extends RuntimeException {
+
+    /**
+     * Crea una nueva instancia de IdempotencyKeyConflictException con un mensaje personalizado.
+     *
+     * @param message El mensaje de error
+     */
+    public IdempotencyKeyConflictException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.example.registration.exception;
+
+/**
+ * Excepción que se lanza cuando un reintento con una clave de idempotencia espera demasiado a que
+ * termine la solicitud original, que sigue en curso.
+ */
+public class IdempotencyRequestInProgressException extends RuntimeException {
+
+    /**
+     * Crea una nueva instancia de IdempotencyRequestInProgressException con un mensaje personalizado.
+     *
+     * @param message El mensaje de error
+     */
+    public IdempotencyRequestInProgressException(String message) {
+        super(message);
+    }
+
+}
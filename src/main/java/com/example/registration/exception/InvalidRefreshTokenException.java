@@ -0,0 +1,17 @@
+package com.example.registration.exception;
+
+/**
+ * Excepción que se lanza cuando un refresh token no existe, expiró o ya fue utilizado.
+ */
+public class InvalidRefreshTokenException extends RuntimeException {
+
+    /**
+     * Crea una nueva instancia de InvalidRefreshTokenException con un mensaje personalizado.
+     *
+     * @param message El mensaje de error
+     */
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+
+}
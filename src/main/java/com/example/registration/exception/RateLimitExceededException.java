@@ -0,0 +1,29 @@
+package com.example.registration.exception;
+
+import lombok.Getter;
+
+/**
+ * Excepción que se lanza cuando se supera el límite de solicitudes de inicio de sesión o registro.
+ */
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+
+    /**
+     * -- GETTER --
+     *  Obtiene los segundos que el cliente debe esperar antes de reintentar.
+     *
+     */
+    private final long retryAfterSeconds;
+
+    /**
+     * Crea una nueva instancia de RateLimitExceededException con un mensaje personalizado.
+     *
+     * @param message           El mensaje de error
+     * @param retryAfterSeconds Segundos que el cliente debe esperar antes de reintentar
+     */
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+}
@@ -16,6 +16,7 @@ public interface UserMapper {
      * Convierte un objeto User a un UserResponseDTO.
      * Mapea los campos con nombres diferentes entre las clases.
      * Los campos fullName, userEmail y phones no se incluyen en la respuesta.
+     * El refresh token no se almacena en la entidad y lo asigna el servicio.
      *
      * @param user Entidad User a convertir
      * @return DTO UserResponseDTO con la información del usuario
@@ -25,6 +26,7 @@ public interface UserMapper {
     @Mapping(source = "lastLogin", target = "last_login")
     @Mapping(source = "userToken", target = "token")
     @Mapping(target = "isactive", expression = "java(user.isActive())")
+    @Mapping(target = "refresh_token", ignore = true)
     UserResponseDTO userToUserResponseDTO(User user);
 
     /**
@@ -44,5 +46,6 @@ public interface UserMapper {
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "phones", ignore = true)
+    @Mapping(target = "persisted", ignore = true)
     User userRequestDTOToUser(UserRequestDTO userRequestDTO);
 }
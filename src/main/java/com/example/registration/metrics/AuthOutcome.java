@@ -0,0 +1,47 @@
+package com.example.registration.metrics;
+
+import java.util.Locale;
+
+/**
+ * Resultado de una solicitud a los endpoints de autenticación (registro e inicio de sesión).
+ * <p>
+ * Se usa como etiqueta de baja cardinalidad tanto en los contadores por resultado como en
+ * la métrica {@code http.server.requests}, de modo que la latencia del camino de error
+ * pueda separarse de la del camino exitoso.
+ */
+public enum AuthOutcome {
+    /** La operación terminó correctamente. */
+    SUCCESS,
+
+    /** Reintento de un registro respondido desde la caché de idempotencia. */
+    REPLAYED,
+
+    /** La contraseña no coincide con la almacenada. */
+    BAD_CREDENTIALS,
+
+    /** El usuario no existe. */
+    USER_NOT_FOUND,
+
+    /** La contraseña no cumple con la política configurada. */
+    INVALID_PASSWORD,
+
+    /** La solicitud no superó la validación (campos inválidos o correo ya registrado). */
+    INVALID_REQUEST,
+
+    /** La solicitud superó el límite por dirección IP o por correo. */
+    RATE_LIMITED,
+
+    /** Error no controlado del servidor. */
+    ERROR;
+
+    private final String tagValue = name().toLowerCase(Locale.ROOT);
+
+    /**
+     * Obtiene el valor de la etiqueta asociado al resultado.
+     *
+     * @return El nombre del resultado en minúsculas
+     */
+    public String tagValue() {
+        return tagValue;
+    }
+}
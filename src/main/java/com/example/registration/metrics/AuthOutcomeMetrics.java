@@ -0,0 +1,106 @@
+package com.example.registration.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Contadores por resultado de los endpoints de autenticación.
+ * <p>
+ * Los resultados de error los registra {@code GlobalExceptionHandler}; el resultado exitoso
+ * se registra al completar la solicitud si ningún manejador de errores marcó otro resultado.
+ * El resultado queda además como atributo de la solicitud para que la métrica
+ * {@code http.server.requests} lo use como etiqueta.
+ */
+@Component
+public class AuthOutcomeMetrics implements HandlerInterceptor {
+
+    /** Nombre del contador de resultados. */
+    public static final String AUTH_OUTCOME = "auth.outcome";
+
+    /** Atributo de la solicitud donde se guarda el resultado. */
+    public static final String OUTCOME_ATTRIBUTE = AuthOutcomeMetrics.class.getName() + ".outcome";
+
+    /** URI del endpoint de inicio de sesión. */
+    public static final String LOGIN_URI = "/api/auth/login";
+
+    /** URI del endpoint de registro. */
+    public static final String REGISTER_URI = "/api/users/register";
+
+    private final Map<AuthOutcome, Counter> loginCounters = new EnumMap<>(AuthOutcome.class);
+    private final Map<AuthOutcome, Counter> registerCounters = new EnumMap<>(AuthOutcome.class);
+
+    public AuthOutcomeMetrics(MeterRegistry meterRegistry) {
+        for (AuthOutcome outcome : AuthOutcome.values()) {
+            loginCounters.put(outcome, counter(meterRegistry, "login", outcome));
+            registerCounters.put(outcome, counter(meterRegistry, "register", outcome));
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String endpoint, AuthOutcome outcome) {
+        return Counter.builder(AUTH_OUTCOME)
+                .description("Cantidad de solicitudes de autenticación por resultado")
+                .tag("endpoint", endpoint)
+                .tag("outcome", outcome.tagValue())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra el resultado de la solicitud HTTP en curso.
+     * Si la solicitud no corresponde a un endpoint de autenticación no se hace nada.
+     *
+     * @param outcome El resultado de la solicitud
+     */
+    public void record(AuthOutcome outcome) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return;
+        }
+        Object request = attributes.resolveReference(RequestAttributes.REFERENCE_REQUEST);
+        if (request instanceof HttpServletRequest httpRequest) {
+            record(httpRequest, outcome);
+        }
+    }
+
+    private void record(HttpServletRequest request, AuthOutcome outcome) {
+        Map<AuthOutcome, Counter> counters = countersFor(request.getRequestURI());
+        if (counters == null) {
+            return;
+        }
+        request.setAttribute(OUTCOME_ATTRIBUTE, outcome);
+        counters.get(outcome).increment();
+    }
+
+    @Nullable
+    private Map<AuthOutcome, Counter> countersFor(String requestURI) {
+        if (LOGIN_URI.equals(requestURI)) {
+            return loginCounters;
+        }
+        if (REGISTER_URI.equals(requestURI)) {
+            return registerCounters;
+        }
+        return null;
+    }
+
+    /**
+     * Registra el resultado exitoso cuando la solicitud terminó sin que un manejador de errores
+     * haya marcado otro resultado.
+     */
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                @NonNull Object handler, @Nullable Exception ex) {
+        if (request.getAttribute(OUTCOME_ATTRIBUTE) == null && ex == null && response.getStatus() < 400) {
+            record(request, AuthOutcome.SUCCESS);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.registration.metrics;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+
+/**
+ * Convención de observación para {@code http.server.requests} que agrega la etiqueta
+ * {@code auth.outcome} con el resultado registrado por {@link AuthOutcomeMetrics}.
+ * <p>
+ * Las solicitudes que no pertenecen a los endpoints de autenticación quedan con el valor
+ * {@code none}, por lo que la cardinalidad adicional es mínima.
+ */
+public class AuthServerRequestObservationConvention extends DefaultServerRequestObservationConvention {
+
+    /** Nombre de la etiqueta agregada. */
+    public static final String AUTH_OUTCOME_KEY = "auth.outcome";
+
+    private static final KeyValue NO_OUTCOME = KeyValue.of(AUTH_OUTCOME_KEY, "none");
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        return super.getLowCardinalityKeyValues(context).and(authOutcome(context));
+    }
+
+    private KeyValue authOutcome(ServerRequestObservationContext context) {
+        HttpServletRequest request = context.getCarrier();
+        if (request != null && request.getAttribute(AuthOutcomeMetrics.OUTCOME_ATTRIBUTE) instanceof AuthOutcome outcome) {
+            return KeyValue.of(AUTH_OUTCOME_KEY, outcome.tagValue());
+        }
+        return NO_OUTCOME;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.registration.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Utilidad para construir los temporizadores de latencia de la aplicación.
+ * <p>
+ * Todos los temporizadores publican un histograma de percentiles, de modo que el backend
+ * de métricas pueda calcular el p99 de cada fase, y además percentiles precalculados
+ * para consultarlos directamente desde {@code /actuator/metrics}.
+ * Las etiquetas deben ser siempre de baja cardinalidad (operación, fase, resultado).
+ */
+public final class LatencyTimers {
+
+    /** Temporizador por fase del registro y del inicio de sesión. */
+    public static final String AUTH_PHASE = "auth.phase";
+
+    /** Temporizador total del registro y del inicio de sesión. */
+    public static final String AUTH_OPERATION = "auth.operation";
+
+    /** Temporizador de las operaciones de firma, lectura y verificación de JWT. */
+    public static final String JWT_OPERATION = "jwt.operation";
+
+    /** Temporizador del costo propio del filtro JWT (sin incluir el resto de la cadena). */
+    public static final String JWT_FILTER = "jwt.filter";
+
+    /** Temporizador de la validación de contraseñas contra la política compilada. */
+    public static final String PASSWORD_VALIDATION = "password.validation";
+
+    private LatencyTimers() {
+        throw new UnsupportedOperationException("Esta clase no debe ser instanciada.");
+    }
+
+    /**
+     * Registra (o recupera si ya existe) un temporizador con histograma de percentiles.
+     *
+     * @param registry    Registro de métricas
+     * @param name        Nombre de la métrica
+     * @param description Descripción de la métrica
+     * @param tags        Pares clave/valor de etiquetas de baja cardinalidad
+     * @return El temporizador registrado
+     */
+    public static Timer timer(MeterRegistry registry, String name, String description, String... tags) {
+        return Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.registration.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entidad que representa un evento del registro de auditoría.
+ * La tabla es de solo inserción: los eventos nunca se actualizan ni se eliminan desde la aplicación.
+ * El identificador se genera en memoria (UUID), lo que permite a Hibernate agrupar los INSERT en lotes.
+ */
+@Entity
+@Table(name = "audit_event")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuditEvent {
+    /** Identificador único del evento (UUID). */
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    /** Tipo de evento (registration, login, configuration_change). */
+    @Column(name = "event_type", nullable = false, length = 40)
+    private String eventType;
+
+    /** Resultado del evento (success, failure, rejected). */
+    @Column(name = "outcome", nullable = false, length = 20)
+    private String outcome;
+
+    /** Usuario o clave de configuración afectada. */
+    @Column(name = "principal", length = 100)
+    private String principal;
+
+    /** Detalle del evento (motivo del rechazo o nuevo valor). */
+    @Column(name = "detail")
+    private String detail;
+
+    /** Fecha en que ocurrió el evento. */
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+}
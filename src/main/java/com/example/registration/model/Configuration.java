@@ -1,5 +1,6 @@
 package com.example.registration.model;
 
+import com.example.registration.tenant.TenantContext;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -28,10 +29,19 @@ public class Configuration {
     @JoinColumn(name = "configuration_type_id", nullable = false)
     private ConfigurationType configurationType;
 
+    /** Tenant al que aplica la configuración; las del tenant por defecto son la base de todos. */
+    @Column(name = "tenant_id", nullable = false, length = TenantContext.MAX_TENANT_LENGTH)
+    @Builder.Default
+    private String tenantId = TenantContext.DEFAULT_TENANT;
+
     /** Valor de la configuración. */
     @Column(name = "config_value", nullable = false)
     private String configValue;
 
+    /** Versión de las configuraciones en que esta configuración cambió por última vez. */
+    @Column(name = "revision", nullable = false)
+    private long revision;
+
     /** Indica si la configuración está activa. */
     @Column(name = "is_active", nullable = false)
     private boolean isActive;
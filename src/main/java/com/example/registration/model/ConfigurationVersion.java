@@ -0,0 +1,38 @@
+package com.example.registration.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad que representa la versión de las configuraciones del sistema.
+ * La tabla tiene una única fila cuyo contador se incrementa en cada cambio de configuración.
+ */
+@Entity
+@Table(name = "configuration_version")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConfigurationVersion {
+    /** Identificador de la fila única. */
+    public static final long SINGLETON_ID = 1L;
+
+    /** Versión de los valores iniciales de data.sql. */
+    public static final long INITIAL_VERSION = 1L;
+
+    /** Identificador de la fila. */
+    @Id
+    private Long id;
+
+    /** Versión de las configuraciones. */
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    /** Fecha del último cambio de configuración. */
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
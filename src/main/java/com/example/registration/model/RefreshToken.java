@@ -0,0 +1,74 @@
+package com.example.registration.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entidad que representa un refresh token emitido a un usuario.
+ * Solo se almacena el hash SHA-256 del token, nunca el valor en claro.
+ * Los tokens que nacen de rotaciones sucesivas comparten la misma familia, de modo que la
+ * reutilización de un token ya rotado permite revocar toda la cadena.
+ */
+@Entity
+@Table(name = "refresh_token")
+@Getter
+@Setter
+@ToString(exclude = "user")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RefreshToken {
+
+    /**
+     * Motivo por el que un token dejó de estar vigente.
+     */
+    public enum RevocationReason {
+        /** El token se usó y se reemplazó por uno nuevo de la misma familia. */
+        ROTATED,
+        /** La sesión se cerró con {@code /logout}. */
+        LOGOUT,
+        /** Se revocó la familia porque se reutilizó un token ya rotado. */
+        REUSE
+    }
+
+    /** Identificador único del refresh token (UUID). */
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    /** Hash SHA-256 del token, en hexadecimal. */
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    /** Familia de rotación a la que pertenece el token. */
+    @Column(name = "family_id", nullable = false)
+    private UUID familyId;
+
+    /** Usuario dueño del token. */
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    /** Fecha de expiración del token. */
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    /** Fecha en que el token fue rotado o revocado (nula mientras está vigente). */
+    @Column(name = "revoked_at")
+    private LocalDateTime revokedAt;
+
+    /**
+     * Motivo de la rotación o revocación (nulo mientras está vigente, y en los tokens revocados
+     * antes de registrar el motivo, que se tratan como rotados).
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "revocation_reason", length = 20)
+    private RevocationReason revocationReason;
+
+    /** Fecha de creación del token. */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
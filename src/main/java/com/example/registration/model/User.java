@@ -2,6 +2,7 @@ package com.example.registration.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -9,6 +10,9 @@ import java.util.UUID;
 
 /**
  * Entidad que representa un usuario en el sistema.
+ * El identificador lo asigna la aplicación antes de persistir, de modo que se conoce al firmar el
+ * token del registro; {@link Persistable} evita que Spring Data tome por existente a un usuario
+ * nuevo con identificador asignado.
  */
 @Entity
 @Table(name = "users")
@@ -18,10 +22,9 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class User {
+public class User implements Persistable<UUID> {
     /** Identificador único del usuario (UUID). */
     @Id
-    @GeneratedValue
     private UUID id;
 
     /** Nombre completo del usuario. */
@@ -59,4 +62,35 @@ public class User {
     /** Lista de teléfonos asociados al usuario. */
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
     private List<Phone> phones;
+
+    /** Indica si la entidad ya fue persistida o cargada desde la base de datos (no se almacena). */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private boolean persisted;
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    /**
+     * Asigna un identificador aleatorio si no se asignó antes de persistir.
+     */
+    @PrePersist
+    void assignId() {
+        if (id == null) {
+            id = UUID.randomUUID();
+        }
+    }
+
+    /**
+     * Marca la entidad como persistida.
+     */
+    @PostPersist
+    @PostLoad
+    void markPersisted() {
+        persisted = true;
+    }
 }
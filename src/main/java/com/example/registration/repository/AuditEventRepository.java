@@ -0,0 +1,15 @@
+package com.example.registration.repository;
+
+import com.example.registration.model.AuditEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+/**
+ * Repositorio para la entidad AuditEvent.
+ * Solo se usa para insertar lotes de eventos desde el escritor de auditoría.
+ */
+@Repository
+public interface AuditEventRepository extends JpaRepository<AuditEvent, UUID> {
+}
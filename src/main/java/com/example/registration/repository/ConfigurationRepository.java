@@ -3,8 +3,11 @@ package com.example.registration.repository;
 import com.example.registration.model.Configuration;
 import com.example.registration.model.ConfigurationType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -15,17 +18,48 @@ import java.util.List;
 public interface ConfigurationRepository extends JpaRepository<Configuration, Long> {
 
     /**
-     * Busca configuraciones activas por su tipo de configuración.
+     * Busca las configuraciones activas de un tipo de configuración en un tenant.
      * 
      * @param configurationType El tipo de configuración a buscar
-     * @return Lista de configuraciones activas que coinciden con el tipo especificado
+     * @param tenantId El tenant de las configuraciones
+     * @return Lista de configuraciones activas que coinciden con el tipo y el tenant especificados
      */
-    List<Configuration> findByConfigurationTypeAndIsActiveTrue(ConfigurationType configurationType);
+    List<Configuration> findByConfigurationTypeAndTenantIdAndIsActiveTrue(ConfigurationType configurationType,
+                                                                          String tenantId);
 
     /**
-     * Busca todas las configuraciones activas.
+     * Busca las configuraciones activas de varios tipos de configuración en un tenant, en una sola consulta.
+     *
+     * @param configurationTypes Los tipos de configuración a buscar
+     * @param tenantId El tenant de las configuraciones
+     * @return Lista de configuraciones activas de los tipos y el tenant especificados
+     */
+    List<Configuration> findByConfigurationTypeInAndTenantIdAndIsActiveTrue(
+            Collection<ConfigurationType> configurationTypes, String tenantId);
+
+    /**
+     * Busca todas las configuraciones activas, de todos los tenants.
      * 
      * @return Lista de todas las configuraciones activas
      */
     List<Configuration> findByIsActiveTrue();
+
+    /**
+     * Busca las configuraciones activas de los tipos indicados, de todos los tenants, en una sola
+     * consulta que trae también su tipo.
+     *
+     * @param typeKeys Las claves de los tipos de configuración
+     * @return Lista de configuraciones activas de esos tipos
+     */
+    @Query("SELECT c FROM Configuration c JOIN FETCH c.configurationType t "
+            + "WHERE c.isActive = true AND t.typeKey IN :typeKeys")
+    List<Configuration> findActiveByTypeKeys(@Param("typeKeys") Collection<String> typeKeys);
+
+    /**
+     * Busca las configuraciones, activas o no, que cambiaron después de una revisión.
+     *
+     * @param revision Última revisión conocida por el cliente
+     * @return Lista de configuraciones con una revisión mayor, ordenadas por revisión
+     */
+    List<Configuration> findByRevisionGreaterThanOrderByRevisionAsc(long revision);
 }
@@ -0,0 +1,39 @@
+package com.example.registration.repository;
+
+import com.example.registration.model.ConfigurationVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repositorio para la entidad ConfigurationVersion.
+ * Proporciona métodos para leer e incrementar la versión de las configuraciones.
+ */
+@Repository
+public interface ConfigurationVersionRepository extends JpaRepository<ConfigurationVersion, Long> {
+
+    /**
+     * Obtiene solo el número de versión de una fila, por su clave primaria.
+     *
+     * @param id Identificador de la fila
+     * @return Un Optional con la versión, o vacío si la fila no existe
+     */
+    @Query("SELECT v.version FROM ConfigurationVersion v WHERE v.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Incrementa la versión de una fila en la base de datos, sin leerla antes.
+     *
+     * @param id  Identificador de la fila
+     * @param now Fecha del cambio
+     * @return La cantidad de filas actualizadas (0 si la fila no existe)
+     */
+    @Modifying
+    @Query("UPDATE ConfigurationVersion v SET v.version = v.version + 1, v.updatedAt = :now WHERE v.id = :id")
+    int increment(@Param("id") Long id, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,67 @@
+package com.example.registration.repository;
+
+import com.example.registration.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repositorio para la entidad RefreshToken.
+ * Proporciona métodos para buscar, rotar y revocar refresh tokens.
+ */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
+
+    /**
+     * Busca un refresh token por el hash de su valor.
+     *
+     * @param tokenHash Hash SHA-256 del token, en hexadecimal
+     * @return Un Optional que contiene el token si existe, o vacío si no existe
+     */
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    /**
+     * Marca un refresh token como rotado, solo si aún está vigente.
+     * La condición sobre {@code revokedAt} hace que, ante dos rotaciones concurrentes del mismo
+     * token, solo una de ellas lo consiga.
+     *
+     * @param id  Identificador del token
+     * @param now Fecha de la rotación
+     * @return La cantidad de filas actualizadas (0 si el token ya había sido rotado)
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revokedAt = :now, "
+            + "t.revocationReason = com.example.registration.model.RefreshToken.RevocationReason.ROTATED "
+            + "WHERE t.id = :id AND t.revokedAt IS NULL")
+    int markRotated(@Param("id") UUID id, @Param("now") LocalDateTime now);
+
+    /**
+     * Revoca todos los tokens vigentes de una familia de rotación.
+     *
+     * @param familyId Familia de rotación
+     * @param now      Fecha de la revocación
+     * @param reason   Motivo de la revocación
+     * @return La cantidad de tokens revocados
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revokedAt = :now, t.revocationReason = :reason "
+            + "WHERE t.familyId = :familyId AND t.revokedAt IS NULL")
+    int revokeFamily(@Param("familyId") UUID familyId, @Param("now") LocalDateTime now,
+                     @Param("reason") RefreshToken.RevocationReason reason);
+
+    /**
+     * Elimina los refresh tokens expirados.
+     *
+     * @param now Fecha actual
+     * @return La cantidad de tokens eliminados
+     */
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
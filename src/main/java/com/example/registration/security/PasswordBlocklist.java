@@ -0,0 +1,226 @@
+package com.example.registration.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Lista local de contraseñas filtradas, consultada sin llamar a servicios externos.
+ * <p>
+ * El archivo ({@code password.blocklist.path}) contiene los hashes SHA-1 de las contraseñas, o un
+ * prefijo de cada hash, ordenados y con ancho fijo; se genera a partir de un volcado de HIBP con
+ * {@code PasswordBlocklistBuilder} ({@code src/tools}). Formato: una cabecera de {@value #HEADER_BYTES} bytes (firma
+ * {@code PWBL}, versión, bytes por registro, cantidad de registros) seguida de los registros.
+ * <p>
+ * El archivo se proyecta en memoria en modo de solo lectura, en segmentos de hasta 1 GiB, y nunca
+ * se copia al heap: las páginas las administra el sistema operativo. Al cargarlo se construye un
+ * índice de 65 536 posiciones por los dos primeros bytes del hash (512 KiB), de modo que una
+ * consulta es una búsqueda binaria dentro de un único tramo: unas 12 comparaciones para cientos de
+ * millones de registros. Sin archivo configurado la verificación está deshabilitada.
+ */
+@Component
+public class PasswordBlocklist {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordBlocklist.class);
+
+    /** Firma al inicio del archivo. */
+    static final int MAGIC = 0x5057424C; // "PWBL"
+
+    /** Versión del formato. */
+    static final byte FORMAT_VERSION = 1;
+
+    /** Tamaño de la cabecera: firma (4), versión (1), bytes por registro (1), reservado (2), cantidad (8). */
+    static final int HEADER_BYTES = 16;
+
+    /** Largo de un hash SHA-1. */
+    static final int SHA1_BYTES = 20;
+
+    /** Largo mínimo de un registro: el índice usa los dos primeros bytes. */
+    static final int MIN_RECORD_BYTES = 2;
+
+    private static final int FAN_OUT = 1 << 16;
+    private static final long MAX_SEGMENT_BYTES = 1L << 30;
+
+    private final MappedByteBuffer[] segments;
+    private final int recordBytes;
+    private final long recordsPerSegment;
+    private final long count;
+    // index[p] es la posición del primer registro cuyo prefijo de dos bytes es mayor o igual que p
+    private final long[] index;
+
+    public PasswordBlocklist(@Value("${password.blocklist.path:}") String path, MeterRegistry meterRegistry) {
+        if (path.isBlank()) {
+            this.segments = new MappedByteBuffer[0];
+            this.recordBytes = SHA1_BYTES;
+            this.recordsPerSegment = 1;
+            this.count = 0;
+            this.index = null;
+            logger.info("Lista de contraseñas filtradas deshabilitada (password.blocklist.path vacío)");
+        } else {
+            try (FileChannel channel = FileChannel.open(Path.of(path), StandardOpenOption.READ)) {
+                if (channel.size() < HEADER_BYTES) {
+                    throw new IllegalStateException("El archivo no es una lista de contraseñas filtradas: " + path);
+                }
+                ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+                if (header.getInt() != MAGIC || header.get() != FORMAT_VERSION) {
+                    throw new IllegalStateException("El archivo no es una lista de contraseñas filtradas: " + path);
+                }
+                this.recordBytes = header.get();
+                header.getShort();
+                this.count = header.getLong();
+                if (recordBytes < MIN_RECORD_BYTES || recordBytes > SHA1_BYTES
+                        || channel.size() != HEADER_BYTES + count * recordBytes) {
+                    throw new IllegalStateException("Lista de contraseñas filtradas con tamaño inválido: " + path);
+                }
+
+                // Cada segmento contiene un número entero de registros
+                this.recordsPerSegment = MAX_SEGMENT_BYTES / recordBytes;
+                int segmentCount = (int) ((count + recordsPerSegment - 1) / recordsPerSegment);
+                this.segments = new MappedByteBuffer[segmentCount];
+                for (int i = 0; i < segmentCount; i++) {
+                    long first = i * recordsPerSegment;
+                    long records = Math.min(recordsPerSegment, count - first);
+                    segments[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                            HEADER_BYTES + first * recordBytes, records * recordBytes);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo abrir la lista de contraseñas filtradas: " + path, e);
+            }
+            this.index = buildIndex();
+            logger.info("Lista de contraseñas filtradas cargada: {} registros de {} bytes", count, recordBytes);
+        }
+
+        Gauge.builder("password.blocklist.entries", this, PasswordBlocklist::size)
+                .description("Hashes de contraseñas filtradas en la lista local")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Indica si la lista está cargada.
+     *
+     * @return true si se configuró un archivo
+     */
+    public boolean isEnabled() {
+        return index != null;
+    }
+
+    /**
+     * Cantidad de registros de la lista.
+     *
+     * @return La cantidad de hashes
+     */
+    public long size() {
+        return count;
+    }
+
+    /**
+     * Verifica si una contraseña aparece en la lista de filtradas.
+     *
+     * @param password La contraseña en texto plano
+     * @return true si el hash SHA-1 de la contraseña (o su prefijo) está en la lista
+     */
+    public boolean isBlocked(String password) {
+        if (index == null || password == null) {
+            return false;
+        }
+        return contains(sha1(password));
+    }
+
+    /**
+     * Verifica si un hash SHA-1 aparece en la lista.
+     *
+     * @param hash El hash SHA-1 (20 bytes)
+     * @return true si el hash, truncado al largo de los registros, está en la lista
+     */
+    boolean contains(byte[] hash) {
+        int prefix = ((hash[0] & 0xFF) << 8) | (hash[1] & 0xFF);
+        long low = index[prefix];
+        long high = index[prefix + 1] - 1;
+        while (low <= high) {
+            long mid = (low + high) >>> 1;
+            int cmp = compare(mid, hash);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Construye el índice por los dos primeros bytes con una búsqueda binaria por prefijo, sin
+     * recorrer el archivo completo.
+     */
+    private long[] buildIndex() {
+        long[] fanOut = new long[FAN_OUT + 1];
+        long low = 0;
+        for (int prefix = 0; prefix < FAN_OUT; prefix++) {
+            // Primer registro con prefijo >= prefix; los límites son crecientes
+            long high = count;
+            while (low < high) {
+                long mid = (low + high) >>> 1;
+                if (prefixAt(mid) < prefix) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            fanOut[prefix] = low;
+        }
+        fanOut[FAN_OUT] = count;
+        return fanOut;
+    }
+
+    private int prefixAt(long record) {
+        MappedByteBuffer segment = segments[(int) (record / recordsPerSegment)];
+        int offset = (int) ((record % recordsPerSegment) * recordBytes);
+        return ((segment.get(offset) & 0xFF) << 8) | (segment.get(offset + 1) & 0xFF);
+    }
+
+    /**
+     * Compara un registro con un hash, sin signo y en el largo del registro.
+     */
+    private int compare(long record, byte[] hash) {
+        MappedByteBuffer segment = segments[(int) (record / recordsPerSegment)];
+        int offset = (int) ((record % recordsPerSegment) * recordBytes);
+        for (int i = 0; i < recordBytes; i++) {
+            int cmp = Integer.compare(segment.get(offset + i) & 0xFF, hash[i] & 0xFF);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Calcula el hash SHA-1 de una contraseña en UTF-8, como en los volcados de HIBP.
+     *
+     * @param password La contraseña
+     * @return El hash SHA-1
+     */
+    static byte[] sha1(String password) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            return digest.digest(password.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 no está disponible", e);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.registration.security;
+
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.util.Arrays;
+
+/**
+ * Rutas públicas de la aplicación, que no requieren autenticación.
+ * <p>
+ * Los patrones se compilan una sola vez y el mismo {@link RequestMatcher} se usa en
+ * {@code SecurityConfig} para permitir el acceso y en {@code JwtAuthenticationFilter} para omitir
+ * por completo el procesamiento del token, de modo que ambas listas no puedan divergir.
+ */
+public final class PublicRoutes {
+
+    /** Consola H2. */
+    private static final String[] H2_CONSOLE = {"/h2-console/**"};
+
+    /** Recursos estáticos. */
+    private static final String[] STATIC_RESOURCES = {"/css/**", "/js/**", "/images/**"};
+
+    /** Endpoints públicos de la API. */
+    private static final String[] API = {"/", "/api/users/register", "/api/auth/login", "/api/auth/refresh"};
+
+    /** Claves públicas de verificación de los tokens (JWKS). */
+    private static final String[] WELL_KNOWN = {"/.well-known/jwks.json"};
+
+    /** Documentación Swagger. */
+    private static final String[] API_DOCS = {"/swagger-ui/**", "/v3/api-docs/**"};
+
+    /** Scraping de Prometheus y verificación de salud. */
+    private static final String[] ACTUATOR = {"/actuator/health", "/actuator/prometheus"};
+
+    /** Coincide con cualquier ruta pública. */
+    public static final RequestMatcher MATCHER = new OrRequestMatcher(
+            Arrays.stream(new String[][]{H2_CONSOLE, STATIC_RESOURCES, API, WELL_KNOWN, API_DOCS, ACTUATOR})
+                    .flatMap(Arrays::stream)
+                    .map(PathPatternRequestMatcher.withDefaults()::matcher)
+                    .map(RequestMatcher.class::cast)
+                    .toList());
+
+    private PublicRoutes() {
+        throw new UnsupportedOperationException("Esta clase no debe ser instanciada.");
+    }
+}
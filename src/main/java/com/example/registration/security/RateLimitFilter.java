@@ -0,0 +1,81 @@
+package com.example.registration.security;
+
+import com.example.registration.audit.AuthAuditLog;
+import com.example.registration.exception.ErrorResponses;
+import com.example.registration.metrics.AuthOutcome;
+import com.example.registration.metrics.AuthOutcomeMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Filtro que limita por dirección IP las solicitudes de inicio de sesión y registro.
+ * <p>
+ * Se ejecuta antes de leer el cuerpo de la solicitud, de modo que una solicitud rechazada no
+ * consume el hash de la contraseña. Las solicitudes que superan el límite reciben 429 con el
+ * encabezado {@code Retry-After} (en segundos). El límite por correo se aplica después, en los
+ * controladores, porque el correo viaja en el cuerpo.
+ * <p>
+ * La IP es {@link HttpServletRequest#getRemoteAddr()}. Detrás de un balanceador, Tomcat la toma de
+ * {@code X-Forwarded-For} ({@code server.forward-headers-strategy=native}) solo cuando la conexión
+ * llega desde un proxy de confianza ({@code server.tomcat.remoteip.internal-proxies}); así cada
+ * cliente tiene su propio límite y un cliente directo no puede elegir su IP con el encabezado.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    /** Rutas limitadas: los dos endpoints públicos que calculan BCrypt. */
+    private static final RequestMatcher LIMITED_ROUTES = new OrRequestMatcher(
+            PathPatternRequestMatcher.withDefaults().matcher(HttpMethod.POST, AuthOutcomeMetrics.LOGIN_URI),
+            PathPatternRequestMatcher.withDefaults().matcher(HttpMethod.POST, AuthOutcomeMetrics.REGISTER_URI));
+
+    private final RateLimiter rateLimiter;
+    private final AuthOutcomeMetrics authOutcomeMetrics;
+
+    public RateLimitFilter(RateLimiter rateLimiter, AuthOutcomeMetrics authOutcomeMetrics) {
+        this.rateLimiter = rateLimiter;
+        this.authOutcomeMetrics = authOutcomeMetrics;
+    }
+
+    /**
+     * Omite el filtro si la limitación está deshabilitada o la ruta no está limitada.
+     *
+     * @param request La solicitud HTTP
+     * @return true si la solicitud no se limita
+     */
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !rateLimiter.isEnabled() || !LIMITED_ROUTES.matches(request);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        String ip = request.getRemoteAddr();
+        long retryAfterSeconds = rateLimiter.acquireIp(ip);
+        if (retryAfterSeconds == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        AuthAuditLog.rateLimited("ip", ip);
+        authOutcomeMetrics.record(AuthOutcome.RATE_LIMITED);
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        ErrorResponses.write(response, HttpStatus.TOO_MANY_REQUESTS, ErrorResponses.TOO_MANY_REQUESTS);
+    }
+}
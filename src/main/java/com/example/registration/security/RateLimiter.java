@@ -0,0 +1,262 @@
+package com.example.registration.security;
+
+import com.example.registration.audit.AuthAuditLog;
+import com.example.registration.exception.RateLimitExceededException;
+import com.example.registration.model.Configuration;
+import com.example.registration.service.ConfigurationReloadListener;
+import com.example.registration.service.ConfigurationService;
+import com.example.registration.utils.RateLimitConfigurationType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limitador de solicitudes en memoria para el inicio de sesión y el registro, por dirección IP y
+ * por correo.
+ * <p>
+ * Cada clave tiene un token bucket implementado con GCRA: el estado es un único {@code long} (el
+ * instante teórico de la próxima solicitud) que se actualiza con compare-and-set, sin bloqueos.
+ * Los buckets se guardan en un {@link ConcurrentHashMap}, cuyas actualizaciones se reparten entre
+ * sus particiones internas. Un bucket que se volvió a llenar equivale a uno nuevo, por lo que una
+ * tarea periódica elimina las claves inactivas. Cuando se alcanza {@code ratelimit.max-keys}, antes
+ * de crear una clave nueva se eliminan las inactivas y, si no alcanza, una décima parte de las
+ * claves, las más cercanas a volver a llenarse. Así la memoria queda acotada aun ante tráfico con
+ * direcciones o correos aleatorios, y cada clave conserva su propio bucket.
+ * <p>
+ * Los límites se leen de la tabla {@code configuration} ({@link RateLimitConfigurationType}) y se
+ * recargan cuando {@link com.example.registration.service.ConfigurationWatcher} detecta un cambio.
+ * El límite por IP lo aplica {@link RateLimitFilter} antes de leer el cuerpo; el límite por correo
+ * lo aplican los controladores antes del hash de la contraseña. Con {@code ratelimit.enabled=false}
+ * no se limita ninguna solicitud.
+ */
+@Component
+public class RateLimiter implements ConfigurationReloadListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimiter.class);
+
+    private static final long MICROS_PER_MINUTE = TimeUnit.MINUTES.toMicros(1);
+    private static final long MICROS_PER_SECOND = TimeUnit.SECONDS.toMicros(1);
+
+    /**
+     * Límite de un tipo de clave, expresado para GCRA.
+     *
+     * @param intervalMicros  Intervalo entre solicitudes sostenidas
+     * @param toleranceMicros Adelanto máximo permitido sobre el ritmo sostenido (la ráfaga)
+     */
+    private record Limit(long intervalMicros, long toleranceMicros) {
+
+        static Limit of(int perMinute, int burst) {
+            long interval = MICROS_PER_MINUTE / perMinute;
+            return new Limit(interval, interval * burst);
+        }
+    }
+
+    /**
+     * Buckets de un tipo de clave.
+     */
+    private static final class Buckets {
+
+        private final String name;
+        private final Map<String, AtomicLong> byKey = new ConcurrentHashMap<>();
+        private final Counter rejected;
+        private final Counter evicted;
+        private volatile Limit limit;
+
+        private Buckets(String name, MeterRegistry meterRegistry) {
+            this.name = name;
+            Gauge.builder("ratelimit.keys", byKey, Map::size)
+                    .description("Claves con un bucket de límite de solicitudes activo")
+                    .tag("key", name)
+                    .register(meterRegistry);
+            this.rejected = Counter.builder("ratelimit.rejected")
+                    .description("Solicitudes rechazadas por superar el límite")
+                    .tag("key", name)
+                    .register(meterRegistry);
+            this.evicted = Counter.builder("ratelimit.evicted")
+                    .description("Claves activas eliminadas al alcanzar ratelimit.max-keys")
+                    .tag("key", name)
+                    .register(meterRegistry);
+        }
+    }
+
+    private final ConfigurationService configurationService;
+    private final Clock clock;
+    private final boolean enabled;
+    private final int maxKeys;
+    private final Buckets ipBuckets;
+    private final Buckets emailBuckets;
+
+    public RateLimiter(ConfigurationService configurationService,
+                       Clock clock,
+                       @Value("${ratelimit.enabled:true}") boolean enabled,
+                       @Value("${ratelimit.max-keys:100000}") int maxKeys,
+                       MeterRegistry meterRegistry) {
+        this.configurationService = configurationService;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.maxKeys = maxKeys;
+        this.ipBuckets = new Buckets("ip", meterRegistry);
+        this.emailBuckets = new Buckets("email", meterRegistry);
+        reloadLimits();
+    }
+
+    /**
+     * Recarga los límites desde la tabla {@code configuration}.
+     * Los valores ausentes o inválidos se reemplazan por el valor por defecto de su tipo.
+     */
+    public void reloadLimits() {
+        ipBuckets.limit = Limit.of(readLimit(RateLimitConfigurationType.IP_PER_MINUTE),
+                readLimit(RateLimitConfigurationType.IP_BURST));
+        emailBuckets.limit = Limit.of(readLimit(RateLimitConfigurationType.EMAIL_PER_MINUTE),
+                readLimit(RateLimitConfigurationType.EMAIL_BURST));
+        logger.info("Límites de solicitudes cargados: ip={}, email={}", ipBuckets.limit, emailBuckets.limit);
+    }
+
+    @Override
+    public void onConfigurationChange() {
+        reloadLimits();
+    }
+
+    private int readLimit(RateLimitConfigurationType type) {
+        Optional<String> value = configurationService.getConfigurationByType(type.getTypeKey())
+                .map(Configuration::getConfigValue);
+        if (value.isEmpty()) {
+            return type.getDefaultValue();
+        }
+        try {
+            int limit = Integer.parseInt(value.get().trim());
+            if (limit > 0) {
+                return limit;
+            }
+        } catch (NumberFormatException e) {
+            // Se informa abajo junto con los valores no positivos
+        }
+        logger.warn("Valor inválido para {}: '{}'; se usa {}", type.getTypeKey(), value.get(), type.getDefaultValue());
+        return type.getDefaultValue();
+    }
+
+    /**
+     * Indica si la limitación de solicitudes está habilitada.
+     *
+     * @return true si está habilitada
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Consume una solicitud del bucket de una dirección IP.
+     *
+     * @param ip La dirección IP del cliente
+     * @return 0 si la solicitud se permite, o los segundos que el cliente debe esperar
+     */
+    public long acquireIp(String ip) {
+        return acquire(ipBuckets, ip);
+    }
+
+    /**
+     * Consume una solicitud del bucket de un correo.
+     *
+     * @param email El correo informado en la solicitud
+     * @throws RateLimitExceededException si se superó el límite del correo
+     */
+    public void checkEmail(String email) {
+        if (!enabled || email == null) {
+            return;
+        }
+        String key = email.trim().toLowerCase(Locale.ROOT);
+        long retryAfterSeconds = acquire(emailBuckets, key);
+        if (retryAfterSeconds > 0) {
+            AuthAuditLog.rateLimited(emailBuckets.name, key);
+            throw new RateLimitExceededException("Límite de solicitudes superado para el correo " + key,
+                    retryAfterSeconds);
+        }
+    }
+
+    private long acquire(Buckets buckets, String key) {
+        long now = TimeUnit.MILLISECONDS.toMicros(clock.millis());
+        AtomicLong bucket = buckets.byKey.get(key);
+        if (bucket == null) {
+            if (buckets.byKey.size() >= maxKeys) {
+                evict(buckets, now);
+            }
+            bucket = buckets.byKey.computeIfAbsent(key, k -> new AtomicLong());
+        }
+
+        Limit limit = buckets.limit;
+        while (true) {
+            long current = bucket.get();
+            long next = Math.max(current, now) + limit.intervalMicros();
+            long wait = next - now - limit.toleranceMicros();
+            if (wait > 0) {
+                buckets.rejected.increment();
+                return (wait + MICROS_PER_SECOND - 1) / MICROS_PER_SECOND;
+            }
+            if (bucket.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Libera espacio cuando se alcanzó {@code ratelimit.max-keys}. Primero elimina las claves
+     * inactivas; si no alcanza, elimina una décima parte de las claves, las de instante teórico más
+     * antiguo: son las más cercanas a volver a llenarse, cuyo estado es el que menos se pierde. Se
+     * libera un lote para que el recorrido no se repita con cada clave nueva.
+     */
+    private void evict(Buckets buckets, long now) {
+        synchronized (buckets) {
+            if (buckets.byKey.size() < maxKeys) {
+                // Otro hilo ya liberó espacio
+                return;
+            }
+            buckets.byKey.values().removeIf(bucket -> bucket.get() <= now);
+
+            int excess = buckets.byKey.size() - (maxKeys - Math.max(1, maxKeys / 10));
+            if (excess <= 0) {
+                return;
+            }
+            long[] times = buckets.byKey.values().stream().mapToLong(AtomicLong::get).sorted().toArray();
+            long threshold = times[excess - 1];
+            // De las claves con el mismo instante que el umbral solo se eliminan las que faltan
+            int ties = excess - (int) Arrays.stream(times, 0, excess).filter(time -> time < threshold).count();
+            int removed = 0;
+            Iterator<AtomicLong> iterator = buckets.byKey.values().iterator();
+            while (iterator.hasNext() && removed < excess) {
+                long time = iterator.next().get();
+                if (time < threshold || (time == threshold && ties-- > 0)) {
+                    iterator.remove();
+                    removed++;
+                }
+            }
+            buckets.evicted.increment(removed);
+            logger.warn("Se alcanzó ratelimit.max-keys para {}: se eliminaron {} claves activas",
+                    buckets.name, removed);
+        }
+    }
+
+    /**
+     * Elimina los buckets de las claves inactivas, que ya se volvieron a llenar.
+     */
+    @Scheduled(fixedDelayString = "${ratelimit.purge-interval:60000}")
+    public void purgeIdle() {
+        long now = TimeUnit.MILLISECONDS.toMicros(clock.millis());
+        ipBuckets.byKey.values().removeIf(bucket -> bucket.get() <= now);
+        emailBuckets.byKey.values().removeIf(bucket -> bucket.get() <= now);
+    }
+}
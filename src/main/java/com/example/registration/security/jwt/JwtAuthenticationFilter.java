@@ -1,8 +1,13 @@
 package com.example.registration.security.jwt;
 
-import com.example.registration.exception.JwtValidationException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.registration.audit.AuthAuditLog;
+import com.example.registration.exception.ErrorResponses;
+import com.example.registration.metrics.LatencyTimers;
+import com.example.registration.security.PublicRoutes;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,24 +15,24 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Collections;
 
 /**
  * Filtro para la autenticación JWT.
- * Este filtro intercepta todas las solicitudes HTTP y verifica si contienen un token JWT válido.
- * Si el token es válido, establece la autenticación en el contexto de seguridad de Spring.
+ * Este filtro intercepta las solicitudes HTTP a rutas protegidas y verifica si contienen un token JWT válido;
+ * las rutas públicas ({@link PublicRoutes}) lo omiten por completo.
+ * Si el token es válido y no fue revocado, establece la autenticación en el contexto de seguridad de Spring
+ * sin consultar la base de datos.
  */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -36,30 +41,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final String ERROR_DETAILS_MESSAGE = "Detalles del error:";
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final TokenRevocationList tokenRevocationList;
+    private final JwtFormatValidator jwtFormatValidator;
+    private final MeterRegistry meterRegistry;
+    private final Timer filterTimer;
 
-    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtService jwtService, TokenRevocationList tokenRevocationList,
+                                   JwtFormatValidator jwtFormatValidator, MeterRegistry meterRegistry) {
         this.jwtService = jwtService;
-        this.userDetailsService = userDetailsService;
+        this.tokenRevocationList = tokenRevocationList;
+        this.jwtFormatValidator = jwtFormatValidator;
+        this.meterRegistry = meterRegistry;
+        this.filterTimer = LatencyTimers.timer(meterRegistry, LatencyTimers.JWT_FILTER,
+                "Costo propio del filtro de autenticación JWT");
     }
 
     /**
-     * Envía una respuesta de error en formato JSON.
+     * Envía la respuesta de error de firma inválida, precodificada en {@link ErrorResponses}.
      *
      * @param response La respuesta HTTP
      * @throws IOException Si ocurre un error al escribir la respuesta
      */
     private void sendErrorResponse(HttpServletResponse response) throws IOException {
-        response.setStatus(HttpStatus.UNAUTHORIZED.value());
-        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-        response.setCharacterEncoding("UTF-8");
-
-        Map<String, String> errorResponse = new HashMap<>();
-        errorResponse.put("mensaje", "La firma JWT no coincide con la firma calculada localmente");
-
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.writeValue(response.getOutputStream(), errorResponse);
-        response.flushBuffer(); // Ensure the response is committed
+        ErrorResponses.write(response, HttpStatus.UNAUTHORIZED, ErrorResponses.INVALID_SIGNATURE);
     }
 
     /**
@@ -73,106 +77,56 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     }
 
     /**
-     * Verifica si una ruta es pública (no requiere autenticación).
+     * Maneja un token JWT rechazado por el validador estructural.
      *
+     * @param rejection  El motivo del rechazo
      * @param requestURI La URI de la solicitud
-     * @return true si la ruta es pública, false en caso contrario
-     */
-    private boolean isPublicRoute(String requestURI) {
-        return requestURI.equals("/api/users/register") || requestURI.equals("/api/auth/login");
-    }
-
-    /**
-     * Validar el formato básico del token JWT.
-     *
-     * @param jwt         El token JWT
-     * @param requestURI  La URI de la solicitud
-     * @param filterChain La cadena de filtros
-     * @param request     La solicitud HTTP
-     * @param response    La respuesta HTTP
-     * @return true si el token es válido, false en caso contrario
-     * @throws ServletException       Si ocurre un error al procesar la solicitud
-     * @throws IOException            Si ocurre un error de E/S
-     * @throws JwtValidationException Si el token JWT no es válido
+     * @param response   La respuesta HTTP
+     * @throws IOException Si ocurre un error al escribir la respuesta
      */
-    private boolean validateJwtFormat(String jwt, String requestURI, FilterChain filterChain,
-                                      HttpServletRequest request, HttpServletResponse response)
-            throws ServletException, IOException, JwtValidationException {
-        // Validar que el token no sea nulo o vacío
-        if (jwt == null || jwt.trim().isEmpty()) {
-            loggerJwt.error("Token JWT vacío o nulo");
-            if (isPublicRoute(requestURI)) {
-                filterChain.doFilter(request, response);
-                return false;
-            }
-            throw new JwtValidationException("Token JWT vacío o nulo");
-        }
-
-        // Validar que el token tenga el formato correcto (2 puntos)
-        long dotCount = jwt.chars().filter(ch -> ch == '.').count();
-        if (dotCount != 2) {
-            loggerJwt.error("Token JWT malformado: debe contener exactamente 2 puntos. Encontrados: {}", dotCount);
-            if (isPublicRoute(requestURI)) {
-                filterChain.doFilter(request, response);
-                return false;
-            }
-            throw new JwtValidationException("Token JWT malformado: debe contener exactamente 2 puntos. Encontrados: " + dotCount);
-        }
-
-        return true;
+    private void handleMalformedJwt(JwtFormatValidator.Rejection rejection, String requestURI,
+                                    HttpServletResponse response) throws IOException {
+        AuthAuditLog.tokenRejected(rejection.tagValue(), requestURI);
+        ErrorResponses.write(response, HttpStatus.UNAUTHORIZED, ErrorResponses.INVALID_TOKEN);
     }
 
     /**
      * Autentica al usuario utilizando el token JWT.
+     * El token se verifica una sola vez y el usuario se construye a partir de sus claims, sin
+     * consultar la base de datos; la revocación se comprueba en memoria por {@code jti}.
      *
      * @param jwt     El token JWT
      * @param request La solicitud HTTP
      */
     private void authenticateUser(String jwt, HttpServletRequest request) {
         try {
-            // Extraer el nombre de usuario (email) del token
-            String userEmail = jwtService.extractUsername(jwt);
-            loggerJwt.debug("Email extraído del token: {}", userEmail);
+            // Verificar firma y expiración, y extraer los claims
+            Claims claims = jwtService.parseClaims(jwt);
+            String subject = claims.getSubject();
 
-            // Si el email no es nulo y no hay autenticación en el contexto de seguridad
-            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                processAuthentication(jwt, userEmail, request);
+            if (tokenRevocationList.isRevoked(claims.getId())) {
+                AuthAuditLog.tokenRejected("revoked", request.getRequestURI());
+                return;
+            }
+
+            // Si el subject (correo o UUID del usuario, según el formato) no es nulo y no hay autenticación
+            if (subject != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                setAuthentication(new User(subject, "", Collections.emptyList()), request);
             } else {
-                logAuthenticationStatus(userEmail);
+                logAuthenticationStatus(subject);
             }
         } catch (SignatureException e) {
             // Propagar la excepción de firma para que sea manejada en doFilterInternal
-            loggerJwt.error("Error de firma JWT: {}", e.getMessage());
+            AuthAuditLog.tokenRejected("signature", request.getRequestURI());
             loggerJwt.debug(ERROR_DETAILS_MESSAGE, e);
             throw new SignatureException("Error de firma JWT");
         } catch (Exception e) {
-            loggerJwt.error("Error durante la autenticación: {}", e.getMessage());
+            // Token expirado u otro error: la solicitud sigue sin autenticación
+            AuthAuditLog.tokenRejected("invalid", request.getRequestURI());
             loggerJwt.debug(ERROR_DETAILS_MESSAGE, e);
         }
     }
 
-    /**
-     * Procesa la autenticación del usuario.
-     *
-     * @param jwt       El token JWT
-     * @param userEmail El email del usuario
-     * @param request   La solicitud HTTP
-     */
-    private void processAuthentication(String jwt, String userEmail, HttpServletRequest request) {
-        loggerJwt.debug("Cargando detalles del usuario para email: {}", userEmail);
-        // Cargar los detalles del usuario desde la base de datos
-        UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-        loggerJwt.debug("Detalles del usuario cargados correctamente para: {}", userEmail);
-
-        // Verificar si el token es válido para este usuario
-        loggerJwt.debug("Validando token JWT para usuario: {}", userEmail);
-        if (jwtService.isTokenValid(jwt, userDetails)) {
-            setAuthentication(userDetails, request);
-        } else {
-            loggerJwt.error("Token JWT no válido para el usuario: {}", userEmail);
-        }
-    }
-
     /**
      * Establece la autenticación en el contexto de seguridad.
      *
@@ -180,7 +134,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
      * @param request     La solicitud HTTP
      */
     private void setAuthentication(UserDetails userDetails, HttpServletRequest request) {
-        loggerJwt.debug("Token JWT válido para usuario: {}", userDetails.getUsername());
         // Crear un token de autenticación
         UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                 userDetails,
@@ -195,17 +148,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         // Establecer la autenticación en el contexto de seguridad
         SecurityContextHolder.getContext().setAuthentication(authToken);
-        loggerJwt.debug("Autenticación establecida en el contexto de seguridad para usuario: {}", userDetails.getUsername());
     }
 
     /**
      * Registra el estado de la autenticación.
      *
-     * @param userEmail El email del usuario
+     * @param subject El subject del token
      */
-    private void logAuthenticationStatus(String userEmail) {
-        if (userEmail == null) {
-            loggerJwt.error("No se pudo extraer el email del token JWT");
+    private void logAuthenticationStatus(String subject) {
+        if (subject == null) {
+            loggerJwt.warn("No se pudo extraer el subject del token JWT");
         } else {
             loggerJwt.debug("Ya existe una autenticación en el contexto de seguridad");
         }
@@ -219,39 +171,70 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
      * @throws IOException Si ocurre un error al escribir la respuesta
      */
     private void handleJwtSignatureException(SignatureException e, HttpServletResponse response) throws IOException {
-        loggerJwt.error("Error al procesar token JWT: {}", e.getMessage());
+        // El rechazo ya quedó en el canal de auditoría; aquí solo se deja el detalle para depuración
         loggerJwt.debug(ERROR_DETAILS_MESSAGE, e);
 
         // Enviar respuesta de error
         sendErrorResponse(response);
     }
 
+    /**
+     * Omite el filtro en las rutas públicas, que no requieren ningún procesamiento del token.
+     *
+     * @param request La solicitud HTTP
+     * @return true si la ruta es pública
+     */
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return PublicRoutes.MATCHER.matches(request);
+    }
+
     @Override
     protected void doFilterInternal(
             @NonNull HttpServletRequest request,
             @NonNull HttpServletResponse response,
             @NonNull FilterChain filterChain
     ) throws ServletException, IOException {
+        // Se mide solo el trabajo propio del filtro; el resto de la cadena queda fuera de la medición
+        Timer.Sample sample = Timer.start(meterRegistry);
+        boolean continueChain;
+        try {
+            continueChain = processJwt(request, response);
+        } finally {
+            sample.stop(filterTimer);
+        }
+
+        // Continuar con la cadena de filtros
+        if (continueChain) {
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    /**
+     * Procesa el token JWT de la solicitud, si existe, y establece la autenticación.
+     *
+     * @param request  La solicitud HTTP
+     * @param response La respuesta HTTP
+     * @return true si la solicitud debe continuar por la cadena de filtros, false si ya se envió una respuesta de error
+     * @throws IOException Si ocurre un error al escribir la respuesta
+     */
+    private boolean processJwt(HttpServletRequest request, HttpServletResponse response) throws IOException {
         final String requestURI = request.getRequestURI();
         final String authHeader = request.getHeader("Authorization");
 
-        loggerJwt.debug("Procesando solicitud para URI: {}", requestURI);
-
         // Si no hay encabezado de autorización o no comienza con "Bearer ", continuar con la cadena de filtros
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            loggerJwt.debug("No se encontró encabezado de autorización válido para URI: {}", requestURI);
-            filterChain.doFilter(request, response);
-            return;
+            return true;
         }
 
-        loggerJwt.debug("Encabezado de autorización encontrado para URI: {}", requestURI);
-
         // Extraer el token JWT del encabezado de autorización
         final String jwt = extractJwtFromHeader(authHeader);
 
-        // Validar formato básico del token JWT
-        if (!validateJwtFormat(jwt, requestURI, filterChain, request, response)) {
-            return;
+        // Rechazar tokens malformados sin decodificarlos ni verificar la firma
+        JwtFormatValidator.Rejection rejection = jwtFormatValidator.check(jwt);
+        if (rejection != null) {
+            handleMalformedJwt(rejection, requestURI, response);
+            return false;
         }
 
         try {
@@ -260,15 +243,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         } catch (SignatureException e) {
             // Manejar específicamente el error de firma JWT
             handleJwtSignatureException(e, response);
-            return; // Detener el procesamiento del filtro
+            return false; // Detener el procesamiento del filtro
         } catch (Exception e) {
             // Registrar el error para facilitar la depuración
-            loggerJwt.error("Error al procesar el token JWT: {}", e.getMessage());
+            loggerJwt.warn("Error al procesar el token JWT: {}", e.getMessage());
             loggerJwt.debug(ERROR_DETAILS_MESSAGE, e);
             // No establecer autenticación
         }
 
-        // Continuar con la cadena de filtros
-        filterChain.doFilter(request, response);
+        return true;
     }
 }
@@ -0,0 +1,153 @@
+package com.example.registration.security.jwt;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Validador estructural de tokens JWT previo a cualquier operación criptográfica.
+ * <p>
+ * Recorre el token una sola vez comprobando los límites de longitud, el alfabeto base64url,
+ * que haya exactamente dos separadores y que el segmento de cabecera sea uno de los que emite esta
+ * aplicación (uno por cada clave de verificación, obtenidos una vez al iniciar). Un token que no
+ * supera estas comprobaciones no puede tener una firma válida, así que se rechaza sin decodificar
+ * ni verificar nada. Cada rechazo incrementa el contador {@code jwt.rejected} con el motivo.
+ */
+@Component
+public class JwtFormatValidator {
+
+    /** Nombre del contador de tokens rechazados por formato. */
+    public static final String JWT_REJECTED = "jwt.rejected";
+
+    /** Motivos de rechazo estructural de un token. */
+    public enum Rejection {
+        EMPTY,
+        TOO_SHORT,
+        TOO_LONG,
+        INVALID_CHARACTER,
+        SEGMENT_COUNT,
+        EMPTY_SEGMENT,
+        UNKNOWN_HEADER;
+
+        /**
+         * Valor de la etiqueta {@code reason} en las métricas.
+         *
+         * @return El nombre del motivo en minúsculas
+         */
+        public String tagValue() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static final boolean[] BASE64URL = new boolean[128];
+
+    static {
+        for (char c = 'A'; c <= 'Z'; c++) {
+            BASE64URL[c] = true;
+        }
+        for (char c = 'a'; c <= 'z'; c++) {
+            BASE64URL[c] = true;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            BASE64URL[c] = true;
+        }
+        BASE64URL['-'] = true;
+        BASE64URL['_'] = true;
+    }
+
+    private final String[] knownHeaders;
+    private final int minLength;
+    private final int maxLength;
+    private final Map<Rejection, Counter> rejectionCounters = new EnumMap<>(Rejection.class);
+
+    public JwtFormatValidator(JwtService jwtService,
+                              @Value("${jwt.max-token-length:4096}") int maxLength,
+                              MeterRegistry meterRegistry) {
+        this.knownHeaders = jwtService.knownEncodedHeaders().toArray(new String[0]);
+        int shortestHeader = Integer.MAX_VALUE;
+        for (String header : knownHeaders) {
+            shortestHeader = Math.min(shortestHeader, header.length());
+        }
+        // Cabecera, dos separadores y al menos un carácter de contenido y de firma
+        this.minLength = shortestHeader + 4;
+        this.maxLength = maxLength;
+        for (Rejection rejection : Rejection.values()) {
+            rejectionCounters.put(rejection, Counter.builder(JWT_REJECTED)
+                    .description("Tokens JWT rechazados por formato antes de verificar la firma")
+                    .tag("reason", rejection.tagValue())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Comprueba la estructura de un token y registra el motivo si se rechaza.
+     *
+     * @param jwt El token JWT (sin el prefijo {@code Bearer })
+     * @return El motivo del rechazo, o {@code null} si la estructura es válida
+     */
+    @Nullable
+    public Rejection check(@Nullable String jwt) {
+        Rejection rejection = inspect(jwt);
+        if (rejection != null) {
+            rejectionCounters.get(rejection).increment();
+        }
+        return rejection;
+    }
+
+    @Nullable
+    private Rejection inspect(@Nullable String jwt) {
+        if (jwt == null || jwt.isEmpty()) {
+            return Rejection.EMPTY;
+        }
+        int length = jwt.length();
+        if (length < minLength) {
+            return Rejection.TOO_SHORT;
+        }
+        if (length > maxLength) {
+            return Rejection.TOO_LONG;
+        }
+
+        int firstDot = -1;
+        int secondDot = -1;
+        for (int i = 0; i < length; i++) {
+            char c = jwt.charAt(i);
+            if (c == '.') {
+                if (firstDot < 0) {
+                    firstDot = i;
+                } else if (secondDot < 0) {
+                    secondDot = i;
+                } else {
+                    return Rejection.SEGMENT_COUNT;
+                }
+            } else if (c >= BASE64URL.length || !BASE64URL[c]) {
+                return Rejection.INVALID_CHARACTER;
+            }
+        }
+
+        if (secondDot < 0) {
+            return Rejection.SEGMENT_COUNT;
+        }
+        if (firstDot == 0 || secondDot == firstDot + 1 || secondDot == length - 1) {
+            return Rejection.EMPTY_SEGMENT;
+        }
+        if (!isKnownHeader(jwt, firstDot)) {
+            return Rejection.UNKNOWN_HEADER;
+        }
+        return null;
+    }
+
+    private boolean isKnownHeader(String jwt, int headerLength) {
+        for (String header : knownHeaders) {
+            if (header.length() == headerLength && jwt.startsWith(header)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
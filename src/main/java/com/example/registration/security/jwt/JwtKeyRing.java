@@ -0,0 +1,279 @@
+package com.example.registration.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Conjunto de claves con que se firman y verifican los tokens JWT.
+ * <p>
+ * Los objetos {@link Key} se construyen una sola vez al iniciar y se reutilizan en cada firma y
+ * verificación. Con HS256 hay un único secreto compartido. Con ES256 se firma con la clave privada
+ * activa y el {@code kid} de la cabecera del token selecciona la clave pública de verificación, de
+ * modo que durante una rotación los tokens firmados con la clave anterior siguen siendo válidos
+ * mientras su clave pública permanezca en el conjunto. Solo las claves públicas se publican en el
+ * JWKS; el secreto HS256 nunca se expone.
+ */
+public final class JwtKeyRing extends SigningKeyResolverAdapter {
+
+    private static final Pattern KID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+    private static final String PRIVATE_KEY_SUFFIX = ".key.pem";
+    private static final String PUBLIC_KEY_SUFFIX = ".pub.pem";
+    private static final int P256_COORDINATE_BYTES = 32;
+
+    private final SignatureAlgorithm algorithm;
+    private final String activeKid;
+    private final Key signingKey;
+    private final Map<String, Key> verificationKeys;
+
+    private JwtKeyRing(SignatureAlgorithm algorithm, @Nullable String activeKid, Key signingKey,
+                       Map<String, Key> verificationKeys) {
+        this.algorithm = algorithm;
+        this.activeKid = activeKid;
+        this.signingKey = signingKey;
+        this.verificationKeys = Collections.unmodifiableMap(verificationKeys);
+    }
+
+    /**
+     * Crea un conjunto de claves HS256 a partir de un secreto compartido.
+     *
+     * @param secret El secreto (al menos 32 bytes)
+     * @return El conjunto de claves
+     */
+    public static JwtKeyRing hmac(String secret) {
+        Key key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        return new JwtKeyRing(SignatureAlgorithm.HS256, null, key, new LinkedHashMap<>());
+    }
+
+    /**
+     * Crea un conjunto de claves ES256.
+     *
+     * @param activeKid  Identificador de la clave con que se firma
+     * @param signingKey Clave privada activa
+     * @param publicKeys Claves públicas de verificación por {@code kid}; debe incluir la activa
+     * @return El conjunto de claves
+     * @throws IllegalArgumentException si falta la clave pública activa o no corresponde a la privada
+     */
+    public static JwtKeyRing ecdsa(String activeKid, PrivateKey signingKey, Map<String, ECPublicKey> publicKeys) {
+        if (!publicKeys.containsKey(activeKid)) {
+            throw new IllegalArgumentException("Falta la clave pública de la clave activa: " + activeKid);
+        }
+        requireMatchingPair(activeKid, signingKey, publicKeys.get(activeKid));
+        Map<String, Key> verificationKeys = new LinkedHashMap<>();
+        verificationKeys.put(activeKid, publicKeys.get(activeKid));
+        publicKeys.forEach((kid, key) -> {
+            requireValidKid(kid);
+            requireP256(kid, key);
+            verificationKeys.putIfAbsent(kid, key);
+        });
+        return new JwtKeyRing(SignatureAlgorithm.ES256, activeKid, signingKey, verificationKeys);
+    }
+
+    /**
+     * Crea un conjunto de claves ES256 con un par de claves generado en memoria.
+     * Los tokens dejan de ser válidos al reiniciar; solo sirve para desarrollo y pruebas.
+     *
+     * @param kid Identificador de la clave
+     * @return El conjunto de claves
+     */
+    public static JwtKeyRing ephemeralEcdsa(String kid) {
+        requireValidKid(kid);
+        KeyPair keyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        return ecdsa(kid, keyPair.getPrivate(), Map.of(kid, (ECPublicKey) keyPair.getPublic()));
+    }
+
+    /**
+     * Carga un conjunto de claves ES256 desde un directorio con archivos PEM.
+     * Cada clave se identifica por el nombre del archivo: {@code <kid>.pub.pem} (X.509) para las
+     * claves públicas y {@code <kid>.key.pem} (PKCS#8) para la clave privada activa. Las claves que
+     * solo tienen archivo público quedan como claves de verificación (rotación).
+     *
+     * @param directory Directorio de las claves
+     * @param activeKid Identificador de la clave con que se firma
+     * @return El conjunto de claves
+     * @throws IOException Si no se pueden leer los archivos
+     */
+    public static JwtKeyRing ecdsaFromDirectory(Path directory, String activeKid) throws IOException {
+        requireValidKid(activeKid);
+        Map<String, ECPublicKey> publicKeys = new LinkedHashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + PUBLIC_KEY_SUFFIX)) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                String kid = fileName.substring(0, fileName.length() - PUBLIC_KEY_SUFFIX.length());
+                publicKeys.put(kid, (ECPublicKey) readKey(file, false));
+            }
+        }
+        PrivateKey privateKey = (PrivateKey) readKey(directory.resolve(activeKid + PRIVATE_KEY_SUFFIX), true);
+        return ecdsa(activeKid, privateKey, publicKeys);
+    }
+
+    private static Key readKey(Path file, boolean isPrivate) throws IOException {
+        String pem = Files.readString(file, StandardCharsets.US_ASCII);
+        String base64 = pem.replaceAll("-----[A-Z ]+-----", "").replaceAll("\\s", "");
+        byte[] der = Base64.getDecoder().decode(base64);
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance("EC");
+            return isPrivate
+                    ? keyFactory.generatePrivate(new PKCS8EncodedKeySpec(der))
+                    : keyFactory.generatePublic(new X509EncodedKeySpec(der));
+        } catch (GeneralSecurityException e) {
+            throw new IOException("No se pudo leer la clave EC de " + file, e);
+        }
+    }
+
+    private static void requireValidKid(String kid) {
+        if (kid == null || !KID.matcher(kid).matches()) {
+            throw new IllegalArgumentException("Identificador de clave inválido: " + kid);
+        }
+    }
+
+    /**
+     * Firma y verifica un mensaje de prueba para confirmar que la clave privada activa corresponde a
+     * su clave pública; de lo contrario ningún token emitido podría verificarse.
+     */
+    private static void requireMatchingPair(String kid, PrivateKey privateKey, ECPublicKey publicKey) {
+        byte[] probe = ("key-pair-probe:" + kid).getBytes(StandardCharsets.US_ASCII);
+        boolean matches;
+        try {
+            Signature signer = Signature.getInstance("SHA256withECDSA");
+            signer.initSign(privateKey);
+            signer.update(probe);
+            byte[] signature = signer.sign();
+
+            Signature verifier = Signature.getInstance("SHA256withECDSA");
+            verifier.initVerify(publicKey);
+            verifier.update(probe);
+            matches = verifier.verify(signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("No se pudo verificar el par de claves " + kid, e);
+        }
+        if (!matches) {
+            throw new IllegalArgumentException("La clave privada no corresponde a la clave pública " + kid);
+        }
+    }
+
+    private static void requireP256(String kid, ECPublicKey key) {
+        if (key.getParams().getCurve().getField().getFieldSize() != 256) {
+            throw new IllegalArgumentException("La clave " + kid + " no es de la curva P-256");
+        }
+    }
+
+    /**
+     * Obtiene el algoritmo de firma.
+     *
+     * @return El algoritmo de firma
+     */
+    public SignatureAlgorithm algorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Obtiene el identificador de la clave activa.
+     *
+     * @return El {@code kid} de la clave activa, o {@code null} con HS256 (los tokens no llevan {@code kid})
+     */
+    @Nullable
+    public String activeKid() {
+        return activeKid;
+    }
+
+    /**
+     * Obtiene la clave con que se firman los tokens.
+     *
+     * @return La clave de firma
+     */
+    public Key signingKey() {
+        return signingKey;
+    }
+
+    /**
+     * Obtiene los identificadores de las claves de verificación, empezando por la activa.
+     *
+     * @return Los {@code kid} de verificación (vacío con HS256)
+     */
+    public Set<String> kids() {
+        return verificationKeys.keySet();
+    }
+
+    @Override
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        return resolve(header);
+    }
+
+    @Override
+    public Key resolveSigningKey(JwsHeader header, String plaintext) {
+        return resolve(header);
+    }
+
+    private Key resolve(JwsHeader header) {
+        if (activeKid == null) {
+            return signingKey;
+        }
+        Key key = header.getKeyId() != null ? verificationKeys.get(header.getKeyId()) : null;
+        if (key == null) {
+            throw new SignatureException("Identificador de clave desconocido: " + header.getKeyId());
+        }
+        return key;
+    }
+
+    /**
+     * Construye el conjunto de claves públicas en formato JWK (RFC 7517).
+     *
+     * @return Las claves públicas de verificación (vacío con HS256)
+     */
+    public List<Map<String, Object>> publicJwks() {
+        List<Map<String, Object>> jwks = new ArrayList<>();
+        verificationKeys.forEach((kid, key) -> {
+            ECPublicKey publicKey = (ECPublicKey) key;
+            Map<String, Object> jwk = new LinkedHashMap<>();
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("kid", kid);
+            jwk.put("use", "sig");
+            jwk.put("alg", algorithm.getValue());
+            jwk.put("x", coordinate(publicKey.getW().getAffineX()));
+            jwk.put("y", coordinate(publicKey.getW().getAffineY()));
+            jwks.add(jwk);
+        });
+        return jwks;
+    }
+
+    /**
+     * Codifica una coordenada de la curva en base64url con longitud fija, sin el byte de signo.
+     */
+    private static String coordinate(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] fixed = new byte[P256_COORDINATE_BYTES];
+        int length = Math.min(bytes.length, P256_COORDINATE_BYTES);
+        System.arraycopy(bytes, bytes.length - length, fixed, P256_COORDINATE_BYTES - length, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(fixed);
+    }
+}
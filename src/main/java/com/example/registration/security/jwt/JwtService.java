@@ -1,61 +1,211 @@
 package com.example.registration.security.jwt;
 
+import com.example.registration.metrics.LatencyTimers;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.CompressionCodecs;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.io.Deserializer;
+import io.jsonwebtoken.io.Serializer;
+import io.jsonwebtoken.jackson.io.JacksonDeserializer;
+import io.jsonwebtoken.jackson.io.JacksonSerializer;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import java.security.Key;
+import java.time.Clock;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Function;
 
 /**
  * Servicio para la generación y validación de tokens JWT.
+ * <p>
+ * Los tokens de acceso son de corta duración ({@code jwt.expiration}) y llevan un identificador
+ * único ({@code jti}) que permite revocarlos antes de su expiración mediante
+ * {@link TokenRevocationList}; la sesión se renueva con un refresh token.
+ * <p>
+ * El algoritmo y las claves los provee {@link JwtKeyRing}: con ES256 los tokens llevan el {@code kid}
+ * de la clave activa y los servicios externos pueden verificarlos localmente con el JWKS publicado.
+ * El parser se construye una sola vez y se reutiliza en cada verificación.
+ * <p>
+ * El contenido de los tokens sigue el {@link TokenFormat} configurado; ningún token emitido puede
+ * superar su tamaño máximo, y el tamaño de cada token se registra en {@code jwt.token.size}.
+ * <p>
+ * La emisión y la verificación de la expiración toman la hora de {@code tokenClock}, que puede ser
+ * un reloj de baja resolución en caché (ver {@code TimeConfig}).
  */
 @Service
 public class JwtService {
 
-    @Value("${jwt.secret:defaultSecretKeyForDevelopmentEnvironmentOnly}")
-    private String secretKey;
+    private static final int COMPACT_ID_BYTES = 12;
 
-    @Value("${jwt.expiration:86400000}") // 24 hours in milliseconds
-    private long jwtExpiration;
+    // Mismo serializador JSON que usa jjwt para las cabeceras (jjwt-jackson)
+    private static final Serializer<Map<String, Object>> HEADER_SERIALIZER = new JacksonSerializer<>();
+    private static final Deserializer<Map<String, Object>> HEADER_DESERIALIZER = new JacksonDeserializer<>();
+
+    private final JwtKeyRing keyRing;
+    private final JwtParser parser;
+    private final TokenFormat tokenFormat;
+    private final long jwtExpiration;
+    private final Clock clock;
+
+    private final Timer signTimer;
+    private final Timer parseTimer;
+    private final Timer verifyTimer;
+    private final DistributionSummary tokenSize;
+
+    public JwtService(JwtKeyRing keyRing,
+                      TokenFormat tokenFormat,
+                      @Value("${jwt.expiration:900000}") long jwtExpiration, // 15 minutes in milliseconds
+                      @Qualifier("tokenClock") Clock clock,
+                      MeterRegistry meterRegistry) {
+        this.keyRing = keyRing;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(keyRing)
+                .setClock(() -> new Date(clock.millis()))
+                .build();
+        this.tokenFormat = tokenFormat;
+        this.jwtExpiration = jwtExpiration;
+        this.clock = clock;
+        this.signTimer = operationTimer(meterRegistry, "sign");
+        this.parseTimer = operationTimer(meterRegistry, "parse");
+        this.verifyTimer = operationTimer(meterRegistry, "verify");
+        this.tokenSize = DistributionSummary.builder("jwt.token.size")
+                .description("Tamaño de los tokens JWT emitidos")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    private static Timer operationTimer(MeterRegistry meterRegistry, String operation) {
+        return LatencyTimers.timer(meterRegistry, LatencyTimers.JWT_OPERATION,
+                "Tiempo de las operaciones sobre tokens JWT", "operation", operation);
+    }
 
     /**
-     * Genera un token JWT para un usuario.
+     * Genera un token de acceso para un usuario.
+     * El {@code sub} es el UUID del usuario en el formato compacto y su correo en el estándar.
      *
-     * @param username El nombre de usuario para el cual generar el token
+     * @param userId Identificador del usuario
+     * @param email  Correo del usuario
      * @return El token JWT generado
      */
-    public String generateToken(String username) {
-        return generateToken(new HashMap<>(), username);
+    public String generateToken(UUID userId, String email) {
+        return generateToken(subjectFor(userId, email));
+    }
+
+    /**
+     * Obtiene el {@code sub} que llevan los tokens de acceso de un usuario.
+     *
+     * @param userId Identificador del usuario
+     * @param email  Correo del usuario
+     * @return El UUID del usuario en el formato compacto, o su correo en el estándar
+     */
+    public String subjectFor(UUID userId, String email) {
+        return tokenFormat.compact() ? userId.toString() : email;
     }
 
     /**
-     * Genera un token JWT con claims adicionales para un usuario.
+     * Genera un token JWT con el subject indicado.
+     *
+     * @param subject El subject del token
+     * @return El token JWT generado
+     */
+    public String generateToken(String subject) {
+        return generateToken(new HashMap<>(), subject);
+    }
+
+    /**
+     * Genera un token JWT con claims adicionales.
      *
      * @param extraClaims Claims adicionales para incluir en el token
-     * @param username El nombre de usuario para el cual generar el token
+     * @param subject El subject del token
      * @return El token JWT generado
+     * @throws IllegalStateException si el token supera el tamaño máximo configurado
      */
-    public String generateToken(Map<String, Object> extraClaims, String username) {
-        return Jwts.builder()
-                .setClaims(extraClaims)
-                .setSubject(username)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
-                .compact();
+    public String generateToken(Map<String, Object> extraClaims, String subject) {
+        String token = signTimer.record(() -> {
+            long now = clock.millis();
+            JwtBuilder builder = Jwts.builder();
+            if (keyRing.activeKid() != null) {
+                builder.setHeaderParam(JwsHeader.KEY_ID, keyRing.activeKid());
+            }
+            builder.setClaims(extraClaims)
+                    .setId(newTokenId())
+                    .setSubject(subject);
+            if (!tokenFormat.compact()) {
+                builder.setIssuedAt(new Date(now));
+            }
+            builder.setExpiration(new Date(now + jwtExpiration));
+            if (tokenFormat.deflate()) {
+                builder.compressWith(CompressionCodecs.DEFLATE);
+            }
+            return builder
+                    .signWith(keyRing.signingKey(), keyRing.algorithm())
+                    .compact();
+        });
+
+        // El token es ASCII (base64url y puntos): su largo en caracteres es su tamaño en bytes
+        tokenSize.record(token.length());
+        if (token.length() > tokenFormat.maxBytes()) {
+            throw new IllegalStateException("El token emitido ocupa " + token.length()
+                    + " bytes y supera el máximo de " + tokenFormat.maxBytes() + " (jwt.max-token-bytes)");
+        }
+        return token;
     }
 
-    private Key getSigningKey() {
-        byte[] keyBytes = secretKey.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * Genera el identificador único ({@code jti}) de un token.
+     * En el formato compacto son 96 bits aleatorios en base64url; no necesita ser impredecible
+     * porque la firma protege el token, solo único.
+     */
+    private String newTokenId() {
+        if (!tokenFormat.compact()) {
+            return UUID.randomUUID().toString();
+        }
+        byte[] bytes = new byte[COMPACT_ID_BYTES];
+        ThreadLocalRandom.current().nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * Obtiene las cabeceras codificadas (base64url) que puede tener un token emitido por la aplicación,
+     * una por cada clave de verificación.
+     * La cabecera de la clave activa se obtiene de un token de prueba; para cada clave se copian sus
+     * campos, se reemplaza el {@code kid} y se serializa con el mismo serializador que usa jjwt, de
+     * modo que el orden de los campos y el escape coinciden con los tokens reales.
+     *
+     * @return Las cabeceras codificadas, empezando por la de la clave activa
+     */
+    public Set<String> knownEncodedHeaders() {
+        String probe = generateToken("format-probe");
+        String activeHeader = probe.substring(0, probe.indexOf('.'));
+        Set<String> headers = new LinkedHashSet<>();
+        headers.add(activeHeader);
+        if (keyRing.activeKid() == null) {
+            return headers;
+        }
+
+        Map<String, Object> activeFields = HEADER_DESERIALIZER.deserialize(Base64.getUrlDecoder().decode(activeHeader));
+        for (String kid : keyRing.kids()) {
+            Map<String, Object> header = new LinkedHashMap<>(activeFields);
+            header.put(JwsHeader.KEY_ID, kid);
+            headers.add(Base64.getUrlEncoder().withoutPadding().encodeToString(HEADER_SERIALIZER.serialize(header)));
+        }
+        return headers;
     }
 
     /**
@@ -66,8 +216,10 @@ public class JwtService {
      * @return true si el token es válido, false en caso contrario
      */
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return verifyTimer.record(() -> {
+            final String username = extractUsername(token);
+            return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        });
     }
 
     /**
@@ -103,15 +255,23 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Verifica la firma y la expiración de un token JWT y devuelve sus claims.
+     * Es la única operación criptográfica que necesita el filtro de autenticación.
+     *
+     * @param token El token JWT
+     * @return Los claims del token
+     * @throws io.jsonwebtoken.JwtException si el token es inválido o expiró
+     */
+    public Claims parseClaims(String token) {
+        return extractAllClaims(token);
+    }
+
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parseTimer.record(() -> parser.parseClaimsJws(token).getBody());
     }
 
     private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        return extractExpiration(token).getTime() < clock.millis();
     }
 }
@@ -0,0 +1,33 @@
+package com.example.registration.security.jwt;
+
+/**
+ * Formato de los tokens de acceso emitidos por {@link JwtService}.
+ * <p>
+ * En el formato estándar el {@code sub} es el correo del usuario y el token lleva {@code jti},
+ * {@code iat} y {@code exp}. En el formato compacto el {@code sub} es el UUID del usuario, se omite
+ * {@code iat} y el {@code jti} es un valor aleatorio de 96 bits en base64url (16 caracteres en lugar
+ * de 36). Opcionalmente el contenido se comprime con DEFLATE ({@code zip: DEF}), lo que solo reduce
+ * el tamaño cuando los claims adicionales son extensos. Todo token emitido debe caber en
+ * {@code maxBytes}.
+ *
+ * @param compact  Usa el formato compacto
+ * @param deflate  Comprime el contenido con DEFLATE
+ * @param maxBytes Tamaño máximo de un token emitido, en bytes
+ */
+public record TokenFormat(boolean compact, boolean deflate, int maxBytes) {
+
+    /** Tamaño máximo por defecto: el largo de la columna {@code users.user_token}. */
+    public static final int DEFAULT_MAX_BYTES = 512;
+
+    /** Formato estándar, sin compresión. */
+    public static final TokenFormat STANDARD = new TokenFormat(false, false, DEFAULT_MAX_BYTES);
+
+    /** Formato compacto, sin compresión. */
+    public static final TokenFormat COMPACT = new TokenFormat(true, false, DEFAULT_MAX_BYTES);
+
+    public TokenFormat {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("El tamaño máximo del token debe ser positivo: " + maxBytes);
+        }
+    }
+}
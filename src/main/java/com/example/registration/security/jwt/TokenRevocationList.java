@@ -0,0 +1,66 @@
+package com.example.registration.security.jwt;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lista en memoria de tokens de acceso revocados, indexada por {@code jti}.
+ * <p>
+ * La consulta es O(1) y no requiere acceso a la base de datos. Cada entrada se conserva solo
+ * hasta la expiración del token revocado (después el token deja de ser válido por sí mismo),
+ * por lo que el tamaño queda acotado por los cierres de sesión ocurridos dentro de la duración
+ * de un token de acceso. La lista es local a cada instancia de la aplicación.
+ */
+@Component
+public class TokenRevocationList {
+
+    private final Map<String, Long> revokedUntil = new ConcurrentHashMap<>();
+    private final Clock clock;
+
+    public TokenRevocationList(@Qualifier("tokenClock") Clock clock, MeterRegistry meterRegistry) {
+        this.clock = clock;
+        Gauge.builder("jwt.revoked.size", revokedUntil, Map::size)
+                .description("Tokens de acceso revocados que aún no expiran")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Revoca un token de acceso hasta su expiración.
+     *
+     * @param jti        Identificador del token
+     * @param expiration Fecha de expiración del token
+     */
+    public void revoke(String jti, Date expiration) {
+        if (jti != null && expiration != null && expiration.getTime() > clock.millis()) {
+            revokedUntil.put(jti, expiration.getTime());
+        }
+    }
+
+    /**
+     * Verifica si un token de acceso fue revocado.
+     *
+     * @param jti Identificador del token
+     * @return true si el token fue revocado
+     */
+    public boolean isRevoked(@Nullable String jti) {
+        return jti != null && revokedUntil.containsKey(jti);
+    }
+
+    /**
+     * Elimina las entradas de tokens que ya expiraron.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval:60000}")
+    public void purgeExpired() {
+        long now = clock.millis();
+        revokedUntil.values().removeIf(expiration -> expiration <= now);
+    }
+}
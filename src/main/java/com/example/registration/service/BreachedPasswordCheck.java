@@ -0,0 +1,39 @@
+package com.example.registration.service;
+
+import com.example.registration.dto.UserRequestDTO;
+import com.example.registration.exception.InvalidPasswordException;
+import com.example.registration.security.PasswordBlocklist;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rechaza las contraseñas que aparecen en la lista local de contraseñas filtradas
+ * ({@link PasswordBlocklist}). Sin lista configurada, la verificación acepta todas.
+ */
+@Component
+public class BreachedPasswordCheck implements RegistrationCheck {
+
+    private final PasswordBlocklist passwordBlocklist;
+
+    public BreachedPasswordCheck(PasswordBlocklist passwordBlocklist) {
+        this.passwordBlocklist = passwordBlocklist;
+    }
+
+    @Override
+    public String name() {
+        return "breach_check";
+    }
+
+    @Override
+    public Cost cost() {
+        return Cost.LOCAL_IO;
+    }
+
+    @Override
+    public Rejection check(UserRequestDTO request) {
+        if (!passwordBlocklist.isEnabled() || !passwordBlocklist.isBlocked(request.getPassword())) {
+            return null;
+        }
+        return new Rejection("breached_password",
+                new InvalidPasswordException("La contraseña aparece en una filtración conocida"));
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.registration.service;
+
+import com.example.registration.utils.BloomFilter;
+import com.example.registration.utils.SortedWordSet;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * Etapa que rechaza las contraseñas comunes y sus variantes simples.
+ * <p>
+ * El diccionario ({@code password.common-list.resource}) se carga una sola vez, cuando la aplicación
+ * termina de iniciar, en el ejecutor de tareas de Spring. Tanto el {@link BloomFilter} como el
+ * conjunto exacto de palabras ({@link SortedWordSet}) quedan fuera del heap; los positivos del filtro
+ * se confirman con una búsqueda binaria en el conjunto, de modo que un falso positivo nunca rechaza
+ * una contraseña. Para cada contraseña se consultan hasta tres variantes: en minúsculas, sin los
+ * dígitos y símbolos finales ({@code Password123!} → {@code password}) y sin las sustituciones
+ * habituales de letras ({@code p@ssw0rd} → {@code password}). Casi todas las contraseñas se
+ * descartan con el filtro, sin tocar el conjunto.
+ * <p>
+ * Mientras el diccionario se carga, o si la carga falla, la etapa acepta todas las contraseñas. El
+ * estado se ve en las métricas {@code password.common-list.entries} (0 hasta que se carga) y
+ * {@code password.common-list.load.failures}.
+ */
+@Component
+public class CommonPasswordStage implements PasswordValidationStage {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommonPasswordStage.class);
+
+    /**
+     * Diccionario cargado: el filtro y el conjunto exacto que confirma sus positivos.
+     */
+    private record Dictionary(BloomFilter filter, SortedWordSet words) {
+    }
+
+    private final Resource resource;
+    private final double falsePositiveRate;
+    private final Executor executor;
+    private final Counter loadFailures;
+    private volatile Dictionary dictionary;
+
+    public CommonPasswordStage(@Value("${password.common-list.resource:classpath:passwords/common-passwords.txt}")
+                               Resource resource,
+                               @Value("${password.common-list.false-positive-rate:0.01}") double falsePositiveRate,
+                               @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+                               Executor executor,
+                               MeterRegistry meterRegistry) {
+        this.resource = resource;
+        this.falsePositiveRate = falsePositiveRate;
+        this.executor = executor;
+        this.loadFailures = Counter.builder("password.common-list.load.failures")
+                .description("Cargas fallidas del diccionario de contraseñas comunes")
+                .register(meterRegistry);
+        Gauge.builder("password.common-list.entries", this, CommonPasswordStage::size)
+                .description("Palabras cargadas del diccionario de contraseñas comunes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Inicia la carga del diccionario en el ejecutor de tareas, sin demorar el inicio de la aplicación.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startLoading() {
+        executor.execute(this::load);
+    }
+
+    /**
+     * Carga el diccionario y lo publica; si falla, lo registra y la etapa sigue aceptando todas las
+     * contraseñas.
+     */
+    void load() {
+        try {
+            dictionary = read(resource, falsePositiveRate);
+        } catch (RuntimeException e) {
+            loadFailures.increment();
+            logger.error("No se pudo cargar el diccionario de contraseñas comunes; la etapa acepta todas las contraseñas", e);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "common_password";
+    }
+
+    @Override
+    public boolean accepts(String password) {
+        Dictionary loaded = dictionary;
+        if (loaded == null || password == null) {
+            return true;
+        }
+
+        String lower = password.toLowerCase(Locale.ROOT);
+        if (isCommon(loaded, lower)) {
+            return false;
+        }
+        String stripped = stripTrailingSymbols(lower);
+        if (stripped.length() != lower.length() && isCommon(loaded, stripped)) {
+            return false;
+        }
+        String plain = undoSubstitutions(stripped);
+        return plain == null || !isCommon(loaded, plain);
+    }
+
+    /**
+     * Indica si el diccionario ya se cargó.
+     *
+     * @return true si la etapa está verificando contraseñas
+     */
+    public boolean isReady() {
+        return dictionary != null;
+    }
+
+    /**
+     * Cantidad de palabras del diccionario cargado.
+     *
+     * @return La cantidad de palabras, o 0 si el diccionario no está cargado
+     */
+    public int size() {
+        Dictionary loaded = dictionary;
+        return loaded == null ? 0 : loaded.words().size();
+    }
+
+    private static boolean isCommon(Dictionary loaded, String candidate) {
+        return !candidate.isEmpty() && loaded.filter().mightContain(candidate) && loaded.words().contains(candidate);
+    }
+
+    /**
+     * Quita los dígitos y símbolos del final, si queda al menos una letra.
+     */
+    static String stripTrailingSymbols(String value) {
+        int end = value.length();
+        while (end > 0 && !Character.isLetter(value.charAt(end - 1))) {
+            end--;
+        }
+        return end == 0 ? value : value.substring(0, end);
+    }
+
+    /**
+     * Reemplaza las sustituciones habituales de letras por dígitos y símbolos.
+     *
+     * @return La cadena sin sustituciones, o null si no tenía ninguna
+     */
+    static String undoSubstitutions(String value) {
+        char[] chars = null;
+        for (int i = 0; i < value.length(); i++) {
+            char replacement = switch (value.charAt(i)) {
+                case '0' -> 'o';
+                case '1', '!' -> 'i';
+                case '3' -> 'e';
+                case '4', '@' -> 'a';
+                case '5', '$' -> 's';
+                case '7' -> 't';
+                default -> '\0';
+            };
+            if (replacement != 0) {
+                if (chars == null) {
+                    chars = value.toCharArray();
+                }
+                chars[i] = replacement;
+            }
+        }
+        return chars == null ? null : new String(chars);
+    }
+
+    private static Dictionary read(Resource resource, double falsePositiveRate) {
+        long start = System.nanoTime();
+        Set<String> words = new HashSet<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String word = line.trim().toLowerCase(Locale.ROOT);
+                if (!word.isEmpty() && !word.startsWith("#")) {
+                    words.add(word);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer el diccionario de contraseñas comunes: " + resource, e);
+        }
+
+        BloomFilter filter = BloomFilter.create(words.size(), falsePositiveRate);
+        words.forEach(filter::add);
+        // El conjunto temporal queda para el recolector; las palabras se consultan fuera del heap
+        SortedWordSet exact = SortedWordSet.of(words);
+        logger.info("Diccionario de contraseñas comunes cargado: {} palabras, filtro de {} bytes y lista de {} bytes en {} ms",
+                exact.size(), filter.sizeInBytes(), exact.sizeInBytes(), (System.nanoTime() - start) / 1_000_000);
+        return new Dictionary(filter, exact);
+    }
+}
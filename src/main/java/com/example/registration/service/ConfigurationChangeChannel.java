@@ -0,0 +1,29 @@
+package com.example.registration.service;
+
+/**
+ * Canal por el que los nodos de la aplicación se enteran de los cambios de configuración.
+ * <p>
+ * El nodo que modifica una configuración llama a {@link #publish()}; cada nodo consulta
+ * periódicamente {@link #currentVersion()} (ver {@link ConfigurationWatcher}) y recarga sus
+ * políticas cuando la versión cambia. La implementación por defecto es
+ * {@link DatabaseConfigurationChangeChannel}; otra implementación (un archivo compartido, un
+ * tópico de mensajería) puede reemplazarla declarando su propio bean.
+ */
+public interface ConfigurationChangeChannel {
+
+    /**
+     * Anuncia que las configuraciones cambiaron.
+     * Se invoca dentro de la transacción que modifica la configuración.
+     *
+     * @return La nueva versión, que se guarda como revisión de la configuración modificada
+     */
+    long publish();
+
+    /**
+     * Obtiene la versión actual de las configuraciones.
+     * Cualquier diferencia con la última versión leída indica un cambio.
+     *
+     * @return La versión actual
+     */
+    long currentVersion();
+}
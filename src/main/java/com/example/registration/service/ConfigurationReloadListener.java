@@ -0,0 +1,14 @@
+package com.example.registration.service;
+
+/**
+ * Componente que mantiene estado derivado de las configuraciones (un validador compilado, límites
+ * en memoria) y debe reconstruirlo cuando estas cambian.
+ * {@link ConfigurationWatcher} invoca a todos los beans que implementan esta interfaz.
+ */
+public interface ConfigurationReloadListener {
+
+    /**
+     * Reconstruye el estado a partir de las configuraciones actuales.
+     */
+    void onConfigurationChange();
+}
@@ -1,39 +1,91 @@
 package com.example.registration.service;
 
+import com.example.registration.audit.AuditEventType;
+import com.example.registration.audit.AuditTrail;
 import com.example.registration.model.Configuration;
 import com.example.registration.model.ConfigurationType;
 import com.example.registration.repository.ConfigurationRepository;
 import com.example.registration.repository.ConfigurationTypeRepository;
+import com.example.registration.tenant.TenantContext;
 import com.example.registration.utils.PasswordConfigurationType;
+import com.example.registration.utils.PasswordRegexGenerator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
  * Servicio para la gestión de configuraciones.
  * Proporciona métodos para obtener y actualizar configuraciones del sistema.
+ * <p>
+ * Las configuraciones del tenant por defecto son la base de todos los tenants; un tenant puede
+ * sobrescribir los valores de la política de contraseñas. Las escrituras se aplican al tenant de la
+ * solicitud en curso ({@link TenantContext}).
  */
 @Service
 public class ConfigurationService {
 
     private static final Logger logger = LoggerFactory.getLogger(ConfigurationService.class);
 
+    private static final List<String> PASSWORD_TYPE_KEYS = Arrays.stream(PasswordConfigurationType.values())
+            .map(PasswordConfigurationType::getTypeKey)
+            .toList();
+
+    /**
+     * Configuraciones que cambiaron después de una revisión.
+     *
+     * @param revision       Revisión hasta la que llegan los cambios; el cliente la usa en su próxima consulta
+     * @param configurations Configuraciones modificadas, activas o no, ordenadas por revisión
+     */
+    public record Changes(long revision, List<Configuration> configurations) {
+    }
+
+    /**
+     * Políticas de contraseñas vigentes, obtenidas de una sola lectura.
+     *
+     * @param defaults Configuraciones de contraseña activas del tenant por defecto
+     * @param tenants  Política efectiva de cada tenant que sobrescribe algún valor: las
+     *                 configuraciones por defecto con las del tenant aplicadas encima
+     */
+    public record PasswordPolicies(List<Configuration> defaults, Map<String, List<Configuration>> tenants) {
+    }
+
     private final ConfigurationRepository configurationRepository;
     private final ConfigurationTypeRepository configurationTypeRepository;
+    private final ConfigurationTypeIndex configurationTypeIndex;
+    private final AuditTrail auditTrail;
+    private final ConfigurationChangeChannel configurationChangeChannel;
+    private final Clock clock;
 
     public ConfigurationService(ConfigurationRepository configurationRepository, 
-                               ConfigurationTypeRepository configurationTypeRepository) {
+                               ConfigurationTypeRepository configurationTypeRepository,
+                               ConfigurationTypeIndex configurationTypeIndex,
+                               AuditTrail auditTrail,
+                               ConfigurationChangeChannel configurationChangeChannel,
+                               Clock clock) {
         this.configurationRepository = configurationRepository;
         this.configurationTypeRepository = configurationTypeRepository;
+        this.configurationTypeIndex = configurationTypeIndex;
+        this.auditTrail = auditTrail;
+        this.configurationChangeChannel = configurationChangeChannel;
+        this.clock = clock;
     }
 
     /**
-     * Obtiene todas las configuraciones activas.
+     * Obtiene todas las configuraciones activas, de todos los tenants.
      *
      * @return Lista de configuraciones activas
      */
@@ -42,76 +94,322 @@ public class ConfigurationService {
     }
 
     /**
-     * Obtiene todas las configuraciones de contraseña activas.
+     * Obtiene todas las configuraciones de contraseña activas del tenant por defecto.
      *
      * @return Lista de configuraciones de contraseña activas
      */
     public List<Configuration> getPasswordConfigurations() {
-        List<Configuration> allConfigs = configurationRepository.findByIsActiveTrue();
-        return allConfigs.stream()
-                .filter(config -> {
-                    String typeKey = config.getConfigurationType().getTypeKey();
-                    return PasswordConfigurationType.fromTypeKey(typeKey) != null;
-                })
-                .toList();
+        return getPasswordPolicies().defaults();
+    }
+
+    /**
+     * Obtiene la política de contraseñas por defecto y la de cada tenant que sobrescribe algún valor.
+     * Solo se leen las configuraciones activas de los tipos de contraseña, en una sola consulta, y de
+     * ese resultado se derivan todas las políticas. Los tenants sin valores propios no aparecen,
+     * porque usan la política por defecto.
+     *
+     * @return Las políticas de contraseñas vigentes
+     */
+    public PasswordPolicies getPasswordPolicies() {
+        List<Configuration> defaults = new ArrayList<>();
+        Map<String, List<Configuration>> overrides = new HashMap<>();
+        for (Configuration config : configurationRepository.findActiveByTypeKeys(PASSWORD_TYPE_KEYS)) {
+            if (TenantContext.DEFAULT_TENANT.equals(config.getTenantId())) {
+                defaults.add(config);
+            } else {
+                overrides.computeIfAbsent(config.getTenantId(), tenant -> new ArrayList<>()).add(config);
+            }
+        }
+
+        Map<String, List<Configuration>> tenants = new HashMap<>();
+        overrides.forEach((tenant, tenantConfigs) -> tenants.put(tenant, mergePolicy(defaults, tenantConfigs)));
+        return new PasswordPolicies(List.copyOf(defaults), tenants);
+    }
+
+    /**
+     * Obtiene un tipo de configuración por su identificador, desde {@link ConfigurationTypeIndex}.
+     *
+     * @param id Identificador del tipo de configuración
+     * @return Tipo de configuración encontrado o vacío si no existe
+     */
+    public Optional<ConfigurationType> getConfigurationTypeById(Long id) {
+        return configurationTypeIndex.findById(id);
     }
 
     /**
-     * Obtiene una configuración por su tipo.
+     * Obtiene una configuración por su tipo, en el tenant de la solicitud en curso o, si este no la
+     * sobrescribe, en el tenant por defecto.
+     * El tipo se resuelve en {@link ConfigurationTypeIndex}, sin consultar la base de datos.
      *
      * @param typeKey Clave del tipo de configuración
      * @return Configuración encontrada o null si no existe
      */
     public Optional<Configuration> getConfigurationByType(String typeKey) {
-        Optional<ConfigurationType> configurationType = configurationTypeRepository.findByTypeKey(typeKey);
+        Optional<ConfigurationType> configurationType = configurationTypeIndex.findByTypeKey(typeKey);
         if (configurationType.isEmpty()) {
             logger.warn("Tipo de configuración no encontrado: {}", typeKey);
             return Optional.empty();
         }
 
+        String tenant = TenantContext.current();
         List<Configuration> configurations = configurationRepository
-                .findByConfigurationTypeAndIsActiveTrue(configurationType.get());
+                .findByConfigurationTypeAndTenantIdAndIsActiveTrue(configurationType.get(), tenant);
+        if (configurations.isEmpty() && !TenantContext.DEFAULT_TENANT.equals(tenant)) {
+            configurations = configurationRepository.findByConfigurationTypeAndTenantIdAndIsActiveTrue(
+                    configurationType.get(), TenantContext.DEFAULT_TENANT);
+        }
 
         return configurations.isEmpty() ? Optional.empty() : Optional.of(configurations.get(0));
     }
 
     /**
-     * Actualiza o crea una configuración.
+     * Obtiene la revisión actual de las configuraciones.
+     *
+     * @return La revisión actual
+     */
+    public long getCurrentRevision() {
+        return configurationChangeChannel.currentVersion();
+    }
+
+    /**
+     * Obtiene las configuraciones que cambiaron después de una revisión.
+     * La revisión actual se lee antes que las filas, de modo que un cambio confirmado entre ambas
+     * lecturas se incluye en la respuesta o queda con una revisión mayor a la devuelta; en ningún
+     * caso se pierde en la siguiente consulta.
+     *
+     * @param since Última revisión conocida por el cliente (0 para obtener todas)
+     * @return Las configuraciones modificadas y la revisión hasta la que llegan
+     */
+    public Changes getChangesSince(long since) {
+        if (since < 0) {
+            throw new IllegalArgumentException("La revisión no puede ser negativa");
+        }
+
+        long revision = configurationChangeChannel.currentVersion();
+        List<Configuration> changes = configurationRepository.findByRevisionGreaterThanOrderByRevisionAsc(since);
+        if (!changes.isEmpty()) {
+            revision = Math.max(revision, changes.get(changes.size() - 1).getRevision());
+        }
+        return new Changes(revision, changes);
+    }
+
+    /**
+     * Actualiza o crea una configuración en el tenant de la solicitud en curso. Si el tipo no
+     * existe, se crea junto con la configuración. El cambio se anuncia por
+     * {@link ConfigurationChangeChannel} en la misma transacción, para que todos los nodos recarguen
+     * sus políticas y su índice de tipos, y la configuración guarda la nueva versión como su revisión.
+     * <p>
+     * Si la clave corresponde a la política de contraseñas, se valida la política combinada del
+     * tenant con el nuevo valor aplicado, igual que en {@link #updateConfigurations(Map)}.
      *
      * @param typeKey Clave del tipo de configuración
      * @param value Valor de la configuración
      * @return Configuración actualizada o creada
+     * @throws IllegalArgumentException si el tenant no puede sobrescribir el tipo de configuración o
+     *                                  la política de contraseñas resultante es inválida
      */
     @Transactional
     public Configuration updateConfiguration(String typeKey, String value) {
+        String tenant = TenantContext.current();
+        requireTenantScope(List.of(typeKey), tenant);
+
         // Buscar o crear el tipo de configuración
-        ConfigurationType configurationType = configurationTypeRepository.findByTypeKey(typeKey)
+        ConfigurationType configurationType = configurationTypeIndex.findByTypeKey(typeKey)
                 .orElseGet(() -> createConfigurationType(typeKey));
 
-        // Buscar configuraciones activas de este tipo
+        // Publicar primero: el bloqueo de la versión serializa la validación y la escritura con
+        // los demás cambios; si la política es inválida, el rollback descarta la publicación
+        long revision = configurationChangeChannel.publish();
+        validatePasswordPolicy(Map.of(typeKey, value), tenant);
+        auditTrail.recordOnCommit(AuditEventType.CONFIGURATION_CHANGE, "success", auditSubject(tenant, typeKey), value);
+
+        // Buscar configuraciones activas de este tipo en el tenant
         List<Configuration> existingConfigs = configurationRepository
-                .findByConfigurationTypeAndIsActiveTrue(configurationType);
+                .findByConfigurationTypeAndTenantIdAndIsActiveTrue(configurationType, tenant);
 
         // Si existe una configuración activa, actualizarla
         if (!existingConfigs.isEmpty()) {
             Configuration config = existingConfigs.get(0);
             config.setConfigValue(value);
-            config.setUpdatedAt(LocalDateTime.now());
+            config.setRevision(revision);
+            config.setUpdatedAt(LocalDateTime.now(clock));
             return configurationRepository.save(config);
         }
 
         // Si no existe, crear una nueva
-        return createConfiguration(configurationType, value);
+        return createConfiguration(configurationType, tenant, value, revision);
+    }
+
+    /**
+     * Actualiza o crea varias configuraciones del tenant de la solicitud en curso en una sola transacción.
+     * <p>
+     * Si alguna clave corresponde a la política de contraseñas, antes de escribir se valida la
+     * política combinada del tenant (los valores actuales con los nuevos aplicados), de modo que un cambio
+     * coherente en varios campos (por ejemplo, subir la longitud mínima por encima de la máxima
+     * actual junto con la máxima) se acepta y uno incoherente se rechaza sin modificar nada. La
+     * validación y la lectura de las configuraciones existentes ocurren después de
+     * {@link ConfigurationChangeChannel#publish()}, con la versión bloqueada hasta el commit, de
+     * modo que dos cambios concurrentes no validan cada uno contra la política anterior. Los
+     * tipos se resuelven en {@link ConfigurationTypeIndex}, las configuraciones existentes se leen
+     * con una sola consulta, todas las filas se guardan juntas y el cambio se anuncia una sola vez,
+     * con una única revisión.
+     *
+     * @param values Valores por clave de tipo de configuración
+     * @return Configuraciones actualizadas o creadas, en el orden de las claves recibidas
+     * @throws IllegalArgumentException si no se indica ninguna configuración, falta un valor, algún
+     *                                  tipo no existe o el tenant no puede sobrescribirlo, o la política
+     *                                  de contraseñas resultante es inválida
+     */
+    @Transactional
+    public List<Configuration> updateConfigurations(Map<String, String> values) {
+        if (values == null || values.isEmpty()) {
+            throw new IllegalArgumentException("Debe indicar al menos una configuración");
+        }
+        values.forEach((typeKey, value) -> {
+            if (value == null) {
+                throw new IllegalArgumentException("El valor de la configuración " + typeKey + " es requerido");
+            }
+        });
+
+        // Buscar los tipos de configuración; se rechaza la solicitud completa si alguno no existe
+        Map<String, ConfigurationType> types = new HashMap<>();
+        List<String> unknownTypeKeys = new ArrayList<>();
+        for (String typeKey : values.keySet()) {
+            configurationTypeIndex.findByTypeKey(typeKey)
+                    .ifPresentOrElse(type -> types.put(typeKey, type), () -> unknownTypeKeys.add(typeKey));
+        }
+        if (!unknownTypeKeys.isEmpty()) {
+            throw unknownTypes(unknownTypeKeys);
+        }
+        String tenant = TenantContext.current();
+        requireTenantScope(values.keySet(), tenant);
+
+        // Publicar primero: el bloqueo de la versión serializa la validación y la escritura con
+        // los demás cambios; si la política es inválida, el rollback descarta la publicación
+        long revision = configurationChangeChannel.publish();
+        validatePasswordPolicy(values, tenant);
+
+        // Configuraciones activas existentes del tenant, por tipo
+        Map<String, Configuration> existingConfigs = new HashMap<>();
+        for (Configuration config : configurationRepository
+                .findByConfigurationTypeInAndTenantIdAndIsActiveTrue(types.values(), tenant)) {
+            existingConfigs.putIfAbsent(config.getConfigurationType().getTypeKey(), config);
+        }
+
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<Configuration> configurations = new ArrayList<>(values.size());
+        values.forEach((typeKey, value) -> {
+            auditTrail.recordOnCommit(AuditEventType.CONFIGURATION_CHANGE, "success", auditSubject(tenant, typeKey), value);
+
+            Configuration config = existingConfigs.get(typeKey);
+            if (config == null) {
+                config = Configuration.builder()
+                        .configurationType(types.get(typeKey))
+                        .tenantId(tenant)
+                        .isActive(true)
+                        .createdAt(now)
+                        .build();
+            }
+            config.setConfigValue(value);
+            config.setRevision(revision);
+            config.setUpdatedAt(now);
+            configurations.add(config);
+        });
+
+        logger.info("Actualizadas {} configuraciones en la revisión {}", configurations.size(), revision);
+        return configurationRepository.saveAll(configurations);
+    }
+
+    /**
+     * Valida la política de contraseñas que resultaría de aplicar los valores indicados en un tenant.
+     *
+     * @param values Valores por clave de tipo de configuración
+     * @param tenant Tenant al que se aplican los valores
+     * @throws IllegalArgumentException si la política resultante es inválida
+     */
+    private void validatePasswordPolicy(Map<String, String> values, String tenant) {
+        boolean touchesPasswordPolicy = values.keySet().stream()
+                .anyMatch(typeKey -> PasswordConfigurationType.fromTypeKey(typeKey) != null);
+        if (!touchesPasswordPolicy) {
+            return;
+        }
+
+        // Un tenant sin valores propios parte de la política por defecto
+        PasswordPolicies policies = getPasswordPolicies();
+        List<Configuration> current = policies.tenants().getOrDefault(tenant, policies.defaults());
+
+        List<Configuration> changes = new ArrayList<>();
+        values.forEach((typeKey, value) -> {
+            if (PasswordConfigurationType.fromTypeKey(typeKey) != null) {
+                changes.add(Configuration.builder()
+                        .configurationType(ConfigurationType.builder().typeKey(typeKey).build())
+                        .configValue(value)
+                        .build());
+            }
+        });
+
+        PasswordRegexGenerator.generateRegex(mergePolicy(current, changes));
+    }
+
+    /**
+     * Aplica configuraciones sobre una política base, reemplazando las del mismo tipo.
+     *
+     * @param base      Configuraciones base
+     * @param overrides Configuraciones que sobrescriben a las base
+     * @return La política combinada
+     */
+    private static List<Configuration> mergePolicy(List<Configuration> base, List<Configuration> overrides) {
+        Map<String, Configuration> policy = new LinkedHashMap<>();
+        for (Configuration config : base) {
+            policy.put(config.getConfigurationType().getTypeKey(), config);
+        }
+        for (Configuration config : overrides) {
+            policy.put(config.getConfigurationType().getTypeKey(), config);
+        }
+        return new ArrayList<>(policy.values());
+    }
+
+    /**
+     * Verifica que el tenant pueda escribir las claves indicadas: el tenant por defecto escribe
+     * cualquier configuración y los demás solo la política de contraseñas.
+     *
+     * @param typeKeys Claves de tipo de configuración
+     * @param tenant   Tenant de la solicitud
+     * @throws IllegalArgumentException si alguna clave no admite valores por tenant
+     */
+    private static void requireTenantScope(Collection<String> typeKeys, String tenant) {
+        if (TenantContext.DEFAULT_TENANT.equals(tenant)) {
+            return;
+        }
+        List<String> globalKeys = typeKeys.stream()
+                .filter(typeKey -> PasswordConfigurationType.fromTypeKey(typeKey) == null)
+                .toList();
+        if (!globalKeys.isEmpty()) {
+            throw new IllegalArgumentException("Solo las configuraciones de contraseña admiten valores por tenant: "
+                    + String.join(", ", globalKeys));
+        }
+    }
+
+    private static String auditSubject(String tenant, String typeKey) {
+        return TenantContext.DEFAULT_TENANT.equals(tenant) ? typeKey : tenant + "/" + typeKey;
+    }
+
+    private static IllegalArgumentException unknownTypes(List<String> typeKeys) {
+        logger.warn("Tipos de configuración no encontrados: {}", typeKeys);
+        return new IllegalArgumentException("Tipo de configuración no encontrado: " + String.join(", ", typeKeys));
     }
 
     /**
      * Crea un nuevo tipo de configuración.
+     * El tipo se agrega a {@link ConfigurationTypeIndex} cuando la transacción se confirma, de modo
+     * que un rollback no deja en el índice un tipo inexistente; los demás nodos recargan su índice
+     * con el cambio que anuncia {@link #updateConfiguration(String, String)}.
      *
      * @param typeKey Clave del tipo de configuración
      * @return Tipo de configuración creado
      */
     private ConfigurationType createConfigurationType(String typeKey) {
-        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime now = LocalDateTime.now(clock);
         ConfigurationType configurationType = ConfigurationType.builder()
                 .typeKey(typeKey)
                 .description("Tipo de configuración para " + typeKey)
@@ -120,21 +418,48 @@ public class ConfigurationService {
                 .updatedAt(now)
                 .build();
 
-        return configurationTypeRepository.save(configurationType);
+        ConfigurationType saved = configurationTypeRepository.save(configurationType);
+        addToIndexOnCommit(saved);
+        logger.info("Tipo de configuración creado: {}", typeKey);
+        return saved;
+    }
+
+    /**
+     * Agrega un tipo a {@link ConfigurationTypeIndex} después del commit de la transacción en curso,
+     * o de inmediato si no hay una transacción activa.
+     *
+     * @param configurationType Tipo de configuración guardado
+     */
+    private void addToIndexOnCommit(ConfigurationType configurationType) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            configurationTypeIndex.add(configurationType);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                configurationTypeIndex.add(configurationType);
+            }
+        });
     }
 
     /**
      * Crea una nueva configuración.
      *
      * @param configurationType Tipo de configuración
+     * @param tenant Tenant de la configuración
      * @param value Valor de la configuración
+     * @param revision Versión de las configuraciones en que se crea
      * @return Configuración creada
      */
-    private Configuration createConfiguration(ConfigurationType configurationType, String value) {
-        LocalDateTime now = LocalDateTime.now();
+    private Configuration createConfiguration(ConfigurationType configurationType, String tenant, String value,
+                                              long revision) {
+        LocalDateTime now = LocalDateTime.now(clock);
         Configuration configuration = Configuration.builder()
                 .configurationType(configurationType)
+                .tenantId(tenant)
                 .configValue(value)
+                .revision(revision)
                 .isActive(true)
                 .createdAt(now)
                 .updatedAt(now)
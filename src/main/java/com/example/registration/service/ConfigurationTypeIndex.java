@@ -0,0 +1,99 @@
+package com.example.registration.service;
+
+import com.example.registration.model.ConfigurationType;
+import com.example.registration.repository.ConfigurationTypeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Índice en memoria de los tipos de configuración, por clave y por identificador.
+ * <p>
+ * Los tipos casi nunca cambian, por lo que se cargan al iniciar y las búsquedas no consultan la
+ * base de datos. Cada índice es un mapa inmutable que se reemplaza completo, de modo que las
+ * lecturas concurrentes no necesitan sincronización. El índice se actualiza al crear un tipo en
+ * este nodo ({@link #add(ConfigurationType)}) y se recarga cuando {@link ConfigurationWatcher}
+ * detecta un cambio publicado por otro nodo.
+ */
+@Component
+public class ConfigurationTypeIndex implements ConfigurationReloadListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfigurationTypeIndex.class);
+
+    /**
+     * Tipos indexados por clave y por identificador.
+     */
+    private record Snapshot(Map<String, ConfigurationType> byKey, Map<Long, ConfigurationType> byId) {
+
+        static Snapshot of(List<ConfigurationType> types) {
+            Map<String, ConfigurationType> byKey = new HashMap<>();
+            Map<Long, ConfigurationType> byId = new HashMap<>();
+            for (ConfigurationType type : types) {
+                byKey.put(type.getTypeKey(), type);
+                byId.put(type.getId(), type);
+            }
+            return new Snapshot(Map.copyOf(byKey), Map.copyOf(byId));
+        }
+    }
+
+    private final ConfigurationTypeRepository configurationTypeRepository;
+    private volatile Snapshot snapshot;
+
+    public ConfigurationTypeIndex(ConfigurationTypeRepository configurationTypeRepository) {
+        this.configurationTypeRepository = configurationTypeRepository;
+        refresh();
+    }
+
+    /**
+     * Recarga el índice desde la tabla {@code configuration_type}.
+     */
+    public synchronized void refresh() {
+        snapshot = Snapshot.of(configurationTypeRepository.findAll());
+        logger.info("Índice de tipos de configuración cargado: {} tipos", snapshot.byKey().size());
+    }
+
+    /**
+     * Recarga el índice, por si otro nodo creó tipos de configuración.
+     */
+    @Override
+    public void onConfigurationChange() {
+        refresh();
+    }
+
+    /**
+     * Agrega al índice un tipo de configuración recién creado.
+     *
+     * @param type El tipo de configuración guardado, con su identificador
+     */
+    public synchronized void add(ConfigurationType type) {
+        List<ConfigurationType> types = new ArrayList<>(snapshot.byKey().values());
+        types.add(type);
+        snapshot = Snapshot.of(types);
+    }
+
+    /**
+     * Busca un tipo de configuración por su clave.
+     *
+     * @param typeKey La clave del tipo de configuración
+     * @return Un Optional con el tipo de configuración, o vacío si no existe
+     */
+    public Optional<ConfigurationType> findByTypeKey(String typeKey) {
+        return Optional.ofNullable(snapshot.byKey().get(typeKey));
+    }
+
+    /**
+     * Busca un tipo de configuración por su identificador.
+     *
+     * @param id El identificador del tipo de configuración
+     * @return Un Optional con el tipo de configuración, o vacío si no existe
+     */
+    public Optional<ConfigurationType> findById(Long id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(snapshot.byId().get(id));
+    }
+}
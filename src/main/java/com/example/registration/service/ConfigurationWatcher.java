@@ -0,0 +1,105 @@
+package com.example.registration.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Vigila la versión de las configuraciones y recarga el estado derivado de ellas en este nodo.
+ * <p>
+ * Cada {@code configuration.watch-interval} consulta {@link ConfigurationChangeChannel#currentVersion()}
+ * y, si la versión difiere de la última aplicada, invoca a todos los
+ * {@link ConfigurationReloadListener}. Así, un cambio hecho en cualquier réplica llega a todas en
+ * a lo sumo un intervalo. El nodo que atendió el cambio llama a {@link #poll()} directamente para
+ * aplicarlo sin esperar.
+ * <p>
+ * Cada componente se recarga por separado y lleva su propia versión aplicada: si uno falla, los
+ * demás se recargan igual y solo el que falló se reintenta en el siguiente sondeo (contador
+ * {@code configuration.reload.failures}, etiquetado por componente). La versión del nodo
+ * ({@code configuration.version}) avanza cuando todos la aplicaron.
+ */
+@Component
+public class ConfigurationWatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfigurationWatcher.class);
+
+    /** Versión que indica que aún no se aplicó ninguna. */
+    private static final long NO_VERSION = -1;
+
+    private final ConfigurationChangeChannel configurationChangeChannel;
+    private final List<ConfigurationReloadListener> listeners;
+    private final String[] listenerNames;
+    private final Counter[] failureCounters;
+    // Versión aplicada por cada componente, en el mismo orden que listeners
+    private final long[] listenerVersions;
+    private volatile long appliedVersion = NO_VERSION;
+
+    public ConfigurationWatcher(ConfigurationChangeChannel configurationChangeChannel,
+                                List<ConfigurationReloadListener> listeners,
+                                MeterRegistry meterRegistry) {
+        this.configurationChangeChannel = configurationChangeChannel;
+        this.listeners = List.copyOf(listeners);
+        this.listenerNames = new String[listeners.size()];
+        this.failureCounters = new Counter[listeners.size()];
+        for (int i = 0; i < listeners.size(); i++) {
+            listenerNames[i] = ClassUtils.getUserClass(listeners.get(i)).getSimpleName();
+            failureCounters[i] = Counter.builder("configuration.reload.failures")
+                    .description("Recargas de configuración fallidas por componente")
+                    .tag("listener", listenerNames[i])
+                    .register(meterRegistry);
+        }
+        this.listenerVersions = new long[listeners.size()];
+        Arrays.fill(listenerVersions, NO_VERSION);
+        Gauge.builder("configuration.version", this, ConfigurationWatcher::getAppliedVersion)
+                .description("Versión de las configuraciones aplicada en este nodo")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Obtiene la última versión de las configuraciones aplicada en este nodo.
+     *
+     * @return La versión aplicada, o -1 si aún no se aplicó ninguna
+     */
+    public long getAppliedVersion() {
+        return appliedVersion;
+    }
+
+    /**
+     * Consulta la versión de las configuraciones y, si cambió, recarga el estado derivado de ellas.
+     */
+    @Scheduled(fixedDelayString = "${configuration.watch-interval:5000}")
+    public synchronized void poll() {
+        long version = configurationChangeChannel.currentVersion();
+        if (version == appliedVersion) {
+            return;
+        }
+
+        boolean allApplied = true;
+        for (int i = 0; i < listeners.size(); i++) {
+            if (listenerVersions[i] == version) {
+                continue;
+            }
+            try {
+                listeners.get(i).onConfigurationChange();
+                listenerVersions[i] = version;
+            } catch (RuntimeException e) {
+                allApplied = false;
+                failureCounters[i].increment();
+                logger.error("Error al recargar {} con la versión {} de las configuraciones; se reintentará",
+                        listenerNames[i], version, e);
+            }
+        }
+        if (allApplied) {
+            logger.info("Configuraciones recargadas: versión {} -> {}", appliedVersion, version);
+            appliedVersion = version;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.registration.service;
+
+import com.example.registration.model.ConfigurationVersion;
+import com.example.registration.repository.ConfigurationVersionRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+
+/**
+ * Canal de cambios de configuración basado en la tabla {@code configuration_version}.
+ * <p>
+ * Publicar un cambio incrementa el contador de la fila única en la misma transacción que modifica
+ * la configuración, por lo que ningún nodo ve la nueva versión antes que los nuevos valores. El
+ * bloqueo de la fila hasta el commit serializa los cambios concurrentes, de modo que las versiones
+ * se confirman en orden creciente.
+ * Consultar la versión es una lectura por clave primaria, independiente del tamaño de la tabla
+ * {@code configuration}.
+ */
+@Component
+public class DatabaseConfigurationChangeChannel implements ConfigurationChangeChannel {
+
+    private final ConfigurationVersionRepository configurationVersionRepository;
+    private final Clock clock;
+
+    public DatabaseConfigurationChangeChannel(ConfigurationVersionRepository configurationVersionRepository,
+                                              Clock clock) {
+        this.configurationVersionRepository = configurationVersionRepository;
+        this.clock = clock;
+    }
+
+    @Override
+    @Transactional
+    public long publish() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        int updated = configurationVersionRepository.increment(ConfigurationVersion.SINGLETON_ID, now);
+        if (updated == 0) {
+            // La fila no existe (por ejemplo, si data.sql no se ejecutó); se crea con la versión
+            // siguiente a la de los valores iniciales
+            configurationVersionRepository.save(ConfigurationVersion.builder()
+                    .id(ConfigurationVersion.SINGLETON_ID)
+                    .version(ConfigurationVersion.INITIAL_VERSION + 1)
+                    .updatedAt(now)
+                    .build());
+        }
+        return currentVersion();
+    }
+
+    @Override
+    public long currentVersion() {
+        return configurationVersionRepository.findVersionById(ConfigurationVersion.SINGLETON_ID)
+                .orElse(ConfigurationVersion.INITIAL_VERSION);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.registration.service;
+
+import com.example.registration.dto.UserRequestDTO;
+import com.example.registration.repository.UserRepository;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rechaza los registros con un correo que ya pertenece a otro usuario. Es la única verificación
+ * que consulta la base de datos, por lo que se ejecuta al final.
+ */
+@Component
+public class EmailUniquenessCheck implements RegistrationCheck {
+
+    private final UserRepository userRepository;
+
+    public EmailUniquenessCheck(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public String name() {
+        return "email_check";
+    }
+
+    @Override
+    public Cost cost() {
+        return Cost.DATABASE;
+    }
+
+    @Override
+    public Rejection check(UserRequestDTO request) {
+        if (!userRepository.existsByUserEmail(request.getEmail())) {
+            return null;
+        }
+        return new Rejection("email_exists", new IllegalArgumentException("El correo ya registrado"));
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.registration.service;
+
+import com.example.registration.dto.PhoneRequestDTO;
+import com.example.registration.dto.UserRequestDTO;
+import com.example.registration.dto.UserResponseDTO;
+import com.example.registration.exception.IdempotencyKeyConflictException;
+import com.example.registration.exception.IdempotencyRequestInProgressException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Caché en memoria del resultado de los registros por clave de idempotencia ({@code Idempotency-Key}).
+ * <p>
+ * Un cliente que reintenta el registro con la misma clave y el mismo cuerpo no vuelve a ejecutar el
+ * registro: recibe el mismo usuario con tokens nuevos, tras verificar la contraseña como en el inicio
+ * de sesión. La caché solo guarda el identificador del usuario registrado, nunca los tokens, de modo
+ * que no conserva credenciales en el heap y un reintento tardío no recibe un token de acceso ya
+ * expirado. Si el reintento llega mientras la solicitud original sigue en curso, espera su resultado
+ * hasta {@code idempotency.wait-timeout} en lugar de ejecutarla de nuevo; si no termina a tiempo
+ * responde {@link IdempotencyRequestInProgressException}. Reutilizar la clave con otro cuerpo es un
+ * error ({@link IdempotencyKeyConflictException}). Los registros fallidos no se guardan, de modo que
+ * el cliente puede corregir y reintentar.
+ * <p>
+ * Las entradas expiran a los {@code idempotency.ttl} y la caché conserva como máximo
+ * {@code idempotency.max-entries}; al superarlo se descartan las más antiguas. Del cuerpo solo se
+ * guarda su HMAC-SHA256 con una clave aleatoria generada al iniciar el proceso, que nunca sale de
+ * memoria: sin ella las huellas no sirven para probar contraseñas. La caché es local a cada
+ * instancia de la aplicación.
+ */
+@Component
+public class IdempotencyCache {
+
+    /** Largo máximo de una clave de idempotencia. */
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private static final char FIELD_SEPARATOR = '\0';
+
+    private static final String FINGERPRINT_ALGORITHM = "HmacSHA256";
+
+    /**
+     * Resultado de una solicitud idempotente.
+     *
+     * @param response La respuesta del registro
+     * @param replayed true si el registro ya se había ejecutado con la misma clave
+     */
+    public record Result(UserResponseDTO response, boolean replayed) {
+    }
+
+    private record Entry(byte[] fingerprint, CompletableFuture<UUID> userId, long expiresAt) {
+    }
+
+    // Orden de inserción: como el TTL es fijo, las primeras entradas son también las primeras en expirar
+    private final Map<String, Entry> entries;
+    private final long ttlMillis;
+    private final long waitTimeoutMillis;
+    private final Clock clock;
+    private final Counter replayedCounter;
+    private final SecretKeySpec fingerprintKey;
+
+    public IdempotencyCache(@Value("${idempotency.ttl:24h}") Duration ttl,
+                            @Value("${idempotency.max-entries:10000}") int maxEntries,
+                            @Value("${idempotency.wait-timeout:10s}") Duration waitTimeout,
+                            Clock clock,
+                            MeterRegistry meterRegistry) {
+        this.entries = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.ttlMillis = ttl.toMillis();
+        this.waitTimeoutMillis = waitTimeout.toMillis();
+        this.clock = clock;
+
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.fingerprintKey = new SecretKeySpec(secret, FINGERPRINT_ALGORITHM);
+
+        Gauge.builder("idempotency.cache.size", this, IdempotencyCache::size)
+                .description("Registros guardados por clave de idempotencia")
+                .register(meterRegistry);
+        this.replayedCounter = Counter.builder("idempotency.replayed")
+                .description("Registros respondidos desde la caché de idempotencia")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ejecuta un registro una sola vez por clave de idempotencia.
+     *
+     * @param key          La clave de idempotencia enviada por el cliente
+     * @param request      La solicitud de registro
+     * @param registration El registro a ejecutar si la clave no tiene un registro guardado
+     * @param replay       La respuesta de un reintento, a partir del identificador del usuario ya registrado
+     * @return La respuesta del registro, indicando si es un reintento
+     * @throws IllegalArgumentException               si la clave está vacía o es demasiado larga
+     * @throws IdempotencyKeyConflictException        si la clave ya se usó con otro cuerpo
+     * @throws IdempotencyRequestInProgressException si la solicitud original no termina a tiempo
+     */
+    public Result execute(String key, UserRequestDTO request, Supplier<UserResponseDTO> registration,
+                          Function<UUID, UserResponseDTO> replay) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("La clave de idempotencia debe tener entre 1 y "
+                    + MAX_KEY_LENGTH + " caracteres");
+        }
+
+        byte[] fingerprint = fingerprint(request);
+        long now = clock.millis();
+        Entry created = new Entry(fingerprint, new CompletableFuture<>(), now + ttlMillis);
+        Entry existing;
+        synchronized (entries) {
+            purgeExpired(now);
+            existing = entries.putIfAbsent(key, created);
+        }
+
+        if (existing != null) {
+            if (!MessageDigest.isEqual(existing.fingerprint(), fingerprint)) {
+                throw new IdempotencyKeyConflictException("Clave de idempotencia reutilizada con otro cuerpo: " + key);
+            }
+            UUID userId = await(key, existing.userId());
+            replayedCounter.increment();
+            return new Result(replay.apply(userId), true);
+        }
+
+        try {
+            UserResponseDTO response = registration.get();
+            created.userId().complete(response.getId());
+            return new Result(response, false);
+        } catch (RuntimeException e) {
+            synchronized (entries) {
+                entries.remove(key, created);
+            }
+            created.userId().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private UUID await(String key, CompletableFuture<UUID> userId) {
+        try {
+            return userId.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            // La solicitud original falló: el reintento en espera recibe el mismo error
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IdempotencyRequestInProgressException("La solicitud original sigue en curso: " + key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyRequestInProgressException("Se interrumpió la espera de la solicitud original: " + key);
+        }
+    }
+
+    private void purgeExpired(long now) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext() && iterator.next().expiresAt() <= now) {
+            iterator.remove();
+        }
+    }
+
+    private int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Calcula el HMAC-SHA256 de los campos de la solicitud, separados por un carácter nulo.
+     */
+    private byte[] fingerprint(UserRequestDTO request) {
+        StringBuilder canonical = new StringBuilder(128)
+                .append(request.getName()).append(FIELD_SEPARATOR)
+                .append(request.getEmail()).append(FIELD_SEPARATOR)
+                .append(request.getPassword());
+        if (request.getPhones() != null) {
+            for (PhoneRequestDTO phone : request.getPhones()) {
+                canonical.append(FIELD_SEPARATOR).append(phone.getNumber())
+                        .append(FIELD_SEPARATOR).append(phone.getCitycode())
+                        .append(FIELD_SEPARATOR).append(phone.getContrycode());
+            }
+        }
+        try {
+            Mac mac = Mac.getInstance(FINGERPRINT_ALGORITHM);
+            mac.init(fingerprintKey);
+            return mac.doFinal(canonical.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 no está disponible", e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.registration.service;
+
+import com.example.registration.dto.UserRequestDTO;
+import com.example.registration.exception.InvalidPasswordException;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * Verifica la contraseña contra la política compilada del tenant y las etapas adicionales de
+ * {@link PasswordValidationService}. Todo se resuelve en memoria.
+ */
+@Component
+public class PasswordPolicyCheck implements RegistrationCheck {
+
+    private final PasswordValidationService passwordValidationService;
+
+    public PasswordPolicyCheck(@Lazy PasswordValidationService passwordValidationService) {
+        this.passwordValidationService = passwordValidationService;
+    }
+
+    @Override
+    public String name() {
+        return "password_validation";
+    }
+
+    @Override
+    public Cost cost() {
+        return Cost.IN_MEMORY;
+    }
+
+    @Override
+    public Rejection check(UserRequestDTO request) {
+        if (passwordValidationService.isPasswordValid(request.getPassword())) {
+            return null;
+        }
+        return new Rejection("invalid_password",
+                new InvalidPasswordException("La contraseña no cumple con el patrón requerido"));
+    }
+}
@@ -1,83 +1,314 @@
 package com.example.registration.service;
 
+import com.example.registration.metrics.LatencyTimers;
 import com.example.registration.model.Configuration;
+import com.example.registration.tenant.TenantContext;
+import com.example.registration.utils.PasswordRegexGenerator;
 import com.example.registration.utils.PasswordValidator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
 /**
  * Servicio para la validación de contraseñas.
  * Proporciona métodos para validar contraseñas según configuraciones almacenadas en la base de datos.
+ * <p>
+ * Cada tenant ({@link TenantContext}) valida con su propia política: la del tenant por defecto con
+ * los valores que el tenant sobrescribe. Los validadores de los tenants se compilan la primera vez
+ * que se usan y se guardan en un mapa concurrente de hasta {@code password.tenant-cache.size}
+ * entradas; al llenarse se descarta un tenant que no se usó desde la última pasada (algoritmo de
+ * segunda oportunidad). Validar cuesta una lectura del mapa, sin bloqueo ni consultas, cualquiera
+ * sea el número de tenants. Los tenants sin valores propios usan directamente el validador por defecto.
+ * Las políticas de los tenants se verifican al cargarlas: un tenant con una política inválida se
+ * registra como error y usa la política por defecto, sin intentar compilarla al validar.
+ * <p>
+ * Los validadores compilados se guardan además en una caché LRU pequeña ({@code password.policy-cache.size})
+ * indexada por la huella de la política ({@link PasswordRegexGenerator#fingerprint(List)}): recargar
+ * una configuración sin cambios efectivos no recompila nada, volver a una política conocida (una
+ * reversión, una prueba A/B) reutiliza su validador, y los tenants con la misma política lo comparten.
+ * <p>
+ * Las contraseñas que cumplen la política pasan además por las etapas declaradas como beans
+ * ({@link PasswordValidationStage}, por ejemplo {@link CommonPasswordStage}), en orden.
  */
 @Service
-public class PasswordValidationService {
+public class PasswordValidationService implements ConfigurationReloadListener {
 
     private static final Logger logger = LoggerFactory.getLogger(PasswordValidationService.class);
 
+    /**
+     * Validador compilado de un tenant.
+     */
+    private static final class TenantValidator {
+        final PasswordValidator validator;
+        final String fingerprint;
+        // Se marca en cada uso y se limpia en cada pasada del desalojo
+        volatile boolean referenced = true;
+
+        TenantValidator(PasswordValidator validator, String fingerprint) {
+            this.validator = validator;
+            this.fingerprint = fingerprint;
+        }
+    }
+
     private final ConfigurationService configurationService;
-    private PasswordValidator passwordValidator;
+    private final Timer validationTimer;
+    private final Counter policyCacheHits;
+    private final Counter policyCacheMisses;
+    // Orden de acceso: se descarta la política usada hace más tiempo
+    private final Map<String, PasswordValidator> compiledPolicies;
+    private final Map<String, TenantValidator> tenantValidators = new ConcurrentHashMap<>();
+    private final PasswordValidationStage[] stages;
+    private final Counter[] stageRejections;
+    private final int maxTenants;
+    private volatile PasswordValidator passwordValidator;
+    private volatile Map<String, List<Configuration>> tenantPolicies = Map.of();
 
-    public PasswordValidationService(ConfigurationService configurationService) {
+    public PasswordValidationService(ConfigurationService configurationService,
+                                     @Value("${password.policy-cache.size:8}") int policyCacheSize,
+                                     @Value("${password.tenant-cache.size:1000}") int maxTenants,
+                                     List<PasswordValidationStage> stages,
+                                     MeterRegistry meterRegistry) {
         this.configurationService = configurationService;
+        this.stages = stages.toArray(new PasswordValidationStage[0]);
+        this.stageRejections = new Counter[this.stages.length];
+        for (int i = 0; i < this.stages.length; i++) {
+            stageRejections[i] = Counter.builder("password.stage.rejected")
+                    .description("Contraseñas que cumplen la política y rechaza una etapa adicional")
+                    .tag("stage", this.stages[i].name())
+                    .register(meterRegistry);
+        }
+        this.maxTenants = Math.max(1, maxTenants);
+        this.validationTimer = LatencyTimers.timer(meterRegistry, LatencyTimers.PASSWORD_VALIDATION,
+                "Tiempo de validación de contraseñas contra la política configurada");
+        this.policyCacheHits = Counter.builder("password.policy.cache")
+                .description("Políticas de contraseñas resueltas sin compilar")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.policyCacheMisses = Counter.builder("password.policy.cache")
+                .description("Políticas de contraseñas que compilaron un validador")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.compiledPolicies = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PasswordValidator> eldest) {
+                return size() > policyCacheSize;
+            }
+        };
+        Gauge.builder("password.policy.tenants", tenantValidators, Map::size)
+                .description("Tenants con un validador de contraseñas compilado")
+                .register(meterRegistry);
         initializeValidator();
     }
 
     /**
      * Inicializa el validador de contraseñas con las configuraciones actuales.
-     * Esta función se llama automáticamente al iniciar el servicio y puede ser llamado
-     * manualmente cuando se actualizan las configuraciones.
+     * Esta función se llama automáticamente al iniciar el servicio y cuando
+     * {@link ConfigurationWatcher} detecta un cambio en las configuraciones. Si la política
+     * resultante ya fue compilada, se reutiliza el validador de la caché. Los validadores de los
+     * tenants cuya política cambió se descartan y se vuelven a compilar en su próximo uso; las
+     * políticas de tenant inválidas se descartan y esos tenants usan la política por defecto.
      */
-    public void initializeValidator() {
-        List<Configuration> passwordConfigurations = configurationService.getPasswordConfigurations();
+    public synchronized void initializeValidator() {
+        ConfigurationService.PasswordPolicies passwordPolicies = configurationService.getPasswordPolicies();
+        List<Configuration> passwordConfigurations = passwordPolicies.defaults();
 
         if (passwordConfigurations.isEmpty()) {
             logger.warn("No se encontraron configuraciones de contraseña.");
             throw new IllegalStateException("No se pudo inicializar el validador de contraseñas");
         }
 
+        this.passwordValidator = compile(passwordConfigurations,
+                PasswordRegexGenerator.fingerprint(passwordConfigurations));
+
+        Map<String, List<Configuration>> validPolicies = new HashMap<>();
+        passwordPolicies.tenants().forEach((tenant, policy) -> {
+            if (isValidPolicy(tenant, policy)) {
+                validPolicies.put(tenant, policy);
+            }
+        });
+        Map<String, List<Configuration>> policies = Map.copyOf(validPolicies);
+        this.tenantPolicies = policies;
+        tenantValidators.entrySet().removeIf(entry -> {
+            List<Configuration> policy = policies.get(entry.getKey());
+            return policy == null || !PasswordRegexGenerator.fingerprint(policy).equals(entry.getValue().fingerprint);
+        });
+        logger.info("Políticas de contraseña cargadas: {} tenants con valores propios", policies.size());
+    }
+
+    /**
+     * Verifica que la política de un tenant genere una expresión regular válida, para no compilarla
+     * ni fallar al validar una contraseña.
+     *
+     * @param tenant El tenant
+     * @param policy La política combinada del tenant
+     * @return true si la política es válida
+     */
+    private static boolean isValidPolicy(String tenant, List<Configuration> policy) {
         try {
-            this.passwordValidator = new PasswordValidator(passwordConfigurations);
-            logger.info("Validador de contraseñas inicializado con éxito. Patrón: {}", 
-                    this.passwordValidator.getRegexPattern());
-        } catch (Exception e) {
-            throw new IllegalStateException("No se pudo inicializar el validador de contraseñas", e);
+            Pattern.compile(PasswordRegexGenerator.generateRegex(policy));
+            return true;
+        } catch (RuntimeException e) {
+            logger.error("Política de contraseñas inválida para el tenant {}; se usa la política por defecto: {}",
+                    tenant, e.getMessage());
+            return false;
         }
     }
 
     /**
-     * Validar si una contraseña cumple con las reglas configuradas.
+     * Recompila el validador de contraseñas con las configuraciones actuales.
+     */
+    @Override
+    public void onConfigurationChange() {
+        initializeValidator();
+    }
+
+    /**
+     * Validar si una contraseña cumple con las reglas configuradas para el tenant de la solicitud.
      *
      * @param password La contraseña a validar
      * @return true si la contraseña es válida, false en caso contrario
      */
     public boolean isPasswordValid(String password) {
-        if (passwordValidator == null) {
-            initializeValidator();
-        }
-
-        boolean isValid = passwordValidator.isValid(password);
+        PasswordValidator validator = validatorFor(TenantContext.current());
+        boolean isValid = validationTimer.record(() -> validator.isValid(password) && passesStages(password));
 
         if (!isValid) {
-            logger.debug("Contraseña inválida: no cumple con el patrón {}", 
-                    passwordValidator.getRegexPattern());
+            logger.debug("Contraseña inválida: no cumple con el patrón {}", validator.getRegexPattern());
         }
 
         return isValid;
     }
 
     /**
-     * Obtiene el patrón de expresión regular utilizado para validar contraseñas.
+     * Ejecuta las etapas adicionales, en orden, hasta la primera que rechaza la contraseña.
+     *
+     * @param password La contraseña, que ya cumple la política
+     * @return true si todas las etapas aceptan la contraseña
+     */
+    private boolean passesStages(String password) {
+        for (int i = 0; i < stages.length; i++) {
+            if (!stages[i].accepts(password)) {
+                stageRejections[i].increment();
+                logger.debug("Contraseña rechazada por la etapa {}", stages[i].name());
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Obtiene el patrón de expresión regular utilizado para validar contraseñas en el tenant de la solicitud.
      *
      * @return El patrón de expresión regular como cadena de texto
      */
     public String getPasswordRegexPattern() {
-        if (passwordValidator == null) {
-            initializeValidator();
+        return validatorFor(TenantContext.current()).getRegexPattern();
+    }
+
+    /**
+     * Obtiene el validador de un tenant.
+     *
+     * @param tenant El tenant
+     * @return El validador del tenant, o el validador por defecto si el tenant no sobrescribe la política
+     */
+    private PasswordValidator validatorFor(String tenant) {
+        if (TenantContext.DEFAULT_TENANT.equals(tenant)) {
+            return passwordValidator;
+        }
+
+        TenantValidator entry = tenantValidators.get(tenant);
+        if (entry == null) {
+            return tenantPolicies.containsKey(tenant) ? loadTenantValidator(tenant) : passwordValidator;
+        }
+        if (!entry.referenced) {
+            entry.referenced = true;
+        }
+        return entry.validator;
+    }
+
+    /**
+     * Compila el validador de un tenant y lo agrega al mapa, desalojando otro tenant si está lleno.
+     * Se sincroniza con {@link #initializeValidator()} para no guardar un validador de una política
+     * que una recarga ya reemplazó.
+     *
+     * @param tenant El tenant
+     * @return El validador del tenant
+     */
+    private synchronized PasswordValidator loadTenantValidator(String tenant) {
+        TenantValidator entry = tenantValidators.get(tenant);
+        if (entry != null) {
+            return entry.validator;
+        }
+
+        List<Configuration> policy = tenantPolicies.get(tenant);
+        if (policy == null) {
+            return passwordValidator;
+        }
+
+        String fingerprint = PasswordRegexGenerator.fingerprint(policy);
+        PasswordValidator validator = compile(policy, fingerprint);
+        if (tenantValidators.size() >= maxTenants) {
+            evictTenant();
         }
+        tenantValidators.put(tenant, new TenantValidator(validator, fingerprint));
+        return validator;
+    }
+
+    /**
+     * Descarta el primer tenant que no se usó desde la pasada anterior, limpiando la marca de los
+     * que sí se usaron. Termina a lo sumo en la segunda pasada.
+     */
+    private void evictTenant() {
+        while (!tenantValidators.isEmpty()) {
+            Iterator<Map.Entry<String, TenantValidator>> iterator = tenantValidators.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, TenantValidator> entry = iterator.next();
+                if (!entry.getValue().referenced) {
+                    iterator.remove();
+                    logger.debug("Validador de contraseñas del tenant {} descartado", entry.getKey());
+                    return;
+                }
+                entry.getValue().referenced = false;
+            }
+        }
+    }
 
-        return passwordValidator.getRegexPattern();
+    /**
+     * Obtiene el validador compilado de una política, de la caché o compilándolo.
+     *
+     * @param configurations Configuraciones de la política
+     * @param fingerprint    Huella de la política
+     * @return El validador de la política
+     */
+    private PasswordValidator compile(List<Configuration> configurations, String fingerprint) {
+        PasswordValidator validator = compiledPolicies.get(fingerprint);
+        if (validator != null) {
+            policyCacheHits.increment();
+            logger.debug("Validador de contraseñas recuperado de la caché. Patrón: {}", validator.getRegexPattern());
+            return validator;
+        }
+
+        policyCacheMisses.increment();
+        try {
+            validator = new PasswordValidator(configurations);
+        } catch (Exception e) {
+            throw new IllegalStateException("No se pudo inicializar el validador de contraseñas", e);
+        }
+        compiledPolicies.put(fingerprint, validator);
+        logger.info("Validador de contraseñas inicializado con éxito. Patrón: {}", validator.getRegexPattern());
+        return validator;
     }
 }
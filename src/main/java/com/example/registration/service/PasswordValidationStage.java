@@ -0,0 +1,27 @@
+package com.example.registration.service;
+
+/**
+ * Etapa adicional de la validación de contraseñas, después de las reglas de composición.
+ * <p>
+ * {@link PasswordValidationService} ejecuta todas las etapas declaradas como beans, en el orden de
+ * {@link org.springframework.core.annotation.Order}, solo para las contraseñas que ya cumplen la
+ * política; la primera que rechaza la contraseña detiene la validación. Las etapas se ejecutan en
+ * la solicitud de registro, por lo que deben responder en memoria y sin bloquear.
+ */
+public interface PasswordValidationStage {
+
+    /**
+     * Nombre de la etapa, usado en las métricas y los logs.
+     *
+     * @return El nombre de la etapa
+     */
+    String name();
+
+    /**
+     * Verifica una contraseña.
+     *
+     * @param password La contraseña en texto plano
+     * @return true si la contraseña pasa la etapa
+     */
+    boolean accepts(String password);
+}
@@ -0,0 +1,171 @@
+package com.example.registration.service;
+
+import com.example.registration.audit.AuthAuditLog;
+import com.example.registration.dto.TokenResponseDTO;
+import com.example.registration.exception.InvalidRefreshTokenException;
+import com.example.registration.model.RefreshToken;
+import com.example.registration.model.RefreshToken.RevocationReason;
+import com.example.registration.model.User;
+import com.example.registration.repository.RefreshTokenRepository;
+import com.example.registration.security.jwt.JwtService;
+import com.example.registration.security.jwt.TokenRevocationList;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Servicio para la emisión, rotación y revocación de refresh tokens.
+ * <p>
+ * Los refresh tokens son valores aleatorios opacos de larga duración ({@code jwt.refresh-expiration})
+ * y solo se almacena su hash SHA-256. Cada uso rota el token: el anterior queda marcado y se emite uno
+ * nuevo de la misma familia. Si un token ya rotado se vuelve a presentar, se asume que fue robado y se
+ * revoca la familia completa. Cada token guarda el motivo por el que dejó de estar vigente, de modo que
+ * un token revocado por {@code /logout} se rechaza sin reportarse como reutilización.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JwtService jwtService;
+    private final TokenRevocationList tokenRevocationList;
+    private final Clock clock;
+    private final long refreshExpiration;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               JwtService jwtService,
+                               TokenRevocationList tokenRevocationList,
+                               Clock clock,
+                               @Value("${jwt.refresh-expiration:2592000000}") long refreshExpiration) { // 30 days in milliseconds
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.jwtService = jwtService;
+        this.tokenRevocationList = tokenRevocationList;
+        this.clock = clock;
+        this.refreshExpiration = refreshExpiration;
+    }
+
+    /**
+     * Emite un refresh token para un usuario, iniciando una nueva familia de rotación.
+     *
+     * @param user El usuario dueño del token
+     * @return El refresh token en claro, que solo se entrega al cliente
+     */
+    @Transactional
+    public String issue(User user) {
+        return issue(user, UUID.randomUUID(), LocalDateTime.now(clock));
+    }
+
+    private String issue(User user, UUID familyId, LocalDateTime now) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(hash(rawToken))
+                .familyId(familyId)
+                .user(user)
+                .expiresAt(now.plus(Duration.ofMillis(refreshExpiration)))
+                .createdAt(now)
+                .build());
+        return rawToken;
+    }
+
+    /**
+     * Rota un refresh token: lo invalida y emite un nuevo token de acceso y un nuevo refresh token.
+     * La revocación de la familia ante una reutilización se confirma aunque la operación falle.
+     *
+     * @param rawToken El refresh token en claro
+     * @return El nuevo token de acceso y el nuevo refresh token
+     * @throws InvalidRefreshTokenException si el token no existe, expiró o ya fue utilizado
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public TokenResponseDTO rotate(String rawToken) {
+        RefreshToken current = refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .orElseThrow(() -> new InvalidRefreshTokenException("Refresh token desconocido"));
+
+        LocalDateTime now = LocalDateTime.now(clock);
+        if (current.getExpiresAt().isBefore(now)) {
+            throw new InvalidRefreshTokenException("Refresh token expirado");
+        }
+
+        // Un token cerrado con /logout o ya revocado por una reutilización no es una nueva alerta
+        RevocationReason reason = current.getRevocationReason();
+        if (current.getRevokedAt() != null && reason != null && reason != RevocationReason.ROTATED) {
+            throw new InvalidRefreshTokenException("Refresh token revocado (" + reason + ")");
+        }
+
+        // La actualización condicional resuelve también la carrera entre dos rotaciones simultáneas
+        if (current.getRevokedAt() != null || refreshTokenRepository.markRotated(current.getId(), now) == 0) {
+            refreshTokenRepository.revokeFamily(current.getFamilyId(), now, RevocationReason.REUSE);
+            AuthAuditLog.refreshTokenReused(current.getUser().getUserEmail());
+            throw new InvalidRefreshTokenException("Refresh token reutilizado; se revocó la familia "
+                    + current.getFamilyId());
+        }
+
+        User user = current.getUser();
+        return TokenResponseDTO.builder()
+                .token(jwtService.generateToken(user.getId(), user.getUserEmail()))
+                .refresh_token(issue(user, current.getFamilyId(), now))
+                .build();
+    }
+
+    /**
+     * Cierra la sesión: revoca el token de acceso hasta su expiración y la familia del refresh token.
+     * Un refresh token desconocido o de otro usuario se ignora, de modo que la operación es idempotente.
+     *
+     * @param accessToken El token de acceso vigente
+     * @param rawToken    El refresh token en claro
+     */
+    @Transactional
+    public void logout(String accessToken, String rawToken) {
+        Claims claims = jwtService.parseClaims(accessToken);
+        tokenRevocationList.revoke(claims.getId(), claims.getExpiration());
+
+        // El sub puede ser el UUID del usuario (formato compacto); la auditoría registra su correo
+        String subject = claims.getSubject();
+        Optional<RefreshToken> owned = refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .filter(token -> isOwnedBy(token, subject));
+        owned.ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId(), LocalDateTime.now(clock),
+                RevocationReason.LOGOUT));
+        AuthAuditLog.logout(owned.map(token -> token.getUser().getUserEmail()).orElse(null));
+    }
+
+    private boolean isOwnedBy(RefreshToken token, String subject) {
+        User user = token.getUser();
+        return jwtService.subjectFor(user.getId(), user.getUserEmail()).equals(subject);
+    }
+
+    /**
+     * Elimina los refresh tokens expirados, que ya no pueden usarse ni detectarse como reutilizados.
+     */
+    @Scheduled(fixedDelayString = "${jwt.refresh-purge-interval:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        refreshTokenRepository.deleteExpired(LocalDateTime.now(clock));
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no está disponible", e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.registration.service;
+
+import com.example.registration.dto.UserRequestDTO;
+
+/**
+ * Verificación de una solicitud de registro, ejecutada por {@link RegistrationValidator}.
+ * <p>
+ * Cada verificación declara su costo; el validador las ordena de la más barata a la más cara y se
+ * detiene en el primer rechazo, de modo que una solicitud inválida no llega a las verificaciones
+ * que consultan la base de datos.
+ */
+public interface RegistrationCheck {
+
+    /**
+     * Costo de una verificación, de menor a mayor.
+     */
+    enum Cost {
+        /** Solo inspecciona los campos de la solicitud. */
+        SYNTACTIC,
+        /** Consulta estructuras en memoria (políticas compiladas, diccionarios). */
+        IN_MEMORY,
+        /** Lee archivos locales (listas proyectadas en memoria). */
+        LOCAL_IO,
+        /** Consulta la base de datos. */
+        DATABASE
+    }
+
+    /**
+     * Rechazo de una solicitud de registro.
+     *
+     * @param reason Motivo del rechazo, registrado en la auditoría
+     * @param error  Excepción que se lanza al cliente
+     */
+    record Rejection(String reason, RuntimeException error) {
+    }
+
+    /**
+     * Nombre de la verificación; es la fase de la métrica {@code auth.phase} del registro.
+     *
+     * @return El nombre de la verificación
+     */
+    String name();
+
+    /**
+     * Costo de la verificación.
+     *
+     * @return El costo
+     */
+    Cost cost();
+
+    /**
+     * Verifica una solicitud de registro.
+     *
+     * @param request La solicitud de registro
+     * @return El rechazo, o null si la solicitud pasa la verificación
+     */
+    Rejection check(UserRequestDTO request);
+}
@@ -0,0 +1,86 @@
+package com.example.registration.service;
+
+import com.example.registration.audit.AuditEventType;
+import com.example.registration.audit.AuditTrail;
+import com.example.registration.audit.AuthAuditLog;
+import com.example.registration.dto.UserRequestDTO;
+import com.example.registration.metrics.LatencyTimers;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Validación de las solicitudes de registro como una secuencia de {@link RegistrationCheck}.
+ * <p>
+ * Las verificaciones declaradas como beans se ordenan por costo (a igual costo, en el orden de
+ * {@link org.springframework.core.annotation.Order}) y se ejecutan hasta el primer rechazo: primero
+ * la política de contraseñas en memoria, luego la lista local de contraseñas filtradas y por último
+ * la unicidad del correo en la base de datos. Las validaciones sintácticas de Bean Validation
+ * ({@code @Valid} sobre {@link UserRequestDTO}) se ejecutan antes, en el controlador. Cada
+ * verificación tiene su temporizador en {@code auth.phase} ({@code operation=register}, con el
+ * nombre de la verificación como fase), y cada rechazo se registra en la auditoría con su motivo.
+ */
+@Component
+public class RegistrationValidator {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegistrationValidator.class);
+
+    /**
+     * Verificación con su temporizador.
+     */
+    private record Stage(RegistrationCheck check, Timer timer) {
+    }
+
+    private final Stage[] stages;
+    private final AuditTrail auditTrail;
+
+    public RegistrationValidator(List<RegistrationCheck> checks, AuditTrail auditTrail, MeterRegistry meterRegistry) {
+        this.auditTrail = auditTrail;
+
+        // Orden estable: a igual costo se conserva el orden de los beans
+        List<RegistrationCheck> ordered = new ArrayList<>(checks);
+        ordered.sort(Comparator.comparing(RegistrationCheck::cost));
+        this.stages = ordered.stream()
+                .map(check -> new Stage(check, LatencyTimers.timer(meterRegistry, LatencyTimers.AUTH_PHASE,
+                        "Tiempo de cada fase de la operación de autenticación",
+                        "operation", "register", "phase", check.name())))
+                .toArray(Stage[]::new);
+        logger.info("Verificaciones del registro, en orden: {}", getCheckNames());
+    }
+
+    /**
+     * Valida una solicitud de registro.
+     *
+     * @param request La solicitud de registro
+     * @throws RuntimeException la excepción de la primera verificación que rechaza la solicitud
+     *                          (por ejemplo, {@link IllegalArgumentException} si el correo ya está
+     *                          registrado o {@link com.example.registration.exception.InvalidPasswordException}
+     *                          si la contraseña no es válida)
+     */
+    public void validate(UserRequestDTO request) {
+        for (Stage stage : stages) {
+            RegistrationCheck.Rejection rejection = stage.timer().record(() -> stage.check().check(request));
+            if (rejection != null) {
+                AuthAuditLog.registrationRejected(request.getEmail(), rejection.reason());
+                auditTrail.record(AuditEventType.REGISTRATION, "rejected", request.getEmail(), rejection.reason());
+                throw rejection.error();
+            }
+        }
+    }
+
+    /**
+     * Nombres de las verificaciones, en el orden en que se ejecutan.
+     *
+     * @return Los nombres de las verificaciones
+     */
+    public List<String> getCheckNames() {
+        return Arrays.stream(stages).map(stage -> stage.check().name()).toList();
+    }
+}
@@ -1,18 +1,21 @@
 package com.example.registration.service;
 
+import com.example.registration.audit.AuditEventType;
+import com.example.registration.audit.AuditTrail;
+import com.example.registration.audit.AuthAuditLog;
 import com.example.registration.dto.PhoneRequestDTO;
 import com.example.registration.dto.UserRequestDTO;
 import com.example.registration.dto.UserResponseDTO;
 import com.example.registration.exception.InvalidPasswordException;
 import com.example.registration.mapper.PhoneMapper;
 import com.example.registration.mapper.UserMapper;
+import com.example.registration.metrics.LatencyTimers;
 import com.example.registration.model.Phone;
 import com.example.registration.model.User;
 import com.example.registration.repository.UserRepository;
 import com.example.registration.security.jwt.JwtService;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.context.annotation.Lazy;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -20,11 +23,16 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Servicio para la gestión de usuarios.
@@ -33,57 +41,94 @@ import java.util.List;
 @Service
 public class UserService implements UserDetailsService {
 
-    private static final Logger logger = LoggerFactory.getLogger(UserService.class);
-
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final UserMapper userMapper;
     private final PhoneMapper phoneMapper;
-    private final PasswordValidationService passwordValidationService;
+    private final RegistrationValidator registrationValidator;
+    private final AuditTrail auditTrail;
+    private final RefreshTokenService refreshTokenService;
+    private final Clock clock;
+
+    // Temporizadores por fase, registrados una sola vez para no buscarlos en cada solicitud
+    private final Timer registerTimer;
+    private final Timer registerPasswordHashTimer;
+    private final Timer registerJwtSignTimer;
+    private final Timer registerPersistenceTimer;
+    private final Timer loginTimer;
+    private final Timer loginUserLookupTimer;
+    private final Timer loginPasswordVerifyTimer;
+    private final Timer loginJwtSignTimer;
+    private final Timer loginPersistenceTimer;
 
     public UserService(UserRepository userRepository,
                       PasswordEncoder passwordEncoder,
                       JwtService jwtService,
                       UserMapper userMapper,
                       PhoneMapper phoneMapper,
-                      @Lazy PasswordValidationService passwordValidationService) {
+                      RegistrationValidator registrationValidator,
+                      AuditTrail auditTrail,
+                      RefreshTokenService refreshTokenService,
+                      Clock clock,
+                      MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtService = jwtService;
         this.userMapper = userMapper;
         this.phoneMapper = phoneMapper;
-        this.passwordValidationService = passwordValidationService;
+        this.registrationValidator = registrationValidator;
+        this.auditTrail = auditTrail;
+        this.refreshTokenService = refreshTokenService;
+        this.clock = clock;
+
+        this.registerTimer = operationTimer(meterRegistry, "register");
+        this.registerPasswordHashTimer = phaseTimer(meterRegistry, "register", "password_hash");
+        this.registerJwtSignTimer = phaseTimer(meterRegistry, "register", "jwt_sign");
+        this.registerPersistenceTimer = phaseTimer(meterRegistry, "register", "persistence");
+        this.loginTimer = operationTimer(meterRegistry, "login");
+        this.loginUserLookupTimer = phaseTimer(meterRegistry, "login", "user_lookup");
+        this.loginPasswordVerifyTimer = phaseTimer(meterRegistry, "login", "password_verify");
+        this.loginJwtSignTimer = phaseTimer(meterRegistry, "login", "jwt_sign");
+        this.loginPersistenceTimer = phaseTimer(meterRegistry, "login", "persistence");
+    }
+
+    private static Timer operationTimer(MeterRegistry meterRegistry, String operation) {
+        return LatencyTimers.timer(meterRegistry, LatencyTimers.AUTH_OPERATION,
+                "Tiempo total de la operación de autenticación", "operation", operation);
+    }
+
+    private static Timer phaseTimer(MeterRegistry meterRegistry, String operation, String phase) {
+        return LatencyTimers.timer(meterRegistry, LatencyTimers.AUTH_PHASE,
+                "Tiempo de cada fase de la operación de autenticación", "operation", operation, "phase", phase);
     }
 
     /**
      * Registra un nuevo usuario en el sistema.
      *
      * @param userRequestDTO DTO con la información del usuario a registrar
-     * @return DTO con la información del usuario registrado, incluyendo su token JWT
+     * @return DTO con la información del usuario registrado, incluyendo su token JWT y su refresh token
      * @throws IllegalArgumentException si el correo ya está registrado
      * @throws InvalidPasswordException si la contraseña no cumple con los requisitos de validación
      */
     @Transactional
     public UserResponseDTO registerUser(UserRequestDTO userRequestDTO) {
-        // Verificar si el correo ya está registrado
-        if (userRepository.existsByUserEmail(userRequestDTO.getEmail())) {
-            throw new IllegalArgumentException("El correo ya registrado");
-        }
+        return registerTimer.record(() -> doRegisterUser(userRequestDTO));
+    }
 
-        // Validar la contraseña
+    private UserResponseDTO doRegisterUser(UserRequestDTO userRequestDTO) {
+        // Validar la solicitud: política de contraseñas, contraseñas filtradas y correo duplicado,
+        // de la verificación más barata a la más cara
+        registrationValidator.validate(userRequestDTO);
         String password = userRequestDTO.getPassword();
-        if (!passwordValidationService.isPasswordValid(password)) {
-            logger.warn("Intento de registro con contraseña inválida para el email: {}", userRequestDTO.getEmail());
-            throw new InvalidPasswordException("La contraseña no cumple con el patrón requerido");
-        }
 
-        // Crear el usuario usando el mapper
+        // Crear el usuario usando el mapper; el identificador se asigna aquí para usarlo en el token
         User user = userMapper.userRequestDTOToUser(userRequestDTO);
+        user.setId(UUID.randomUUID());
 
         // Establecer campos adicionales
-        LocalDateTime now = LocalDateTime.now();
-        user.setUserPassword(passwordEncoder.encode(password));
+        LocalDateTime now = LocalDateTime.now(clock);
+        user.setUserPassword(registerPasswordHashTimer.record(() -> passwordEncoder.encode(password)));
         user.setLastLogin(now);
         user.setCreatedAt(now);
         user.setUpdatedAt(now);
@@ -91,7 +136,7 @@ public class UserService implements UserDetailsService {
         user.setPhones(new ArrayList<>());
 
         // Generar token JWT
-        String token = jwtService.generateToken(user.getUserEmail());
+        String token = registerJwtSignTimer.record(() -> jwtService.generateToken(user.getId(), user.getUserEmail()));
         user.setUserToken(token);
 
         // Agregar teléfonos si existen
@@ -106,11 +151,79 @@ public class UserService implements UserDetailsService {
             user.getPhones().addAll(phones);
         }
 
-        // Guardar el usuario
+        // Guardar el usuario; el INSERT se ejecuta al confirmar la transacción
+        User savedUser = save(user, registerPersistenceTimer);
+
+        AuthAuditLog.registrationSucceeded(savedUser.getId(), user.getUserEmail());
+        auditTrail.recordOnCommit(AuditEventType.REGISTRATION, "success", user.getUserEmail(), null);
+
+        // Convertir a DTO de respuesta usando el mapper y emitir el refresh token
+        UserResponseDTO response = userMapper.userToUserResponseDTO(savedUser);
+        response.setRefresh_token(refreshTokenService.issue(savedUser));
+        return response;
+    }
+
+    /**
+     * Responde un reintento idempotente de un registro ya ejecutado: emite tokens nuevos para el
+     * usuario registrado, sin volver a validar la solicitud. Como emite credenciales, verifica la
+     * contraseña contra el hash guardado igual que el inicio de sesión, y el reintento queda en la
+     * auditoría como un registro repetido.
+     *
+     * @param userId   Identificador del usuario registrado por la solicitud original
+     * @param password Contraseña enviada en el reintento
+     * @return DTO con la información del usuario, con un token JWT y un refresh token nuevos
+     * @throws IllegalStateException   si el usuario ya no existe
+     * @throws BadCredentialsException si la contraseña no coincide con la registrada
+     */
+    @Transactional
+    public UserResponseDTO replayRegistration(UUID userId, String password) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalStateException("El usuario registrado ya no existe: " + userId));
+        if (!passwordEncoder.matches(password, user.getUserPassword())) {
+            AuthAuditLog.registrationRejected(user.getUserEmail(), "bad_credentials");
+            auditTrail.record(AuditEventType.REGISTRATION, "failure", user.getUserEmail(), "bad_credentials");
+            throw new BadCredentialsException("Credenciales inválidas");
+        }
+        user.setUserToken(jwtService.generateToken(user.getId(), user.getUserEmail()));
         User savedUser = userRepository.save(user);
 
-        // Convertir a DTO de respuesta usando el mapper
-        return userMapper.userToUserResponseDTO(savedUser);
+        UserResponseDTO response = userMapper.userToUserResponseDTO(savedUser);
+        response.setRefresh_token(refreshTokenService.issue(savedUser));
+        AuthAuditLog.registrationReplayed(savedUser.getId(), user.getUserEmail());
+        auditTrail.recordOnCommit(AuditEventType.REGISTRATION, "replayed", user.getUserEmail(), null);
+        return response;
+    }
+
+    /**
+     * Guarda un usuario y mide la fase {@code persistence}.
+     * <p>
+     * Dentro de una transacción {@code save()} no ejecuta SQL: el INSERT o UPDATE se envía al
+     * confirmar. Por eso la fase se mide desde {@code beforeCommit} hasta {@code afterCommit}, es
+     * decir, el flush y el commit, que quedan fuera de {@code auth.operation}. Sin transacción
+     * activa se mide el propio {@code save()}.
+     *
+     * @param user  Usuario a guardar
+     * @param timer Temporizador de la fase de persistencia de la operación
+     * @return El usuario guardado
+     */
+    private User save(User user, Timer timer) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return timer.record(() -> userRepository.save(user));
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long start;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                start = System.nanoTime();
+            }
+
+            @Override
+            public void afterCommit() {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        });
+        return userRepository.save(user);
     }
 
     /**
@@ -149,33 +262,50 @@ public class UserService implements UserDetailsService {
      *
      * @param email    Email del usuario
      * @param password Contraseña del usuario
-     * @return DTO con la información del usuario autenticado, incluyendo su token JWT
+     * @return DTO con la información del usuario autenticado, incluyendo su token JWT y su refresh token
      * @throws BadCredentialsException   si las credenciales son inválidas
      * @throws UsernameNotFoundException si el usuario no existe
      */
     @Transactional
     public UserResponseDTO loginUser(String email, String password) {
+        return loginTimer.record(() -> doLoginUser(email, password));
+    }
+
+    private UserResponseDTO doLoginUser(String email, String password) {
         // Buscar el usuario por email
-        User user = userRepository.findByUserEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado: " + email));
+        User user = loginUserLookupTimer.record(() -> userRepository.findByUserEmail(email))
+                .orElseThrow(() -> {
+                    AuthAuditLog.loginFailed(email, "user_not_found");
+                    auditTrail.record(AuditEventType.LOGIN, "failure", email, "user_not_found");
+                    return new UsernameNotFoundException("Usuario no encontrado: " + email);
+                });
 
         // Verificar la contraseña
-        if (!passwordEncoder.matches(password, user.getUserPassword())) {
+        boolean passwordMatches = loginPasswordVerifyTimer.record(
+                () -> passwordEncoder.matches(password, user.getUserPassword()));
+        if (!passwordMatches) {
+            AuthAuditLog.loginFailed(email, "bad_credentials");
+            auditTrail.record(AuditEventType.LOGIN, "failure", email, "bad_credentials");
             throw new BadCredentialsException("Credenciales inválidas");
         }
 
         // Actualizar último login
-        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime now = LocalDateTime.now(clock);
         user.setLastLogin(now);
 
         // Generar nuevo token JWT
-        String token = jwtService.generateToken(user.getUserEmail());
+        String token = loginJwtSignTimer.record(() -> jwtService.generateToken(user.getId(), user.getUserEmail()));
         user.setUserToken(token);
 
-        // Guardar cambios
-        User updatedUser = userRepository.save(user);
+        // Guardar cambios; el UPDATE se ejecuta al confirmar la transacción
+        User updatedUser = save(user, loginPersistenceTimer);
+
+        AuthAuditLog.loginSucceeded(user.getUserEmail());
+        auditTrail.recordOnCommit(AuditEventType.LOGIN, "success", user.getUserEmail(), null);
 
-        // Convertir a DTO de respuesta usando el mapper
-        return userMapper.userToUserResponseDTO(updatedUser);
+        // Convertir a DTO de respuesta usando el mapper y emitir el refresh token
+        UserResponseDTO response = userMapper.userToUserResponseDTO(updatedUser);
+        response.setRefresh_token(refreshTokenService.issue(updatedUser));
+        return response;
     }
 }
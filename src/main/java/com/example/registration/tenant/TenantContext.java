@@ -0,0 +1,77 @@
+package com.example.registration.tenant;
+
+import java.util.regex.Pattern;
+
+/**
+ * Tenant (marca) de la solicitud en curso.
+ * <p>
+ * {@link TenantFilter} lo establece al inicio de cada solicitud y lo limpia al terminar. Fuera de
+ * una solicitud (tareas programadas, inicio de la aplicación) el tenant es {@link #DEFAULT_TENANT},
+ * cuyas configuraciones son la base que cada tenant puede sobrescribir.
+ */
+public final class TenantContext {
+
+    /** Tenant por defecto: las configuraciones sin tenant explícito. */
+    public static final String DEFAULT_TENANT = "default";
+
+    /** Largo máximo de un identificador de tenant; coincide con el largo de configuration.tenant_id. */
+    public static final int MAX_TENANT_LENGTH = 64;
+
+    private static final Pattern TENANT_ID = Pattern.compile("[a-z0-9][a-z0-9-]{0," + (MAX_TENANT_LENGTH - 1) + "}");
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+        throw new UnsupportedOperationException("Esta clase no debe ser instanciada.");
+    }
+
+    /**
+     * Obtiene el tenant de la solicitud en curso.
+     *
+     * @return El tenant actual, o {@link #DEFAULT_TENANT} si no se estableció ninguno
+     */
+    public static String current() {
+        String tenant = CURRENT.get();
+        return tenant != null ? tenant : DEFAULT_TENANT;
+    }
+
+    /**
+     * Indica si la solicitud en curso usa el tenant por defecto.
+     *
+     * @return true si el tenant actual es {@link #DEFAULT_TENANT}
+     */
+    public static boolean isDefault() {
+        return DEFAULT_TENANT.equals(current());
+    }
+
+    /**
+     * Establece el tenant de la solicitud en curso.
+     *
+     * @param tenant El identificador del tenant
+     * @throws IllegalArgumentException si el identificador no es válido
+     */
+    public static void set(String tenant) {
+        if (!isValid(tenant)) {
+            throw new IllegalArgumentException("Identificador de tenant inválido: " + tenant);
+        }
+        CURRENT.set(tenant);
+    }
+
+    /**
+     * Vuelve al tenant por defecto.
+     */
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Valida un identificador de tenant: minúsculas, dígitos y guiones, hasta
+     * {@link #MAX_TENANT_LENGTH} caracteres, comenzando por letra o dígito.
+     *
+     * @param tenant El identificador a validar
+     * @return true si el identificador es válido
+     */
+    public static boolean isValid(String tenant) {
+        return tenant != null && TENANT_ID.matcher(tenant).matches();
+    }
+}
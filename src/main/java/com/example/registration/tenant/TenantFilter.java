@@ -0,0 +1,87 @@
+package com.example.registration.tenant;
+
+import com.example.registration.exception.ErrorResponses;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Filtro que resuelve el tenant de cada solicitud y lo deja en {@link TenantContext}.
+ * <p>
+ * El tenant se toma del encabezado {@code tenant.header} ({@code X-Tenant-ID} por defecto) o, si
+ * no viene, del nombre del host cuando termina en {@code tenant.host-suffix} (por ejemplo,
+ * {@code marca.example.com} con el sufijo {@code .example.com}). Sin ninguno de los dos se usa
+ * {@link TenantContext#DEFAULT_TENANT}. Un identificador inválido en el encabezado se rechaza con
+ * 400; un host que no lo forma se atiende con el tenant por defecto. Se ejecuta antes que la
+ * cadena de seguridad, de modo que todos los filtros y controladores ven el mismo tenant.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TenantFilter extends OncePerRequestFilter {
+
+    private final String tenantHeader;
+    private final String hostSuffix;
+
+    public TenantFilter(@Value("${tenant.header:X-Tenant-ID}") String tenantHeader,
+                        @Value("${tenant.host-suffix:}") String hostSuffix) {
+        this.tenantHeader = tenantHeader;
+        this.hostSuffix = hostSuffix.toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        String header = request.getHeader(tenantHeader);
+        String tenant;
+        if (header != null) {
+            tenant = header.trim().toLowerCase(Locale.ROOT);
+            if (!TenantContext.isValid(tenant)) {
+                ErrorResponses.write(response, HttpStatus.BAD_REQUEST, ErrorResponses.INVALID_TENANT);
+                return;
+            }
+        } else {
+            tenant = tenantFromHost(request.getServerName());
+        }
+
+        TenantContext.set(tenant);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    /**
+     * Obtiene el tenant a partir del nombre del host.
+     *
+     * @param serverName El nombre del host de la solicitud
+     * @return El prefijo del host antes de {@code tenant.host-suffix}, o el tenant por defecto
+     */
+    String tenantFromHost(String serverName) {
+        if (hostSuffix.isEmpty() || serverName == null) {
+            return TenantContext.DEFAULT_TENANT;
+        }
+
+        String host = serverName.toLowerCase(Locale.ROOT);
+        if (!host.endsWith(hostSuffix)) {
+            return TenantContext.DEFAULT_TENANT;
+        }
+
+        String tenant = host.substring(0, host.length() - hostSuffix.length());
+        return TenantContext.isValid(tenant) ? tenant : TenantContext.DEFAULT_TENANT;
+    }
+}
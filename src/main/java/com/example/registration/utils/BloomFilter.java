@@ -0,0 +1,120 @@
+package com.example.registration.utils;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Filtro de Bloom de cadenas sobre memoria fuera del heap.
+ * <p>
+ * Los bits se guardan en un {@link ByteBuffer} directo, de modo que el filtro no ocupa heap ni lo
+ * recorre el recolector de basura. Cada consulta calcula un único hash de 64 bits y deriva de él
+ * las {@code k} posiciones (doble hash de Kirsch y Mitzenmacher), sin crear objetos. Un resultado
+ * negativo es definitivo; uno positivo puede ser un falso positivo con la probabilidad indicada al
+ * crearlo, por lo que debe confirmarse contra la fuente exacta.
+ * <p>
+ * Agregar elementos no es seguro entre hilos: el filtro se construye completo en un hilo y luego
+ * se publica (por ejemplo, en un campo {@code volatile}) para consultarlo desde varios.
+ */
+public final class BloomFilter {
+
+    private final ByteBuffer bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    private BloomFilter(long bitCount, int hashCount) {
+        this.bitCount = bitCount;
+        this.hashCount = hashCount;
+        this.bits = ByteBuffer.allocateDirect((int) ((bitCount + 7) / 8));
+    }
+
+    /**
+     * Crea un filtro dimensionado para una cantidad de elementos y una tasa de falsos positivos.
+     *
+     * @param expectedElements  Cantidad esperada de elementos
+     * @param falsePositiveRate Tasa de falsos positivos aceptada (entre 0 y 1, exclusivos)
+     * @return El filtro vacío
+     * @throws IllegalArgumentException si los parámetros son inválidos o el filtro supera 2 GiB
+     */
+    public static BloomFilter create(long expectedElements, double falsePositiveRate) {
+        if (expectedElements < 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Parámetros inválidos para el filtro de Bloom");
+        }
+
+        long n = Math.max(1, expectedElements);
+        long bitCount = Math.max(64, (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))));
+        if (bitCount / 8 >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("El filtro de Bloom no puede superar 2 GiB");
+        }
+        int hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+        return new BloomFilter(bitCount, hashCount);
+    }
+
+    /**
+     * Agrega un elemento al filtro.
+     *
+     * @param value El elemento
+     */
+    public void add(CharSequence value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            int byteIndex = (int) (bit >>> 3);
+            bits.put(byteIndex, (byte) (bits.get(byteIndex) | (1 << (bit & 7))));
+        }
+    }
+
+    /**
+     * Consulta si un elemento puede estar en el filtro.
+     *
+     * @param value El elemento
+     * @return false si el elemento no está; true si puede estar
+     */
+    public boolean mightContain(CharSequence value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 3)) & (1 << (bit & 7))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tamaño de los bits del filtro, fuera del heap.
+     *
+     * @return El tamaño en bytes
+     */
+    public long sizeInBytes() {
+        return bits.capacity();
+    }
+
+    /**
+     * Cantidad de posiciones que se marcan por elemento.
+     *
+     * @return La cantidad de funciones hash
+     */
+    public int hashCount() {
+        return hashCount;
+    }
+
+    /**
+     * Hash de 64 bits de una cadena: FNV-1a sobre los caracteres y la mezcla final de MurmurHash3.
+     */
+    private static long hash(CharSequence value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
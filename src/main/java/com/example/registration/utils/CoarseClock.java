@@ -0,0 +1,101 @@
+package com.example.registration.utils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reloj de baja resolución que devuelve un instante en caché.
+ * <p>
+ * Un hilo en segundo plano lee el reloj de origen cada {@code tick} y publica el valor en un campo
+ * volátil, de modo que {@link #millis()} es una simple lectura de memoria, sin llamada al sistema
+ * ni asignación de objetos. El valor puede atrasarse hasta un {@code tick}, por lo que solo sirve
+ * donde esa precisión basta, como la verificación de la expiración de los tokens.
+ * <p>
+ * Las copias obtenidas con {@link #withZone(ZoneId)} comparten el mismo hilo; al cerrar el reloj
+ * (lo hace Spring al detener la aplicación) el valor deja de actualizarse.
+ */
+public final class CoarseClock extends Clock implements AutoCloseable {
+
+    /**
+     * Estado compartido entre el reloj y sus copias con otra zona horaria.
+     */
+    private static final class Ticker {
+
+        private final Clock source;
+        private final ScheduledExecutorService executor;
+        private volatile long currentMillis;
+
+        private Ticker(Clock source, Duration tick) {
+            this.source = source;
+            this.currentMillis = source.millis();
+            this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "coarse-clock");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleAtFixedRate(this::tick, tick.toNanos(), tick.toNanos(), TimeUnit.NANOSECONDS);
+        }
+
+        private void tick() {
+            currentMillis = source.millis();
+        }
+    }
+
+    private final Ticker ticker;
+    private final ZoneId zone;
+
+    /**
+     * Crea un reloj de baja resolución.
+     *
+     * @param source Reloj de origen
+     * @param tick   Intervalo de actualización (positivo)
+     */
+    public CoarseClock(Clock source, Duration tick) {
+        this(new Ticker(source, requirePositive(tick)), source.getZone());
+    }
+
+    private CoarseClock(Ticker ticker, ZoneId zone) {
+        this.ticker = ticker;
+        this.zone = zone;
+    }
+
+    private static Duration requirePositive(Duration tick) {
+        if (tick.isZero() || tick.isNegative()) {
+            throw new IllegalArgumentException("El intervalo del reloj debe ser positivo: " + tick);
+        }
+        return tick;
+    }
+
+    @Override
+    public long millis() {
+        return ticker.currentMillis;
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(ticker.currentMillis);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return zone.equals(this.zone) ? this : new CoarseClock(ticker, zone);
+    }
+
+    /**
+     * Detiene el hilo que actualiza el reloj.
+     */
+    @Override
+    public void close() {
+        ticker.executor.shutdownNow();
+    }
+}
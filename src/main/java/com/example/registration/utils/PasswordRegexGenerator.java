@@ -4,7 +4,11 @@ import com.example.registration.model.Configuration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.EnumMap;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 import java.util.regex.Pattern;
@@ -39,6 +43,48 @@ public class PasswordRegexGenerator {
             throw new IllegalArgumentException("La lista de configuraciones no puede ser nula o vacía");
         }
 
+        // Construir la expresión regular
+        return buildRegexFromConfig(toConfigMap(configurations));
+    }
+
+    /**
+     * Calcula la huella (SHA-256, en hexadecimal) de la política efectiva de una lista de
+     * configuraciones: solo intervienen los valores de los tipos de contraseña reconocidos, en el
+     * orden de {@link PasswordConfigurationType}, por lo que dos listas con los mismos valores
+     * producen la misma huella aunque difieran en orden, identificadores o fechas.
+     *
+     * @param configurations Lista de configuraciones para validación de contraseñas.
+     * @return La huella de la política.
+     */
+    public static String fingerprint(List<Configuration> configurations) {
+        Map<PasswordConfigurationType, String> configMap = toConfigMap(configurations);
+
+        // Cada valor lleva su longitud como prefijo, para que ningún valor pueda imitar a otro campo
+        StringBuilder canonical = new StringBuilder(128);
+        for (PasswordConfigurationType type : PasswordConfigurationType.values()) {
+            canonical.append(type.name()).append('=');
+            String value = configMap.get(type);
+            if (value != null) {
+                canonical.append(value.length()).append(':').append(value);
+            }
+            canonical.append('\n');
+        }
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no está disponible", e);
+        }
+    }
+
+    /**
+     * Extrae los valores de configuración de contraseña, por tipo.
+     *
+     * @param configurations Lista de configuraciones.
+     * @return Mapa de valores por tipo; las configuraciones no reconocidas se omiten.
+     */
+    private static Map<PasswordConfigurationType, String> toConfigMap(List<Configuration> configurations) {
         // Mapa para almacenar los valores de configuración por tipo
         Map<PasswordConfigurationType, String> configMap = new EnumMap<>(PasswordConfigurationType.class);
 
@@ -61,8 +107,7 @@ public class PasswordRegexGenerator {
             }
         }
 
-        // Construir la expresión regular
-        return buildRegexFromConfig(configMap);
+        return configMap;
     }
 
     /**
@@ -67,7 +67,9 @@ public class PasswordValidator {
         for (int i = 0; i < password.length(); i++) {
             char c = password.charAt(i);
             if (!Character.isLetterOrDigit(c) && this.allowedSpecialChars.indexOf(c) == -1) {
-                logger.debug("Contraseña inválida: contiene caracteres especiales no permitidos: {}", c);
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Contraseña inválida: contiene caracteres especiales no permitidos: {}", c);
+                }
                 return false;
             }
         }
@@ -0,0 +1,56 @@
+package com.example.registration.utils;
+
+import lombok.Getter;
+
+/**
+ * Enumeración que representa los tipos de configuración de los límites de solicitudes.
+ * Esta enumeración mapea los valores de type_key en la tabla configuration_type
+ * relacionados con la limitación de solicitudes a los endpoints de inicio de sesión y registro.
+ */
+@Getter
+public enum RateLimitConfigurationType {
+    /**
+     * Solicitudes sostenidas por minuto permitidas a una misma dirección IP.
+     */
+    IP_PER_MINUTE("ratelimit.ip.per-minute", 60),
+
+    /**
+     * Ráfaga de solicitudes permitida a una misma dirección IP.
+     */
+    IP_BURST("ratelimit.ip.burst", 20),
+
+    /**
+     * Solicitudes sostenidas por minuto permitidas para un mismo correo.
+     */
+    EMAIL_PER_MINUTE("ratelimit.email.per-minute", 10),
+
+    /**
+     * Ráfaga de solicitudes permitida para un mismo correo.
+     */
+    EMAIL_BURST("ratelimit.email.burst", 5);
+
+    /**
+     * -- GETTER --
+     *  Obtiene la clave del tipo de configuración.
+     *
+     */
+    private final String typeKey;
+
+    /**
+     * -- GETTER --
+     *  Obtiene el valor que se usa si la configuración no existe o es inválida.
+     *
+     */
+    private final int defaultValue;
+
+    /**
+     * Constructor para la enumeración.
+     *
+     * @param typeKey      La clave del tipo de configuración en la base de datos.
+     * @param defaultValue El valor por defecto.
+     */
+    RateLimitConfigurationType(String typeKey, int defaultValue) {
+        this.typeKey = typeKey;
+        this.defaultValue = defaultValue;
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.registration.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Conjunto inmutable de cadenas sobre memoria fuera del heap.
+ * <p>
+ * Las palabras se guardan en UTF-8, ordenadas por sus bytes sin signo y concatenadas en un
+ * {@link ByteBuffer} directo; un {@link IntBuffer} directo guarda dónde empieza cada una. El
+ * conjunto no ocupa heap ni lo recorre el recolector de basura, y una consulta es una búsqueda
+ * binaria (unas 17 comparaciones para 100 000 palabras). Pensado para confirmar los positivos de
+ * un {@link BloomFilter}: solo esas consultas codifican la palabra y tocan estos buffers.
+ * <p>
+ * Se construye completo con {@link #of(Collection)} y luego puede consultarse desde varios hilos.
+ */
+public final class SortedWordSet {
+
+    private final ByteBuffer words;
+    // offsets[i] es la posición de la palabra i en words; offsets[size] es el total de bytes
+    private final IntBuffer offsets;
+    private final int size;
+
+    private SortedWordSet(ByteBuffer words, IntBuffer offsets, int size) {
+        this.words = words;
+        this.offsets = offsets;
+        this.size = size;
+    }
+
+    /**
+     * Crea el conjunto con las palabras indicadas; los duplicados se descartan.
+     *
+     * @param values Las palabras
+     * @return El conjunto
+     * @throws IllegalArgumentException si las palabras superan 2 GiB
+     */
+    public static SortedWordSet of(Collection<String> values) {
+        byte[][] encoded = new byte[values.size()][];
+        int i = 0;
+        for (String value : values) {
+            encoded[i++] = value.getBytes(StandardCharsets.UTF_8);
+        }
+        Arrays.sort(encoded, Arrays::compareUnsigned);
+
+        // Sin duplicados, en el mismo arreglo
+        int distinct = 0;
+        long totalBytes = 0;
+        for (byte[] word : encoded) {
+            if (distinct == 0 || !Arrays.equals(encoded[distinct - 1], word)) {
+                encoded[distinct++] = word;
+                totalBytes += word.length;
+            }
+        }
+        if (totalBytes >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("El conjunto de palabras no puede superar 2 GiB");
+        }
+
+        ByteBuffer words = ByteBuffer.allocateDirect((int) totalBytes);
+        IntBuffer offsets = ByteBuffer.allocateDirect((distinct + 1) * Integer.BYTES).asIntBuffer();
+        for (int w = 0; w < distinct; w++) {
+            offsets.put(w, words.position());
+            words.put(encoded[w]);
+        }
+        offsets.put(distinct, words.position());
+        return new SortedWordSet(words, offsets, distinct);
+    }
+
+    /**
+     * Consulta si una palabra está en el conjunto.
+     *
+     * @param value La palabra
+     * @return true si la palabra está en el conjunto
+     */
+    public boolean contains(String value) {
+        byte[] key = value.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compare(mid, key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Cantidad de palabras del conjunto.
+     *
+     * @return La cantidad de palabras distintas
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Tamaño de las palabras y sus posiciones, fuera del heap.
+     *
+     * @return El tamaño en bytes
+     */
+    public long sizeInBytes() {
+        return words.capacity() + (long) offsets.capacity() * Integer.BYTES;
+    }
+
+    /**
+     * Compara la palabra de una posición con una clave, byte a byte y sin signo.
+     */
+    private int compare(int index, byte[] key) {
+        int start = offsets.get(index);
+        int length = offsets.get(index + 1) - start;
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int cmp = Integer.compare(words.get(start + i) & 0xFF, key[i] & 0xFF);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.registration.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * El valor debe ser un correo electrónico de un dominio {@code .cl}.
+ * <p>
+ * Acepta lo mismo que {@code @Email(regexp = "^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.cl$")}, pero se
+ * verifica en una sola pasada sin expresiones regulares (ver {@link ClDomainEmailValidator}). Los
+ * valores nulos o vacíos se consideran válidos; se combina con {@code @NotBlank} para exigirlo.
+ */
+@Documented
+@Constraint(validatedBy = ClDomainEmailValidator.class)
+@Target({ElementType.FIELD, ElementType.METHOD, ElementType.PARAMETER, ElementType.ANNOTATION_TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ClDomainEmail {
+
+    String message() default "El correo debe tener un formato válido y terminar en .cl (ejemplo: correo@dominio.cl)";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
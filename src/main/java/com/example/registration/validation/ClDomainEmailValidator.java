@@ -0,0 +1,99 @@
+package com.example.registration.validation;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+/**
+ * Validador de {@link ClDomainEmail}.
+ * <p>
+ * Reemplaza a {@code @Email(regexp = ...)}, que en cada registro evaluaba dos expresiones regulares
+ * (la interna de Hibernate Validator y la del dominio {@code .cl}) y retrocedía de forma cuadrática
+ * con entradas como {@code a@....................x}. Este validador recorre el valor una sola vez,
+ * sin crear objetos, y acepta exactamente los mismos correos que la anotación anterior:
+ * <ul>
+ *     <li>parte local de 1 a 64 caracteres entre {@code [a-zA-Z0-9._%+-]}, sin puntos al inicio, al
+ *     final ni consecutivos;</li>
+ *     <li>un único {@code @};</li>
+ *     <li>dominio de hasta 255 caracteres formado por etiquetas de 1 a 63 caracteres entre
+ *     {@code [a-zA-Z0-9-]}, separadas por puntos, que no empiezan ni terminan con guion;</li>
+ *     <li>al menos una etiqueta antes de la última, que es exactamente {@code cl}.</li>
+ * </ul>
+ */
+public class ClDomainEmailValidator implements ConstraintValidator<ClDomainEmail, CharSequence> {
+
+    static final int MAX_LOCAL_PART_LENGTH = 64;
+    static final int MAX_DOMAIN_LENGTH = 255;
+    static final int MAX_LABEL_LENGTH = 63;
+
+    @Override
+    public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+        return value == null || value.length() == 0 || isClDomainEmail(value);
+    }
+
+    /**
+     * Verifica un correo electrónico de un dominio {@code .cl}.
+     *
+     * @param value El correo electrónico
+     * @return true si el correo es válido
+     */
+    public static boolean isClDomainEmail(CharSequence value) {
+        int length = value.length();
+
+        // Parte local: átomos separados por un solo punto
+        int at = 0;
+        boolean afterDot = true;
+        for (; at < length; at++) {
+            char c = value.charAt(at);
+            if (c == '@') {
+                break;
+            }
+            if (c == '.') {
+                if (afterDot) {
+                    return false;
+                }
+                afterDot = true;
+            } else if (isAlphanumeric(c) || c == '_' || c == '%' || c == '+' || c == '-') {
+                afterDot = false;
+            } else {
+                return false;
+            }
+        }
+        if (at == length || afterDot || at > MAX_LOCAL_PART_LENGTH) {
+            return false;
+        }
+
+        // Dominio: etiquetas alfanuméricas con guiones internos, separadas por un solo punto
+        int domainStart = at + 1;
+        if (length - domainStart > MAX_DOMAIN_LENGTH) {
+            return false;
+        }
+        int labelStart = domainStart;
+        char previous = '.';
+        for (int i = domainStart; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == '.') {
+                if (previous == '.' || previous == '-' || i - labelStart > MAX_LABEL_LENGTH) {
+                    return false;
+                }
+                labelStart = i + 1;
+            } else if (c == '-') {
+                if (previous == '.') {
+                    return false;
+                }
+            } else if (!isAlphanumeric(c)) {
+                return false;
+            }
+            previous = c;
+        }
+
+        // La última etiqueta es "cl" y hay al menos una antes
+        return labelStart > domainStart
+                && length - labelStart == 2
+                && value.charAt(length - 2) == 'c'
+                && value.charAt(length - 1) == 'l';
+    }
+
+    private static boolean isAlphanumeric(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+}
@@ -22,40 +22,77 @@ INSERT INTO configuration (configuration_type_id, config_value, is_active, creat
 SELECT ct.id, '8', TRUE, CURRENT_TIMESTAMP(), CURRENT_TIMESTAMP()
 FROM configuration_type ct 
 WHERE ct.type_key = 'password.min.length'
-AND NOT EXISTS (SELECT 1 FROM configuration c WHERE c.configuration_type_id = ct.id);
+AND NOT EXISTS (SELECT 1 FROM configuration c WHERE c.configuration_type_id = ct.id AND c.tenant_id = 'default');
 
 INSERT INTO configuration (configuration_type_id, config_value, is_active, created_at, updated_at)
 SELECT ct.id, '30', TRUE, CURRENT_TIMESTAMP(), CURRENT_TIMESTAMP()
 FROM configuration_type ct 
 WHERE ct.type_key = 'password.max.length'
-AND NOT EXISTS (SELECT 1 FROM configuration c WHERE c.configuration_type_id = ct.id);
+AND NOT EXISTS (SELECT 1 FROM configuration c WHERE c.configuration_type_id = ct.id AND c.tenant_id = 'default');
 
 INSERT INTO configuration (configuration_type_id, config_value, is_active, created_at, updated_at)
 SELECT ct.id, '1', TRUE, CURRENT_TIMESTAMP(), CURRENT_TIMESTAMP()
 FROM configuration_type ct 
 WHERE ct.type_key = 'password.min.uppercase'
-AND NOT EXISTS (SELECT 1 FROM configuration c WHERE c.configuration_type_id = ct.id);
+AND NOT EXISTS (SELECT 1 FROM configuration c WHERE c.configuration_type_id = ct.id AND c.tenant_id = 'default');
 
 INSERT INTO configuration (configuration_type_id, config_value, is_active, created_at, updated_at)
 SELECT ct.id, '1', TRUE, CURRENT_TIMESTAMP(), CURRENT_TIMESTAMP()
 FROM configuration_type ct 
 WHERE ct.type_key = 'password.min.lowercase'
-AND NOT EXISTS (SELECT 1 FROM configuration c WHERE c.configuration_type_id = ct.id);
+AND NOT EXISTS (SELECT 1 FROM configuration c WHERE c.configuration_type_id = ct.id AND c.tenant_id = 'default');
 
 INSERT INTO configuration (configuration_type_id, config_value, is_active, created_at, updated_at)
 SELECT ct.id, '1', TRUE, CURRENT_TIMESTAMP(), CURRENT_TIMESTAMP()
 FROM configuration_type ct 
 WHERE ct.type_key = 'password.min.digits'
-AND NOT EXISTS (SELECT 1 FROM configuration c WHERE c.configuration_type_id = ct.id);
+AND NOT EXISTS (SELECT 1 FROM configuration c WHERE c.configuration_type_id = ct.id AND c.tenant_id = 'default');
 
 INSERT INTO configuration (configuration_type_id, config_value, is_active, created_at, updated_at)
 SELECT ct.id, '1', TRUE, CURRENT_TIMESTAMP(), CURRENT_TIMESTAMP()
 FROM configuration_type ct 
 WHERE ct.type_key = 'password.min.special'
-AND NOT EXISTS (SELECT 1 FROM configuration c WHERE c.configuration_type_id = ct.id);
+AND NOT EXISTS (SELECT 1 FROM configuration c WHERE c.configuration_type_id = ct.id AND c.tenant_id = 'default');
 
 INSERT INTO configuration (configuration_type_id, config_value, is_active, created_at, updated_at)
 SELECT ct.id, '-.#$%&', TRUE, CURRENT_TIMESTAMP(), CURRENT_TIMESTAMP()
 FROM configuration_type ct 
 WHERE ct.type_key = 'password.allowed.special'
-AND NOT EXISTS (SELECT 1 FROM configuration c WHERE c.configuration_type_id = ct.id);
+AND NOT EXISTS (SELECT 1 FROM configuration c WHERE c.configuration_type_id = ct.id AND c.tenant_id = 'default');
+
+-- Insertar tipos de configuración para los límites de solicitudes de inicio de sesión y registro
+MERGE INTO configuration_type (type_key, description, is_active, created_at, updated_at) KEY(type_key) VALUES
+('ratelimit.ip.per-minute', 'Solicitudes de inicio de sesión y registro por minuto permitidas a una dirección IP', TRUE, CURRENT_TIMESTAMP(), CURRENT_TIMESTAMP()),
+('ratelimit.ip.burst', 'Ráfaga de solicitudes de inicio de sesión y registro permitida a una dirección IP', TRUE, CURRENT_TIMESTAMP(), CURRENT_TIMESTAMP()),
+('ratelimit.email.per-minute', 'Solicitudes de inicio de sesión y registro por minuto permitidas para un correo', TRUE, CURRENT_TIMESTAMP(), CURRENT_TIMESTAMP()),
+('ratelimit.email.burst', 'Ráfaga de solicitudes de inicio de sesión y registro permitida para un correo', TRUE, CURRENT_TIMESTAMP(), CURRENT_TIMESTAMP());
+
+INSERT INTO configuration (configuration_type_id, config_value, is_active, created_at, updated_at)
+SELECT ct.id, '60', TRUE, CURRENT_TIMESTAMP(), CURRENT_TIMESTAMP()
+FROM configuration_type ct 
+WHERE ct.type_key = 'ratelimit.ip.per-minute'
+AND NOT EXISTS (SELECT 1 FROM configuration c WHERE c.configuration_type_id = ct.id AND c.tenant_id = 'default');
+
+INSERT INTO configuration (configuration_type_id, config_value, is_active, created_at, updated_at)
+SELECT ct.id, '20', TRUE, CURRENT_TIMESTAMP(), CURRENT_TIMESTAMP()
+FROM configuration_type ct 
+WHERE ct.type_key = 'ratelimit.ip.burst'
+AND NOT EXISTS (SELECT 1 FROM configuration c WHERE c.configuration_type_id = ct.id AND c.tenant_id = 'default');
+
+INSERT INTO configuration (configuration_type_id, config_value, is_active, created_at, updated_at)
+SELECT ct.id, '10', TRUE, CURRENT_TIMESTAMP(), CURRENT_TIMESTAMP()
+FROM configuration_type ct 
+WHERE ct.type_key = 'ratelimit.email.per-minute'
+AND NOT EXISTS (SELECT 1 FROM configuration c WHERE c.configuration_type_id = ct.id AND c.tenant_id = 'default');
+
+INSERT INTO configuration (configuration_type_id, config_value, is_active, created_at, updated_at)
+SELECT ct.id, '5', TRUE, CURRENT_TIMESTAMP(), CURRENT_TIMESTAMP()
+FROM configuration_type ct 
+WHERE ct.type_key = 'ratelimit.email.burst'
+AND NOT EXISTS (SELECT 1 FROM configuration c WHERE c.configuration_type_id = ct.id AND c.tenant_id = 'default');
+
+-- Insertar la fila de versión de las configuraciones solo si no existe
+-- La versión 1 corresponde a los valores iniciales insertados arriba (revision = 1)
+INSERT INTO configuration_version (id, version, updated_at)
+SELECT 1, 1, CURRENT_TIMESTAMP()
+WHERE NOT EXISTS (SELECT 1 FROM configuration_version WHERE id = 1);
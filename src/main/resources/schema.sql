@@ -68,7 +68,9 @@ CREATE TABLE IF NOT EXISTS configuration_type (
 CREATE TABLE IF NOT EXISTS configuration (
     id BIGINT AUTO_INCREMENT PRIMARY KEY, -- Identificador único
     configuration_type_id BIGINT NOT NULL, -- Referencia al tipo de configuración
+    tenant_id VARCHAR(64) DEFAULT 'default' NOT NULL, -- Tenant al que aplica ('default': base de todos)
     config_value VARCHAR(255) NOT NULL,    -- Valor de configuración
+    revision BIGINT DEFAULT 1 NOT NULL,    -- Versión de configuration_version en que cambió por última vez
 
     -- Restricción de clave foránea
     FOREIGN KEY (configuration_type_id) REFERENCES configuration_type(id),
@@ -78,3 +80,61 @@ CREATE TABLE IF NOT EXISTS configuration (
     created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
 );
+
+-- Columna de revisión para bases de datos creadas antes de su incorporación
+-- La revisión 1 corresponde a los valores iniciales de data.sql
+ALTER TABLE configuration ADD COLUMN IF NOT EXISTS revision BIGINT DEFAULT 1 NOT NULL;
+
+-- Índice para consultar los cambios posteriores a una revisión
+CREATE INDEX IF NOT EXISTS idx_configuration_revision ON configuration(revision);
+
+-- Columna de tenant para bases de datos creadas antes de su incorporación
+-- Las configuraciones existentes quedan en el tenant por defecto
+ALTER TABLE configuration ADD COLUMN IF NOT EXISTS tenant_id VARCHAR(64) DEFAULT 'default' NOT NULL;
+
+-- Índice para buscar las configuraciones de un tipo en un tenant
+CREATE INDEX IF NOT EXISTS idx_configuration_tenant_type ON configuration(tenant_id, configuration_type_id);
+
+-- Tabla: refresh_token
+-- Almacena el hash de los refresh tokens emitidos; los tokens rotados conservan su familia
+CREATE TABLE IF NOT EXISTS refresh_token (
+    id UUID PRIMARY KEY,                  -- Identificador único (UUID)
+    token_hash VARCHAR(64) NOT NULL UNIQUE,    -- Hash SHA-256 del token
+    family_id UUID NOT NULL,              -- Familia de rotación
+    user_id UUID NOT NULL,                -- Referencia al usuario
+    expires_at TIMESTAMP NOT NULL,        -- Fecha de expiración
+    revoked_at TIMESTAMP,                 -- Fecha de rotación o revocación
+    revocation_reason VARCHAR(20),        -- ROTATED, LOGOUT o REUSE
+    created_at TIMESTAMP NOT NULL,        -- Fecha de creación
+
+    -- Restricción de clave foránea
+    FOREIGN KEY (user_id) REFERENCES users(id)
+);
+
+-- Índice para revocar una familia completa
+CREATE INDEX IF NOT EXISTS idx_refresh_token_family ON refresh_token(family_id);
+
+-- Tabla: audit_event
+-- Registro de auditoría de solo inserción (registros, inicios de sesión y cambios de configuración)
+-- Los eventos se escriben en lotes desde un hilo en segundo plano
+CREATE TABLE IF NOT EXISTS audit_event (
+    id UUID PRIMARY KEY,                  -- Identificador único (UUID)
+    event_type VARCHAR(40) NOT NULL,      -- Tipo de evento
+    outcome VARCHAR(20) NOT NULL,         -- Resultado del evento
+    principal VARCHAR(100),               -- Usuario o clave de configuración afectada
+    detail VARCHAR(255),                  -- Detalle del evento
+    occurred_at TIMESTAMP NOT NULL        -- Fecha del evento
+);
+
+-- Índice para consultas por fecha
+CREATE INDEX IF NOT EXISTS idx_audit_event_occurred_at ON audit_event(occurred_at);
+
+-- Tabla: configuration_version
+-- Fila única con un contador que se incrementa en cada cambio de configuración
+-- Cada configuración guarda en su columna revision la versión en que cambió por última vez
+-- Cada nodo consulta el contador por clave primaria para saber si debe recargar sus políticas
+CREATE TABLE IF NOT EXISTS configuration_version (
+    id BIGINT PRIMARY KEY,                -- Identificador de la fila (siempre 1)
+    version BIGINT NOT NULL,              -- Versión de las configuraciones
+    updated_at TIMESTAMP NOT NULL         -- Fecha del último cambio
+);
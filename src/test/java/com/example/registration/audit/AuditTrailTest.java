@@ -0,0 +1,161 @@
+package com.example.registration.audit;
+
+import com.example.registration.model.AuditEvent;
+import com.example.registration.repository.AuditEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuditTrailTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2025-01-15T10:00:00Z"), ZoneOffset.UTC);
+
+    @Mock
+    private AuditEventRepository auditEventRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AuditTrail auditTrail;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (auditTrail != null && auditTrail.isRunning()) {
+            auditTrail.stop();
+        }
+    }
+
+    @Test
+    void stop_shouldDrainTheQueueInBatches() {
+        auditTrail = newAuditTrail(100, 3, OverflowPolicy.DROP, Duration.ofMillis(50));
+        for (int i = 0; i < 7; i++) {
+            auditTrail.record(AuditEventType.LOGIN, "success", "user" + i + "@example.com", null);
+        }
+
+        auditTrail.start();
+        auditTrail.stop();
+
+        List<Integer> batchSizes = savedBatches().stream().map(List::size).toList();
+        assertEquals(List.of(3, 3, 1), batchSizes);
+        assertTrue(savedBatches().stream().flatMap(List::stream)
+                .allMatch(event -> LocalDateTime.now(CLOCK).equals(event.getOccurredAt())));
+        assertEquals(0.0, meterRegistry.get("audit.queue.depth").gauge().value());
+        assertEquals(7, meterRegistry.get("audit.lag").timer().count());
+    }
+
+    @Test
+    void record_withDropPolicy_shouldDiscardEventsWhenTheQueueIsFull() {
+        auditTrail = newAuditTrail(2, 10, OverflowPolicy.DROP, Duration.ofMillis(50));
+
+        for (int i = 0; i < 3; i++) {
+            auditTrail.record(AuditEventType.LOGIN, "failure", "user@example.com", "bad_credentials");
+        }
+
+        assertEquals(1.0, meterRegistry.get("audit.dropped").counter().count());
+        assertEquals(2.0, meterRegistry.get("audit.queue.depth").gauge().value());
+    }
+
+    @Test
+    void record_withBlockPolicy_shouldWaitBeforeDiscarding() {
+        auditTrail = newAuditTrail(1, 10, OverflowPolicy.BLOCK, Duration.ofMillis(100));
+        auditTrail.record(AuditEventType.LOGIN, "failure", "user@example.com", "bad_credentials");
+
+        long start = System.nanoTime();
+        auditTrail.record(AuditEventType.LOGIN, "failure", "user@example.com", "bad_credentials");
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMillis >= 100, "Esperó " + elapsedMillis + " ms");
+        assertEquals(1.0, meterRegistry.get("audit.dropped").counter().count());
+    }
+
+    @Test
+    void record_shouldTruncateValuesToTheColumnSizes() {
+        auditTrail = newAuditTrail(10, 10, OverflowPolicy.DROP, Duration.ofMillis(50));
+        auditTrail.record(AuditEventType.CONFIGURATION_CHANGE, "success", "t".repeat(64) + "/" + "k".repeat(100),
+                "d".repeat(1000));
+
+        auditTrail.start();
+        auditTrail.stop();
+
+        AuditEvent event = savedBatches().get(0).get(0);
+        assertEquals(AuditTrail.MAX_PRINCIPAL_LENGTH, event.getPrincipal().length());
+        assertEquals(AuditTrail.MAX_DETAIL_LENGTH, event.getDetail().length());
+    }
+
+    @Test
+    void write_whenTheBatchFails_shouldRetryEachEventAndLoseOnlyTheInvalidOne() {
+        auditTrail = newAuditTrail(10, 10, OverflowPolicy.DROP, Duration.ofMillis(50));
+        when(auditEventRepository.saveAll(anyIterable())).thenThrow(new IllegalStateException("lote inválido"));
+        when(auditEventRepository.save(any(AuditEvent.class))).thenAnswer(invocation -> {
+            AuditEvent event = invocation.getArgument(0);
+            if ("bad@example.com".equals(event.getPrincipal())) {
+                throw new IllegalStateException("fila inválida");
+            }
+            return event;
+        });
+        auditTrail.record(AuditEventType.LOGIN, "success", "a@example.com", null);
+        auditTrail.record(AuditEventType.LOGIN, "success", "bad@example.com", null);
+        auditTrail.record(AuditEventType.LOGIN, "success", "b@example.com", null);
+
+        auditTrail.start();
+        auditTrail.stop();
+
+        verify(auditEventRepository, times(3)).save(any(AuditEvent.class));
+        assertEquals(1.0, meterRegistry.get("audit.write.failures").counter().count());
+        assertEquals(2, meterRegistry.get("audit.lag").timer().count());
+    }
+
+    @Test
+    void getPhase_shouldStopAfterTheWebServer() {
+        auditTrail = newAuditTrail(100, 3, OverflowPolicy.BLOCK, Duration.ofMillis(50));
+
+        // El servidor web se detiene en DEFAULT_PHASE - 2048 y su apagado ordenado en DEFAULT_PHASE - 1024
+        assertTrue(auditTrail.getPhase() < SmartLifecycle.DEFAULT_PHASE - 2048);
+    }
+
+    private AuditTrail newAuditTrail(int queueCapacity, int batchSize, OverflowPolicy overflowPolicy,
+                                     Duration blockTimeout) {
+        return new AuditTrail(auditEventRepository, transactionManager, queueCapacity, batchSize,
+                Duration.ofMillis(20), overflowPolicy, blockTimeout, CLOCK, meterRegistry);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<AuditEvent>> savedBatches() {
+        ArgumentCaptor<Iterable<AuditEvent>> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(auditEventRepository, atLeastOnce()).saveAll(captor.capture());
+        List<List<AuditEvent>> batches = new ArrayList<>();
+        for (Iterable<AuditEvent> batch : captor.getAllValues()) {
+            List<AuditEvent> events = new ArrayList<>();
+            batch.forEach(events::add);
+            batches.add(events);
+        }
+        return batches;
+    }
+}
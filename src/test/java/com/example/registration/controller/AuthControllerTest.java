@@ -1,10 +1,18 @@
 package com.example.registration.controller;
 
 import com.example.registration.dto.LoginRequestDTO;
+import com.example.registration.dto.RefreshTokenRequestDTO;
+import com.example.registration.dto.TokenResponseDTO;
 import com.example.registration.dto.UserResponseDTO;
 import com.example.registration.exception.GlobalExceptionHandler;
+import com.example.registration.exception.InvalidRefreshTokenException;
+import com.example.registration.exception.RateLimitExceededException;
+import com.example.registration.metrics.AuthOutcomeMetrics;
+import com.example.registration.security.RateLimiter;
+import com.example.registration.service.RefreshTokenService;
 import com.example.registration.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -21,6 +29,10 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -35,10 +47,19 @@ class AuthControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private RateLimiter rateLimiter;
+
     @InjectMocks
     private AuthController authController;
 
-    private final GlobalExceptionHandler globalExceptionHandler = new GlobalExceptionHandler();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final GlobalExceptionHandler globalExceptionHandler = new GlobalExceptionHandler(
+            new AuthOutcomeMetrics(meterRegistry));
 
     private LoginRequestDTO validLoginRequest;
     private UserResponseDTO userResponseDTO;
@@ -99,6 +120,12 @@ class AuthControllerTest {
                 .content(objectMapper.writeValueAsString(validLoginRequest)))
                 .andExpect(status().isUnauthorized())
                 .andExpect(jsonPath("$.mensaje", is("Credenciales inválidas")));
+
+        assertEquals(1.0, meterRegistry.get(AuthOutcomeMetrics.AUTH_OUTCOME)
+                .tag("endpoint", "login")
+                .tag("outcome", "bad_credentials")
+                .counter()
+                .count());
     }
 
     @Test
@@ -115,6 +142,28 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.mensaje").exists());
     }
 
+    @Test
+    void login_whenEmailRateLimited_shouldReturnTooManyRequestsWithoutHashing() throws Exception {
+        // Arrange
+        doThrow(new RateLimitExceededException("Límite de solicitudes superado", 12))
+                .when(rateLimiter).checkEmail(validLoginRequest.getEmail());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validLoginRequest)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "12"))
+                .andExpect(jsonPath("$.mensaje").exists());
+
+        verify(userService, never()).loginUser(validLoginRequest.getEmail(), validLoginRequest.getPassword());
+        assertEquals(1.0, meterRegistry.get(AuthOutcomeMetrics.AUTH_OUTCOME)
+                .tag("endpoint", "login")
+                .tag("outcome", "rate_limited")
+                .counter()
+                .count());
+    }
+
     @Test
     void login_withMissingEmail_shouldReturnBadRequest() throws Exception {
         // Arrange
@@ -160,4 +209,45 @@ class AuthControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.mensaje").exists());
     }
-}
\ No newline at end of file
+
+    @Test
+    void refresh_withValidToken_shouldReturnNewTokens() throws Exception {
+        // Arrange
+        when(refreshTokenService.rotate("old-refresh-token"))
+                .thenReturn(new TokenResponseDTO("new-jwt-token", "new-refresh-token"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RefreshTokenRequestDTO("old-refresh-token"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token", is("new-jwt-token")))
+                .andExpect(jsonPath("$.refresh_token", is("new-refresh-token")));
+    }
+
+    @Test
+    void refresh_withReusedToken_shouldReturnUnauthorized() throws Exception {
+        // Arrange
+        when(refreshTokenService.rotate("reused-refresh-token"))
+                .thenThrow(new InvalidRefreshTokenException("Refresh token reutilizado"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RefreshTokenRequestDTO("reused-refresh-token"))))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.mensaje", is("Refresh token inválido o expirado")));
+    }
+
+    @Test
+    void logout_shouldRevokeTokensAndReturnNoContent() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/auth/logout")
+                .header("Authorization", "Bearer test-jwt-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RefreshTokenRequestDTO("refresh-token"))))
+                .andExpect(status().isNoContent());
+
+        verify(refreshTokenService).logout("test-jwt-token", "refresh-token");
+    }
+}
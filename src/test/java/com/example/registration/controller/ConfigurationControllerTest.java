@@ -5,12 +5,13 @@ import com.example.registration.dto.ConfigurationResponseDTO;
 import com.example.registration.dto.ConfigurationTypeResponseDTO;
 import com.example.registration.exception.GlobalExceptionHandler;
 import com.example.registration.mapper.ConfigurationMapper;
+import com.example.registration.metrics.AuthOutcomeMetrics;
 import com.example.registration.model.Configuration;
 import com.example.registration.model.ConfigurationType;
-import com.example.registration.repository.ConfigurationTypeRepository;
 import com.example.registration.service.ConfigurationService;
-import com.example.registration.service.PasswordValidationService;
+import com.example.registration.service.ConfigurationWatcher;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -24,6 +25,7 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.hamcrest.Matchers.*;
@@ -31,6 +33,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -49,15 +52,13 @@ class ConfigurationControllerTest {
     private ConfigurationMapper configurationMapper;
 
     @Mock
-    private PasswordValidationService passwordValidationService;
-
-    @Mock
-    private ConfigurationTypeRepository configurationTypeRepository;
+    private ConfigurationWatcher configurationWatcher;
 
     @InjectMocks
     private ConfigurationController configurationController;
 
-    private final GlobalExceptionHandler globalExceptionHandler = new GlobalExceptionHandler();
+    private final GlobalExceptionHandler globalExceptionHandler = new GlobalExceptionHandler(
+            new AuthOutcomeMetrics(new SimpleMeterRegistry()));
 
     private Configuration configuration1;
     private Configuration configuration2;
@@ -168,6 +169,40 @@ class ConfigurationControllerTest {
         verify(configurationMapper, times(2)).configurationToConfigurationResponseDTO(any(Configuration.class));
     }
 
+    @Test
+    void getChanges_shouldReturnRevisionAndChangedConfigurations() throws Exception {
+        // Arrange
+        configuration1.setRevision(4L);
+        configResponseDTO1.setRevision(4L);
+        when(configurationService.getChangesSince(3L))
+                .thenReturn(new ConfigurationService.Changes(4L, List.of(configuration1)));
+        when(configurationMapper.configurationToConfigurationResponseDTO(configuration1)).thenReturn(configResponseDTO1);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/configurations/changes").param("since", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.revision", is(4)))
+                .andExpect(jsonPath("$.changes", hasSize(1)))
+                .andExpect(jsonPath("$.changes[0].revision", is(4)))
+                .andExpect(jsonPath("$.changes[0].configurationType.typeKey", is("password.min.length")));
+
+        // Verify interactions
+        verify(configurationService).getChangesSince(3L);
+        verify(configurationService, never()).getConfigurationByType(anyString());
+    }
+
+    @Test
+    void getChanges_withNegativeRevision_shouldReturnBadRequest() throws Exception {
+        // Arrange
+        when(configurationService.getChangesSince(-1L))
+                .thenThrow(new IllegalArgumentException("La revisión no puede ser negativa"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/configurations/changes").param("since", "-1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.mensaje", is("La revisión no puede ser negativa")));
+    }
+
     @Test
     void getConfigurationByType_whenTypeExists_shouldReturnConfiguration() throws Exception {
         // Arrange
@@ -206,7 +241,7 @@ class ConfigurationControllerTest {
     @Test
     void updateConfiguration_withValidRequest_shouldUpdateConfiguration() throws Exception {
         // Arrange
-        when(configurationTypeRepository.findById(1L)).thenReturn(Optional.of(configurationType1));
+        when(configurationService.getConfigurationTypeById(1L)).thenReturn(Optional.of(configurationType1));
         when(configurationService.updateConfiguration(configurationType1.getTypeKey(), "10")).thenReturn(configuration1);
         when(configurationMapper.configurationToConfigurationResponseDTO(configuration1)).thenReturn(configResponseDTO1);
 
@@ -220,16 +255,16 @@ class ConfigurationControllerTest {
                 .andExpect(jsonPath("$.configurationType.typeKey", is("password.min.length")));
 
         // Verify interactions
-        verify(configurationTypeRepository).findById(1L);
+        verify(configurationService).getConfigurationTypeById(1L);
         verify(configurationService).updateConfiguration(configurationType1.getTypeKey(), "10");
-        verify(passwordValidationService).initializeValidator();
+        verify(configurationWatcher).poll();
         verify(configurationMapper).configurationToConfigurationResponseDTO(configuration1);
     }
 
     @Test
     void updateConfiguration_withNonExistentType_shouldReturnNotFound() throws Exception {
         // Arrange
-        when(configurationTypeRepository.findById(999L)).thenReturn(Optional.empty());
+        when(configurationService.getConfigurationTypeById(999L)).thenReturn(Optional.empty());
 
         ConfigurationRequestDTO invalidRequest = new ConfigurationRequestDTO();
         invalidRequest.setConfigurationTypeId(999L);
@@ -243,9 +278,9 @@ class ConfigurationControllerTest {
                 .andExpect(jsonPath("$.mensaje", containsString("999")));
 
         // Verify interactions
-        verify(configurationTypeRepository).findById(999L);
+        verify(configurationService).getConfigurationTypeById(999L);
         verify(configurationService, never()).updateConfiguration(anyString(), anyString());
-        verify(passwordValidationService, never()).initializeValidator();
+        verify(configurationWatcher, never()).poll();
     }
 
     @Test
@@ -262,9 +297,9 @@ class ConfigurationControllerTest {
                 .andExpect(jsonPath("$.mensaje").exists());
 
         // Verify no interactions with services
-        verify(configurationTypeRepository, never()).findById(any());
+        verify(configurationService, never()).getConfigurationTypeById(any());
         verify(configurationService, never()).updateConfiguration(anyString(), anyString());
-        verify(passwordValidationService, never()).initializeValidator();
+        verify(configurationWatcher, never()).poll();
     }
 
     @Test
@@ -286,7 +321,7 @@ class ConfigurationControllerTest {
 
         // Verify interactions
         verify(configurationService).updateConfiguration(typeKey, value);
-        verify(passwordValidationService).initializeValidator();
+        verify(configurationWatcher).poll();
         verify(configurationMapper).configurationToConfigurationResponseDTO(configuration1);
     }
 
@@ -310,7 +345,47 @@ class ConfigurationControllerTest {
 
         // Verify interactions
         verify(configurationService).updateConfiguration(typeKey, specialCharsValue);
-        verify(passwordValidationService).initializeValidator();
+        verify(configurationWatcher).poll();
         verify(configurationMapper).configurationToConfigurationResponseDTO(configuration1);
     }
+
+    @Test
+    void updateConfigurations_shouldApplyAllValuesAndReloadOnce() throws Exception {
+        // Arrange
+        Map<String, String> values = Map.of("password.min.length", "8", "password.max.length", "20");
+        when(configurationService.updateConfigurations(values)).thenReturn(List.of(configuration1, configuration2));
+        when(configurationMapper.configurationToConfigurationResponseDTO(configuration1)).thenReturn(configResponseDTO1);
+        when(configurationMapper.configurationToConfigurationResponseDTO(configuration2)).thenReturn(configResponseDTO2);
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/configurations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(values)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].configValue", is("8")))
+                .andExpect(jsonPath("$[1].configValue", is("20")));
+
+        // Verify interactions
+        verify(configurationService).updateConfigurations(values);
+        verify(configurationService, never()).updateConfiguration(anyString(), anyString());
+        verify(configurationWatcher, times(1)).poll();
+    }
+
+    @Test
+    void updateConfigurations_withInconsistentPolicy_shouldReturnBadRequest() throws Exception {
+        // Arrange
+        Map<String, String> values = Map.of("password.min.length", "20", "password.max.length", "10");
+        when(configurationService.updateConfigurations(values))
+                .thenThrow(new IllegalArgumentException("La longitud mínima no puede ser mayor que la longitud máxima"));
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/configurations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(values)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.mensaje", is("La longitud mínima no puede ser mayor que la longitud máxima")));
+
+        verify(configurationWatcher, never()).poll();
+    }
 }
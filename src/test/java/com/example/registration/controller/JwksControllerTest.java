@@ -0,0 +1,47 @@
+package com.example.registration.controller;
+
+import com.example.registration.security.jwt.JwtKeyRing;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class JwksControllerTest {
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        JwksController jwksController = new JwksController(JwtKeyRing.ephemeralEcdsa("k1"), new ObjectMapper(),
+                Duration.ofHours(1));
+        mockMvc = MockMvcBuilders.standaloneSetup(jwksController).build();
+    }
+
+    @Test
+    void jwks_shouldReturnPublicKeysWithCacheHeaders() throws Exception {
+        mockMvc.perform(get(JwksController.JWKS_URI))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=3600, public"))
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.keys[0].kid", is("k1")))
+                .andExpect(jsonPath("$.keys[0].kty", is("EC")))
+                .andExpect(jsonPath("$.keys[0].d").doesNotExist());
+    }
+
+    @Test
+    void jwks_withCurrentEtag_shouldReturnNotModified() throws Exception {
+        MvcResult first = mockMvc.perform(get(JwksController.JWKS_URI)).andReturn();
+        String etag = first.getResponse().getHeader("ETag");
+
+        mockMvc.perform(get(JwksController.JWKS_URI).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+}
@@ -2,13 +2,17 @@ package com.example.registration.controller;
 
 import com.example.registration.dto.PhoneRequestDTO;
 import com.example.registration.dto.UserRequestDTO;
+import com.example.registration.dto.UserResponseDTO;
 import com.example.registration.exception.GlobalExceptionHandler;
+import com.example.registration.metrics.AuthOutcomeMetrics;
+import com.example.registration.security.RateLimiter;
+import com.example.registration.service.IdempotencyCache;
 import com.example.registration.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -17,11 +21,15 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.Map;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,13 +42,19 @@ class UserControllerValidationTest {
     @Mock
     private UserService userService;
 
-    @InjectMocks
-    private UserController userController;
+    @Mock
+    private RateLimiter rateLimiter;
+
+    private final AuthOutcomeMetrics authOutcomeMetrics = new AuthOutcomeMetrics(new SimpleMeterRegistry());
 
-    private final GlobalExceptionHandler globalExceptionHandler = new GlobalExceptionHandler();
+    private final GlobalExceptionHandler globalExceptionHandler = new GlobalExceptionHandler(authOutcomeMetrics);
 
     @BeforeEach
     void setup() {
+        IdempotencyCache idempotencyCache = new IdempotencyCache(Duration.ofMinutes(10), 100, Duration.ofSeconds(5),
+                Clock.systemUTC(), new SimpleMeterRegistry());
+        UserController userController = new UserController(userService, idempotencyCache, authOutcomeMetrics,
+                rateLimiter);
         mockMvc = MockMvcBuilders.standaloneSetup(userController)
                 .setControllerAdvice(globalExceptionHandler)
                 .build();
@@ -140,6 +154,66 @@ class UserControllerValidationTest {
                 "Response should contain 'El correo ya registrado'");
     }
 
+    @Test
+    void testRetryWithSameIdempotencyKeyReturnsSameUserWithFreshTokens() throws Exception {
+        UserRequestDTO userRequestDTO = getUserRequestDTO();
+        UUID userId = UUID.randomUUID();
+        UserResponseDTO userResponseDTO = UserResponseDTO.builder()
+                .id(userId)
+                .token("jwt-token")
+                .isactive(true)
+                .build();
+        UserResponseDTO replayedResponseDTO = UserResponseDTO.builder()
+                .id(userId)
+                .token("fresh-jwt-token")
+                .isactive(true)
+                .build();
+        Mockito.when(userService.registerUser(Mockito.any(UserRequestDTO.class))).thenReturn(userResponseDTO);
+        Mockito.when(userService.replayRegistration(userId, userRequestDTO.getPassword())).thenReturn(replayedResponseDTO);
+        String body = objectMapper.writeValueAsString(userRequestDTO);
+
+        mockMvc.perform(post("/api/users/register")
+                        .header(UserController.IDEMPOTENCY_KEY_HEADER, "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(UserController.IDEMPOTENT_REPLAYED_HEADER));
+
+        MvcResult retry = mockMvc.perform(post("/api/users/register")
+                        .header(UserController.IDEMPOTENCY_KEY_HEADER, "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(UserController.IDEMPOTENT_REPLAYED_HEADER, "true"))
+                .andReturn();
+
+        assertTrue(retry.getResponse().getContentAsString().contains("fresh-jwt-token"));
+        Mockito.verify(userService, Mockito.times(1)).registerUser(Mockito.any(UserRequestDTO.class));
+        Mockito.verify(userService).replayRegistration(userId, userRequestDTO.getPassword());
+        Mockito.verify(rateLimiter, Mockito.times(2)).checkEmail(userRequestDTO.getEmail());
+    }
+
+    @Test
+    void testIdempotencyKeyReusedWithDifferentBodyReturnsUnprocessableEntity() throws Exception {
+        UserRequestDTO userRequestDTO = getUserRequestDTO();
+        Mockito.when(userService.registerUser(Mockito.any(UserRequestDTO.class)))
+                .thenReturn(UserResponseDTO.builder().id(UUID.randomUUID()).build());
+
+        mockMvc.perform(post("/api/users/register")
+                        .header(UserController.IDEMPOTENCY_KEY_HEADER, "retry-2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userRequestDTO)))
+                .andExpect(status().isCreated());
+
+        userRequestDTO.setName("Otro Nombre");
+        mockMvc.perform(post("/api/users/register")
+                        .header(UserController.IDEMPOTENCY_KEY_HEADER, "retry-2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userRequestDTO)))
+                .andExpect(status().isUnprocessableEntity());
+        Mockito.verify(rateLimiter, Mockito.times(2)).checkEmail(userRequestDTO.getEmail());
+    }
+
     private static UserRequestDTO getUserRequestDTO() {
         UserRequestDTO userRequestDTO = new UserRequestDTO();
         userRequestDTO.setName("Test User");
@@ -0,0 +1,104 @@
+package com.example.registration.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para la lista local de contraseñas filtradas.
+ */
+class PasswordBlocklistTest {
+
+    private static final List<String> BREACHED = List.of("123456", "password", "Password1#", "qwerty", "contraseña");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void breachedPasswordsAreBlocked() throws IOException {
+        PasswordBlocklist blocklist = load(20);
+
+        assertTrue(blocklist.isEnabled());
+        assertEquals(BREACHED.size() + 5000, blocklist.size());
+        for (String password : BREACHED) {
+            assertTrue(blocklist.isBlocked(password), password);
+        }
+        assertFalse(blocklist.isBlocked("UnaClaveQueNoEsta#2025"));
+        assertFalse(blocklist.isBlocked("Password1&"));
+    }
+
+    @Test
+    void truncatedRecordsMatchByPrefix() throws IOException {
+        PasswordBlocklist blocklist = load(6);
+
+        for (String password : BREACHED) {
+            assertTrue(blocklist.isBlocked(password), password);
+        }
+        assertFalse(blocklist.isBlocked("UnaClaveQueNoEsta#2025"));
+    }
+
+    @Test
+    void disabledWithoutPath() {
+        PasswordBlocklist blocklist = new PasswordBlocklist("", new SimpleMeterRegistry());
+
+        assertFalse(blocklist.isEnabled());
+        assertFalse(blocklist.isBlocked("123456"));
+    }
+
+    @Test
+    void builderRejectsUnsortedInput() throws IOException {
+        Path input = tempDir.resolve("unsorted.txt");
+        Files.write(input, List.of("F".repeat(40) + ":1", "0".repeat(40) + ":3"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> PasswordBlocklistBuilder.build(input, tempDir.resolve("out.bin"), 20));
+    }
+
+    @Test
+    void invalidFileIsRejected() throws IOException {
+        Path file = tempDir.resolve("invalid.bin");
+        Files.write(file, new byte[32]);
+
+        assertThrows(IllegalStateException.class,
+                () -> new PasswordBlocklist(file.toString(), new SimpleMeterRegistry()));
+    }
+
+    /**
+     * Genera un volcado ordenado con las contraseñas filtradas y hashes aleatorios, y lo carga.
+     */
+    private PasswordBlocklist load(int recordBytes) throws IOException {
+        HexFormat hex = HexFormat.of().withUpperCase();
+        List<String> hashes = new ArrayList<>();
+        for (String password : BREACHED) {
+            hashes.add(hex.formatHex(PasswordBlocklist.sha1(password)));
+        }
+        Random random = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            byte[] hash = new byte[PasswordBlocklist.SHA1_BYTES];
+            random.nextBytes(hash);
+            hashes.add(hex.formatHex(hash));
+        }
+        hashes.sort(null);
+
+        List<String> lines = new ArrayList<>();
+        for (String hash : hashes) {
+            lines.add(hash + ":1");
+        }
+        Path input = tempDir.resolve("hibp.txt");
+        Path output = tempDir.resolve("blocklist-" + recordBytes + ".bin");
+        Files.write(input, lines);
+        PasswordBlocklistBuilder.build(input, output, recordBytes);
+
+        return new PasswordBlocklist(output.toString(), new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.registration.security;
+
+import com.example.registration.exception.RateLimitExceededException;
+import com.example.registration.model.Configuration;
+import com.example.registration.service.ConfigurationService;
+import com.example.registration.support.ManualClock;
+import com.example.registration.utils.RateLimitConfigurationType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.lenient;
+
+/**
+ * Pruebas unitarias para el limitador de solicitudes por IP y por correo.
+ */
+@ExtendWith(MockitoExtension.class)
+class RateLimiterTest {
+
+    @Mock
+    private ConfigurationService configurationService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ManualClock clock = new ManualClock();
+
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        rateLimiter = new RateLimiter(configurationService, clock, true, 100, meterRegistry);
+    }
+
+    private void configure(RateLimitConfigurationType type, String value) {
+        lenient().when(configurationService.getConfigurationByType(type.getTypeKey()))
+                .thenReturn(Optional.of(Configuration.builder().configValue(value).build()));
+    }
+
+    @Test
+    void acquireIp_withDefaults_shouldAllowBurstAndThenReturnRetryAfter() {
+        int burst = RateLimitConfigurationType.IP_BURST.getDefaultValue();
+        for (int i = 0; i < burst; i++) {
+            assertEquals(0, rateLimiter.acquireIp("10.0.0.1"));
+        }
+
+        // 60 por minuto: la siguiente solicitud se libera en un segundo
+        assertEquals(1, rateLimiter.acquireIp("10.0.0.1"));
+        assertEquals(0, rateLimiter.acquireIp("10.0.0.2"));
+        assertEquals(1.0, meterRegistry.get("ratelimit.rejected").tag("key", "ip").counter().count());
+    }
+
+    @Test
+    void acquireIp_afterInterval_shouldRefill() {
+        for (int i = 0; i < RateLimitConfigurationType.IP_BURST.getDefaultValue(); i++) {
+            rateLimiter.acquireIp("10.0.0.1");
+        }
+        assertTrue(rateLimiter.acquireIp("10.0.0.1") > 0);
+
+        clock.advance(Duration.ofSeconds(1));
+
+        assertEquals(0, rateLimiter.acquireIp("10.0.0.1"));
+        assertTrue(rateLimiter.acquireIp("10.0.0.1") > 0);
+    }
+
+    @Test
+    void checkEmail_overLimit_shouldThrowIgnoringCase() {
+        configure(RateLimitConfigurationType.EMAIL_PER_MINUTE, "6");
+        configure(RateLimitConfigurationType.EMAIL_BURST, "2");
+        rateLimiter.reloadLimits();
+
+        rateLimiter.checkEmail("juan@rodriguez.cl");
+        rateLimiter.checkEmail("Juan@Rodriguez.cl");
+
+        RateLimitExceededException ex = assertThrows(RateLimitExceededException.class,
+                () -> rateLimiter.checkEmail("JUAN@RODRIGUEZ.CL"));
+        assertEquals(10, ex.getRetryAfterSeconds());
+    }
+
+    @Test
+    void reloadLimits_withInvalidValue_shouldUseDefault() {
+        configure(RateLimitConfigurationType.IP_BURST, "cero");
+        rateLimiter.reloadLimits();
+
+        for (int i = 0; i < RateLimitConfigurationType.IP_BURST.getDefaultValue(); i++) {
+            assertEquals(0, rateLimiter.acquireIp("10.0.0.1"));
+        }
+        assertTrue(rateLimiter.acquireIp("10.0.0.1") > 0);
+    }
+
+    @Test
+    void checkEmail_whenDisabled_shouldNeverThrow() {
+        RateLimiter disabled = new RateLimiter(configurationService, clock, false, 100, new SimpleMeterRegistry());
+
+        for (int i = 0; i < 100; i++) {
+            disabled.checkEmail("juan@rodriguez.cl");
+        }
+        assertFalse(disabled.isEnabled());
+    }
+
+    @Test
+    void acquireIp_overMaxKeys_shouldKeepOwnBucketPerKey() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RateLimiter small = new RateLimiter(configurationService, clock, true, 10, registry);
+
+        // Muchas claves nuevas no agotan el límite de las demás
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(0, small.acquireIp("10.0.1." + i));
+        }
+
+        assertEquals(0, small.acquireIp("10.0.2.1"));
+        assertTrue(registry.get("ratelimit.keys").tag("key", "ip").gauge().value() <= 10);
+        assertTrue(registry.get("ratelimit.evicted").tag("key", "ip").counter().count() > 0);
+    }
+
+    @Test
+    void acquireIp_overMaxKeys_shouldEvictIdleKeysFirst() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RateLimiter small = new RateLimiter(configurationService, clock, true, 2, registry);
+        int burst = RateLimitConfigurationType.IP_BURST.getDefaultValue();
+        small.acquireIp("10.0.0.1");
+        clock.advance(Duration.ofMinutes(1));
+        for (int i = 0; i < burst; i++) {
+            small.acquireIp("10.0.0.2");
+        }
+
+        // 10.0.0.1 ya se volvió a llenar: se elimina ella y 10.0.0.2 conserva su bucket agotado
+        assertEquals(0, small.acquireIp("10.0.0.3"));
+        assertTrue(small.acquireIp("10.0.0.2") > 0);
+        assertEquals(0.0, registry.get("ratelimit.evicted").tag("key", "ip").counter().count());
+    }
+
+    @Test
+    void purgeIdle_shouldRemoveRefilledBuckets() {
+        rateLimiter.acquireIp("10.0.0.1");
+        rateLimiter.checkEmail("juan@rodriguez.cl");
+        assertEquals(1.0, meterRegistry.get("ratelimit.keys").tag("key", "ip").gauge().value());
+
+        rateLimiter.purgeIdle();
+        assertEquals(1.0, meterRegistry.get("ratelimit.keys").tag("key", "ip").gauge().value());
+
+        clock.advance(Duration.ofMinutes(1));
+        rateLimiter.purgeIdle();
+
+        assertEquals(0.0, meterRegistry.get("ratelimit.keys").tag("key", "ip").gauge().value());
+        assertEquals(0.0, meterRegistry.get("ratelimit.keys").tag("key", "email").gauge().value());
+    }
+}
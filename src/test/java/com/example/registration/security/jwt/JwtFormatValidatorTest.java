@@ -0,0 +1,82 @@
+package com.example.registration.security.jwt;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.time.Clock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para el validador estructural de tokens JWT.
+ */
+class JwtFormatValidatorTest {
+
+    private static final String SECRET = "clave_secreta_muy_segura_para_firmar_tokens_jwt_en_pruebas";
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwtService jwtService;
+    private JwtFormatValidator validator;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jwtService = new JwtService(JwtKeyRing.hmac(SECRET), TokenFormat.STANDARD, 60_000, Clock.systemUTC(),
+                meterRegistry);
+        validator = new JwtFormatValidator(jwtService, 4096, meterRegistry);
+    }
+
+    /**
+     * Un token emitido por la aplicación supera la validación estructural.
+     */
+    @Test
+    void check_withIssuedToken_shouldAccept() {
+        String token = jwtService.generateToken("usuario@dominio.cl");
+
+        assertNull(validator.check(token));
+    }
+
+    /**
+     * Prueba los distintos motivos de rechazo estructural.
+     */
+    @ParameterizedTest
+    @CsvSource({
+            "'', EMPTY",
+            "abc.def.ghi, TOO_SHORT",
+            "eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiJ4In0.abc+def, INVALID_CHARACTER",
+            "eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiJ4In0.abc.def, SEGMENT_COUNT",
+            "eyJhbGciOiJIUzI1NiJ9eyJzdWIiOiJ4In0abcdef, SEGMENT_COUNT",
+            "eyJhbGciOiJIUzI1NiJ9..abcdefghijklmnop, EMPTY_SEGMENT",
+            "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9.eyJzdWIiOiJ4In0.abcdef, UNKNOWN_HEADER"
+    })
+    void check_withMalformedToken_shouldReject(String token, JwtFormatValidator.Rejection expected) {
+        assertEquals(expected, validator.check(token));
+    }
+
+    /**
+     * Un token que supera la longitud máxima se rechaza sin recorrerlo.
+     */
+    @Test
+    void check_withTooLongToken_shouldReject() {
+        String token = jwtService.generateToken("usuario@dominio.cl") + "A".repeat(4096);
+
+        assertEquals(JwtFormatValidator.Rejection.TOO_LONG, validator.check(token));
+    }
+
+    /**
+     * Cada rechazo incrementa el contador con su motivo.
+     */
+    @Test
+    void check_withMalformedToken_shouldIncrementCounter() {
+        validator.check("abc.def.ghi");
+        validator.check(null);
+
+        assertEquals(1.0, meterRegistry.get(JwtFormatValidator.JWT_REJECTED)
+                .tag("reason", "too_short").counter().count());
+        assertEquals(1.0, meterRegistry.get(JwtFormatValidator.JWT_REJECTED)
+                .tag("reason", "empty").counter().count());
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.registration.security.jwt;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.security.interfaces.ECPublicKey;
+import java.time.Clock;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para la firma asimétrica de tokens y la rotación de claves.
+ */
+class JwtKeyRingTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    /**
+     * Un token ES256 lleva el kid de la clave activa y se verifica con su clave pública.
+     */
+    @Test
+    void ecdsa_shouldSignWithKidAndVerify() {
+        JwtKeyRing keyRing = JwtKeyRing.ephemeralEcdsa("k1");
+        JwtService jwtService = new JwtService(keyRing, TokenFormat.STANDARD, 60_000, Clock.systemUTC(), meterRegistry);
+
+        String token = jwtService.generateToken("usuario@dominio.cl");
+
+        String header = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))));
+        assertTrue(header.contains("\"kid\":\"k1\""));
+        assertTrue(header.contains("\"alg\":\"ES256\""));
+        assertEquals("usuario@dominio.cl", jwtService.extractUsername(token));
+    }
+
+    /**
+     * Durante una rotación, los tokens firmados con la clave anterior siguen siendo válidos.
+     */
+    @Test
+    void ecdsa_afterRotation_shouldVerifyTokensOfPreviousKey() {
+        KeyPair oldKeys = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        KeyPair newKeys = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        JwtService oldService = new JwtService(
+                JwtKeyRing.ecdsa("k1", oldKeys.getPrivate(), Map.of("k1", (ECPublicKey) oldKeys.getPublic())),
+                TokenFormat.STANDARD, 60_000, Clock.systemUTC(), meterRegistry);
+        JwtService newService = new JwtService(
+                JwtKeyRing.ecdsa("k2", newKeys.getPrivate(), Map.of(
+                        "k1", (ECPublicKey) oldKeys.getPublic(),
+                        "k2", (ECPublicKey) newKeys.getPublic())),
+                TokenFormat.STANDARD, 60_000, Clock.systemUTC(), meterRegistry);
+
+        String oldToken = oldService.generateToken("usuario@dominio.cl");
+        String newToken = newService.generateToken("usuario@dominio.cl");
+
+        assertEquals("usuario@dominio.cl", newService.extractUsername(oldToken));
+        assertEquals("usuario@dominio.cl", newService.extractUsername(newToken));
+
+        JwtFormatValidator validator = new JwtFormatValidator(newService, 4096, meterRegistry);
+        assertNull(validator.check(oldToken));
+        assertNull(validator.check(newToken));
+    }
+
+    /**
+     * Un token con un kid que no está en el conjunto de claves se rechaza.
+     */
+    @Test
+    void ecdsa_withUnknownKid_shouldReject() {
+        KeyPair foreignKeys = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        String foreignToken = Jwts.builder()
+                .setHeaderParam("kid", "k9")
+                .setSubject("usuario@dominio.cl")
+                .signWith(foreignKeys.getPrivate(), SignatureAlgorithm.ES256)
+                .compact();
+        JwtService jwtService = new JwtService(JwtKeyRing.ephemeralEcdsa("k1"), TokenFormat.STANDARD, 60_000,
+                Clock.systemUTC(), meterRegistry);
+
+        assertThrows(SignatureException.class, () -> jwtService.extractUsername(foreignToken));
+    }
+
+    /**
+     * Una clave privada que no corresponde a la clave pública activa se rechaza al construir el conjunto.
+     */
+    @Test
+    void ecdsa_withMismatchedKeyPair_shouldFailAtStartup() {
+        KeyPair keys = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        KeyPair otherKeys = Keys.keyPairFor(SignatureAlgorithm.ES256);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                JwtKeyRing.ecdsa("k1", otherKeys.getPrivate(), Map.of("k1", (ECPublicKey) keys.getPublic())));
+        assertTrue(exception.getMessage().contains("k1"));
+    }
+
+    /**
+     * Las cabeceras conocidas coinciden con las de los tokens firmados con cada clave.
+     */
+    @Test
+    void knownEncodedHeaders_shouldMatchHeadersOfTokensSignedWithEachKey() {
+        KeyPair oldKeys = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        KeyPair newKeys = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        JwtService oldService = new JwtService(
+                JwtKeyRing.ecdsa("k1", oldKeys.getPrivate(), Map.of("k1", (ECPublicKey) oldKeys.getPublic())),
+                TokenFormat.COMPACT, 60_000, Clock.systemUTC(), meterRegistry);
+        JwtService newService = new JwtService(
+                JwtKeyRing.ecdsa("k2", newKeys.getPrivate(), Map.of(
+                        "k1", (ECPublicKey) oldKeys.getPublic(),
+                        "k2", (ECPublicKey) newKeys.getPublic())),
+                TokenFormat.COMPACT, 60_000, Clock.systemUTC(), meterRegistry);
+
+        String oldToken = oldService.generateToken("usuario@dominio.cl");
+
+        assertTrue(newService.knownEncodedHeaders().contains(oldToken.substring(0, oldToken.indexOf('.'))));
+    }
+
+    /**
+     * El JWKS publica solo las claves públicas EC, con coordenadas de longitud fija.
+     */
+    @Test
+    void publicJwks_shouldExposeOnlyPublicEcKeys() {
+        List<Map<String, Object>> jwks = JwtKeyRing.ephemeralEcdsa("k1").publicJwks();
+
+        assertEquals(1, jwks.size());
+        Map<String, Object> jwk = jwks.get(0);
+        assertEquals("EC", jwk.get("kty"));
+        assertEquals("P-256", jwk.get("crv"));
+        assertEquals("k1", jwk.get("kid"));
+        assertEquals("ES256", jwk.get("alg"));
+        assertEquals(32, Base64.getUrlDecoder().decode((String) jwk.get("x")).length);
+        assertEquals(32, Base64.getUrlDecoder().decode((String) jwk.get("y")).length);
+        assertFalse(jwk.containsKey("d"));
+    }
+
+    /**
+     * Con HS256 no se publica ninguna clave.
+     */
+    @Test
+    void hmac_shouldNotPublishKeys() {
+        JwtKeyRing keyRing = JwtKeyRing.hmac("clave_secreta_muy_segura_para_firmar_tokens_jwt_en_pruebas");
+
+        assertTrue(keyRing.publicJwks().isEmpty());
+        assertNull(keyRing.activeKid());
+    }
+}
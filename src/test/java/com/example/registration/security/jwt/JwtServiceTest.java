@@ -0,0 +1,111 @@
+package com.example.registration.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para el formato, el tamaño y la expiración de los tokens emitidos por {@link JwtService}.
+ */
+class JwtServiceTest {
+
+    private static final String SECRET = "clave_secreta_muy_segura_para_firmar_tokens_jwt_en_pruebas";
+    private static final UUID USER_ID = UUID.fromString("b3b6a7e2-8c2e-4e2a-9c2e-8c2e4e2a9c2e");
+    private static final String EMAIL = "usuario@dominio.cl";
+    private static final Clock ISSUE_CLOCK = Clock.fixed(Instant.parse("2025-01-15T10:00:00Z"), ZoneOffset.UTC);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private JwtService jwtService(TokenFormat tokenFormat) {
+        return jwtService(tokenFormat, ISSUE_CLOCK);
+    }
+
+    private JwtService jwtService(TokenFormat tokenFormat, Clock clock) {
+        return new JwtService(JwtKeyRing.hmac(SECRET), tokenFormat, 60_000, clock, meterRegistry);
+    }
+
+    /**
+     * El formato estándar usa el correo como subject e incluye la fecha de emisión.
+     */
+    @Test
+    void generateToken_withStandardFormat_shouldUseEmailSubject() {
+        JwtService jwtService = jwtService(TokenFormat.STANDARD);
+
+        Claims claims = jwtService.parseClaims(jwtService.generateToken(USER_ID, EMAIL));
+
+        assertEquals(EMAIL, claims.getSubject());
+        assertNotNull(claims.getIssuedAt());
+        assertEquals(36, claims.getId().length());
+    }
+
+    /**
+     * El formato compacto usa el UUID como subject, omite iat y acorta el jti.
+     */
+    @Test
+    void generateToken_withCompactFormat_shouldShrinkClaims() {
+        JwtService compact = jwtService(TokenFormat.COMPACT);
+
+        String token = compact.generateToken(USER_ID, EMAIL);
+        Claims claims = compact.parseClaims(token);
+
+        assertEquals(USER_ID.toString(), claims.getSubject());
+        assertNull(claims.getIssuedAt());
+        assertNotNull(claims.getExpiration());
+        assertEquals(16, claims.getId().length());
+        assertTrue(token.length() < jwtService(TokenFormat.STANDARD).generateToken(USER_ID, EMAIL).length());
+    }
+
+    /**
+     * Con DEFLATE la cabecera indica la compresión y el token se sigue verificando.
+     */
+    @Test
+    void generateToken_withDeflate_shouldRoundTrip() {
+        JwtService jwtService = jwtService(new TokenFormat(true, true, TokenFormat.DEFAULT_MAX_BYTES));
+
+        String token = jwtService.generateToken(USER_ID, EMAIL);
+
+        String header = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))));
+        assertTrue(header.contains("\"zip\":\"DEF\""));
+        assertEquals(USER_ID.toString(), jwtService.parseClaims(token).getSubject());
+    }
+
+    /**
+     * Un token que supera el tamaño máximo no se emite.
+     */
+    @Test
+    void generateToken_overBudget_shouldThrow() {
+        JwtService jwtService = jwtService(new TokenFormat(true, false, 256));
+        Map<String, Object> largeClaims = Map.of("roles", "x".repeat(300));
+
+        assertThrows(IllegalStateException.class, () -> jwtService.generateToken(largeClaims, USER_ID.toString()));
+        assertEquals(1, meterRegistry.get("jwt.token.size").summary().count());
+    }
+
+    /**
+     * La emisión y la verificación usan el reloj inyectado: el token vence exactamente al cumplirse
+     * su duración, sin depender de la hora real.
+     */
+    @Test
+    void parseClaims_shouldUseInjectedClockForExpiration() {
+        JwtService issuer = jwtService(TokenFormat.COMPACT);
+        String token = issuer.generateToken(USER_ID, EMAIL);
+
+        Claims claims = jwtService(TokenFormat.COMPACT, Clock.offset(ISSUE_CLOCK, Duration.ofSeconds(59)))
+                .parseClaims(token);
+        assertEquals(ISSUE_CLOCK.millis() + 60_000, claims.getExpiration().getTime());
+
+        JwtService later = jwtService(TokenFormat.COMPACT, Clock.offset(ISSUE_CLOCK, Duration.ofSeconds(61)));
+        assertThrows(ExpiredJwtException.class, () -> later.parseClaims(token));
+    }
+}
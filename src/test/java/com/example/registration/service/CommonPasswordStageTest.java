@@ -0,0 +1,68 @@
+package com.example.registration.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.core.io.ClassPathResource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para la etapa de contraseñas comunes.
+ */
+class CommonPasswordStageTest {
+
+    private static CommonPasswordStage stage;
+
+    @BeforeAll
+    static void loadDictionary() {
+        stage = new CommonPasswordStage(new ClassPathResource("passwords/common-passwords.txt"), 0.01,
+                Runnable::run, new SimpleMeterRegistry());
+        stage.startLoading();
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "Password1#, false",      // palabra común con dígito y símbolo al final
+            "P@ssw0rd!, false",       // sustituciones habituales
+            "Qwerty123, false",       // entrada del diccionario en mayúsculas
+            "Futbol2024$, false",
+            "Contraseña1#, false",
+            "Monkey#Zebra42, true",   // palabras comunes, pero no como variante simple
+            "Tq8#vLm2pX, true",
+            "Correct-Horse-7, true"
+    })
+    void rejectsCommonPasswordsAndVariants(String password, boolean expected) {
+        assertTrue(stage.isReady());
+        assertEquals(expected, stage.accepts(password));
+    }
+
+    @Test
+    void loadingIsDeferredToTheExecutor() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CommonPasswordStage deferred = new CommonPasswordStage(new ClassPathResource("passwords/common-passwords.txt"),
+                0.01, task -> { }, meterRegistry);
+
+        deferred.startLoading();
+
+        assertFalse(deferred.isReady());
+        assertTrue(deferred.accepts("Password1#"));
+        assertEquals(0.0, meterRegistry.get("password.common-list.entries").gauge().value());
+    }
+
+    @Test
+    void failedLoadIsCountedAndAcceptsEveryPassword() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CommonPasswordStage missing = new CommonPasswordStage(new ClassPathResource("passwords/no-existe.txt"),
+                0.01, Runnable::run, meterRegistry);
+
+        missing.startLoading();
+
+        assertFalse(missing.isReady());
+        assertTrue(missing.accepts("Password1#"));
+        assertEquals(1.0, meterRegistry.get("password.common-list.load.failures").counter().count());
+        assertEquals(0.0, meterRegistry.get("password.common-list.entries").gauge().value());
+    }
+}
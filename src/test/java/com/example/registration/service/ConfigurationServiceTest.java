@@ -1,24 +1,37 @@
 package com.example.registration.service;
 
+import com.example.registration.audit.AuditEventType;
+import com.example.registration.audit.AuditTrail;
 import com.example.registration.model.Configuration;
 import com.example.registration.model.ConfigurationType;
 import com.example.registration.repository.ConfigurationRepository;
 import com.example.registration.repository.ConfigurationTypeRepository;
+import com.example.registration.tenant.TenantContext;
 import com.example.registration.utils.PasswordConfigurationType;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
+import static com.example.registration.tenant.TenantContext.DEFAULT_TENANT;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -26,13 +39,22 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class ConfigurationServiceTest {
 
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2025-01-15T10:00:00Z"), ZoneOffset.UTC);
+
     @Mock
     private ConfigurationRepository configurationRepository;
 
     @Mock
     private ConfigurationTypeRepository configurationTypeRepository;
 
-    @InjectMocks
+    @Mock
+    private AuditTrail auditTrail;
+
+    @Mock
+    private ConfigurationChangeChannel configurationChangeChannel;
+
+    private ConfigurationTypeIndex configurationTypeIndex;
+
     private ConfigurationService configurationService;
 
     private ConfigurationType passwordMinLengthType;
@@ -81,6 +103,16 @@ class ConfigurationServiceTest {
                 .createdAt(now)
                 .updatedAt(now)
                 .build();
+
+        when(configurationTypeRepository.findAll()).thenReturn(List.of(passwordMinLengthType, otherConfigType));
+        configurationTypeIndex = new ConfigurationTypeIndex(configurationTypeRepository);
+        configurationService = new ConfigurationService(configurationRepository, configurationTypeRepository,
+                configurationTypeIndex, auditTrail, configurationChangeChannel, CLOCK);
+    }
+
+    @AfterEach
+    void clearTenant() {
+        TenantContext.clear();
     }
 
     @Test
@@ -101,8 +133,9 @@ class ConfigurationServiceTest {
     @Test
     void getPasswordConfigurations_shouldReturnOnlyPasswordConfigurations() {
         // Arrange
-        List<Configuration> allConfigurations = Arrays.asList(passwordMinLengthConfig, otherConfig);
-        when(configurationRepository.findByIsActiveTrue()).thenReturn(allConfigurations);
+        Configuration brandMinLength = passwordConfig(4L, PasswordConfigurationType.MIN_LENGTH, "brand-a", "12");
+        when(configurationRepository.findActiveByTypeKeys(anyCollection()))
+                .thenReturn(List.of(passwordMinLengthConfig, brandMinLength));
 
         // Act
         List<Configuration> passwordConfigurations = configurationService.getPasswordConfigurations();
@@ -110,15 +143,17 @@ class ConfigurationServiceTest {
         // Assert
         assertEquals(1, passwordConfigurations.size());
         assertEquals(passwordMinLengthConfig, passwordConfigurations.get(0));
-        verify(configurationRepository, times(1)).findByIsActiveTrue();
+        verify(configurationRepository, times(1)).findActiveByTypeKeys(argThat(typeKeys ->
+                typeKeys.contains(PasswordConfigurationType.MIN_LENGTH.getTypeKey())
+                        && !typeKeys.contains(otherConfig.getConfigurationType().getTypeKey())));
+        verify(configurationRepository, never()).findByIsActiveTrue();
     }
 
     @Test
     void getConfigurationByType_whenTypeExists_shouldReturnConfiguration() {
         // Arrange
         String typeKey = passwordMinLengthType.getTypeKey();
-        when(configurationTypeRepository.findByTypeKey(typeKey)).thenReturn(Optional.of(passwordMinLengthType));
-        when(configurationRepository.findByConfigurationTypeAndIsActiveTrue(passwordMinLengthType))
+        when(configurationRepository.findByConfigurationTypeAndTenantIdAndIsActiveTrue(passwordMinLengthType, DEFAULT_TENANT))
                 .thenReturn(Collections.singletonList(passwordMinLengthConfig));
 
         // Act
@@ -127,31 +162,28 @@ class ConfigurationServiceTest {
         // Assert
         assertTrue(result.isPresent());
         assertEquals(passwordMinLengthConfig, result.get());
-        verify(configurationTypeRepository, times(1)).findByTypeKey(typeKey);
-        verify(configurationRepository, times(1)).findByConfigurationTypeAndIsActiveTrue(passwordMinLengthType);
+        verify(configurationRepository, times(1)).findByConfigurationTypeAndTenantIdAndIsActiveTrue(passwordMinLengthType, DEFAULT_TENANT);
+        verify(configurationTypeRepository, never()).findByTypeKey(anyString());
     }
 
     @Test
     void getConfigurationByType_whenTypeDoesNotExist_shouldReturnEmpty() {
         // Arrange
         String typeKey = "non.existent.type";
-        when(configurationTypeRepository.findByTypeKey(typeKey)).thenReturn(Optional.empty());
 
         // Act
         Optional<Configuration> result = configurationService.getConfigurationByType(typeKey);
 
         // Assert
         assertFalse(result.isPresent());
-        verify(configurationTypeRepository, times(1)).findByTypeKey(typeKey);
-        verify(configurationRepository, never()).findByConfigurationTypeAndIsActiveTrue(any());
+        verify(configurationRepository, never()).findByConfigurationTypeAndTenantIdAndIsActiveTrue(any(), any());
     }
 
     @Test
     void getConfigurationByType_whenTypeExistsButNoConfiguration_shouldReturnEmpty() {
         // Arrange
         String typeKey = passwordMinLengthType.getTypeKey();
-        when(configurationTypeRepository.findByTypeKey(typeKey)).thenReturn(Optional.of(passwordMinLengthType));
-        when(configurationRepository.findByConfigurationTypeAndIsActiveTrue(passwordMinLengthType))
+        when(configurationRepository.findByConfigurationTypeAndTenantIdAndIsActiveTrue(passwordMinLengthType, DEFAULT_TENANT))
                 .thenReturn(Collections.emptyList());
 
         // Act
@@ -159,8 +191,7 @@ class ConfigurationServiceTest {
 
         // Assert
         assertFalse(result.isPresent());
-        verify(configurationTypeRepository, times(1)).findByTypeKey(typeKey);
-        verify(configurationRepository, times(1)).findByConfigurationTypeAndIsActiveTrue(passwordMinLengthType);
+        verify(configurationRepository, times(1)).findByConfigurationTypeAndTenantIdAndIsActiveTrue(passwordMinLengthType, DEFAULT_TENANT);
     }
 
     @Test
@@ -169,9 +200,9 @@ class ConfigurationServiceTest {
         String typeKey = passwordMinLengthType.getTypeKey();
         String newValue = "10";
 
-        when(configurationTypeRepository.findByTypeKey(typeKey)).thenReturn(Optional.of(passwordMinLengthType));
-        when(configurationRepository.findByConfigurationTypeAndIsActiveTrue(passwordMinLengthType))
+        when(configurationRepository.findByConfigurationTypeAndTenantIdAndIsActiveTrue(passwordMinLengthType, DEFAULT_TENANT))
                 .thenReturn(Collections.singletonList(passwordMinLengthConfig));
+        when(configurationChangeChannel.publish()).thenReturn(7L);
 
         // Use a captor to capture the saved configuration
         ArgumentCaptor<Configuration> configCaptor = ArgumentCaptor.forClass(Configuration.class);
@@ -194,9 +225,12 @@ class ConfigurationServiceTest {
 
         // Assert
         assertEquals(newValue, result.getConfigValue());
-        verify(configurationTypeRepository, times(1)).findByTypeKey(typeKey);
-        verify(configurationRepository, times(1)).findByConfigurationTypeAndIsActiveTrue(passwordMinLengthType);
+        assertEquals(LocalDateTime.now(CLOCK), result.getUpdatedAt());
+        assertEquals(7L, configCaptor.getValue().getRevision());
+        verify(configurationRepository, times(1)).findByConfigurationTypeAndTenantIdAndIsActiveTrue(passwordMinLengthType, DEFAULT_TENANT);
         verify(configurationRepository, times(1)).save(any(Configuration.class));
+        verify(auditTrail).recordOnCommit(AuditEventType.CONFIGURATION_CHANGE, "success", typeKey, newValue);
+        verify(configurationChangeChannel).publish();
     }
 
     @Test
@@ -205,8 +239,7 @@ class ConfigurationServiceTest {
         String typeKey = passwordMinLengthType.getTypeKey();
         String value = "10";
 
-        when(configurationTypeRepository.findByTypeKey(typeKey)).thenReturn(Optional.of(passwordMinLengthType));
-        when(configurationRepository.findByConfigurationTypeAndIsActiveTrue(passwordMinLengthType))
+        when(configurationRepository.findByConfigurationTypeAndTenantIdAndIsActiveTrue(passwordMinLengthType, DEFAULT_TENANT))
                 .thenReturn(Collections.emptyList());
 
         // Use a captor to capture the saved configuration
@@ -231,8 +264,7 @@ class ConfigurationServiceTest {
         // Assert
         assertEquals(value, result.getConfigValue());
         assertEquals(passwordMinLengthType, result.getConfigurationType());
-        verify(configurationTypeRepository, times(1)).findByTypeKey(typeKey);
-        verify(configurationRepository, times(1)).findByConfigurationTypeAndIsActiveTrue(passwordMinLengthType);
+        verify(configurationRepository, times(1)).findByConfigurationTypeAndTenantIdAndIsActiveTrue(passwordMinLengthType, DEFAULT_TENANT);
         verify(configurationRepository, times(1)).save(any(Configuration.class));
     }
 
@@ -242,40 +274,22 @@ class ConfigurationServiceTest {
         String typeKey = "new.config.type";
         String value = "new value";
 
-        when(configurationTypeRepository.findByTypeKey(typeKey)).thenReturn(Optional.empty());
-
         // Use captors to capture the saved objects
         ArgumentCaptor<ConfigurationType> typeCaptor = ArgumentCaptor.forClass(ConfigurationType.class);
         ArgumentCaptor<Configuration> configCaptor = ArgumentCaptor.forClass(Configuration.class);
 
-        // Create a new type to be returned when saving
-        ConfigurationType newType = ConfigurationType.builder()
-                .id(3L)
-                .typeKey(typeKey)
-                .description("Tipo de configuración para " + typeKey)
-                .isActive(true)
-                .createdAt(now)
-                .updatedAt(now)
-                .build();
-
         // Mock the save method for ConfigurationType
-        when(configurationTypeRepository.save(typeCaptor.capture())).thenReturn(newType);
+        when(configurationTypeRepository.save(typeCaptor.capture())).thenAnswer(invocation -> {
+            ConfigurationType type = invocation.getArgument(0);
+            type.setId(3L);
+            return type;
+        });
 
         // Mock the save method for Configuration
-        when(configurationRepository.save(configCaptor.capture())).thenAnswer(invocation -> {
-            Configuration savedConfig = configCaptor.getValue();
-            return Configuration.builder()
-                    .id(3L)
-                    .configurationType(newType)
-                    .configValue(savedConfig.getConfigValue())
-                    .isActive(savedConfig.isActive())
-                    .createdAt(savedConfig.getCreatedAt())
-                    .updatedAt(savedConfig.getUpdatedAt())
-                    .build();
-        });
+        when(configurationRepository.save(configCaptor.capture())).thenAnswer(invocation -> invocation.getArgument(0));
 
-        // Mock the findByConfigurationTypeAndIsActiveTrue method
-        when(configurationRepository.findByConfigurationTypeAndIsActiveTrue(any(ConfigurationType.class)))
+        // Mock the findByConfigurationTypeAndTenantIdAndIsActiveTrue method
+        when(configurationRepository.findByConfigurationTypeAndTenantIdAndIsActiveTrue(any(ConfigurationType.class), eq(DEFAULT_TENANT)))
                 .thenReturn(Collections.emptyList());
 
         // Act
@@ -284,9 +298,260 @@ class ConfigurationServiceTest {
         // Assert
         assertEquals(value, result.getConfigValue());
         assertEquals(typeKey, result.getConfigurationType().getTypeKey());
-        verify(configurationTypeRepository, times(1)).findByTypeKey(typeKey);
+        assertEquals("Tipo de configuración para " + typeKey, typeCaptor.getValue().getDescription());
+        assertEquals(LocalDateTime.now(CLOCK), typeCaptor.getValue().getCreatedAt());
+        assertSame(typeCaptor.getValue(), configurationTypeIndex.findByTypeKey(typeKey).orElseThrow());
+        assertSame(typeCaptor.getValue(), configurationService.getConfigurationTypeById(3L).orElseThrow());
         verify(configurationTypeRepository, times(1)).save(any(ConfigurationType.class));
-        verify(configurationRepository, times(1)).findByConfigurationTypeAndIsActiveTrue(any(ConfigurationType.class));
+        verify(configurationRepository, times(1)).findByConfigurationTypeAndTenantIdAndIsActiveTrue(any(ConfigurationType.class), eq(DEFAULT_TENANT));
         verify(configurationRepository, times(1)).save(any(Configuration.class));
+        verify(configurationChangeChannel).publish();
+    }
+
+    @Test
+    void updateConfiguration_whenTypeDoesNotExist_inTransaction_shouldIndexTheTypeOnlyAfterCommit() {
+        // Arrange
+        String typeKey = "new.config.type";
+        when(configurationTypeRepository.save(any(ConfigurationType.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(configurationRepository.save(any(Configuration.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            Configuration result = configurationService.updateConfiguration(typeKey, "new value");
+
+            // Assert
+            assertTrue(configurationTypeIndex.findByTypeKey(typeKey).isEmpty());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertSame(result.getConfigurationType(), configurationTypeIndex.findByTypeKey(typeKey).orElseThrow());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void getChangesSince_shouldReturnChangedConfigurationsAndLatestRevision() {
+        // Arrange
+        passwordMinLengthConfig.setRevision(5L);
+        otherConfig.setRevision(6L);
+        when(configurationChangeChannel.currentVersion()).thenReturn(5L);
+        when(configurationRepository.findByRevisionGreaterThanOrderByRevisionAsc(4L))
+                .thenReturn(Arrays.asList(passwordMinLengthConfig, otherConfig));
+
+        // Act
+        ConfigurationService.Changes changes = configurationService.getChangesSince(4L);
+
+        // Assert
+        assertEquals(6L, changes.revision());
+        assertEquals(Arrays.asList(passwordMinLengthConfig, otherConfig), changes.configurations());
+    }
+
+    @Test
+    void getChangesSince_whenNothingChanged_shouldReturnCurrentRevision() {
+        // Arrange
+        when(configurationChangeChannel.currentVersion()).thenReturn(9L);
+        when(configurationRepository.findByRevisionGreaterThanOrderByRevisionAsc(9L))
+                .thenReturn(Collections.emptyList());
+
+        // Act
+        ConfigurationService.Changes changes = configurationService.getChangesSince(9L);
+
+        // Assert
+        assertEquals(9L, changes.revision());
+        assertTrue(changes.configurations().isEmpty());
+    }
+
+    @Test
+    void getChangesSince_withNegativeRevision_shouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> configurationService.getChangesSince(-1L));
+        verifyNoInteractions(configurationRepository);
+    }
+
+    @Test
+    void updateConfigurations_shouldApplyAllValuesWithOneRevision() {
+        // Arrange
+        String minLength = PasswordConfigurationType.MIN_LENGTH.getTypeKey();
+        String maxLength = PasswordConfigurationType.MAX_LENGTH.getTypeKey();
+        ConfigurationType maxLengthType = ConfigurationType.builder()
+                .id(4L)
+                .typeKey(maxLength)
+                .isActive(true)
+                .build();
+        configurationTypeIndex.add(maxLengthType);
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put(minLength, "40");
+        values.put(maxLength, "50");
+
+        when(configurationRepository.findActiveByTypeKeys(anyCollection())).thenReturn(List.of(passwordMinLengthConfig));
+        when(configurationRepository.findByConfigurationTypeInAndTenantIdAndIsActiveTrue(anyCollection(), eq(DEFAULT_TENANT)))
+                .thenReturn(List.of(passwordMinLengthConfig));
+        when(configurationChangeChannel.publish()).thenReturn(8L);
+        when(configurationRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        List<Configuration> result = configurationService.updateConfigurations(values);
+
+        // Assert
+        assertEquals(2, result.size());
+        assertSame(passwordMinLengthConfig, result.get(0));
+        assertEquals("40", result.get(0).getConfigValue());
+        assertEquals(maxLength, result.get(1).getConfigurationType().getTypeKey());
+        assertEquals("50", result.get(1).getConfigValue());
+        assertTrue(result.stream().allMatch(config -> config.getRevision() == 8L));
+        verify(configurationChangeChannel, times(1)).publish();
+        verify(configurationRepository, times(1)).saveAll(anyList());
+        verify(configurationRepository, never()).save(any(Configuration.class));
+        verify(auditTrail).recordOnCommit(AuditEventType.CONFIGURATION_CHANGE, "success", maxLength, "50");
+    }
+
+    @Test
+    void updateConfigurations_withInconsistentPasswordPolicy_shouldRejectWithoutWriting() {
+        // Arrange
+        when(configurationRepository.findActiveByTypeKeys(anyCollection())).thenReturn(List.of(passwordMinLengthConfig));
+        Map<String, String> values = Map.of(
+                PasswordConfigurationType.MIN_LENGTH.getTypeKey(), "20",
+                PasswordConfigurationType.MAX_LENGTH.getTypeKey(), "10");
+
+        // Act & Assert
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> configurationService.updateConfigurations(values));
+        assertEquals("La longitud mínima no puede ser mayor que la longitud máxima", ex.getMessage());
+        verifyNoInteractions(auditTrail);
+        verify(configurationRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void updateConfigurations_shouldValidateAfterLockingTheVersion() {
+        // Arrange
+        when(configurationRepository.findActiveByTypeKeys(anyCollection())).thenReturn(List.of(passwordMinLengthConfig));
+        when(configurationRepository.findByConfigurationTypeInAndTenantIdAndIsActiveTrue(anyCollection(), eq(DEFAULT_TENANT)))
+                .thenReturn(List.of(passwordMinLengthConfig));
+        when(configurationChangeChannel.publish()).thenReturn(9L);
+        when(configurationRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        configurationService.updateConfigurations(Map.of(PasswordConfigurationType.MIN_LENGTH.getTypeKey(), "12"));
+
+        // Assert
+        InOrder inOrder = inOrder(configurationChangeChannel, configurationRepository);
+        inOrder.verify(configurationChangeChannel).publish();
+        inOrder.verify(configurationRepository).findActiveByTypeKeys(anyCollection());
+        inOrder.verify(configurationRepository).findByConfigurationTypeInAndTenantIdAndIsActiveTrue(anyCollection(), eq(DEFAULT_TENANT));
+    }
+
+    @Test
+    void updateConfiguration_withInconsistentPasswordPolicy_shouldRejectWithoutWriting() {
+        // Arrange
+        Configuration maxLength = passwordConfig(3L, PasswordConfigurationType.MAX_LENGTH, DEFAULT_TENANT, "30");
+        when(configurationRepository.findActiveByTypeKeys(anyCollection())).thenReturn(List.of(passwordMinLengthConfig, maxLength));
+
+        // Act & Assert
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> configurationService.updateConfiguration(PasswordConfigurationType.MIN_LENGTH.getTypeKey(), "40"));
+        assertEquals("La longitud mínima no puede ser mayor que la longitud máxima", ex.getMessage());
+        InOrder inOrder = inOrder(configurationChangeChannel, configurationRepository);
+        inOrder.verify(configurationChangeChannel).publish();
+        inOrder.verify(configurationRepository).findActiveByTypeKeys(anyCollection());
+        verify(configurationRepository, never()).save(any(Configuration.class));
+        verifyNoInteractions(auditTrail);
+    }
+
+    @Test
+    void updateConfigurations_withUnknownKey_shouldRejectWithoutWriting() {
+        // Arrange
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put(PasswordConfigurationType.MIN_LENGTH.getTypeKey(), "10");
+        values.put("unknown.key", "1");
+
+        // Act & Assert
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> configurationService.updateConfigurations(values));
+        assertEquals("Tipo de configuración no encontrado: unknown.key", ex.getMessage());
+        verifyNoInteractions(configurationRepository, configurationChangeChannel, auditTrail);
+    }
+
+    @Test
+    void updateConfigurations_withEmptyMap_shouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> configurationService.updateConfigurations(Map.of()));
+        verifyNoInteractions(configurationRepository, configurationChangeChannel);
+    }
+
+    @Test
+    void getPasswordPolicies_shouldMergeOverridesOverDefaultsWithOneQuery() {
+        // Arrange
+        Configuration maxLength = passwordConfig(3L, PasswordConfigurationType.MAX_LENGTH, DEFAULT_TENANT, "30");
+        Configuration brandMinLength = passwordConfig(4L, PasswordConfigurationType.MIN_LENGTH, "brand-a", "12");
+        when(configurationRepository.findActiveByTypeKeys(anyCollection()))
+                .thenReturn(List.of(passwordMinLengthConfig, maxLength, brandMinLength));
+
+        // Act
+        ConfigurationService.PasswordPolicies policies = configurationService.getPasswordPolicies();
+
+        // Assert
+        assertEquals(List.of(passwordMinLengthConfig, maxLength), policies.defaults());
+        assertEquals(Set.of("brand-a"), policies.tenants().keySet());
+        List<Configuration> brandPolicy = policies.tenants().get("brand-a");
+        assertEquals(2, brandPolicy.size());
+        assertTrue(brandPolicy.contains(brandMinLength));
+        assertTrue(brandPolicy.contains(maxLength));
+        verify(configurationRepository, times(1)).findActiveByTypeKeys(anyCollection());
+        verify(configurationRepository, never()).findByIsActiveTrue();
+    }
+
+    @Test
+    void updateConfiguration_inTenant_shouldCreateTenantOverride() {
+        // Arrange
+        TenantContext.set("brand-a");
+        when(configurationRepository.findByConfigurationTypeAndTenantIdAndIsActiveTrue(passwordMinLengthType, "brand-a"))
+                .thenReturn(Collections.emptyList());
+        when(configurationRepository.save(any(Configuration.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Configuration result = configurationService.updateConfiguration(passwordMinLengthType.getTypeKey(), "12");
+
+        // Assert
+        assertEquals("brand-a", result.getTenantId());
+        assertEquals("12", result.getConfigValue());
+        verify(auditTrail).recordOnCommit(AuditEventType.CONFIGURATION_CHANGE, "success",
+                "brand-a/" + passwordMinLengthType.getTypeKey(), "12");
+    }
+
+    @Test
+    void updateConfiguration_inTenant_withGlobalKey_shouldThrowWithoutWriting() {
+        TenantContext.set("brand-a");
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> configurationService.updateConfiguration("other.config.type", "x"));
+        assertEquals("Solo las configuraciones de contraseña admiten valores por tenant: other.config.type",
+                ex.getMessage());
+        verifyNoInteractions(configurationRepository, configurationChangeChannel, auditTrail);
+    }
+
+    @Test
+    void getConfigurationByType_inTenantWithoutOverride_shouldFallBackToDefault() {
+        // Arrange
+        TenantContext.set("brand-a");
+        when(configurationRepository.findByConfigurationTypeAndTenantIdAndIsActiveTrue(passwordMinLengthType, "brand-a"))
+                .thenReturn(Collections.emptyList());
+        when(configurationRepository.findByConfigurationTypeAndTenantIdAndIsActiveTrue(passwordMinLengthType, DEFAULT_TENANT))
+                .thenReturn(List.of(passwordMinLengthConfig));
+
+        // Act
+        Optional<Configuration> result = configurationService.getConfigurationByType(passwordMinLengthType.getTypeKey());
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals(passwordMinLengthConfig, result.get());
+    }
+
+    private Configuration passwordConfig(long id, PasswordConfigurationType type, String tenant, String value) {
+        return Configuration.builder()
+                .id(id)
+                .configurationType(ConfigurationType.builder().id(10L + id).typeKey(type.getTypeKey()).build())
+                .tenantId(tenant)
+                .configValue(value)
+                .isActive(true)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
     }
 }
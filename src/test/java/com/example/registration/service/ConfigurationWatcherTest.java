@@ -0,0 +1,87 @@
+package com.example.registration.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para la propagación de cambios de configuración.
+ */
+@ExtendWith(MockitoExtension.class)
+class ConfigurationWatcherTest {
+
+    @Mock
+    private ConfigurationChangeChannel configurationChangeChannel;
+
+    @Mock
+    private ConfigurationReloadListener passwordPolicy;
+
+    @Mock
+    private ConfigurationReloadListener rateLimits;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ConfigurationWatcher configurationWatcher;
+
+    @BeforeEach
+    void setUp() {
+        configurationWatcher = new ConfigurationWatcher(configurationChangeChannel,
+                List.of(passwordPolicy, rateLimits), meterRegistry);
+    }
+
+    @Test
+    void poll_whenVersionChanges_shouldReloadEveryListenerOnce() {
+        when(configurationChangeChannel.currentVersion()).thenReturn(3L, 3L, 4L);
+
+        configurationWatcher.poll();
+        configurationWatcher.poll();
+        configurationWatcher.poll();
+
+        verify(passwordPolicy, times(2)).onConfigurationChange();
+        verify(rateLimits, times(2)).onConfigurationChange();
+        assertEquals(4L, configurationWatcher.getAppliedVersion());
+        assertEquals(4.0, meterRegistry.get("configuration.version").gauge().value());
+    }
+
+    @Test
+    void poll_whenListenerFails_shouldRetryOnNextPoll() {
+        when(configurationChangeChannel.currentVersion()).thenReturn(5L);
+        doThrow(new IllegalStateException("No se pudo inicializar el validador de contraseñas"))
+                .doNothing()
+                .when(passwordPolicy).onConfigurationChange();
+
+        configurationWatcher.poll();
+        assertEquals(-1L, configurationWatcher.getAppliedVersion());
+
+        configurationWatcher.poll();
+
+        assertEquals(5L, configurationWatcher.getAppliedVersion());
+        verify(passwordPolicy, times(2)).onConfigurationChange();
+        verify(rateLimits, times(1)).onConfigurationChange();
+    }
+
+    @Test
+    void poll_whenFirstListenerKeepsFailing_shouldStillReloadTheOthers() {
+        when(configurationChangeChannel.currentVersion()).thenReturn(5L, 5L, 6L);
+        doThrow(new IllegalStateException("Política de contraseñas inválida"))
+                .when(passwordPolicy).onConfigurationChange();
+
+        configurationWatcher.poll();
+        configurationWatcher.poll();
+        configurationWatcher.poll();
+
+        // Las versiones 5 y 6 llegan a rateLimits aunque passwordPolicy siga fallando
+        verify(rateLimits, times(2)).onConfigurationChange();
+        verify(passwordPolicy, times(3)).onConfigurationChange();
+        assertEquals(-1L, configurationWatcher.getAppliedVersion());
+        assertEquals(3.0, meterRegistry.get("configuration.reload.failures").counter().count());
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.registration.service;
+
+import com.example.registration.dto.UserRequestDTO;
+import com.example.registration.dto.UserResponseDTO;
+import com.example.registration.exception.IdempotencyKeyConflictException;
+import com.example.registration.exception.IdempotencyRequestInProgressException;
+import com.example.registration.support.ManualClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para la caché de idempotencia del registro.
+ */
+class IdempotencyCacheTest {
+
+    private static final Duration TTL = Duration.ofMinutes(10);
+    private static final Duration WAIT_TIMEOUT = Duration.ofMillis(200);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ManualClock clock = new ManualClock();
+    private final AtomicInteger registrations = new AtomicInteger();
+    private final AtomicInteger replays = new AtomicInteger();
+
+    private IdempotencyCache cache;
+    private UserRequestDTO request;
+
+    @BeforeEach
+    void setUp() {
+        cache = new IdempotencyCache(TTL, 2, WAIT_TIMEOUT, clock, meterRegistry);
+        request = new UserRequestDTO();
+        request.setName("Juan Rodriguez");
+        request.setEmail("juan@rodriguez.cl");
+        request.setPassword("Hunter2#Segura");
+    }
+
+    private UserResponseDTO register() {
+        registrations.incrementAndGet();
+        return UserResponseDTO.builder().id(UUID.randomUUID()).token("token-original").refresh_token("refresh-original").build();
+    }
+
+    private UserResponseDTO replay(UUID userId) {
+        replays.incrementAndGet();
+        return UserResponseDTO.builder().id(userId).token("token-nuevo").refresh_token("refresh-nuevo").build();
+    }
+
+    private IdempotencyCache.Result execute(String key) {
+        return cache.execute(key, request, this::register, this::replay);
+    }
+
+    @Test
+    void execute_withSameKeyAndBody_shouldReplayTheSameUserWithFreshTokens() {
+        IdempotencyCache.Result first = execute("k1");
+        IdempotencyCache.Result retry = execute("k1");
+
+        assertFalse(first.replayed());
+        assertTrue(retry.replayed());
+        assertEquals(first.response().getId(), retry.response().getId());
+        assertEquals("token-nuevo", retry.response().getToken());
+        assertEquals("refresh-nuevo", retry.response().getRefresh_token());
+        assertEquals(1, registrations.get());
+        assertEquals(1, replays.get());
+        assertEquals(1.0, meterRegistry.get("idempotency.replayed").counter().count());
+    }
+
+    @Test
+    void execute_whileTheOriginalIsStuck_shouldGiveUpAfterTheWaitTimeout() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread original = new Thread(() -> cache.execute("k1", request, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return register();
+        }, this::replay));
+        original.start();
+        started.await();
+
+        try {
+            assertThrows(IdempotencyRequestInProgressException.class, () -> execute("k1"));
+        } finally {
+            release.countDown();
+            original.join();
+        }
+        assertTrue(execute("k1").replayed());
+        assertEquals(1, registrations.get());
+    }
+
+    @Test
+    void execute_withSameKeyAndDifferentBody_shouldThrowConflict() {
+        execute("k1");
+        request.setPassword("OtraClave#2025");
+
+        assertThrows(IdempotencyKeyConflictException.class, () -> execute("k1"));
+        assertEquals(1, registrations.get());
+    }
+
+    @Test
+    void execute_afterTtl_shouldRegisterAgain() {
+        execute("k1");
+        clock.advance(TTL);
+
+        IdempotencyCache.Result retry = execute("k1");
+
+        assertFalse(retry.replayed());
+        assertEquals(2, registrations.get());
+    }
+
+    @Test
+    void execute_whenRegistrationFails_shouldNotCacheTheError() {
+        assertThrows(IllegalArgumentException.class, () -> cache.execute("k1", request, () -> {
+            throw new IllegalArgumentException("El correo ya registrado");
+        }, this::replay));
+
+        IdempotencyCache.Result retry = execute("k1");
+
+        assertFalse(retry.replayed());
+        assertEquals(1, registrations.get());
+    }
+
+    @Test
+    void execute_overCapacity_shouldEvictOldestEntry() {
+        execute("k1");
+        execute("k2");
+        execute("k3");
+
+        assertTrue(execute("k3").replayed());
+        assertFalse(execute("k1").replayed());
+        assertEquals(2.0, meterRegistry.get("idempotency.cache.size").gauge().value());
+    }
+
+    @Test
+    void execute_withTooLongKey_shouldThrow() {
+        String key = "k".repeat(IdempotencyCache.MAX_KEY_LENGTH + 1);
+
+        assertThrows(IllegalArgumentException.class, () -> execute(key));
+    }
+}
@@ -2,6 +2,9 @@ package com.example.registration.service;
 
 import com.example.registration.model.Configuration;
 import com.example.registration.model.ConfigurationType;
+import com.example.registration.tenant.TenantContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -11,6 +14,7 @@ import org.mockito.Mockito;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -23,6 +27,7 @@ class PasswordValidationServiceTest {
     private ConfigurationService configurationService;
     private PasswordValidationService passwordValidationService;
     private List<Configuration> configurations;
+    private SimpleMeterRegistry meterRegistry;
 
     /**
      * Configura las pruebas con configuraciones predeterminadas.
@@ -44,10 +49,16 @@ class PasswordValidationServiceTest {
         configurationService = Mockito.mock(ConfigurationService.class);
 
         // Configurar el mock para devolver las configuraciones
-        when(configurationService.getPasswordConfigurations()).thenReturn(configurations);
+        when(configurationService.getPasswordPolicies()).thenReturn(policies(Map.of()));
 
         // Crear el servicio de validación de contraseñas con el mock
-        passwordValidationService = new PasswordValidationService(configurationService);
+        meterRegistry = new SimpleMeterRegistry();
+        passwordValidationService = new PasswordValidationService(configurationService, 8, 100, List.of(), meterRegistry);
+    }
+
+    @AfterEach
+    void clearTenant() {
+        TenantContext.clear();
     }
 
     /**
@@ -97,14 +108,16 @@ class PasswordValidationServiceTest {
         ConfigurationService emptyConfigService = Mockito.mock(ConfigurationService.class);
 
         // Configurar el mock para devolver una lista vacía
-        when(emptyConfigService.getPasswordConfigurations()).thenReturn(new ArrayList<>());
+        when(emptyConfigService.getPasswordPolicies())
+                .thenReturn(new ConfigurationService.PasswordPolicies(new ArrayList<>(), Map.of()));
 
         // Verificar que se lanza una excepción al crear una nueva instancia del servicio
-        assertThrows(IllegalStateException.class, () -> new PasswordValidationService(emptyConfigService));
+        assertThrows(IllegalStateException.class, () -> new PasswordValidationService(emptyConfigService, 8, 100, List.of(), new SimpleMeterRegistry()));
     }
 
     /**
-     * Prueba que el servicio llama a la función getPasswordConfigurations del ConfigurationService.
+     * Prueba que el servicio obtiene todas las políticas con una sola llamada a getPasswordPolicies del
+     * ConfigurationService.
      */
     @Test
     void testConfigurationServiceIsCalled() {
@@ -112,13 +125,193 @@ class PasswordValidationServiceTest {
         reset(configurationService);
 
         // Configurar el mock para devolver las configuraciones
-        when(configurationService.getPasswordConfigurations()).thenReturn(configurations);
+        when(configurationService.getPasswordPolicies()).thenReturn(policies(Map.of()));
+
+        // Llamar a la función que debería invocar a getPasswordPolicies
+        passwordValidationService.initializeValidator();
+
+        // Verificar que se llamó una sola vez a la función getPasswordPolicies
+        verify(configurationService, times(1)).getPasswordPolicies();
+        verifyNoMoreInteractions(configurationService);
+    }
+
+    /**
+     * Prueba que recargar una política sin cambios no recompila el validador.
+     */
+    @Test
+    void testReloadWithSamePolicyReusesValidator() {
+        passwordValidationService.initializeValidator();
+
+        assertEquals(1.0, cacheCount("miss"));
+        assertEquals(1.0, cacheCount("hit"));
+    }
+
+    /**
+     * Prueba que volver a una política ya compilada la toma de la caché.
+     */
+    @Test
+    void testRevertToPreviousPolicyUsesCache() {
+        String originalPattern = passwordValidationService.getPasswordRegexPattern();
+
+        // Cambiar a una política distinta
+        configurations.get(0).setConfigValue("10");
+        passwordValidationService.initializeValidator();
+        assertNotEquals(originalPattern, passwordValidationService.getPasswordRegexPattern());
 
-        // Llamar a la función que debería invocar a getPasswordConfigurations
+        // Volver a la política original
+        configurations.get(0).setConfigValue("8");
         passwordValidationService.initializeValidator();
 
-        // Verificar que se llamó a la función getPasswordConfigurations
-        verify(configurationService, times(1)).getPasswordConfigurations();
+        assertEquals(originalPattern, passwordValidationService.getPasswordRegexPattern());
+        assertEquals(2.0, cacheCount("miss"));
+        assertEquals(1.0, cacheCount("hit"));
+        assertTrue(passwordValidationService.isPasswordValid("Password1#"));
+    }
+
+    /**
+     * Prueba que una caché de tamaño uno recompila al volver a una política descartada.
+     */
+    @Test
+    void testEvictedPolicyIsRecompiled() {
+        PasswordValidationService singleEntry =
+                new PasswordValidationService(configurationService, 1, 100, List.of(), meterRegistry);
+        double missesBefore = cacheCount("miss");
+
+        configurations.get(0).setConfigValue("10");
+        singleEntry.initializeValidator();
+        configurations.get(0).setConfigValue("8");
+        singleEntry.initializeValidator();
+
+        assertEquals(missesBefore + 2.0, cacheCount("miss"));
+    }
+
+    /**
+     * Prueba que cada tenant valida con su propia política y los demás usan la política por defecto.
+     */
+    @Test
+    void testTenantPolicyOverridesDefault() {
+        when(configurationService.getPasswordPolicies())
+                .thenReturn(policies(Map.of("brand-a", policyWithMinLength("12"))));
+        passwordValidationService.initializeValidator();
+
+        TenantContext.set("brand-a");
+        assertFalse(passwordValidationService.isPasswordValid("Password1#"));
+        assertTrue(passwordValidationService.isPasswordValid("LongPassword1#"));
+
+        TenantContext.set("brand-b");
+        assertTrue(passwordValidationService.isPasswordValid("Password1#"));
+
+        TenantContext.clear();
+        assertTrue(passwordValidationService.isPasswordValid("Password1#"));
+        assertEquals(1.0, meterRegistry.get("password.policy.tenants").gauge().value());
+    }
+
+    /**
+     * Prueba que los tenants con la misma política comparten el validador compilado.
+     */
+    @Test
+    void testTenantsWithSamePolicyShareCompiledValidator() {
+        when(configurationService.getPasswordPolicies()).thenReturn(policies(Map.of(
+                "brand-a", policyWithMinLength("12"),
+                "brand-b", policyWithMinLength("12"))));
+        passwordValidationService.initializeValidator();
+
+        TenantContext.set("brand-a");
+        String patternA = passwordValidationService.getPasswordRegexPattern();
+        TenantContext.set("brand-b");
+        String patternB = passwordValidationService.getPasswordRegexPattern();
+
+        assertEquals(patternA, patternB);
+        assertEquals(2.0, cacheCount("miss"));
+    }
+
+    /**
+     * Prueba que un tenant con una política inválida usa la política por defecto sin compilar la suya.
+     */
+    @Test
+    void testInvalidTenantPolicyFallsBackToDefault() {
+        List<Configuration> invalid = policyWithMinLength("40");
+        when(configurationService.getPasswordPolicies()).thenReturn(policies(Map.of(
+                "brand-a", invalid,
+                "brand-b", policyWithMinLength("12"))));
+        passwordValidationService.initializeValidator();
+        double missesBefore = cacheCount("miss");
+
+        TenantContext.set("brand-a");
+        assertTrue(passwordValidationService.isPasswordValid("Password1#"));
+        assertTrue(passwordValidationService.isPasswordValid("Password1#"));
+        TenantContext.set("brand-b");
+        assertFalse(passwordValidationService.isPasswordValid("Password1#"));
+
+        // Solo se compila la política válida de brand-b
+        assertEquals(missesBefore + 1.0, cacheCount("miss"));
+        assertEquals(1.0, meterRegistry.get("password.policy.tenants").gauge().value());
+    }
+
+    /**
+     * Prueba que el mapa de tenants no supera su tamaño máximo.
+     */
+    @Test
+    void testTenantValidatorsAreEvicted() {
+        when(configurationService.getPasswordPolicies()).thenReturn(policies(Map.of(
+                "brand-a", policyWithMinLength("12"),
+                "brand-b", policyWithMinLength("14"))));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PasswordValidationService singleTenant = new PasswordValidationService(configurationService, 8, 1, List.of(), registry);
+
+        TenantContext.set("brand-a");
+        assertFalse(singleTenant.isPasswordValid("Password1#"));
+        TenantContext.set("brand-b");
+        assertFalse(singleTenant.isPasswordValid("Password123#"));
+        assertTrue(singleTenant.isPasswordValid("Password12345#"));
+
+        assertEquals(1.0, registry.get("password.policy.tenants").gauge().value());
+    }
+
+    /**
+     * Construye las políticas vigentes: la política por defecto de la prueba y las de los tenants indicados.
+     */
+    private ConfigurationService.PasswordPolicies policies(Map<String, List<Configuration>> tenants) {
+        return new ConfigurationService.PasswordPolicies(configurations, tenants);
+    }
+
+    /**
+     * Construye la política por defecto con otra longitud mínima.
+     */
+    private List<Configuration> policyWithMinLength(String minLength) {
+        List<Configuration> policy = new ArrayList<>();
+        for (Configuration config : configurations) {
+            Configuration copy = new Configuration();
+            copy.setConfigurationType(config.getConfigurationType());
+            copy.setConfigValue("password.min.length".equals(config.getConfigurationType().getTypeKey())
+                    ? minLength : config.getConfigValue());
+            copy.setTenantId("brand");
+            copy.setActive(true);
+            policy.add(copy);
+        }
+        return policy;
+    }
+
+    /**
+     * Prueba que una etapa adicional rechaza contraseñas que cumplen la política y no evalúa las que no la cumplen.
+     */
+    @Test
+    void testStageRejectsPasswordThatMatchesPolicy() {
+        PasswordValidationStage stage = mock(PasswordValidationStage.class);
+        when(stage.name()).thenReturn("test_stage");
+        when(stage.accepts("Password1#")).thenReturn(false);
+        PasswordValidationService withStage =
+                new PasswordValidationService(configurationService, 8, 100, List.of(stage), meterRegistry);
+
+        assertFalse(withStage.isPasswordValid("Password1#"));
+        assertFalse(withStage.isPasswordValid("short"));
+
+        verify(stage, never()).accepts("short");
+        assertEquals(1.0, meterRegistry.get("password.stage.rejected").tag("stage", "test_stage").counter().count());
+    }
+
+    private double cacheCount(String result) {
+        return meterRegistry.get("password.policy.cache").tag("result", result).counter().count();
     }
 
     /**
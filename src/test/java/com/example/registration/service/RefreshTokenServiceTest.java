@@ -0,0 +1,245 @@
+package com.example.registration.service;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.example.registration.audit.AuthAuditLog;
+import com.example.registration.dto.TokenResponseDTO;
+import com.example.registration.exception.InvalidRefreshTokenException;
+import com.example.registration.model.RefreshToken;
+import com.example.registration.model.RefreshToken.RevocationReason;
+import com.example.registration.model.User;
+import com.example.registration.repository.RefreshTokenRepository;
+import com.example.registration.security.jwt.JwtService;
+import com.example.registration.security.jwt.TokenRevocationList;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    private static final long REFRESH_EXPIRATION = 2_592_000_000L;
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private TokenRevocationList tokenRevocationList;
+
+    private RefreshTokenService refreshTokenService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, jwtService, tokenRevocationList,
+                Clock.systemDefaultZone(), REFRESH_EXPIRATION);
+
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUserEmail("test@example.com");
+    }
+
+    @Test
+    void issue_shouldStoreOnlyTheHashOfTheToken() {
+        // Act
+        String rawToken = refreshTokenService.issue(user);
+
+        // Assert
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        RefreshToken stored = captor.getValue();
+        assertNotNull(rawToken);
+        assertEquals(64, stored.getTokenHash().length());
+        assertNotEquals(rawToken, stored.getTokenHash());
+        assertNotNull(stored.getFamilyId());
+        assertNull(stored.getRevokedAt());
+        assertTrue(stored.getExpiresAt().isAfter(LocalDateTime.now()));
+    }
+
+    @Test
+    void rotate_withValidToken_shouldIssueNewTokensInSameFamily() {
+        // Arrange
+        RefreshToken current = storedToken(null, LocalDateTime.now().plusDays(1));
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(current));
+        when(refreshTokenRepository.markRotated(eq(current.getId()), any(LocalDateTime.class))).thenReturn(1);
+        when(jwtService.generateToken(user.getId(), user.getUserEmail())).thenReturn("new-jwt-token");
+
+        // Act
+        TokenResponseDTO result = refreshTokenService.rotate("old-refresh-token");
+
+        // Assert
+        assertEquals("new-jwt-token", result.getToken());
+        assertNotNull(result.getRefresh_token());
+        assertNotEquals("old-refresh-token", result.getRefresh_token());
+
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        assertEquals(current.getFamilyId(), captor.getValue().getFamilyId());
+        verify(refreshTokenRepository, never()).revokeFamily(any(), any(), any());
+    }
+
+    @Test
+    void rotate_withReusedToken_shouldRevokeFamily() {
+        // Arrange
+        RefreshToken current = storedToken(LocalDateTime.now().minusMinutes(1), LocalDateTime.now().plusDays(1));
+        current.setRevocationReason(RevocationReason.ROTATED);
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(current));
+
+        // Act & Assert
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate("reused-refresh-token"));
+
+        verify(refreshTokenRepository).revokeFamily(eq(current.getFamilyId()), any(LocalDateTime.class),
+                eq(RevocationReason.REUSE));
+        verify(refreshTokenRepository, never()).save(any());
+        verify(jwtService, never()).generateToken(any(UUID.class), anyString());
+    }
+
+    @Test
+    void rotate_withLoggedOutToken_shouldRejectWithoutReportingReuse() {
+        // Arrange
+        Logger auditLogger = (Logger) LoggerFactory.getLogger(AuthAuditLog.LOGGER_NAME);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        auditLogger.addAppender(appender);
+        RefreshToken current = storedToken(LocalDateTime.now().minusMinutes(1), LocalDateTime.now().plusDays(1));
+        current.setRevocationReason(RevocationReason.LOGOUT);
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(current));
+
+        // Act & Assert
+        try {
+            assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate("logged-out-token"));
+        } finally {
+            auditLogger.detachAppender(appender);
+        }
+
+        verify(refreshTokenRepository, never()).revokeFamily(any(), any(), any());
+        verify(refreshTokenRepository, never()).markRotated(any(), any());
+        assertTrue(appender.list.stream().noneMatch(logged -> "refresh_token_reused".equals(logged.getMessage())));
+    }
+
+    @Test
+    void rotate_whenConcurrentRotationWins_shouldRevokeFamily() {
+        // Arrange
+        RefreshToken current = storedToken(null, LocalDateTime.now().plusDays(1));
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(current));
+        when(refreshTokenRepository.markRotated(eq(current.getId()), any(LocalDateTime.class))).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate("raced-refresh-token"));
+
+        verify(refreshTokenRepository).revokeFamily(eq(current.getFamilyId()), any(LocalDateTime.class),
+                eq(RevocationReason.REUSE));
+    }
+
+    @Test
+    void rotate_withExpiredToken_shouldThrowException() {
+        // Arrange
+        RefreshToken current = storedToken(null, LocalDateTime.now().minusMinutes(1));
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(current));
+
+        // Act & Assert
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate("expired-refresh-token"));
+
+        verify(refreshTokenRepository, never()).markRotated(any(), any());
+    }
+
+    @Test
+    void rotate_withUnknownToken_shouldThrowException() {
+        // Arrange
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate("unknown-refresh-token"));
+    }
+
+    @Test
+    void logout_shouldRevokeAccessTokenAndRefreshFamily() {
+        // Arrange
+        Date expiration = new Date(System.currentTimeMillis() + 60_000);
+        Claims claims = Jwts.claims()
+                .setId("jti-1")
+                .setSubject(user.getUserEmail())
+                .setExpiration(expiration);
+        when(jwtService.parseClaims("access-token")).thenReturn(claims);
+        when(jwtService.subjectFor(user.getId(), user.getUserEmail())).thenReturn(user.getUserEmail());
+
+        RefreshToken current = storedToken(null, LocalDateTime.now().plusDays(1));
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(current));
+
+        // Act
+        refreshTokenService.logout("access-token", "refresh-token");
+
+        // Assert
+        verify(tokenRevocationList).revoke("jti-1", expiration);
+        verify(refreshTokenRepository).revokeFamily(eq(current.getFamilyId()), any(LocalDateTime.class),
+                eq(RevocationReason.LOGOUT));
+    }
+
+    @Test
+    void logout_withCompactSubject_shouldAuditTheOwnerEmail() {
+        // Arrange: en el formato compacto el sub es el UUID del usuario
+        Logger auditLogger = (Logger) LoggerFactory.getLogger(AuthAuditLog.LOGGER_NAME);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        auditLogger.addAppender(appender);
+
+        Claims claims = Jwts.claims()
+                .setId("jti-1")
+                .setSubject(user.getId().toString())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000));
+        when(jwtService.parseClaims("access-token")).thenReturn(claims);
+        when(jwtService.subjectFor(user.getId(), user.getUserEmail())).thenReturn(user.getId().toString());
+        when(refreshTokenRepository.findByTokenHash(anyString()))
+                .thenReturn(Optional.of(storedToken(null, LocalDateTime.now().plusDays(1))));
+
+        // Act
+        try {
+            refreshTokenService.logout("access-token", "refresh-token");
+        } finally {
+            auditLogger.detachAppender(appender);
+        }
+
+        // Assert
+        ILoggingEvent event = appender.list.stream()
+                .filter(logged -> "logout".equals(logged.getMessage()))
+                .findFirst()
+                .orElseThrow();
+        assertTrue(event.getKeyValuePairs().stream()
+                .anyMatch(pair -> "user".equals(pair.key) && user.getUserEmail().equals(pair.value)));
+    }
+
+    private RefreshToken storedToken(LocalDateTime revokedAt, LocalDateTime expiresAt) {
+        return RefreshToken.builder()
+                .id(UUID.randomUUID())
+                .tokenHash("hash")
+                .familyId(UUID.randomUUID())
+                .user(user)
+                .expiresAt(expiresAt)
+                .revokedAt(revokedAt)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
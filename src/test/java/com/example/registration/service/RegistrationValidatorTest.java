@@ -0,0 +1,123 @@
+package com.example.registration.service;
+
+import com.example.registration.audit.AuditEventType;
+import com.example.registration.audit.AuditTrail;
+import com.example.registration.dto.UserRequestDTO;
+import com.example.registration.metrics.LatencyTimers;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RegistrationValidatorTest {
+
+    @Mock
+    private AuditTrail auditTrail;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserRequestDTO request;
+    private List<String> executed;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executed = new ArrayList<>();
+        request = new UserRequestDTO();
+        request.setEmail("test@example.com");
+        request.setPassword("ValidPassword1#");
+    }
+
+    @Test
+    void constructor_shouldOrderChecksByCostKeepingDeclarationOrderOnTies() {
+        RegistrationValidator validator = new RegistrationValidator(List.of(
+                check("database", RegistrationCheck.Cost.DATABASE, null),
+                check("local_io", RegistrationCheck.Cost.LOCAL_IO, null),
+                check("in_memory_a", RegistrationCheck.Cost.IN_MEMORY, null),
+                check("syntactic", RegistrationCheck.Cost.SYNTACTIC, null),
+                check("in_memory_b", RegistrationCheck.Cost.IN_MEMORY, null)), auditTrail, meterRegistry);
+
+        assertEquals(List.of("syntactic", "in_memory_a", "in_memory_b", "local_io", "database"),
+                validator.getCheckNames());
+
+        validator.validate(request);
+
+        assertEquals(validator.getCheckNames(), executed);
+        verifyNoInteractions(auditTrail);
+    }
+
+    @Test
+    void validate_shouldStopAtFirstRejectionAndAuditIt() {
+        IllegalStateException error = new IllegalStateException("rechazada");
+        RegistrationValidator validator = new RegistrationValidator(List.of(
+                check("database", RegistrationCheck.Cost.DATABASE, null),
+                check("in_memory", RegistrationCheck.Cost.IN_MEMORY, new RegistrationCheck.Rejection("weak", error)),
+                check("local_io", RegistrationCheck.Cost.LOCAL_IO, null)), auditTrail, meterRegistry);
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> validator.validate(request));
+
+        assertSame(error, thrown);
+        assertEquals(List.of("in_memory"), executed);
+        verify(auditTrail).record(AuditEventType.REGISTRATION, "rejected", "test@example.com", "weak");
+    }
+
+    @Test
+    void validate_shouldTimeOnlyTheChecksThatRan() {
+        RegistrationValidator validator = new RegistrationValidator(List.of(
+                check("in_memory", RegistrationCheck.Cost.IN_MEMORY,
+                        new RegistrationCheck.Rejection("weak", new IllegalArgumentException("rechazada"))),
+                check("database", RegistrationCheck.Cost.DATABASE, null)), auditTrail, meterRegistry);
+
+        assertThrows(IllegalArgumentException.class, () -> validator.validate(request));
+        validator.validate(withPassword("otra"));
+
+        assertEquals(2, phaseCount("in_memory"));
+        assertEquals(1, phaseCount("database"));
+    }
+
+    private UserRequestDTO withPassword(String password) {
+        UserRequestDTO other = new UserRequestDTO();
+        other.setEmail("other@example.com");
+        other.setPassword(password);
+        return other;
+    }
+
+    private long phaseCount(String phase) {
+        return meterRegistry.get(LatencyTimers.AUTH_PHASE)
+                .tags("operation", "register", "phase", phase)
+                .timer()
+                .count();
+    }
+
+    /**
+     * Verificación de prueba que registra su ejecución y rechaza solo las solicitudes con el correo
+     * de {@link #request}.
+     */
+    private RegistrationCheck check(String name, RegistrationCheck.Cost cost, RegistrationCheck.Rejection rejection) {
+        return new RegistrationCheck() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public Cost cost() {
+                return cost;
+            }
+
+            @Override
+            public Rejection check(UserRequestDTO candidate) {
+                executed.add(name);
+                return "test@example.com".equals(candidate.getEmail()) ? rejection : null;
+            }
+        };
+    }
+}
@@ -1,21 +1,25 @@
 package com.example.registration.service;
 
+import com.example.registration.audit.AuditTrail;
 import com.example.registration.dto.PhoneRequestDTO;
 import com.example.registration.dto.UserRequestDTO;
+import com.example.registration.dto.UserResponseDTO;
 import com.example.registration.exception.InvalidPasswordException;
 import com.example.registration.mapper.PhoneMapper;
 import com.example.registration.mapper.UserMapper;
 import com.example.registration.model.Phone;
 import com.example.registration.model.User;
 import com.example.registration.repository.UserRepository;
+import com.example.registration.security.PasswordBlocklist;
 import com.example.registration.security.jwt.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Clock;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -47,7 +51,15 @@ class UserServicePasswordValidationTest {
     @Mock
     private PasswordValidationService passwordValidationService;
 
-    @InjectMocks
+    @Mock
+    private PasswordBlocklist passwordBlocklist;
+
+    @Mock
+    private AuditTrail auditTrail;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
     private UserService userService;
 
     private UserRequestDTO validUserRequest;
@@ -58,6 +70,9 @@ class UserServicePasswordValidationTest {
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
+        userService = new UserService(userRepository, passwordEncoder, jwtService, userMapper, phoneMapper,
+                registrationValidator(), auditTrail, refreshTokenService, Clock.systemDefaultZone(),
+                new SimpleMeterRegistry());
 
         // Configurar un usuario válido para las pruebas
         validUserRequest = new UserRequestDTO();
@@ -76,7 +91,7 @@ class UserServicePasswordValidationTest {
         // Configurar mocks
         when(userRepository.existsByUserEmail(anyString())).thenReturn(false);
         when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
-        when(jwtService.generateToken(anyString())).thenReturn("jwt-token");
+        when(jwtService.generateToken(any(UUID.class), anyString())).thenReturn("jwt-token");
 
         User mockUser = new User();
         mockUser.setId(UUID.randomUUID());
@@ -85,6 +100,7 @@ class UserServicePasswordValidationTest {
 
         when(userMapper.userRequestDTOToUser(any(UserRequestDTO.class))).thenReturn(mockUser);
         when(userRepository.save(any(User.class))).thenReturn(mockUser);
+        when(userMapper.userToUserResponseDTO(any(User.class))).thenReturn(new UserResponseDTO());
 
         // Mock PhoneMapper to return a Phone object
         when(phoneMapper.phoneRequestDTOToPhone(any(PhoneRequestDTO.class))).thenAnswer(invocation -> {
@@ -133,7 +149,27 @@ class UserServicePasswordValidationTest {
         // Verificar que se llamó la función isPasswordValid
         verify(passwordValidationService, times(1)).isPasswordValid(validUserRequest.getPassword());
 
-        // Verificar que NO se guardó el usuario
+        // Verificar que NO se consultó la base de datos ni se guardó el usuario
+        verify(userRepository, never()).existsByUserEmail(anyString());
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    /**
+     * Prueba el registro de un usuario con una contraseña que aparece en una filtración.
+     */
+    @Test
+    void testRegisterUserWithBreachedPassword() {
+        // Configurar la política para aceptar la contraseña y la lista para rechazarla
+        when(passwordValidationService.isPasswordValid(validUserRequest.getPassword())).thenReturn(true);
+        when(passwordBlocklist.isEnabled()).thenReturn(true);
+        when(passwordBlocklist.isBlocked(validUserRequest.getPassword())).thenReturn(true);
+
+        // Ejecutar la función a probar y verificar que lanza la excepción esperada
+        InvalidPasswordException exception = assertThrows(InvalidPasswordException.class, () -> userService.registerUser(validUserRequest));
+        assertEquals("La contraseña aparece en una filtración conocida", exception.getMessage());
+
+        // Verificar que NO se calculó el hash ni se guardó el usuario
+        verify(passwordEncoder, never()).encode(anyString());
         verify(userRepository, never()).save(any(User.class));
     }
 
@@ -142,7 +178,8 @@ class UserServicePasswordValidationTest {
      */
     @Test
     void testRegisterUserWithExistingEmail() {
-        // Configurar el repositorio para indicar que el correo ya existe
+        // Configurar una contraseña válida y el repositorio para indicar que el correo ya existe
+        when(passwordValidationService.isPasswordValid(validUserRequest.getPassword())).thenReturn(true);
         when(userRepository.existsByUserEmail(validUserRequest.getEmail())).thenReturn(true);
 
         // Ejecutar la función a probar y verificar que lanza la excepción esperada
@@ -151,10 +188,14 @@ class UserServicePasswordValidationTest {
         // Verificar el mensaje de la excepción
         assertEquals("El correo ya registrado", exception.getMessage());
 
-        // Verificar que NO se llamó la función isPasswordValid (porque falla antes)
-        verify(passwordValidationService, never()).isPasswordValid(anyString());
-
-        // Verificar que NO se guardó el usuario
+        // Verificar que NO se calculó el hash ni se guardó el usuario
+        verify(passwordEncoder, never()).encode(anyString());
         verify(userRepository, never()).save(any(User.class));
     }
+
+    private RegistrationValidator registrationValidator() {
+        return new RegistrationValidator(List.of(new EmailUniquenessCheck(userRepository),
+                new PasswordPolicyCheck(passwordValidationService), new BreachedPasswordCheck(passwordBlocklist)),
+                auditTrail, new SimpleMeterRegistry());
+    }
 }
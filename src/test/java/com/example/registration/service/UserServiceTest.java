@@ -1,27 +1,36 @@
 package com.example.registration.service;
 
+import com.example.registration.audit.AuditEventType;
+import com.example.registration.audit.AuditTrail;
 import com.example.registration.dto.PhoneRequestDTO;
 import com.example.registration.dto.UserRequestDTO;
 import com.example.registration.dto.UserResponseDTO;
 import com.example.registration.mapper.PhoneMapper;
 import com.example.registration.mapper.UserMapper;
+import com.example.registration.metrics.LatencyTimers;
 import com.example.registration.model.Phone;
 import com.example.registration.model.User;
 import com.example.registration.repository.UserRepository;
+import com.example.registration.security.PasswordBlocklist;
 import com.example.registration.security.jwt.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -35,6 +44,8 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class UserServiceTest {
 
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2025-01-15T10:00:00Z"), ZoneOffset.UTC);
+
     @Mock
     private UserRepository userRepository;
 
@@ -53,7 +64,17 @@ class UserServiceTest {
     @Mock
     private PasswordValidationService passwordValidationService;
 
-    @InjectMocks
+    @Mock
+    private PasswordBlocklist passwordBlocklist;
+
+    @Mock
+    private AuditTrail auditTrail;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    private SimpleMeterRegistry meterRegistry;
+
     private UserService userService;
 
     private UserRequestDTO userRequestDTO;
@@ -64,6 +85,13 @@ class UserServiceTest {
 
     @BeforeEach
     void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userService = new UserService(userRepository, passwordEncoder, jwtService, userMapper, phoneMapper,
+                new RegistrationValidator(List.of(new EmailUniquenessCheck(userRepository),
+                        new PasswordPolicyCheck(passwordValidationService), new BreachedPasswordCheck(passwordBlocklist)),
+                        auditTrail, meterRegistry),
+                auditTrail, refreshTokenService, CLOCK, meterRegistry);
+
         // Setup test data
         userId = UUID.randomUUID();
         jwtToken = "test-jwt-token";
@@ -112,10 +140,11 @@ class UserServiceTest {
         when(userRepository.existsByUserEmail(anyString())).thenReturn(false);
         when(passwordValidationService.isPasswordValid(anyString())).thenReturn(true);
         when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
-        when(jwtService.generateToken(anyString())).thenReturn(jwtToken);
+        when(jwtService.generateToken(any(UUID.class), anyString())).thenReturn(jwtToken);
         when(userMapper.userRequestDTOToUser(any(UserRequestDTO.class))).thenReturn(user);
         when(userRepository.save(any(User.class))).thenReturn(user);
         when(userMapper.userToUserResponseDTO(any(User.class))).thenReturn(userResponseDTO);
+        when(refreshTokenService.issue(user)).thenReturn("test-refresh-token");
 
         // Mock phone mapping
         Phone phone = new Phone();
@@ -131,6 +160,7 @@ class UserServiceTest {
         assertNotNull(result);
         assertEquals(userId, result.getId());
         assertEquals(jwtToken, result.getToken());
+        assertEquals("test-refresh-token", result.getRefresh_token());
         assertTrue(result.isIsactive());
         assertNotNull(result.getCreated());
         assertNotNull(result.getLast_login());
@@ -139,13 +169,101 @@ class UserServiceTest {
         verify(userRepository).existsByUserEmail(userRequestDTO.getEmail());
         verify(passwordValidationService).isPasswordValid(userRequestDTO.getPassword());
         verify(passwordEncoder).encode(userRequestDTO.getPassword());
-        verify(jwtService).generateToken(userRequestDTO.getEmail());
+        verify(jwtService).generateToken(any(UUID.class), eq(userRequestDTO.getEmail()));
         verify(userMapper).userRequestDTOToUser(userRequestDTO);
         verify(userRepository).save(any(User.class));
         verify(userMapper).userToUserResponseDTO(user);
         verify(phoneMapper).phoneRequestDTOToPhone(any(PhoneRequestDTO.class));
     }
 
+    @Test
+    void registerAndLogin_shouldRecordOperationAndPhaseTimers() {
+        // Arrange
+        when(userRepository.existsByUserEmail(anyString())).thenReturn(false);
+        when(passwordValidationService.isPasswordValid(anyString())).thenReturn(true);
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(true);
+        when(jwtService.generateToken(any(UUID.class), anyString())).thenReturn(jwtToken);
+        when(userMapper.userRequestDTOToUser(any(UserRequestDTO.class))).thenReturn(user);
+        when(userRepository.findByUserEmail(userRequestDTO.getEmail())).thenReturn(Optional.of(user));
+        when(userRepository.save(any(User.class))).thenReturn(user);
+        when(userMapper.userToUserResponseDTO(any(User.class))).thenReturn(userResponseDTO);
+        when(phoneMapper.phoneRequestDTOToPhone(any(PhoneRequestDTO.class))).thenReturn(new Phone());
+
+        // Act
+        userService.registerUser(userRequestDTO);
+        userService.loginUser(userRequestDTO.getEmail(), userRequestDTO.getPassword());
+
+        // Assert: cada operación y cada una de sus fases registró una medición
+        assertEquals(1, meterRegistry.get(LatencyTimers.AUTH_OPERATION).tag("operation", "register").timer().count());
+        assertEquals(1, meterRegistry.get(LatencyTimers.AUTH_OPERATION).tag("operation", "login").timer().count());
+        for (String phase : List.of("password_validation", "breach_check", "email_check", "password_hash",
+                "jwt_sign", "persistence")) {
+            assertEquals(1, phaseCount("register", phase), phase);
+        }
+        for (String phase : List.of("user_lookup", "password_verify", "jwt_sign", "persistence")) {
+            assertEquals(1, phaseCount("login", phase), phase);
+        }
+    }
+
+    @Test
+    void loginUser_inTransaction_shouldTimePersistenceAtCommit() {
+        // Arrange
+        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(true);
+        when(jwtService.generateToken(any(UUID.class), anyString())).thenReturn(jwtToken);
+        when(userRepository.findByUserEmail(userRequestDTO.getEmail())).thenReturn(Optional.of(user));
+        when(userRepository.save(any(User.class))).thenReturn(user);
+        when(userMapper.userToUserResponseDTO(any(User.class))).thenReturn(userResponseDTO);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            userService.loginUser(userRequestDTO.getEmail(), userRequestDTO.getPassword());
+
+            // Assert: save() no ejecuta SQL; la fase se mide al confirmar la transacción
+            assertEquals(0, phaseCount("login", "persistence"));
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+            assertEquals(1, phaseCount("login", "persistence"));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void replayRegistration_shouldIssueFreshTokensWithoutRegisteringAgain() {
+        // Arrange
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("ValidPassword1#", "encodedPassword")).thenReturn(true);
+        when(jwtService.generateToken(userId, user.getUserEmail())).thenReturn("fresh-jwt-token");
+        when(userRepository.save(user)).thenReturn(user);
+        when(userMapper.userToUserResponseDTO(user)).thenReturn(userResponseDTO);
+        when(refreshTokenService.issue(user)).thenReturn("fresh-refresh-token");
+
+        // Act
+        UserResponseDTO result = userService.replayRegistration(userId, "ValidPassword1#");
+
+        // Assert
+        assertEquals("fresh-jwt-token", user.getUserToken());
+        assertEquals("fresh-refresh-token", result.getRefresh_token());
+        verify(passwordEncoder, never()).encode(anyString());
+        verify(userRepository, never()).existsByUserEmail(anyString());
+        verify(auditTrail).recordOnCommit(AuditEventType.REGISTRATION, "replayed", user.getUserEmail(), null);
+    }
+
+    @Test
+    void replayRegistration_whenPasswordDoesNotMatch_shouldThrowWithoutIssuingTokens() {
+        // Arrange
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("OtraClave1#", "encodedPassword")).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(BadCredentialsException.class, () -> userService.replayRegistration(userId, "OtraClave1#"));
+        verify(jwtService, never()).generateToken(any(), anyString());
+        verify(refreshTokenService, never()).issue(any());
+        verify(auditTrail).record(AuditEventType.REGISTRATION, "failure", user.getUserEmail(), "bad_credentials");
+    }
+
     @Test
     void loadUserByUsername_whenUserExists_shouldReturnUserDetails() {
         // Arrange
@@ -189,9 +307,10 @@ class UserServiceTest {
 
         when(userRepository.findByUserEmail(email)).thenReturn(Optional.of(user));
         when(passwordEncoder.matches(password, user.getUserPassword())).thenReturn(true);
-        when(jwtService.generateToken(email)).thenReturn(jwtToken);
+        when(jwtService.generateToken(userId, email)).thenReturn(jwtToken);
         when(userRepository.save(any(User.class))).thenReturn(user);
         when(userMapper.userToUserResponseDTO(user)).thenReturn(userResponseDTO);
+        when(refreshTokenService.issue(user)).thenReturn("test-refresh-token");
 
         // Act
         UserResponseDTO result = userService.loginUser(email, password);
@@ -200,19 +319,20 @@ class UserServiceTest {
         assertNotNull(result);
         assertEquals(userId, result.getId());
         assertEquals(jwtToken, result.getToken());
+        assertEquals("test-refresh-token", result.getRefresh_token());
         assertTrue(result.isIsactive());
         assertNotNull(result.getLast_login());
 
         // Verify interactions
         verify(userRepository).findByUserEmail(email);
         verify(passwordEncoder).matches(password, user.getUserPassword());
-        verify(jwtService).generateToken(email);
+        verify(jwtService).generateToken(userId, email);
 
         // Verify user was updated with new login time and token
         ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
         verify(userRepository).save(userCaptor.capture());
         User savedUser = userCaptor.getValue();
-        assertNotNull(savedUser.getLastLogin());
+        assertEquals(LocalDateTime.now(CLOCK), savedUser.getLastLogin());
         assertEquals(jwtToken, savedUser.getUserToken());
 
         verify(userMapper).userToUserResponseDTO(user);
@@ -260,4 +380,11 @@ class UserServiceTest {
         verify(passwordEncoder, never()).matches(anyString(), anyString());
         verify(userRepository, never()).save(any(User.class));
     }
+
+    private long phaseCount(String operation, String phase) {
+        return meterRegistry.get(LatencyTimers.AUTH_PHASE)
+                .tags("operation", operation, "phase", phase)
+                .timer()
+                .count();
+    }
 }
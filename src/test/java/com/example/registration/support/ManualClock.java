@@ -0,0 +1,57 @@
+package com.example.registration.support;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reloj de pruebas que avanza solo cuando la prueba lo indica. Es seguro entre hilos, de modo que
+ * puede avanzarse mientras otro hilo lo lee.
+ */
+public final class ManualClock extends Clock {
+
+    /** Instante inicial por defecto. */
+    public static final Instant DEFAULT_START = Instant.parse("2025-01-15T10:00:00Z");
+
+    private final AtomicLong millis;
+
+    public ManualClock() {
+        this(DEFAULT_START);
+    }
+
+    public ManualClock(Instant start) {
+        this.millis = new AtomicLong(start.toEpochMilli());
+    }
+
+    /**
+     * Avanza el reloj.
+     *
+     * @param duration El tiempo a avanzar
+     */
+    public void advance(Duration duration) {
+        millis.addAndGet(duration.toMillis());
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public long millis() {
+        return millis.get();
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(millis.get());
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.registration.tenant;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para la resolución del tenant de cada solicitud.
+ */
+class TenantFilterTest {
+
+    private final TenantFilter filter = new TenantFilter("X-Tenant-ID", ".example.com");
+
+    @Test
+    void headerSetsTenantDuringRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-Tenant-ID", "Brand-A");
+
+        assertEquals("brand-a", tenantSeenBy(request));
+        assertTrue(TenantContext.isDefault());
+    }
+
+    @Test
+    void hostSuffixSetsTenantWithoutHeader() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setServerName("brand-b.example.com");
+
+        assertEquals("brand-b", tenantSeenBy(request));
+    }
+
+    @Test
+    void unknownHostUsesDefaultTenant() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setServerName("localhost");
+
+        assertEquals(TenantContext.DEFAULT_TENANT, tenantSeenBy(request));
+    }
+
+    @Test
+    void invalidHeaderIsRejected() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-Tenant-ID", "../admin");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> fail("La solicitud no debe continuar"));
+
+        assertEquals(400, response.getStatus());
+        assertTrue(response.getContentAsString().contains("tenant"));
+    }
+
+    private String tenantSeenBy(MockHttpServletRequest request) throws Exception {
+        AtomicReference<String> seen = new AtomicReference<>();
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> seen.set(TenantContext.current()));
+        return seen.get();
+    }
+}
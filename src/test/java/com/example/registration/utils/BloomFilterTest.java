@@ -0,0 +1,54 @@
+package com.example.registration.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para el filtro de Bloom fuera del heap.
+ */
+class BloomFilterTest {
+
+    @Test
+    void addedElementsAreAlwaysFound() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("palabra-" + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("palabra-" + i));
+        }
+    }
+
+    @Test
+    void falsePositiveRateIsNearTheTarget() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("palabra-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("otra-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "Falsos positivos: " + falsePositives);
+    }
+
+    @Test
+    void sizeFollowsTheFalsePositiveRate() {
+        BloomFilter filter = BloomFilter.create(1_000, 0.01);
+
+        // Unos 9,6 bits por elemento y 7 funciones hash para el 1 %
+        assertEquals(1_199, filter.sizeInBytes(), 2);
+        assertEquals(7, filter.hashCount());
+    }
+
+    @Test
+    void invalidParametersAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(100, 0));
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(-1, 0.01));
+    }
+}
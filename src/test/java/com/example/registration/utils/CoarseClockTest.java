@@ -0,0 +1,60 @@
+package com.example.registration.utils;
+
+import com.example.registration.support.ManualClock;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para el reloj de baja resolución.
+ */
+class CoarseClockTest {
+
+    private static final Instant START = Instant.parse("2025-01-15T10:00:00Z");
+
+    @Test
+    void millis_shouldStartWithSourceTime() {
+        try (CoarseClock clock = new CoarseClock(Clock.fixed(START, ZoneOffset.UTC), Duration.ofMillis(1))) {
+            assertEquals(START.toEpochMilli(), clock.millis());
+            assertEquals(START, clock.instant());
+            assertEquals(ZoneOffset.UTC, clock.getZone());
+        }
+    }
+
+    @Test
+    void millis_shouldFollowSourceAfterTick() throws InterruptedException {
+        ManualClock source = new ManualClock(START);
+        try (CoarseClock clock = new CoarseClock(source, Duration.ofMillis(1))) {
+            source.advance(Duration.ofSeconds(5));
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (clock.millis() != source.millis() && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(START.toEpochMilli() + 5_000, clock.millis());
+        }
+    }
+
+    @Test
+    void withZone_shouldShareCachedTime() {
+        try (CoarseClock clock = new CoarseClock(Clock.fixed(START, ZoneOffset.UTC), Duration.ofMillis(1))) {
+            Clock santiago = clock.withZone(ZoneId.of("America/Santiago"));
+
+            assertEquals(ZoneId.of("America/Santiago"), santiago.getZone());
+            assertEquals(clock.millis(), santiago.millis());
+            assertSame(clock, clock.withZone(ZoneOffset.UTC));
+        }
+    }
+
+    @Test
+    void constructor_withNonPositiveTick_shouldThrow() {
+        Clock source = Clock.systemUTC();
+        assertThrows(IllegalArgumentException.class, () -> new CoarseClock(source, Duration.ZERO));
+    }
+}
@@ -126,6 +126,35 @@ class PasswordValidationTest {
         assertFalse(digitsValidator.isValid("test1"));
     }
 
+    /**
+     * Prueba que la huella de la política no depende del orden ni de los identificadores.
+     */
+    @Test
+    void testFingerprintIgnoresOrderAndIds() {
+        List<Configuration> reordered = new ArrayList<>();
+        addConfigurationToList(reordered, "password.allowed.special", "-.#&");
+        addConfigurationToList(reordered, "password.min.special", "1");
+        addConfigurationToList(reordered, "password.min.digits", "1");
+        addConfigurationToList(reordered, "password.min.lowercase", "1");
+        addConfigurationToList(reordered, "password.min.uppercase", "1");
+        addConfigurationToList(reordered, "password.max.length", "30");
+        addConfigurationToList(reordered, "password.min.length", "8");
+
+        assertEquals(PasswordRegexGenerator.fingerprint(configurations),
+                PasswordRegexGenerator.fingerprint(reordered));
+    }
+
+    /**
+     * Prueba que la huella cambia cuando cambia un valor de la política.
+     */
+    @Test
+    void testFingerprintChangesWithValues() {
+        String original = PasswordRegexGenerator.fingerprint(configurations);
+        configurations.get(0).setConfigValue("10");
+
+        assertNotEquals(original, PasswordRegexGenerator.fingerprint(configurations));
+    }
+
     /**
      * Agregar configuraciones a la lista principal.
      */
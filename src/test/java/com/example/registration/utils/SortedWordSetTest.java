@@ -0,0 +1,67 @@
+package com.example.registration.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para el conjunto de palabras fuera del heap.
+ */
+class SortedWordSetTest {
+
+    @Test
+    void containsExactlyTheAddedWords() {
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            values.add("palabra-" + i);
+        }
+        SortedWordSet set = SortedWordSet.of(values);
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(set.contains("palabra-" + i));
+            assertFalse(set.contains("otra-" + i));
+        }
+        assertEquals(10_000, set.size());
+    }
+
+    @Test
+    void prefixesAndExtensionsAreNotMatches() {
+        SortedWordSet set = SortedWordSet.of(List.of("pass", "password"));
+
+        assertTrue(set.contains("pass"));
+        assertTrue(set.contains("password"));
+        assertFalse(set.contains("passw"));
+        assertFalse(set.contains("passwords"));
+        assertFalse(set.contains(""));
+    }
+
+    @Test
+    void nonAsciiWordsAreFound() {
+        SortedWordSet set = SortedWordSet.of(List.of("contraseña", "zorro", "árbol", "contrasena"));
+
+        assertTrue(set.contains("contraseña"));
+        assertTrue(set.contains("árbol"));
+        assertTrue(set.contains("zorro"));
+        assertFalse(set.contains("arbol"));
+    }
+
+    @Test
+    void duplicatesAreStoredOnce() {
+        SortedWordSet set = SortedWordSet.of(List.of("hola", "mundo", "hola"));
+
+        assertEquals(2, set.size());
+        // 9 bytes de palabras y 3 posiciones de 4 bytes
+        assertEquals(21, set.sizeInBytes());
+    }
+
+    @Test
+    void emptySetContainsNothing() {
+        SortedWordSet set = SortedWordSet.of(List.of());
+
+        assertEquals(0, set.size());
+        assertFalse(set.contains("hola"));
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.registration.validation;
+
+import com.example.registration.dto.PhoneRequestDTO;
+import com.example.registration.dto.UserRequestDTO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import jakarta.validation.constraints.Email;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de {@link ClDomainEmailValidator}, comparado con la anotación {@code @Email(regexp = ...)}
+ * que reemplaza.
+ */
+class ClDomainEmailValidatorTest {
+
+    private static final String LEGACY_REGEX = "^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.cl$";
+    private static final Pattern LEGACY_PATTERN = Pattern.compile(LEGACY_REGEX);
+
+    private static final String LOCAL_CHARS = "aZ9._%+-";
+    private static final String DOMAIN_CHARS = "aZ9.-";
+    private static final String NOISE_CHARS = "@. -_!#ñ\"\n";
+    private static final String[] SUFFIXES = {".cl", ".cl", ".cl", ".CL", ".com", ".cl.", ".cl\n", "cl", ""};
+
+    /** Bean con la anotación anterior, usado como referencia. */
+    private static class LegacyEmail {
+        @Email(regexp = LEGACY_REGEX)
+        String email;
+    }
+
+    private static ValidatorFactory validatorFactory;
+    private static Validator validator;
+
+    @BeforeAll
+    static void setUpValidator() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+    }
+
+    @AfterAll
+    static void closeValidator() {
+        validatorFactory.close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"juan@rodriguez.cl", "a@b.cl", "Juan.Perez+test@mail.empresa.cl", "a_b%c-d@sub-1.dom.cl",
+            "x@1.cl", "a@b--c.cl"})
+    void isClDomainEmail_shouldAcceptValidEmails(String email) {
+        assertTrue(ClDomainEmailValidator.isClDomainEmail(email));
+        assertTrue(legacyAccepts(email));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"juan@rodriguez.com", "juan@rodriguez.CL", "juan@cl", "juan@.cl", "@rodriguez.cl",
+            "juan@@rodriguez.cl", "juan@rod@riguez.cl", ".juan@rodriguez.cl", "juan.@rodriguez.cl", "ju..an@rodriguez.cl",
+            "juan@rodriguez..cl", "juan@-rodriguez.cl", "juan@rodriguez-.cl", "juan@rodriguez.cl.", "juan@rodriguez.cl\n",
+            "juan pérez@rodriguez.cl", "juan@rodríguez.cl", "juan"})
+    void isClDomainEmail_shouldRejectInvalidEmails(String email) {
+        assertFalse(ClDomainEmailValidator.isClDomainEmail(email));
+        assertFalse(legacyAccepts(email));
+    }
+
+    @Test
+    void isClDomainEmail_shouldApplyLengthLimitsOfTheLegacyAnnotation() {
+        String maxLocal = "a".repeat(ClDomainEmailValidator.MAX_LOCAL_PART_LENGTH);
+        String maxLabel = "b".repeat(ClDomainEmailValidator.MAX_LABEL_LENGTH);
+        String longDomain = (maxLabel + ".").repeat(4) + "cl";
+
+        List<String> emails = List.of(maxLocal + "@x.cl", maxLocal + "a@x.cl", "a@" + maxLabel + ".cl",
+                "a@" + maxLabel + "b.cl", "a@" + longDomain, "a@" + longDomain.substring(4));
+        List<Boolean> expected = List.of(true, false, true, false, false, true);
+
+        for (int i = 0; i < emails.size(); i++) {
+            String email = emails.get(i);
+            assertEquals(expected.get(i), ClDomainEmailValidator.isClDomainEmail(email), email);
+            assertEquals(expected.get(i), legacyAccepts(email), email);
+        }
+    }
+
+    @Test
+    void isClDomainEmail_shouldMatchTheLegacyAnnotationOnRandomInputs() {
+        Random random = new Random(20240917L);
+        int accepted = 0;
+        for (int i = 0; i < 20_000; i++) {
+            String email = randomEmail(random);
+            boolean result = ClDomainEmailValidator.isClDomainEmail(email);
+            assertEquals(legacyAccepts(email), result, () -> "Resultado distinto para: " + email);
+            if (result) {
+                assertTrue(LEGACY_PATTERN.matcher(email).matches(), email);
+                accepted++;
+            }
+        }
+        // El generador produce suficientes correos válidos para que la comparación sea útil
+        assertTrue(accepted > 1_000, "Correos válidos generados: " + accepted);
+    }
+
+    @Test
+    void isClDomainEmail_shouldRunInLinearTimeOnAdversarialInputs() {
+        String dots = "a@" + "a.".repeat(100_000) + "!";
+        String hyphens = "a@" + "-".repeat(200_000) + ".c";
+
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+            assertFalse(ClDomainEmailValidator.isClDomainEmail(dots));
+            assertFalse(ClDomainEmailValidator.isClDomainEmail(hyphens));
+        });
+    }
+
+    @Test
+    void isValid_shouldLeaveNullAndEmptyToNotBlank() {
+        ClDomainEmailValidator emailValidator = new ClDomainEmailValidator();
+
+        assertTrue(emailValidator.isValid(null, null));
+        assertTrue(emailValidator.isValid("", null));
+    }
+
+    @Test
+    void userRequest_shouldReportTheConstraintMessage() {
+        PhoneRequestDTO phone = new PhoneRequestDTO();
+        phone.setNumber("1234567890");
+        phone.setCitycode("1");
+        phone.setContrycode("57");
+        UserRequestDTO request = UserRequestDTO.builder()
+                .name("Juan Rodriguez")
+                .email("juan@rodriguez.com")
+                .password("hunter2")
+                .phones(List.of(phone))
+                .build();
+
+        Set<ConstraintViolation<UserRequestDTO>> violations = validator.validate(request);
+
+        assertEquals(1, violations.size());
+        ConstraintViolation<UserRequestDTO> violation = violations.iterator().next();
+        assertEquals("email", violation.getPropertyPath().toString());
+        assertEquals("El correo debe tener un formato válido y terminar en .cl (ejemplo: correo@dominio.cl)",
+                violation.getMessage());
+    }
+
+    private static boolean legacyAccepts(String email) {
+        return validator.validateValue(LegacyEmail.class, "email", email).isEmpty();
+    }
+
+    /**
+     * Correo aleatorio cercano al formato válido: parte local, {@code @}, etiquetas de dominio y un
+     * sufijo, con caracteres fuera del alfabeto insertados de vez en cuando.
+     */
+    private static String randomEmail(Random random) {
+        StringBuilder email = new StringBuilder();
+        appendRandom(email, random, LOCAL_CHARS, random.nextInt(10) == 0 ? 60 + random.nextInt(10) : random.nextInt(8));
+        if (random.nextInt(20) != 0) {
+            email.append('@');
+        }
+        int labels = 1 + random.nextInt(3);
+        for (int i = 0; i < labels; i++) {
+            if (i > 0) {
+                email.append('.');
+            }
+            appendRandom(email, random, DOMAIN_CHARS, random.nextInt(15) == 0 ? 60 + random.nextInt(8) : random.nextInt(6));
+        }
+        email.append(SUFFIXES[random.nextInt(SUFFIXES.length)]);
+        if (random.nextInt(10) == 0) {
+            email.insert(random.nextInt(email.length() + 1), NOISE_CHARS.charAt(random.nextInt(NOISE_CHARS.length())));
+        }
+        return email.toString();
+    }
+
+    private static void appendRandom(StringBuilder builder, Random random, String alphabet, int count) {
+        // Las letras son más frecuentes que los separadores, como en un correo real
+        for (int i = 0; i < count; i++) {
+            builder.append(random.nextInt(3) == 0
+                    ? alphabet.charAt(random.nextInt(alphabet.length()))
+                    : alphabet.charAt(random.nextInt(3)));
+        }
+    }
+}
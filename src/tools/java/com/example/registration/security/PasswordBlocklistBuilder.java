@@ -0,0 +1,116 @@
+package com.example.registration.security;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * Genera el archivo binario de {@link PasswordBlocklist} a partir de un volcado de texto de HIBP.
+ * <p>
+ * La entrada tiene una línea por hash SHA-1 en hexadecimal, opcionalmente seguido de
+ * {@code :conteo} (el formato de los volcados "ordered by hash" de HIBP), y debe estar ordenada
+ * por hash. Cada registro se trunca a los bytes indicados; los duplicados que produce el
+ * truncamiento se descartan. El archivo se escribe en un recorrido, sin cargar la entrada en memoria.
+ * <p>
+ * Es una herramienta de línea de comandos del conjunto de fuentes {@code tools}: no forma parte
+ * del jar de la aplicación.
+ * <p>
+ * Uso: {@code ./gradlew buildPasswordBlocklist -Pblocklist.input=pwned-passwords-sha1-ordered-by-hash.txt
+ * -Pblocklist.output=blocklist.bin [-Pblocklist.record-bytes=20]}
+ */
+public final class PasswordBlocklistBuilder {
+
+    private PasswordBlocklistBuilder() {
+        throw new UnsupportedOperationException("Esta clase no debe ser instanciada.");
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Uso: PasswordBlocklistBuilder <entrada.txt> <salida.bin> [bytes-por-registro]");
+            System.exit(2);
+        }
+
+        int recordBytes = args.length == 3 ? Integer.parseInt(args[2]) : PasswordBlocklist.SHA1_BYTES;
+        long count = build(Path.of(args[0]), Path.of(args[1]), recordBytes);
+        System.out.printf("Lista generada: %d registros de %d bytes en %s%n", count, recordBytes, args[1]);
+    }
+
+    /**
+     * Genera el archivo binario de la lista.
+     *
+     * @param input       Volcado de texto ordenado por hash
+     * @param output      Archivo binario a generar
+     * @param recordBytes Bytes de cada registro (entre 2 y 20)
+     * @return La cantidad de registros escritos
+     * @throws IOException              Si ocurre un error de lectura o escritura
+     * @throws IllegalArgumentException si el largo de registro es inválido, o la entrada tiene una
+     *                                  línea mal formada o no está ordenada
+     */
+    public static long build(Path input, Path output, int recordBytes) throws IOException {
+        if (recordBytes < PasswordBlocklist.MIN_RECORD_BYTES || recordBytes > PasswordBlocklist.SHA1_BYTES) {
+            throw new IllegalArgumentException("Los registros deben tener entre " + PasswordBlocklist.MIN_RECORD_BYTES
+                    + " y " + PasswordBlocklist.SHA1_BYTES + " bytes");
+        }
+
+        HexFormat hex = HexFormat.of();
+        byte[] previous = null;
+        long count = 0;
+        long lineNumber = 0;
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.US_ASCII);
+             OutputStream out = new BufferedOutputStream(Files.newOutputStream(output), 1 << 20)) {
+            // La cantidad de registros se completa al terminar
+            out.write(header(recordBytes, 0));
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                int separator = line.indexOf(':');
+                String hash = (separator >= 0 ? line.substring(0, separator) : line).trim();
+                if (hash.length() != PasswordBlocklist.SHA1_BYTES * 2) {
+                    throw new IllegalArgumentException("Línea " + lineNumber + ": se esperaba un hash SHA-1");
+                }
+
+                byte[] record = Arrays.copyOf(hex.parseHex(hash), recordBytes);
+                if (previous != null) {
+                    int cmp = Arrays.compareUnsigned(previous, record);
+                    if (cmp > 0) {
+                        throw new IllegalArgumentException("Línea " + lineNumber + ": la entrada no está ordenada por hash");
+                    }
+                    if (cmp == 0) {
+                        continue;
+                    }
+                }
+                out.write(record);
+                previous = record;
+                count++;
+            }
+        }
+
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(header(recordBytes, count)), 0);
+        }
+        return count;
+    }
+
+    private static byte[] header(int recordBytes, long count) {
+        return ByteBuffer.allocate(PasswordBlocklist.HEADER_BYTES)
+                .putInt(PasswordBlocklist.MAGIC)
+                .put(PasswordBlocklist.FORMAT_VERSION)
+                .put((byte) recordBytes)
+                .putShort((short) 0)
+                .putLong(count)
+                .array();
+    }
+}